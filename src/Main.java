@@ -1,6 +1,7 @@
 import game.Game;
 import game.GameConfig;
 import observers.ConsoleObserver;
+import observers.FlightRecorder;
 import java.util.Random;
 
 /**
@@ -35,6 +36,10 @@ public class Main {
         // Add console observer
         game.addObserver(new ConsoleObserver(game.getBoard()));
         
+        // Keep the last turns for a dump if something goes wrong
+        FlightRecorder recorder = new FlightRecorder(game);
+        game.addObserver(recorder);
+        
         // Create random number generator for undo decisions
         Random random = new Random();
         
@@ -42,7 +47,12 @@ public class Main {
         int turnCount = 0;
         while (!game.isGameOver()) {
             System.out.println("\n=== Turn " + (++turnCount) + " ===");
-            game.playTurn();
+            try {
+                game.playTurn();
+            } catch (RuntimeException e) {
+                recorder.dump(System.err);
+                throw e;
+            }
             
             // Randomly decide whether to undo the current move
             if (config.isUndoEnabled() && !game.isGameOver() && turnCount > 1 && random.nextInt(10) < 3) {
@@ -52,6 +62,12 @@ public class Main {
                     System.out.println("Move successfully undone!");
                     // Since we undid the move, decrement the turn counter
                     turnCount--;
+                    
+                    // The undone move is kept in the undo tree, so sometimes take it back again
+                    if (random.nextBoolean() && game.redo()) {
+                        System.out.println("\n=== Randomly triggering REDO ===");
+                        turnCount++;
+                    }
                 } else {
                     System.out.println("Failed to undo move.");
                 }
@@ -67,5 +83,8 @@ public class Main {
         }
         
         System.out.println("\nSimulation completed after " + turnCount + " turns!");
+        if (config.isUndoEnabled()) {
+            System.out.println("Undo tree explored " + (game.getUndoTree().size() - 1) + " distinct turns");
+        }
     }
 }
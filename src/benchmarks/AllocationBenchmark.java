@@ -0,0 +1,136 @@
+package benchmarks;
+
+import game.Game;
+import game.GameConfig;
+import util.DebugLog;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Allocation-counting harness for the turn loop.
+ *
+ * With debug output switched off, {@link Game#playTurn()} and {@link Game#undo()}
+ * must not allocate once the game has warmed up (history pool and undo tree at
+ * capacity). The harness measures two workloads on the current thread with
+ * {@code com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes()}:
+ *   - cycles of playTurn followed by undo on one game
+ *   - whole games restarted with {@link Game#reset()}, counting every playTurn
+ *     call and the reset after the game (only the first startGame sets up board
+ *     and players)
+ *
+ * Each workload is run in rounds. The first rounds are warm-up, so one-off JVM
+ * work such as JIT compilation is not counted; every round after them is
+ * counted, so an allocation that only happens now and then still fails the run.
+ * A game longer than every game before it grows the history pool and undo tree,
+ * and the reset after it grows the pool of spare mementos; such record games are
+ * warm-up too and are left out of the games workload together with their reset.
+ *
+ * Exits with status 1 if either workload allocates.
+ *
+ * Usage: java benchmarks.AllocationBenchmark [cycles] [games]
+ */
+public class AllocationBenchmark {
+    private static final GameConfig[] CONFIGS = {
+        new GameConfig("basic", 2, "single", new String[]{}),
+        new GameConfig("basic", 4, "double", new String[]{"hitHome"}),
+        new GameConfig("large", 4, "double", new String[]{"exactEnd", "hitHome"}),
+        new GameConfig("large", 2, "single", new String[]{"exactEnd"})
+    };
+
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 2;
+
+    public static void main(String[] args) {
+        int cycles = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            System.out.println("Thread allocation counting is not supported by this JVM");
+            System.exit(2);
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        PrintStream report = System.out;
+        DebugLog.setEnabled(false);
+
+        boolean passed = true;
+        for (GameConfig config : CONFIGS) {
+            Game game = new Game();
+            game.startGame(config);
+            for (int round = 0; round < WARMUP_ROUNDS; round++) {
+                runCycles(game, cycles);
+            }
+            long before = threads.getCurrentThreadAllocatedBytes();
+            for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                runCycles(game, cycles);
+            }
+            long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+            passed &= report(report, "playTurn+undo " + config.getKey(), allocated, MEASURED_ROUNDS * (long) cycles);
+        }
+
+        for (GameConfig config : CONFIGS) {
+            Game game = new Game();
+            int[] longestGame = new int[1];
+            for (int round = 0; round < WARMUP_ROUNDS; round++) {
+                runGames(threads, game, config, games, longestGame);
+            }
+            long allocated = 0;
+            long turns = 0;
+            for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                long[] measured = runGames(threads, game, config, games, longestGame);
+                allocated += measured[0];
+                turns += measured[1];
+            }
+            passed &= report(report, "games " + config.getKey(), allocated, turns);
+        }
+
+        report.println(passed ? "PASS" : "FAIL");
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static void runCycles(Game game, int cycles) {
+        for (int i = 0; i < cycles; i++) {
+            game.playTurn();
+            game.undo();
+        }
+    }
+
+    /**
+     * Play complete games, counting the bytes allocated by playTurn and the reset after each game
+     * @param longestGame Longest game played so far, updated by record games
+     * @return Allocated bytes and number of turns played, excluding record games
+     */
+    private static long[] runGames(com.sun.management.ThreadMXBean threads, Game game, GameConfig config,
+                                   int games, int[] longestGame) {
+        long allocated = 0;
+        long turns = 0;
+        game.startGame(config);
+        for (int i = 0; i < games; i++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            int gameTurns = 0;
+            while (!game.isGameOver()) {
+                game.playTurn();
+                gameTurns++;
+            }
+            // The reset recycles this game's history, so it belongs to this game
+            game.reset();
+            long gameBytes = threads.getCurrentThreadAllocatedBytes() - before;
+            if (gameTurns > longestGame[0]) {
+                longestGame[0] = gameTurns;
+            } else {
+                allocated += gameBytes;
+                turns += gameTurns;
+            }
+        }
+        return new long[]{ allocated, turns };
+    }
+
+    private static boolean report(PrintStream out, String name, long bytes, long operations) {
+        boolean passed = bytes == 0;
+        out.printf("%-45s %12d ops %12d bytes %10.4f bytes/op  %s%n",
+                name, operations, bytes, (double) bytes / operations, passed ? "ok" : "ALLOCATES");
+        return passed;
+    }
+}
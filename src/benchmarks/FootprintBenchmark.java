@@ -0,0 +1,163 @@
+package benchmarks;
+
+import dices.Dice;
+import factories.DiceFactory;
+import game.Game;
+import game.GameArena;
+import game.GameConfig;
+import game.GamePool;
+import solver.MoveTable;
+import util.DebugLog;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+
+/**
+ * Heap footprint per live game, {@link Game} objects against a {@link GameArena}.
+ *
+ * For each configuration the harness measures the heap retained by
+ *   - the configuration's shared data (its move table), built once; the
+ *     arena's one-off setup garbage is reported apart from it
+ *   - arena games, at start and after every game has played to the end
+ *   - {@link Game} objects with their own dice, right after startGame and
+ *     after playing to the end (the history grows with every turn)
+ * as the heap in use after a full collection, before and after, divided by the
+ * number of games. It also plays the first games both ways with the same seeds
+ * and checks that every winner and turn count agree.
+ *
+ * Exits with status 1 if an arena game takes 100 bytes or more, or if a game
+ * played in the arena differs from the same game played by {@link Game}.
+ *
+ * Usage: java benchmarks.FootprintBenchmark [arenaGames] [gameObjects]
+ */
+public class FootprintBenchmark {
+    private static final GameConfig[] CONFIGS = {
+        new GameConfig("basic", 2, "single", new String[]{}),
+        new GameConfig("large", 4, "double", new String[]{"exactEnd", "hitHome"})
+    };
+
+    private static final long BYTES_PER_GAME_LIMIT = 100;
+    private static final int CHECKED_GAMES = 10_000;
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        int arenaGames = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int gameObjects = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+
+        PrintStream report = System.out;
+        DebugLog.setEnabled(false);
+
+        boolean passed = true;
+        for (GameConfig config : CONFIGS) {
+            report.println(config.getKey());
+            passed &= measure(config, arenaGames, gameObjects, report);
+        }
+
+        report.println(passed ? "PASS" : "FAIL");
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * Measure one configuration. Everything it creates is unreachable once it returns,
+     * so the next configuration's baseline does not count it.
+     * @return true if the arena is small enough and plays the same games as Game
+     */
+    private static boolean measure(GameConfig config, int arenaGames, int gameObjects, PrintStream report) {
+        long before = usedHeap();
+        MoveTable table = MoveTable.shared(config);
+        report.printf("  %-28s %42d bytes%n", "shared move table", usedHeap() - before);
+
+        // Checking that the configuration can be won runs once per arena and should leave only garbage
+        before = usedHeap();
+        long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        new GameArena(config, 0);
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        report.printf("  %-28s %42d bytes, %d bytes allocated%n", "arena setup", usedHeap() - before, allocated);
+
+        before = usedHeap();
+        GameArena arena = new GameArena(config, arenaGames);
+        for (int i = 0; i < arenaGames; i++) {
+            arena.add(i);
+        }
+        long arenaBytes = usedHeap() - before;
+        report(report, "arena games at start", arenaBytes, arenaGames);
+        long start = System.nanoTime();
+        arena.playAll();
+        long elapsed = System.nanoTime() - start;
+        report(report, "arena games played out", usedHeap() - before, arenaGames);
+        report.printf("  %-28s %10.0f games/s%n", "arena play rate", arenaGames / (elapsed / 1e9));
+
+        before = usedHeap();
+        Game[] games = new Game[gameObjects];
+        DiceFactory diceFactory = new DiceFactory();
+        for (int i = 0; i < gameObjects; i++) {
+            games[i] = new Game();
+            games[i].startGame(config, diceFactory.createDice(config.getDiceType(), i));
+        }
+        report(report, "Game objects at start", usedHeap() - before, gameObjects);
+        for (Game game : games) {
+            while (!game.isGameOver()) {
+                game.playTurn();
+            }
+        }
+        report(report, "Game objects played out", usedHeap() - before, gameObjects);
+        Reference.reachabilityFence(games);
+
+        int checked = Math.min(CHECKED_GAMES, arenaGames);
+        int mismatches = compare(config, arena, checked);
+        report.printf("  %-28s %10d of %d games differ%n", "arena against Game", mismatches, checked);
+        Reference.reachabilityFence(table);
+
+        boolean ok = arenaBytes < BYTES_PER_GAME_LIMIT * (long) arenaGames && mismatches == 0;
+        report.println(ok ? "  ok" : "  TOO LARGE OR WRONG");
+        return ok;
+    }
+
+    // Plays the arena's first games again as Game objects with the same seeds
+    private static int compare(GameConfig config, GameArena arena, int count) {
+        Game game = new Game();
+        Dice dice = new DiceFactory().createDice(config.getDiceType(), 0);
+        game.setTurnLimit(GamePool.DEFAULT_TURN_LIMIT);
+        int mismatches = 0;
+        for (int i = 0; i < count; i++) {
+            dice.reseed(i);
+            game.startGame(config, dice);
+            while (!game.isGameOver()) {
+                game.playTurn();
+            }
+            int winner = game.getWinner() != null ? game.getWinner().getSeat() : -1;
+            if (winner != arena.getWinner(i) || game.getPlayerManager().getTotalTurns() != arena.getTurns(i)) {
+                mismatches++;
+            }
+        }
+        return mismatches;
+    }
+
+    private static long usedHeap() {
+        long used = Long.MAX_VALUE;
+        int stableRounds = 0;
+        // Objects freed by reference processing only go in a later collection, so pause between
+        // collections and stop after two in a row free nothing more
+        for (int i = 0; i < 20 && stableRounds < 2; i++) {
+            System.gc();
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long now = MEMORY.getHeapMemoryUsage().getUsed();
+            stableRounds = now >= used ? stableRounds + 1 : 0;
+            used = Math.min(used, now);
+        }
+        return used;
+    }
+
+    private static void report(PrintStream out, String name, long bytes, long games) {
+        out.printf("  %-28s %10d games %14d bytes %12.1f bytes/game%n", name, games, bytes, (double) bytes / games);
+    }
+}
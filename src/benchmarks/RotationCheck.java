@@ -0,0 +1,173 @@
+package benchmarks;
+
+import board.IBoard;
+import dices.Dice;
+import factories.BoardFactory;
+import factories.DiceFactory;
+import game.Game;
+import game.GameConfig;
+import players.Player;
+import players.PlayerManager;
+import rules.RulePipeline;
+import util.DebugLog;
+import java.io.PrintStream;
+
+/**
+ * Check that the movement rules treat every seat alike.
+ *
+ * The board is a ring, so a seat's moves must be Red's moves turned round the
+ * ring from Red's home to the seat's home: from the square k steps past its
+ * home, every roll must take a seat to the square Red reaches from k steps
+ * past Red's home (tail squares are numbered alike for all seats), and win
+ * exactly when Red would. The harness checks this for every seat, start
+ * square, roll and rule set on both boards.
+ *
+ * It then turns the whole default layout round the ring by every number of
+ * squares (a custom layout, see {@link GameConfig#setHomePositions}) and plays
+ * the same seeded games on both: every turn must leave each player on its
+ * turned square, and the games must end with the same winner after the same
+ * number of turns.
+ *
+ * Exits with status 1 if any move or game differs.
+ *
+ * Usage: java benchmarks.RotationCheck
+ */
+public class RotationCheck {
+    private static final String[] BOARDS = {"basic", "large"};
+    private static final int[] PLAYER_COUNTS = {2, 4};
+    private static final String[][] RULE_SETS = {{}, {"exactEnd"}, {"exactEnd", "hitHome"}};
+    private static final int MAX_ROLL = 12;
+    private static final int GAMES_PER_LAYOUT = 50;
+
+    public static void main(String[] args) {
+        PrintStream report = System.out;
+        DebugLog.setEnabled(false);
+
+        boolean passed = true;
+        for (String boardSize : BOARDS) {
+            for (int players : PLAYER_COUNTS) {
+                for (String[] ruleTypes : RULE_SETS) {
+                    IBoard board = new BoardFactory().createBoard(boardSize, players);
+                    String name = boardSize + "/" + players + "/" + (ruleTypes.length == 0 ? "none" : String.join("+", ruleTypes));
+                    int differences = check(board, players, RulePipeline.forRules(ruleTypes), report, name);
+                    report.printf("%-34s %6d moves differ  %s%n", name, differences, differences == 0 ? "ok" : "DIFFERS");
+                    passed &= differences == 0;
+
+                    GameConfig config = new GameConfig(boardSize, players, "double", ruleTypes);
+                    differences = checkGames(config, board, report);
+                    report.printf("%-34s %6d games differ  %s%n", name + " rotated", differences,
+                            differences == 0 ? "ok" : "DIFFERS");
+                    passed &= differences == 0;
+                }
+            }
+        }
+
+        report.println(passed ? "PASS" : "FAIL");
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * Compare every move of every seat with Red's move from the matching square
+     * @return Number of moves that differ
+     */
+    private static int check(IBoard board, int players, RulePipeline rules, PrintStream report, String name) {
+        PlayerManager playerManager = new PlayerManager();
+        playerManager.createPlayers(players, board);
+        Player red = playerManager.getPlayer(0);
+        int size = board.getMainBoardSize();
+
+        int differences = 0;
+        for (int seat = 1; seat < players; seat++) {
+            Player mover = playerManager.getPlayer(seat);
+            int offset = mover.getHomePosition() - red.getHomePosition();
+            for (int position = 1; position < red.getEndPosition(); position++) {
+                for (int roll = 1; roll <= MAX_ROLL; roll++) {
+                    red.setPosition(position);
+                    int redTarget = move(board, rules, red, roll);
+                    boolean redWins = rules.isWin(red, redTarget, board);
+
+                    mover.setPosition(rotate(position, offset, size));
+                    int target = move(board, rules, mover, roll);
+                    boolean wins = rules.isWin(mover, target, board);
+
+                    if (target != rotate(redTarget, offset, size) || wins != redWins) {
+                        if (differences == 0) {
+                            report.printf("  %s: seat %d from %d rolling %d reaches %d%s, Red from %d reaches %d%s%n",
+                                    name, seat, rotate(position, offset, size), roll, target, wins ? " (win)" : "",
+                                    position, redTarget, redWins ? " (win)" : "");
+                        }
+                        differences++;
+                    }
+                }
+            }
+        }
+        return differences;
+    }
+
+    /**
+     * Play seeded games on the default layout and on every rotation of it
+     * @return Number of games that differ
+     */
+    private static int checkGames(GameConfig config, IBoard board, PrintStream report) {
+        int size = board.getMainBoardSize();
+        int players = config.getNumPlayers();
+        PlayerManager standard = new PlayerManager();
+        standard.createPlayers(players, board);
+
+        Game original = new Game();
+        Game rotated = new Game();
+        DiceFactory diceFactory = new DiceFactory();
+        Dice originalDice = diceFactory.createDice(config.getDiceType(), 0);
+        Dice rotatedDice = diceFactory.createDice(config.getDiceType(), 0);
+        int differences = 0;
+        for (int offset = 1; offset < size; offset++) {
+            GameConfig turned = new GameConfig(config.getBoardSize(), players, config.getDiceType(), config.getRuleTypes());
+            int[] homes = new int[players];
+            for (int seat = 0; seat < players; seat++) {
+                homes[seat] = rotate(standard.getPlayer(seat).getHomePosition(), offset, size);
+            }
+            turned.setHomePositions(homes);
+
+            for (int seed = 0; seed < GAMES_PER_LAYOUT; seed++) {
+                originalDice.reseed(seed);
+                rotatedDice.reseed(seed);
+                original.startGame(config, originalDice);
+                rotated.startGame(turned, rotatedDice);
+                boolean same = true;
+                while (same && !original.isGameOver()) {
+                    original.playTurn();
+                    rotated.playTurn();
+                    for (int seat = 0; seat < players; seat++) {
+                        int position = original.getPlayerManager().getPlayer(seat).getCurrentPosition();
+                        same &= rotated.getPlayerManager().getPlayer(seat).getCurrentPosition()
+                                == rotate(position, offset, size);
+                    }
+                }
+                same &= rotated.isGameOver()
+                        && rotated.getWinner().getSeat() == original.getWinner().getSeat()
+                        && rotated.getPlayerManager().getTotalTurns() == original.getPlayerManager().getTotalTurns();
+                if (!same) {
+                    if (differences == 0) {
+                        report.printf("  %s seed %d differs from %s after %d turns%n", turned.getKey(), seed,
+                                config.getKey(), original.getPlayerManager().getTotalTurns());
+                    }
+                    differences++;
+                }
+            }
+        }
+        return differences;
+    }
+
+    private static int move(IBoard board, RulePipeline rules, Player player, int roll) {
+        int reached = board.calculateNewPosition(player, roll);
+        return rules.adjustMovement(player, roll, reached, board);
+    }
+
+    // Turns a main board square round the ring; tail squares are shared by all seats
+    private static int rotate(int position, int offset, int size) {
+        if (position > size) {
+            return position;
+        }
+        return ((position - 1 + offset) % size + size) % size + 1;
+    }
+}
@@ -1,17 +1,19 @@
 package board;
 
 import players.Player;
-import java.util.HashMap;
-import java.util.Map;
+import players.PlayerColor;
+import util.DebugLog;
+import java.util.Arrays;
 
 public class BasicBoard implements IBoard {
-    private int numPlayers = 2;
+    private final int numPlayers;
     private static final int MAIN_BOARD_SIZE = 18;
     private static final int TAIL_SIZE = 3;
     
   
-    private final Map<String, Integer> homePositions;
-    private final Map<String, Integer> tailEntryPositions;
+    // Indexed by color ordinal; colors not in the game keep Red's positions
+    private final int[] homePositions;
+    private final int[] tailEntryPositions;
     
     public BasicBoard() {
         this(2);
@@ -24,28 +26,27 @@ public class BasicBoard implements IBoard {
     public BasicBoard(int numPlayers) {
         this.numPlayers = numPlayers;
 
-        homePositions = new HashMap<>();
-        tailEntryPositions = new HashMap<>();
-        
-        homePositions.put("Red", 1);
-        tailEntryPositions.put("Red", 18); 
+        homePositions = new int[PlayerColor.COUNT];
+        tailEntryPositions = new int[PlayerColor.COUNT];
+        Arrays.fill(homePositions, 1);
+        Arrays.fill(tailEntryPositions, 18); 
         
         switch(numPlayers) {
             case 4:
                 // Initialize positions for 4 player game
-                homePositions.put("Blue", 5);
-                homePositions.put("Green", 10); 
-                homePositions.put("Yellow", 14);
+                homePositions[PlayerColor.BLUE.ordinal()] = 5;
+                homePositions[PlayerColor.GREEN.ordinal()] = 10; 
+                homePositions[PlayerColor.YELLOW.ordinal()] = 14;
                 
-                tailEntryPositions.put("Blue", 4);  // Position before home position 5
-                tailEntryPositions.put("Green", 9); // Position before home position 10
-                tailEntryPositions.put("Yellow", 13); // Position before home position 14
+                tailEntryPositions[PlayerColor.BLUE.ordinal()] = 4;  // Position before home position 5
+                tailEntryPositions[PlayerColor.GREEN.ordinal()] = 9; // Position before home position 10
+                tailEntryPositions[PlayerColor.YELLOW.ordinal()] = 13; // Position before home position 14
                 break;
                 
             case 2:
                 // Initialize positions for 2 player game
-                homePositions.put("Blue", 10);
-                tailEntryPositions.put("Blue", 9); // Position before home position 10
+                homePositions[PlayerColor.BLUE.ordinal()] = 10;
+                tailEntryPositions[PlayerColor.BLUE.ordinal()] = 9; // Position before home position 10
                 break;
                 
             default:
@@ -53,6 +54,27 @@ public class BasicBoard implements IBoard {
         }
     }
     
+    /**
+     * Constructor for a custom layout. Each seat's tail starts after the square before its home.
+     * @param seatHomePositions Home position of each seat, in seat order (2 or 4 seats)
+     */
+    public BasicBoard(int[] seatHomePositions) {
+        this(seatHomePositions.length);
+        for (int seat = 0; seat < seatHomePositions.length; seat++) {
+            int home = seatHomePositions[seat];
+            if (home < 1 || home > MAIN_BOARD_SIZE) {
+                throw new IllegalArgumentException("Home position must be on the main board: " + home);
+            }
+            for (int other = 0; other < seat; other++) {
+                if (seatHomePositions[other] == home) {
+                    throw new IllegalArgumentException("Two seats share home position " + home);
+                }
+            }
+            homePositions[seat] = home;
+            tailEntryPositions[seat] = home == 1 ? MAIN_BOARD_SIZE : home - 1;
+        }
+    }
+    
     @Override
     public PositionType getPositionType(int position, Player player) {
         // Check special positions first
@@ -77,26 +99,28 @@ public class BasicBoard implements IBoard {
     @Override
     public int calculateNewPosition(Player player, int diceRoll) {
         int currentPosition = player.getCurrentPosition();
-        int tailEntryPos = tailEntryPositions.get(player.getColorString());
-        
-        System.out.println("[DEBUG Board] Calculating new position for " + player.getColor() + 
-                         " from position " + currentPosition + 
-                         " with dice roll " + diceRoll);
-        System.out.println("[DEBUG Board] Player home: " + player.getHomePosition() + 
-                         ", end: " + player.getEndPosition() + 
-                         ", tail entry: " + tailEntryPos);
+        int tailEntryPos = tailEntryPositions[player.getSeat()];
+        
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG Board] Calculating new position for " + player.getColor() + 
+                             " from position " + currentPosition + 
+                             " with dice roll " + diceRoll);
+            System.out.println("[DEBUG Board] Player home: " + player.getHomePosition() + 
+                             ", end: " + player.getEndPosition() + 
+                             ", tail entry: " + tailEntryPos);
+        }
 
         // Handle different position cases
         if (currentPosition == player.getHomePosition()) {
             return calculateMoveFromHome(currentPosition, diceRoll);
         }
         
-        // If position is on the main board (and not the tail entry pos), calculate main board move
-        if (currentPosition <= MAIN_BOARD_SIZE && currentPosition != tailEntryPos) {
+        // If position is on the main board (including the tail entry pos), calculate main board move
+        if (currentPosition <= MAIN_BOARD_SIZE) {
             return calculateMainBoardMove(currentPosition, diceRoll, player, tailEntryPos);
         }
         
-        // Otherwise (player is in the tail or starts on the tail entry pos), calculate tail move
+        // Otherwise (player is in the tail), calculate tail move
         return calculateTailMove(currentPosition, diceRoll);
     }
     
@@ -105,13 +129,17 @@ public class BasicBoard implements IBoard {
         if (newPosition > MAIN_BOARD_SIZE) {
             newPosition = (newPosition - 1) % MAIN_BOARD_SIZE + 1;
         }
-        System.out.println("[DEBUG Board] Moving from HOME. New position: " + newPosition);
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG Board] Moving from HOME. New position: " + newPosition);
+        }
         return newPosition;
     }
     
     private int calculateMainBoardMove(int currentPosition, int diceRoll, Player player, int tailEntryPos) {
         int newPosition = currentPosition + diceRoll;
-        System.out.println("[DEBUG Board] Initial calculation on main board: " + newPosition);
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG Board] Initial calculation on main board: " + newPosition);
+        }
         
         if (passedTailEntry(currentPosition, newPosition, player)) {
             return calculateTailEntryMove(currentPosition, diceRoll, tailEntryPos);
@@ -121,28 +149,28 @@ public class BasicBoard implements IBoard {
         if (newPosition > MAIN_BOARD_SIZE) {
             int oldPos = newPosition;
             newPosition = (newPosition - 1) % MAIN_BOARD_SIZE + 1;
-            System.out.println("[DEBUG Board] Wrapped around board from " + oldPos + " to " + newPosition);
+            if (DebugLog.isEnabled()) {
+                System.out.println("[DEBUG Board] Wrapped around board from " + oldPos + " to " + newPosition);
+            }
         }
         
-        System.out.println("[DEBUG Board] Final position on main board: " + newPosition);
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG Board] Final position on main board: " + newPosition);
+        }
         return newPosition;
     }
     
     private int calculateTailEntryMove(int currentPosition, int diceRoll, int tailEntryPos) {
-        int distanceToTailEntry;
-        
-        if (currentPosition < tailEntryPos) {
-            distanceToTailEntry = tailEntryPos - currentPosition;
-        } else {
-            distanceToTailEntry = (MAIN_BOARD_SIZE - currentPosition) + tailEntryPos;
-        }
+        int distanceToTailEntry = distanceToTailEntry(currentPosition, tailEntryPos);
         
         int stepsIntoTail = Math.max(diceRoll - distanceToTailEntry, 1);
         int newPosition = MAIN_BOARD_SIZE + stepsIntoTail;
         
-        System.out.println("[DEBUG Board] Passed tail entry. Distance to tail: " + distanceToTailEntry + 
-                         ", Steps into tail: " + stepsIntoTail + 
-                         ", New position in tail: " + newPosition);
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG Board] Passed tail entry. Distance to tail: " + distanceToTailEntry + 
+                             ", Steps into tail: " + stepsIntoTail + 
+                             ", New position in tail: " + newPosition);
+        }
         return newPosition;
     }
     
@@ -151,47 +179,40 @@ public class BasicBoard implements IBoard {
         int newTailPosition = tailPosition + diceRoll;
         int finalPosition = MAIN_BOARD_SIZE + newTailPosition;
         
-        System.out.println("[DEBUG Board] Moving in tail from tail position " + tailPosition + 
-                         " to tail position " + newTailPosition + 
-                         " (actual position " + finalPosition + ")");
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG Board] Moving in tail from tail position " + tailPosition + 
+                             " to tail position " + newTailPosition + 
+                             " (actual position " + finalPosition + ")");
+        }
         
         return finalPosition;
     }
     
     private boolean passedTailEntry(int currentPosition, int newPosition, Player player) {
-        int tailEntryPos = tailEntryPositions.get(player.getColorString());
-        int homePos = player.getHomePosition();
-        
-        System.out.println("[DEBUG Board] Checking if passed tail entry. Current: " + currentPosition + 
-                         ", New: " + newPosition + 
-                         ", Tail entry: " + tailEntryPos);
-
-        // Normalize positions if beyond board size
-        int wrappedNewPos = newPosition <= MAIN_BOARD_SIZE ?
-            newPosition : (newPosition - 1) % MAIN_BOARD_SIZE + 1;
-
-        // Check if tail entry is after home position
-        if (tailEntryPos > homePos) {
-            boolean passed = (currentPosition < tailEntryPos && wrappedNewPos > tailEntryPos) ||
-                           (newPosition > MAIN_BOARD_SIZE && currentPosition > wrappedNewPos);
-            System.out.println("[DEBUG Board] Tail entry after home. Passed: " + passed);
-            return passed;
-        }
-        
-        // Tail entry is before home position (wrap around case)
-        if (currentPosition < tailEntryPos) {
-            boolean passed = wrappedNewPos > tailEntryPos;
-            System.out.println("[DEBUG Board] Tail entry before home (current < tail). Passed: " + passed);
-            return passed;
+        int tailEntryPos = tailEntryPositions[player.getSeat()];
+        int distanceToTailEntry = distanceToTailEntry(currentPosition, tailEntryPos);
+        
+        // Players go round once from home, so any move longer than the way to the tail entry enters the tail
+        boolean passed = newPosition - currentPosition > distanceToTailEntry;
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG Board] Checking if passed tail entry. Current: " + currentPosition + 
+                             ", New: " + newPosition + 
+                             ", Tail entry: " + tailEntryPos + 
+                             ", Passed: " + passed);
         }
-        
-        // Check wrap around case when current position is past tail entry
-        boolean passed = wrappedNewPos >= homePos && wrappedNewPos <= tailEntryPos;
-        System.out.println("[DEBUG Board] Tail entry before home (current >= tail). Wrapped position: " + 
-                         wrappedNewPos + ", Passed: " + passed);
         return passed;
     }
     
+    /**
+     * Get the number of steps from a main board position to the tail entry
+     * @param currentPosition Main board position
+     * @param tailEntryPos Tail entry position
+     * @return Steps, 0 when standing on the tail entry
+     */
+    private int distanceToTailEntry(int currentPosition, int tailEntryPos) {
+        return (tailEntryPos - currentPosition + MAIN_BOARD_SIZE) % MAIN_BOARD_SIZE;
+    }
+    
 
     @Override
     public int getMainBoardSize() {
@@ -204,12 +225,12 @@ public class BasicBoard implements IBoard {
     }
     
     @Override
-    public int getHomePosition(String color) { 
-        return homePositions.getOrDefault(color, 1); // Red's position
+    public int getHomePosition(PlayerColor color) {
+        return homePositions[color.ordinal()];
     }
     
     @Override
-    public int getTailEntryPosition(String color) {
-        return tailEntryPositions.getOrDefault(color, 18); // Red's position
+    public int getTailEntryPosition(PlayerColor color) {
+        return tailEntryPositions[color.ordinal()];
     }
 }
@@ -48,32 +48,34 @@ public interface IBoard {
     /**
      * Gets the home position for a player by color
      * @param color The player's color as a string
-     * @return The home position
+     * @return The home position (Red's for an unknown color)
      */
-    int getHomePosition(String color);
+    default int getHomePosition(String color) {
+        PlayerColor playerColor = PlayerColor.fromString(color);
+        return getHomePosition(playerColor != null ? playerColor : PlayerColor.RED);
+    }
     
     /**
      * Gets the home position for a player by PlayerColor
      * @param color The player's color
      * @return The home position
      */
-    default int getHomePosition(PlayerColor color) {
-        return getHomePosition(color.getValue());
-    }
+    int getHomePosition(PlayerColor color);
     
     /**
      * Gets the position where a player should enter their tail
      * @param color The player's color as a string
-     * @return The tail entry position
+     * @return The tail entry position (Red's for an unknown color)
      */
-    int getTailEntryPosition(String color);
+    default int getTailEntryPosition(String color) {
+        PlayerColor playerColor = PlayerColor.fromString(color);
+        return getTailEntryPosition(playerColor != null ? playerColor : PlayerColor.RED);
+    }
     
     /**
      * Gets the position where a player should enter their tail
      * @param color The player's PlayerColor
      * @return The tail entry position
      */
-    default int getTailEntryPosition(PlayerColor color) {
-        return getTailEntryPosition(color.getValue());
-    }
+    int getTailEntryPosition(PlayerColor color);
 }
@@ -1,20 +1,22 @@
 package board;
 
 import players.Player;
-import java.util.HashMap;
-import java.util.Map;
+import players.PlayerColor;
+import util.DebugLog;
+import java.util.Arrays;
 
 /**
  * Implementation of the large board (36 positions, 6 tail slots).
  */
 public class LargeBoard implements IBoard {
-    private int numPlayers = 2;
+    private final int numPlayers;
     private static final int MAIN_BOARD_SIZE = 36;
     private static final int TAIL_SIZE = 6;
     
 
-    private final Map<String, Integer> homePositions;
-    private final Map<String, Integer> tailEntryPositions;
+    // Indexed by color ordinal; colors not in the game keep Red's positions
+    private final int[] homePositions;
+    private final int[] tailEntryPositions;
     
     public LargeBoard() {
         this(2);
@@ -27,28 +29,28 @@ public class LargeBoard implements IBoard {
     public LargeBoard(int numPlayers) {
         this.numPlayers = numPlayers;
 
-        homePositions = new HashMap<>();
-        tailEntryPositions = new HashMap<>();
+        homePositions = new int[PlayerColor.COUNT];
+        tailEntryPositions = new int[PlayerColor.COUNT];
 
 
-        homePositions.put("Red", 1);
-        tailEntryPositions.put("Red", 36);
+        Arrays.fill(homePositions, 1);
+        Arrays.fill(tailEntryPositions, 36);
         
         switch(numPlayers) {
             case 4:
-                homePositions.put("Blue", 10);
-                homePositions.put("Green", 19); 
-                homePositions.put("Yellow", 27);
+                homePositions[PlayerColor.BLUE.ordinal()] = 10;
+                homePositions[PlayerColor.GREEN.ordinal()] = 19; 
+                homePositions[PlayerColor.YELLOW.ordinal()] = 27;
                 
-                tailEntryPositions.put("Blue", 9);  
-                tailEntryPositions.put("Green", 18); 
-                tailEntryPositions.put("Yellow", 26); 
+                tailEntryPositions[PlayerColor.BLUE.ordinal()] = 9;  
+                tailEntryPositions[PlayerColor.GREEN.ordinal()] = 18; 
+                tailEntryPositions[PlayerColor.YELLOW.ordinal()] = 26; 
                 
                 break;
             case 2:
                 // Initialize positions for 2 player game
-                homePositions.put("Blue", 19);
-                tailEntryPositions.put("Blue", 18); 
+                homePositions[PlayerColor.BLUE.ordinal()] = 19;
+                tailEntryPositions[PlayerColor.BLUE.ordinal()] = 18; 
                 break;
                 
             default:
@@ -56,6 +58,27 @@ public class LargeBoard implements IBoard {
         }
     }
     
+    /**
+     * Constructor for a custom layout. Each seat's tail starts after the square before its home.
+     * @param seatHomePositions Home position of each seat, in seat order (2 or 4 seats)
+     */
+    public LargeBoard(int[] seatHomePositions) {
+        this(seatHomePositions.length);
+        for (int seat = 0; seat < seatHomePositions.length; seat++) {
+            int home = seatHomePositions[seat];
+            if (home < 1 || home > MAIN_BOARD_SIZE) {
+                throw new IllegalArgumentException("Home position must be on the main board: " + home);
+            }
+            for (int other = 0; other < seat; other++) {
+                if (seatHomePositions[other] == home) {
+                    throw new IllegalArgumentException("Two seats share home position " + home);
+                }
+            }
+            homePositions[seat] = home;
+            tailEntryPositions[seat] = home == 1 ? MAIN_BOARD_SIZE : home - 1;
+        }
+    }
+    
     @Override
     public PositionType getPositionType(int position, Player player) {
         // Check special positions first
@@ -80,26 +103,28 @@ public class LargeBoard implements IBoard {
     @Override
     public int calculateNewPosition(Player player, int diceRoll) {
         int currentPosition = player.getCurrentPosition();
-        int tailEntryPos = tailEntryPositions.get(player.getColorString());
+        int tailEntryPos = tailEntryPositions[player.getSeat()];
         
-        System.out.println("[DEBUG LargeBoard] Calculating new position for " + player.getColor() + 
-                         " from position " + currentPosition + 
-                         " with dice roll " + diceRoll);
-        System.out.println("[DEBUG LargeBoard] Player home: " + player.getHomePosition() + 
-                         ", end: " + player.getEndPosition() + 
-                         ", tail entry: " + tailEntryPos);
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG LargeBoard] Calculating new position for " + player.getColor() + 
+                             " from position " + currentPosition + 
+                             " with dice roll " + diceRoll);
+            System.out.println("[DEBUG LargeBoard] Player home: " + player.getHomePosition() + 
+                             ", end: " + player.getEndPosition() + 
+                             ", tail entry: " + tailEntryPos);
+        }
 
         // Handle different position cases
         if (currentPosition == player.getHomePosition()) {
             return calculateMoveFromHome(currentPosition, diceRoll);
         }
 
-        // If position is on the main board (and not the tail entry pos), calculate main board move
-        if (currentPosition <= MAIN_BOARD_SIZE && currentPosition != tailEntryPos) {
+        // If position is on the main board (including the tail entry pos), calculate main board move
+        if (currentPosition <= MAIN_BOARD_SIZE) {
             return calculateMainBoardMove(currentPosition, diceRoll, player, tailEntryPos);
         }
 
-        // Otherwise (player is in the tail or starts on the tail entry pos), calculate tail move
+        // Otherwise (player is in the tail), calculate tail move
         return calculateTailMove(currentPosition, diceRoll);
     }
     
@@ -108,13 +133,17 @@ public class LargeBoard implements IBoard {
         if (newPosition > MAIN_BOARD_SIZE) {
             newPosition = (newPosition - 1) % MAIN_BOARD_SIZE + 1;
         }
-        System.out.println("[DEBUG LargeBoard] Moving from HOME. New position: " + newPosition);
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG LargeBoard] Moving from HOME. New position: " + newPosition);
+        }
         return newPosition;
     }
     
     private int calculateMainBoardMove(int currentPosition, int diceRoll, Player player, int tailEntryPos) {
         int newPosition = currentPosition + diceRoll;
-        System.out.println("[DEBUG LargeBoard] Initial calculation on main board: " + newPosition);
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG LargeBoard] Initial calculation on main board: " + newPosition);
+        }
         
         if (passedTailEntry(currentPosition, newPosition, player)) {
             return calculateTailEntryMove(currentPosition, diceRoll, tailEntryPos);
@@ -124,28 +153,28 @@ public class LargeBoard implements IBoard {
         if (newPosition > MAIN_BOARD_SIZE) {
             int oldPos = newPosition;
             newPosition = (newPosition - 1) % MAIN_BOARD_SIZE + 1;
-            System.out.println("[DEBUG LargeBoard] Wrapped around board from " + oldPos + " to " + newPosition);
+            if (DebugLog.isEnabled()) {
+                System.out.println("[DEBUG LargeBoard] Wrapped around board from " + oldPos + " to " + newPosition);
+            }
         }
         
-        System.out.println("[DEBUG LargeBoard] Final position on main board: " + newPosition);
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG LargeBoard] Final position on main board: " + newPosition);
+        }
         return newPosition;
     }
     
     private int calculateTailEntryMove(int currentPosition, int diceRoll, int tailEntryPos) {
-        int distanceToTailEntry;
-        
-        if (currentPosition < tailEntryPos) {
-            distanceToTailEntry = tailEntryPos - currentPosition;
-        } else {
-            distanceToTailEntry = (MAIN_BOARD_SIZE - currentPosition) + tailEntryPos;
-        }
+        int distanceToTailEntry = distanceToTailEntry(currentPosition, tailEntryPos);
         
         int stepsIntoTail = Math.max(diceRoll - distanceToTailEntry, 1);
         int newPosition = MAIN_BOARD_SIZE + stepsIntoTail;
         
-        System.out.println("[DEBUG LargeBoard] Passed tail entry. Distance to tail: " + distanceToTailEntry + 
-                         ", Steps into tail: " + stepsIntoTail + 
-                         ", New position in tail: " + newPosition);
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG LargeBoard] Passed tail entry. Distance to tail: " + distanceToTailEntry + 
+                             ", Steps into tail: " + stepsIntoTail + 
+                             ", New position in tail: " + newPosition);
+        }
         return newPosition;
     }
     
@@ -154,67 +183,38 @@ public class LargeBoard implements IBoard {
         int newTailPosition = tailPosition + diceRoll;
         int finalPosition = MAIN_BOARD_SIZE + newTailPosition;
         
-        System.out.println("[DEBUG LargeBoard] Moving in tail from tail position " + tailPosition + 
-                         " to tail position " + newTailPosition + 
-                         " (actual position " + finalPosition + ")");
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG LargeBoard] Moving in tail from tail position " + tailPosition + 
+                             " to tail position " + newTailPosition + 
+                             " (actual position " + finalPosition + ")");
+        }
         
         return finalPosition;
     }
     
     private boolean passedTailEntry(int currentPosition, int newPosition, Player player) {
-        int tailEntryPos = tailEntryPositions.get(player.getColorString());
-        
-        System.out.println("[DEBUG LargeBoard] Checking if passed tail entry. Current: " + currentPosition + 
-                         ", New: " + newPosition + 
-                         ", Tail entry: " + tailEntryPos);
+        int tailEntryPos = tailEntryPositions[player.getSeat()];
+        int distanceToTailEntry = distanceToTailEntry(currentPosition, tailEntryPos);
         
-        // If we're moving to a position less than or equal to the main board size,
-        // check if we passed the tail entry during movement
-        if (newPosition <= MAIN_BOARD_SIZE) {
-            // Handle normal movement on main board
-            // Check if we passed the tail entry position during this move
-            if (tailEntryPos > player.getHomePosition()) {
-                // Tail entry is after home position
-                boolean passed = (currentPosition < tailEntryPos && newPosition > tailEntryPos);
-                System.out.println("[DEBUG LargeBoard] Tail entry after home. Passed: " + passed);
-                return passed;
-            } else {
-                // Tail entry is before home position (wrap around case)
-                if (currentPosition < tailEntryPos) {
-                    // Simple case - we pass the tail entry without wrapping
-                    boolean passed = newPosition > tailEntryPos;
-                    System.out.println("[DEBUG LargeBoard] Tail entry before home (current < tail). Passed: " + passed);
-                    return passed;
-                } else {
-                    // Check if we've wrapped around and passed the tail entry
-                    int wrappedPosition = (newPosition - 1) % MAIN_BOARD_SIZE + 1;
-                    boolean passed = wrappedPosition >= player.getHomePosition() && 
-                           wrappedPosition <= tailEntryPos;
-                    System.out.println("[DEBUG LargeBoard] Tail entry before home (current >= tail). Wrapped position: " + 
-                                     wrappedPosition + ", Passed: " + passed);
-                    return passed;
-                }
-            }
-        } else {
-            // If new position is beyond main board size, we need special handling
-            // First normalize the position to its wrapped equivalent
-            int wrappedPosition = (newPosition - 1) % MAIN_BOARD_SIZE + 1;
-            
-            System.out.println("[DEBUG LargeBoard] New position beyond board size. Wrapped position: " + wrappedPosition);
-            
-            // Now check if we would have passed the tail entry
-            boolean passed;
-            if (tailEntryPos > player.getHomePosition()) {
-                passed = (currentPosition < tailEntryPos && wrappedPosition > tailEntryPos) ||
-                       (currentPosition > wrappedPosition);
-                System.out.println("[DEBUG LargeBoard] Case 1: Tail entry after home. Passed: " + passed);
-            } else {
-                passed = (currentPosition < tailEntryPos && wrappedPosition > tailEntryPos) ||
-                       (currentPosition > tailEntryPos && wrappedPosition >= player.getHomePosition());
-                System.out.println("[DEBUG LargeBoard] Case 2: Tail entry before home. Passed: " + passed);
-            }
-            return passed;
+        // Players go round once from home, so any move longer than the way to the tail entry enters the tail
+        boolean passed = newPosition - currentPosition > distanceToTailEntry;
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG LargeBoard] Checking if passed tail entry. Current: " + currentPosition + 
+                             ", New: " + newPosition + 
+                             ", Tail entry: " + tailEntryPos + 
+                             ", Passed: " + passed);
         }
+        return passed;
+    }
+    
+    /**
+     * Get the number of steps from a main board position to the tail entry
+     * @param currentPosition Main board position
+     * @param tailEntryPos Tail entry position
+     * @return Steps, 0 when standing on the tail entry
+     */
+    private int distanceToTailEntry(int currentPosition, int tailEntryPos) {
+        return (tailEntryPos - currentPosition + MAIN_BOARD_SIZE) % MAIN_BOARD_SIZE;
     }
     
     @Override
@@ -228,12 +228,12 @@ public class LargeBoard implements IBoard {
     }
     
     @Override
-    public int getHomePosition(String color) {
-        return homePositions.getOrDefault(color, 1); // Default to red's position
+    public int getHomePosition(PlayerColor color) {
+        return homePositions[color.ordinal()];
     }
     
     @Override
-    public int getTailEntryPosition(String color) {
-        return tailEntryPositions.getOrDefault(color, 36); // Default to red's position
+    public int getTailEntryPosition(PlayerColor color) {
+        return tailEntryPositions[color.ordinal()];
     }
 }
@@ -0,0 +1,60 @@
+package dices;
+
+/**
+ * Mirror image of another set of six sided dice: every face f is shown as 7 - f.
+ *
+ * A game played with these dice is the antithetic partner of the game played with
+ * the wrapped dice from the same seed. Each die is still fair, but a high roll in
+ * one game is a low roll in the other, so averaging the pair cancels part of the
+ * noise.
+ */
+public class AntitheticDice implements Dice {
+    private static final int SIDES = 6;
+    private final Dice dice;
+    private int[] rollValues;
+    private int total;
+
+    /**
+     * Constructor wrapping a set of dice
+     * @param dice Dice to mirror
+     */
+    public AntitheticDice(Dice dice) {
+        this.dice = dice;
+        this.rollValues = new int[0];
+    }
+
+    @Override
+    public int[] roll() {
+        int[] values = dice.roll();
+        if (rollValues.length != values.length) {
+            rollValues = new int[values.length];
+        }
+        total = 0;
+        for (int i = 0; i < values.length; i++) {
+            rollValues[i] = SIDES + 1 - values[i];
+            total += rollValues[i];
+        }
+        return rollValues;
+    }
+
+    @Override
+    public void reseed(long seed) {
+        dice.reseed(seed);
+    }
+
+    @Override
+    public int getTotal() {
+        return total;
+    }
+
+    @Override
+    public int[] getOutcomeCounts() {
+        // Mirroring a fair die does not change its distribution
+        return dice.getOutcomeCounts();
+    }
+
+    @Override
+    public String getDescription() {
+        return dice.getDescription() + " (antithetic)";
+    }
+}
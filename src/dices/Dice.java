@@ -5,17 +5,29 @@ package dices;
  */
 public interface Dice {
     /**
-     * Roll the dice
+     * Roll the dice. The returned array is reused by the next roll.
      * @return Array of dice values
      */
     int[] roll();
     
+    /**
+     * Restart the random stream, as if the dice had just been created with this seed
+     * @param seed Random seed
+     */
+    void reseed(long seed);
+    
     /**
      * Get the total value of the last roll
      * @return Total value of all dice
      */
     int getTotal();
     
+    /**
+     * Get how many of the equally likely outcomes of a roll give each total
+     * @return Array indexed by total, e.g. {0, 1, 1, 1, 1, 1, 1} for one die
+     */
+    int[] getOutcomeCounts();
+    
     /**
      * Get a description of the dice type
      * @return Description of the dice
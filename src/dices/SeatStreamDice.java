@@ -0,0 +1,89 @@
+package dices;
+
+/**
+ * Dice with a separate random stream for every seat.
+ *
+ * The caller selects the seat about to roll with {@link #setSeat} before each
+ * turn. A seat's n-th roll then comes from its own stream no matter how many
+ * turns the other seats have taken, so two rule variants played from the same
+ * streams stay coupled even after one of them gives a player an extra turn or
+ * ends a game earlier.
+ */
+public class SeatStreamDice implements Dice {
+    private final Dice[] seatDice;
+    private int seat;
+
+    /**
+     * Constructor from one set of dice per seat
+     * @param seatDice Dice of each seat, in seat order (all of the same type)
+     */
+    public SeatStreamDice(Dice[] seatDice) {
+        if (seatDice.length == 0) {
+            throw new IllegalArgumentException("Need dice for at least one seat");
+        }
+        this.seatDice = seatDice.clone();
+    }
+
+    /**
+     * Select the seat whose stream the next roll comes from
+     * @param seat Seat index
+     */
+    public void setSeat(int seat) {
+        if (seat < 0 || seat >= seatDice.length) {
+            throw new IllegalArgumentException("No dice for seat " + seat);
+        }
+        this.seat = seat;
+    }
+
+    @Override
+    public int[] roll() {
+        return seatDice[seat].roll();
+    }
+
+    /**
+     * Restart every seat's stream from a seed derived from this seed and the seat
+     * @param seed Seed of the set of streams
+     */
+    @Override
+    public void reseed(long seed) {
+        for (int i = 0; i < seatDice.length; i++) {
+            seatDice[i].reseed(seatSeed(seed, i));
+        }
+    }
+
+    /**
+     * Derive a seat's seed with SplitMix64. java.util.Random streams from nearby
+     * seeds (seed, seed + 1, ...) roll strongly correlated faces, so seats must not
+     * get consecutive seeds. The seed is mixed before the seat is added, so callers
+     * that step their own seeds by the SplitMix64 increment never hand one game's
+     * seat stream to a seat of another game.
+     * @param seed Seed of the set of streams
+     * @param seat Seat index
+     * @return Seed of the seat's stream
+     */
+    static long seatSeed(long seed, int seat) {
+        return mix(mix(seed) + 0x9E3779B97F4A7C15L * (seat + 1));
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public int getTotal() {
+        return seatDice[seat].getTotal();
+    }
+
+    @Override
+    public int[] getOutcomeCounts() {
+        return seatDice[0].getOutcomeCounts();
+    }
+
+    @Override
+    public String getDescription() {
+        return seatDice[0].getDescription() + ", one stream per seat";
+    }
+}
@@ -8,10 +8,12 @@ import java.util.Random;
 public class SingleDie implements Dice {
     private static final int SIDES = 6;
     private final Random random;
+    private final int[] rollValues;
     private int lastRoll;
     
     public SingleDie() {
         this.random = new Random();
+        this.rollValues = new int[1];
         this.lastRoll = 0;
     }
     
@@ -21,13 +23,20 @@ public class SingleDie implements Dice {
      */
     public SingleDie(long seed) {
         this.random = new Random(seed);
+        this.rollValues = new int[1];
         this.lastRoll = 0;
     }
     
     @Override
     public int[] roll() {
         lastRoll = random.nextInt(SIDES) + 1;
-        return new int[]{ lastRoll };
+        rollValues[0] = lastRoll;
+        return rollValues;
+    }
+    
+    @Override
+    public void reseed(long seed) {
+        random.setSeed(seed);
     }
     
     @Override
@@ -35,6 +44,15 @@ public class SingleDie implements Dice {
         return lastRoll;
     }
     
+    @Override
+    public int[] getOutcomeCounts() {
+        int[] counts = new int[SIDES + 1];
+        for (int face = 1; face <= SIDES; face++) {
+            counts[face] = 1;
+        }
+        return counts;
+    }
+    
     @Override
     public String getDescription() {
         return "Single random 6 sided die";
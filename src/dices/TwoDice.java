@@ -31,11 +31,27 @@ public class TwoDice implements Dice {
         return lastRoll;
     }
     
+    @Override
+    public void reseed(long seed) {
+        random.setSeed(seed);
+    }
+    
     @Override
     public int getTotal() {
         return lastRoll[0] + lastRoll[1];
     }
     
+    @Override
+    public int[] getOutcomeCounts() {
+        int[] counts = new int[2 * SIDES + 1];
+        for (int first = 1; first <= SIDES; first++) {
+            for (int second = 1; second <= SIDES; second++) {
+                counts[first + second]++;
+            }
+        }
+        return counts;
+    }
+    
     @Override
     public String getDescription() {
         return "Two random 6 sided dice";
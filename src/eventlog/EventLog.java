@@ -0,0 +1,198 @@
+package eventlog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only log of fixed-width binary game events, spread over memory-mapped segment files.
+ *
+ * Writers reserve space with a single atomic add on the log offset, so any number
+ * of games on any number of threads can append without locks. A record never
+ * straddles two segments because the segment size is a multiple of the record
+ * size. The type byte is written last, after a release fence, so a reader that
+ * sees a non-zero type sees the whole record; zero means "reserved but not
+ * written yet" (or lost in a crash) and is skipped.
+ *
+ * Record layout ({@link #RECORD_SIZE} bytes, little endian):
+ *   0  type          1  seat          2  other seat     3  roll
+ *   4  from          5  to            6  seat count     7  (unused)
+ *   8  game id (long)
+ *   16 turn (int)    20 (unused)
+ *   24 timestamp in epoch millis (long)
+ */
+public class EventLog implements AutoCloseable {
+    public static final int RECORD_SIZE = 32;
+
+    public static final byte TYPE_START = 1;
+    public static final byte TYPE_MOVE = 2;
+    public static final byte TYPE_HIT = 3;
+    public static final byte TYPE_WIN = 4;
+    public static final byte TYPE_UNDO = 5;
+
+    /** Stored in the "other seat" byte when there is none */
+    public static final int NO_SEAT = 0xFF;
+
+    static final int OFFSET_TYPE = 0;
+    static final int OFFSET_SEAT = 1;
+    static final int OFFSET_OTHER_SEAT = 2;
+    static final int OFFSET_ROLL = 3;
+    static final int OFFSET_FROM = 4;
+    static final int OFFSET_TO = 5;
+    static final int OFFSET_SEAT_COUNT = 6;
+    static final int OFFSET_GAME_ID = 8;
+    static final int OFFSET_TURN = 16;
+    static final int OFFSET_TIMESTAMP = 24;
+
+    private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final AtomicLong nextOffset;
+    private final ConcurrentHashMap<Integer, MappedByteBuffer> segments;
+
+    /**
+     * Open (or create) a log with 64 MB segments
+     * @param directory Directory holding the segment files
+     */
+    public EventLog(Path directory) {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Open (or create) a log. Appends continue after the last record already in the log.
+     * @param directory Directory holding the segment files
+     * @param segmentSize Size of each segment file in bytes, rounded down to whole records
+     */
+    public EventLog(Path directory, int segmentSize) {
+        if (segmentSize < RECORD_SIZE) {
+            throw new IllegalArgumentException("Segment size must hold at least one record");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize - segmentSize % RECORD_SIZE;
+        this.segments = new ConcurrentHashMap<>();
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.nextOffset = new AtomicLong(findEndOfLog());
+    }
+
+    /**
+     * Append one record. Safe to call from many threads at once.
+     * @param type Record type (one of the TYPE_ constants)
+     * @param gameId Game the event belongs to
+     * @param turn Turn number within the game
+     * @param seat Seat the event is about
+     * @param otherSeat Second seat involved (victim, or the seat to move next for a MOVE), or {@link #NO_SEAT}
+     * @param roll Dice roll
+     * @param from Position before the event
+     * @param to Position after the event
+     * @param seatCount Number of seats in the game
+     */
+    public void append(byte type, long gameId, int turn, int seat, int otherSeat, int roll, int from, int to, int seatCount) {
+        long offset = nextOffset.getAndAdd(RECORD_SIZE);
+        MappedByteBuffer buffer = segment((int) (offset / segmentSize));
+        int base = (int) (offset % segmentSize);
+
+        buffer.put(base + OFFSET_SEAT, (byte) seat);
+        buffer.put(base + OFFSET_OTHER_SEAT, (byte) otherSeat);
+        buffer.put(base + OFFSET_ROLL, (byte) roll);
+        buffer.put(base + OFFSET_FROM, (byte) from);
+        buffer.put(base + OFFSET_TO, (byte) to);
+        buffer.put(base + OFFSET_SEAT_COUNT, (byte) seatCount);
+        buffer.putLong(base + OFFSET_GAME_ID, gameId);
+        buffer.putInt(base + OFFSET_TURN, turn);
+        buffer.putLong(base + OFFSET_TIMESTAMP, System.currentTimeMillis());
+
+        // Publish: the type byte marks the record as complete
+        VarHandle.releaseFence();
+        buffer.put(base + OFFSET_TYPE, type);
+    }
+
+    /**
+     * Flush all mapped segments to disk
+     */
+    public void force() {
+        for (MappedByteBuffer buffer : segments.values()) {
+            buffer.force();
+        }
+    }
+
+    @Override
+    public void close() {
+        force();
+        segments.clear();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Get the number of bytes reserved so far (including records still being written)
+     * @return Log size in bytes
+     */
+    public long size() {
+        return nextOffset.get();
+    }
+
+    static Path segmentPath(Path directory, int index) {
+        return directory.resolve(String.format("events-%06d.log", index));
+    }
+
+    private MappedByteBuffer segment(int index) {
+        MappedByteBuffer buffer = segments.get(index);
+        if (buffer != null) {
+            return buffer;
+        }
+        // Only the first writer into a new segment takes the slow path
+        return segments.computeIfAbsent(index, this::mapSegment);
+    }
+
+    private MappedByteBuffer mapSegment(int index) {
+        try (FileChannel channel = FileChannel.open(segmentPath(directory, index),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Find where the previous run stopped: the first empty record of the last segment
+     */
+    private long findEndOfLog() {
+        int last = -1;
+        while (Files.exists(segmentPath(directory, last + 1))) {
+            last++;
+        }
+        if (last < 0) {
+            return 0;
+        }
+        MappedByteBuffer buffer = segment(last);
+        int end = segmentSize;
+        for (int base = segmentSize - RECORD_SIZE; base >= 0; base -= RECORD_SIZE) {
+            if (buffer.get(base + OFFSET_TYPE) != 0) {
+                break;
+            }
+            end = base;
+        }
+        return (long) last * segmentSize + end;
+    }
+}
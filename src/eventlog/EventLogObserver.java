@@ -0,0 +1,86 @@
+package eventlog;
+
+import game.Game;
+import observers.GameObserver;
+import players.Player;
+import players.PlayerManager;
+import rules.RulePipeline;
+
+/**
+ * Observer that appends every game event to an {@link EventLog} as an audit trail.
+ *
+ * One observer is attached per game; many games can share the same log.
+ * A START record per seat is written on construction with the seat's home and
+ * end positions, so {@link EventLogRebuilder} can replay the game from nothing.
+ * An undo writes one UNDO record per seat with the restored position, which keeps
+ * the rebuild correct whichever way the game restored its state. MOVE records
+ * carry the seat the game's turn order picks next, so rebuilds follow any
+ * TURN_ORDER rule plugin.
+ */
+public class EventLogObserver implements GameObserver {
+    private final EventLog log;
+    private final long gameId;
+    private final PlayerManager playerManager;
+    private final RulePipeline rules;
+    private final int seatCount;
+    private int lastRoll;
+
+    /**
+     * Constructor that starts logging a game
+     * @param log Shared event log
+     * @param gameId Identifier of this game in the log
+     * @param game The game being logged, normally just started
+     */
+    public EventLogObserver(EventLog log, long gameId, Game game) {
+        this.log = log;
+        this.gameId = gameId;
+        this.playerManager = game.getPlayerManager();
+        this.rules = game.getRules();
+        this.seatCount = playerManager.getPlayerCount();
+
+        for (int seat = 0; seat < seatCount; seat++) {
+            Player player = playerManager.getPlayer(seat);
+            log.append(EventLog.TYPE_START, gameId, playerManager.getTotalTurns(), seat,
+                    seat == playerManager.getCurrentPlayerIndex() ? seat : EventLog.NO_SEAT,
+                    0, player.getCurrentPosition(), player.getEndPosition(), seatCount);
+        }
+    }
+
+    @Override
+    public void onMove(Player player, int oldPosition, int newPosition, int diceRoll) {
+        lastRoll = diceRoll;
+        log.append(EventLog.TYPE_MOVE, gameId, playerManager.getTotalTurns(), playerManager.indexOf(player),
+                rules.nextPlayerIndex(player, diceRoll, seatCount), diceRoll, oldPosition, newPosition, seatCount);
+    }
+
+    @Override
+    public void onHit(Player attacker, Player victim, int victimOriginalPosition) {
+        log.append(EventLog.TYPE_HIT, gameId, playerManager.getTotalTurns(), playerManager.indexOf(attacker),
+                playerManager.indexOf(victim), lastRoll, victimOriginalPosition, victim.getCurrentPosition(), seatCount);
+    }
+
+    @Override
+    public void onOvershoot(Player player) {
+        // The bounced position is already in the MOVE record
+    }
+
+    @Override
+    public void onWin(Player winner, int totalTurns) {
+        log.append(EventLog.TYPE_WIN, gameId, totalTurns, playerManager.indexOf(winner),
+                EventLog.NO_SEAT, lastRoll, winner.getCurrentPosition(), winner.getCurrentPosition(), seatCount);
+    }
+
+    @Override
+    public void onUndo(Player player, boolean hitOccurred, Player hitVictim) {
+        int turn = playerManager.getTotalTurns();
+        int currentSeat = playerManager.getCurrentPlayerIndex();
+        for (int seat = 0; seat < seatCount; seat++) {
+            int position = playerManager.getPlayer(seat).getCurrentPosition();
+            log.append(EventLog.TYPE_UNDO, gameId, turn, seat, currentSeat, 0, position, position, seatCount);
+        }
+    }
+
+    public long getGameId() {
+        return gameId;
+    }
+}
@@ -0,0 +1,193 @@
+package eventlog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rebuilds the final state of logged games by replaying an {@link EventLog}.
+ *
+ * Usage: {@code java eventlog.EventLogRebuilder <log directory> [game id]}
+ */
+public class EventLogRebuilder {
+
+    /**
+     * State of one game reconstructed from the log
+     */
+    public static class RebuiltGame {
+        private final long gameId;
+        private final int[] positions;
+        private final int[] homePositions;
+        private int seatToMove;
+        private int winner;
+        private int turns;
+        private int hits;
+        private int undos;
+
+        RebuiltGame(long gameId, int seatCount) {
+            this.gameId = gameId;
+            this.positions = new int[seatCount];
+            this.homePositions = new int[seatCount];
+            this.winner = -1;
+        }
+
+        public long getGameId() {
+            return gameId;
+        }
+
+        public int getPosition(int seat) {
+            return positions[seat];
+        }
+
+        public int getSeatCount() {
+            return positions.length;
+        }
+
+        public int getSeatToMove() {
+            return seatToMove;
+        }
+
+        /**
+         * Get the winning seat
+         * @return Winner seat, or -1 if the game did not finish
+         */
+        public int getWinner() {
+            return winner;
+        }
+
+        public int getTurns() {
+            return turns;
+        }
+
+        public int getHits() {
+            return hits;
+        }
+
+        public int getUndos() {
+            return undos;
+        }
+
+        @Override
+        public String toString() {
+            return "Game " + gameId + ": positions=" + Arrays.toString(positions) +
+                   " toMove=" + seatToMove + " winner=" + winner +
+                   " turns=" + turns + " hits=" + hits + " undos=" + undos;
+        }
+    }
+
+    /**
+     * Replay the whole log
+     * @param directory Log directory
+     * @return Final state of every game in the log, by game id
+     */
+    public static Map<Long, RebuiltGame> rebuild(Path directory) {
+        return rebuild(directory, -1, false);
+    }
+
+    /**
+     * Replay one game from the log
+     * @param directory Log directory
+     * @param gameId Game to rebuild
+     * @return Final state of the game, or null if it is not in the log
+     */
+    public static RebuiltGame rebuild(Path directory, long gameId) {
+        return rebuild(directory, gameId, true).get(gameId);
+    }
+
+    private static Map<Long, RebuiltGame> rebuild(Path directory, long onlyGameId, boolean filter) {
+        Map<Long, RebuiltGame> games = new HashMap<>();
+
+        for (int index = 0; Files.exists(EventLog.segmentPath(directory, index)); index++) {
+            MappedByteBuffer buffer = map(EventLog.segmentPath(directory, index));
+            for (int base = 0; base + EventLog.RECORD_SIZE <= buffer.capacity(); base += EventLog.RECORD_SIZE) {
+                byte type = buffer.get(base + EventLog.OFFSET_TYPE);
+                if (type == 0) {
+                    continue;
+                }
+                long gameId = buffer.getLong(base + EventLog.OFFSET_GAME_ID);
+                if (filter && gameId != onlyGameId) {
+                    continue;
+                }
+                int seat = buffer.get(base + EventLog.OFFSET_SEAT) & 0xFF;
+                int otherSeat = buffer.get(base + EventLog.OFFSET_OTHER_SEAT) & 0xFF;
+                int to = buffer.get(base + EventLog.OFFSET_TO) & 0xFF;
+                int from = buffer.get(base + EventLog.OFFSET_FROM) & 0xFF;
+                int turn = buffer.getInt(base + EventLog.OFFSET_TURN);
+                int seatCount = buffer.get(base + EventLog.OFFSET_SEAT_COUNT) & 0xFF;
+
+                RebuiltGame game = games.computeIfAbsent(gameId, id -> new RebuiltGame(id, seatCount));
+                switch (type) {
+                    case EventLog.TYPE_START:
+                        game.homePositions[seat] = from;
+                        game.positions[seat] = from;
+                        if (otherSeat == seat) {
+                            game.seatToMove = seat;
+                        }
+                        break;
+                    case EventLog.TYPE_MOVE:
+                        game.positions[seat] = to;
+                        // Logs written before MOVE records carried the next seat only know seat order
+                        game.seatToMove = otherSeat != EventLog.NO_SEAT ? otherSeat : (seat + 1) % seatCount;
+                        game.turns = turn;
+                        break;
+                    case EventLog.TYPE_HIT:
+                        game.positions[otherSeat] = game.homePositions[otherSeat];
+                        game.hits++;
+                        break;
+                    case EventLog.TYPE_WIN:
+                        game.winner = seat;
+                        game.seatToMove = seat;
+                        break;
+                    case EventLog.TYPE_UNDO:
+                        game.positions[seat] = to;
+                        game.seatToMove = otherSeat;
+                        game.winner = -1;
+                        game.turns = turn;
+                        // Undo records come one per seat, count the batch once
+                        if (seat == 0) {
+                            game.undos++;
+                        }
+                        break;
+                    default:
+                        throw new IllegalStateException("Unknown event type " + type + " in segment " + index);
+                }
+            }
+        }
+        return games;
+    }
+
+    private static MappedByteBuffer map(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: java eventlog.EventLogRebuilder <log directory> [game id]");
+            return;
+        }
+        Path directory = Paths.get(args[0]);
+        if (args.length > 1) {
+            RebuiltGame game = rebuild(directory, Long.parseLong(args[1]));
+            System.out.println(game != null ? game : "Game " + args[1] + " not found in log");
+        } else {
+            for (RebuiltGame game : rebuild(directory).values()) {
+                System.out.println(game);
+            }
+        }
+    }
+}
@@ -0,0 +1,497 @@
+package export;
+
+import game.Game;
+import game.GameConfig;
+import game.GamePool;
+import util.DebugLog;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes game events as text lines, NDJSON or CSV, to a series of rotated files.
+ *
+ * Events are encoded by hand, digit by digit, straight into a chunk of bytes,
+ * so exporting an event creates no strings or objects. Full chunks are handed
+ * to a writer thread, which writes each one with a single call and gives it
+ * back for reuse; the producer only waits when every chunk is queued for
+ * writing. A file is closed and the next one started once it has received
+ * {@code rotateBytes} of text (counted before compression); files always end
+ * on a whole line.
+ *
+ * Line columns, in order: game, turn, event, seat, roll, from, to, victim.
+ *   move  seat moved from -> to with roll
+ *   hit   seat hit victim, who went from -> to
+ *   win   seat won on from (= to) with roll
+ *   undo  seat's move was taken back and seat is on to again; victim if the
+ *         undone move was a hit
+ * Columns that do not apply are empty in CSV and null in NDJSON.
+ *
+ * One producer thread per exporter: a batch worker that exports should own its
+ * exporter, just as it owns its {@link GamePool}.
+ */
+public class EventExporter implements AutoCloseable {
+    /** Output format of the lines */
+    public enum Format {
+        NDJSON(".ndjson"),
+        CSV(".csv");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /** Kind of event on a line */
+    public enum EventType {
+        MOVE, HIT, WIN, UNDO;
+
+        private final byte[] label = name().toLowerCase().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /** Written in place of a column that does not apply */
+    public static final int NONE = -1;
+
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+    public static final long DEFAULT_ROTATE_BYTES = 256L << 20;
+
+    private static final int CHUNKS = 4;
+    /** Longest possible line: every number at its widest */
+    private static final int MAX_LINE = 192;
+
+    private static final byte[] CSV_HEADER = ascii("game,turn,event,seat,roll,from,to,victim\n");
+    private static final byte[] JSON_GAME = ascii("{\"game\":");
+    private static final byte[] JSON_TURN = ascii(",\"turn\":");
+    private static final byte[] JSON_EVENT = ascii(",\"event\":\"");
+    private static final byte[] JSON_SEAT = ascii("\",\"seat\":");
+    private static final byte[] JSON_ROLL = ascii(",\"roll\":");
+    private static final byte[] JSON_FROM = ascii(",\"from\":");
+    private static final byte[] JSON_TO = ascii(",\"to\":");
+    private static final byte[] JSON_VICTIM = ascii(",\"victim\":");
+    private static final byte[] JSON_NULL = ascii("null");
+    private static final byte[] JSON_END = ascii("}\n");
+
+    private final Path directory;
+    private final String prefix;
+    private final Format format;
+    private final boolean gzip;
+    private final long rotateBytes;
+
+    private final BlockingQueue<Chunk> free;
+    private final BlockingQueue<Chunk> full;
+    private final Chunk endOfStream;
+    private final Thread writer;
+    private volatile IOException writeError;
+
+    // Producer side
+    private Chunk chunk;
+    private byte[] buffer;
+    private int position;
+    private long events;
+    private boolean closed;
+
+    // Writer side
+    private OutputStream out;
+    private long fileBytes;
+    private int fileCount;
+    private long bytesWritten;
+
+    /**
+     * Constructor with 1 MB chunks, 256 MB files and no compression
+     * @param directory Directory for the files
+     * @param prefix File name prefix
+     * @param format Line format
+     */
+    public EventExporter(Path directory, String prefix, Format format) {
+        this(directory, prefix, format, false, DEFAULT_ROTATE_BYTES, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructor that starts the writer thread
+     * @param directory Directory for the files, created if missing
+     * @param prefix File name prefix; files are named prefix-000000.ndjson(.gz) and so on
+     * @param format Line format
+     * @param gzip Compress every file with gzip
+     * @param rotateBytes Uncompressed bytes after which the next file is started
+     * @param chunkSize Bytes handed to the writer at a time
+     */
+    public EventExporter(Path directory, String prefix, Format format, boolean gzip, long rotateBytes, int chunkSize) {
+        if (chunkSize < MAX_LINE) {
+            throw new IllegalArgumentException("Chunk size must hold at least one line (" + MAX_LINE + " bytes)");
+        }
+        if (rotateBytes < 1) {
+            throw new IllegalArgumentException("Rotation size must be positive");
+        }
+        this.directory = directory;
+        this.prefix = prefix;
+        this.format = format;
+        this.gzip = gzip;
+        this.rotateBytes = rotateBytes;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        this.free = new ArrayBlockingQueue<>(CHUNKS);
+        this.full = new ArrayBlockingQueue<>(CHUNKS + 1);
+        for (int i = 1; i < CHUNKS; i++) {
+            free.add(new Chunk(chunkSize));
+        }
+        this.endOfStream = new Chunk(0);
+        this.chunk = new Chunk(chunkSize);
+        this.buffer = chunk.bytes;
+
+        this.writer = new Thread(this::writeLoop, "export-" + prefix);
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Export one event
+     * @param type Kind of event
+     * @param gameId Game the event belongs to
+     * @param turn Turn number within the game
+     * @param seat Seat the event is about
+     * @param roll Dice roll, or {@link #NONE}
+     * @param from Position before the event, or {@link #NONE}
+     * @param to Position after the event, or {@link #NONE}
+     * @param victim Seat that was hit, or {@link #NONE}
+     * @throws UncheckedIOException if the writer thread failed
+     */
+    public void write(EventType type, long gameId, int turn, int seat, int roll, int from, int to, int victim) {
+        if (buffer.length - position < MAX_LINE) {
+            handOff();
+        }
+        if (format == Format.CSV) {
+            putNumber(gameId);
+            putByte(',');
+            putNumber(turn);
+            putByte(',');
+            putBytes(type.label);
+            putByte(',');
+            putNumber(seat);
+            putByte(',');
+            putOptional(roll, null);
+            putByte(',');
+            putOptional(from, null);
+            putByte(',');
+            putOptional(to, null);
+            putByte(',');
+            putOptional(victim, null);
+            putByte('\n');
+        } else {
+            putBytes(JSON_GAME);
+            putNumber(gameId);
+            putBytes(JSON_TURN);
+            putNumber(turn);
+            putBytes(JSON_EVENT);
+            putBytes(type.label);
+            putBytes(JSON_SEAT);
+            putNumber(seat);
+            putBytes(JSON_ROLL);
+            putOptional(roll, JSON_NULL);
+            putBytes(JSON_FROM);
+            putOptional(from, JSON_NULL);
+            putBytes(JSON_TO);
+            putOptional(to, JSON_NULL);
+            putBytes(JSON_VICTIM);
+            putOptional(victim, JSON_NULL);
+            putBytes(JSON_END);
+        }
+        events++;
+    }
+
+    /**
+     * Write out every event exported so far and close the current file
+     * @throws UncheckedIOException if the writer thread failed
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (position > 0) {
+                handOff();
+            }
+        } finally {
+            // Stop the writer thread even when the hand-off reports an earlier write error
+            enqueue(endOfStream);
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while closing exporter " + prefix, e);
+            }
+        }
+        checkError();
+    }
+
+    /**
+     * Get the number of events exported
+     * @return Events passed to {@link #write}
+     */
+    public long getEventCount() {
+        return events;
+    }
+
+    /**
+     * Get the number of files started (complete once the exporter is closed)
+     * @return Number of files
+     */
+    public int getFileCount() {
+        return fileCount;
+    }
+
+    /**
+     * Get the uncompressed size of everything written (complete once the exporter is closed)
+     * @return Bytes written, headers included
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * Path of the n-th file of an export
+     * @param index File number, from 0
+     * @return Path of the file
+     */
+    public Path filePath(int index) {
+        return directory.resolve(String.format("%s-%06d%s%s", prefix, index, format.getExtension(), gzip ? ".gz" : ""));
+    }
+
+    private void putOptional(int value, byte[] none) {
+        if (value == NONE) {
+            if (none != null) {
+                putBytes(none);
+            }
+        } else {
+            putNumber(value);
+        }
+    }
+
+    private void putNumber(long value) {
+        if (value < 0) {
+            putByte('-');
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        // Digits are filled in from the right
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position = end;
+    }
+
+    private void putBytes(byte[] bytes) {
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void putByte(char c) {
+        buffer[position++] = (byte) c;
+    }
+
+    /**
+     * Queue the current chunk for writing and continue in a free one
+     */
+    private void handOff() {
+        checkError();
+        chunk.length = position;
+        enqueue(chunk);
+        try {
+            chunk = free.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while exporting " + prefix, e);
+        }
+        buffer = chunk.bytes;
+        position = 0;
+    }
+
+    private void enqueue(Chunk queued) {
+        try {
+            full.put(queued);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while exporting " + prefix, e);
+        }
+    }
+
+    private void checkError() {
+        if (writeError != null) {
+            throw new UncheckedIOException("Exporting to " + filePath(Math.max(fileCount - 1, 0)) + " failed", writeError);
+        }
+    }
+
+    private void writeLoop() {
+        try {
+            while (true) {
+                Chunk next = full.take();
+                if (next == endOfStream) {
+                    break;
+                }
+                if (writeError == null) {
+                    writeChunk(next);
+                }
+                // Hand the chunk back even after a failure, so the producer never blocks for good
+                free.put(next);
+            }
+            if (out != null && writeError == null) {
+                OutputStream last = out;
+                out = null;
+                last.close();
+            }
+        } catch (IOException e) {
+            writeError = e;
+        } catch (InterruptedException e) {
+            writeError = new IOException("Writer thread interrupted", e);
+        } finally {
+            closeAfterError();
+        }
+    }
+
+    private void writeChunk(Chunk next) {
+        try {
+            if (out == null || fileBytes >= rotateBytes) {
+                startFile();
+            }
+            out.write(next.bytes, 0, next.length);
+            fileBytes += next.length;
+            bytesWritten += next.length;
+        } catch (IOException e) {
+            writeError = e;
+            // Nothing more is written, and the producer may never get to close()
+            closeAfterError();
+        }
+    }
+
+    // Closes the current file after a failure, keeping the first error
+    private void closeAfterError() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                // The write error is already recorded
+            }
+            out = null;
+        }
+    }
+
+    private void startFile() throws IOException {
+        if (out != null) {
+            OutputStream previous = out;
+            out = null;
+            previous.close();
+        }
+        Path path = filePath(fileCount++);
+        OutputStream file = new FileOutputStream(path.toFile());
+        if (gzip) {
+            // Fastest level: compression has to keep up with the simulation on one thread
+            file = new GZIPOutputStream(file, 1 << 16) {
+                {
+                    def.setLevel(Deflater.BEST_SPEED);
+                }
+            };
+        }
+        out = file;
+        fileBytes = 0;
+        if (format == Format.CSV) {
+            out.write(CSV_HEADER);
+            fileBytes += CSV_HEADER.length;
+            bytesWritten += CSV_HEADER.length;
+        }
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG EventExporter] Started " + path);
+        }
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static class Chunk {
+        private final byte[] bytes;
+        private int length;
+
+        Chunk(int size) {
+            this.bytes = new byte[size];
+        }
+    }
+
+    /**
+     * Usage: java export.EventExporter games ndjson|csv directory [--gzip] [--rotate-mb N] configKey
+     * e.g.   java export.EventExporter 1000000 csv /tmp/events --gzip large/4/double/exactEnd+hitHome
+     * Plays the games with dice seeds 1..games and exports every event, then prints the rate.
+     */
+    public static void main(String[] args) {
+        if (args.length < 4) {
+            System.out.println("Usage: EventExporter games ndjson|csv directory [--gzip] [--rotate-mb N] configKey");
+            System.exit(1);
+        }
+        long games = Long.parseLong(args[0]);
+        Format format = Format.valueOf(args[1].toUpperCase());
+        Path directory = Path.of(args[2]);
+        boolean gzip = false;
+        long rotateBytes = DEFAULT_ROTATE_BYTES;
+        int i = 3;
+        while (i < args.length - 1) {
+            if (args[i].equals("--gzip")) {
+                gzip = true;
+                i++;
+            } else if (args[i].equals("--rotate-mb")) {
+                rotateBytes = Long.parseLong(args[i + 1]) << 20;
+                i += 2;
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        GameConfig config = GameConfig.fromKey(args[args.length - 1]);
+
+        DebugLog.setEnabled(false);
+        GamePool pool = new GamePool();
+        long start = System.nanoTime();
+        EventExporter exporter = new EventExporter(directory, config.getKey().replace('/', '_'),
+                format, gzip, rotateBytes, DEFAULT_CHUNK_SIZE);
+        try (exporter) {
+            ExportObserver observer = new ExportObserver(exporter);
+            pool.addObserver(config, observer);
+            for (long seed = 1; seed <= games; seed++) {
+                Game game = pool.next(config, seed);
+                observer.beginGame(seed);
+                while (!game.isGameOver()) {
+                    game.playTurn();
+                }
+            }
+        }
+        // Closing waits for the writer, so the counts include every event
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d events from %d games in %.2f s (%.0f events/s), %d MB in %d file(s) under %s%n",
+                exporter.getEventCount(), games, seconds, exporter.getEventCount() / seconds,
+                exporter.getBytesWritten() >> 20, exporter.getFileCount(), directory);
+    }
+}
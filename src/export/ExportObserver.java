@@ -0,0 +1,73 @@
+package export;
+
+import observers.GameObserver;
+import players.Player;
+
+/**
+ * Observer that exports every event of a game through an {@link EventExporter}.
+ *
+ * The observer can stay attached while a pooled game is restarted: call
+ * {@link #beginGame} before each game so its lines carry the right game id and
+ * turn numbers. Turns are counted by the observer itself, one per move, and an
+ * undo takes one back. Bounces are not exported separately; the bounced
+ * position is already the "to" of the move.
+ */
+public class ExportObserver implements GameObserver {
+    private final EventExporter exporter;
+    private long gameId;
+    private int turn;
+    private int lastRoll;
+
+    /**
+     * Constructor for an observer
+     * @param exporter Exporter owned by the thread playing the game
+     */
+    public ExportObserver(EventExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    /**
+     * Start numbering the events of a new game
+     * @param gameId Identifier of the game in the export
+     */
+    public void beginGame(long gameId) {
+        this.gameId = gameId;
+        this.turn = 0;
+    }
+
+    @Override
+    public void onMove(Player player, int oldPosition, int newPosition, int diceRoll) {
+        turn++;
+        lastRoll = diceRoll;
+        exporter.write(EventExporter.EventType.MOVE, gameId, turn, player.getSeat(), diceRoll,
+                oldPosition, newPosition, EventExporter.NONE);
+    }
+
+    @Override
+    public void onHit(Player attacker, Player victim, int victimOriginalPosition) {
+        exporter.write(EventExporter.EventType.HIT, gameId, turn, attacker.getSeat(), lastRoll,
+                victimOriginalPosition, victim.getCurrentPosition(), victim.getSeat());
+    }
+
+    @Override
+    public void onOvershoot(Player player) {
+        // The bounced position is already in the move line
+    }
+
+    @Override
+    public void onWin(Player winner, int totalTurns) {
+        exporter.write(EventExporter.EventType.WIN, gameId, turn, winner.getSeat(), lastRoll,
+                winner.getCurrentPosition(), winner.getCurrentPosition(), EventExporter.NONE);
+    }
+
+    @Override
+    public void onUndo(Player player, boolean hitOccurred, Player hitVictim) {
+        exporter.write(EventExporter.EventType.UNDO, gameId, turn, player.getSeat(), EventExporter.NONE,
+                EventExporter.NONE, player.getCurrentPosition(), hitOccurred ? hitVictim.getSeat() : EventExporter.NONE);
+        turn = Math.max(turn - 1, 0);
+    }
+
+    public long getGameId() {
+        return gameId;
+    }
+}
@@ -3,11 +3,16 @@ package factories;
 import board.BasicBoard;
 import board.IBoard;
 import board.LargeBoard;
+import game.GameConfig;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Factory for creating the appropriate board based on configuration.
  */
 public class BoardFactory {
+    private static final Map<String, IBoard> SHARED_BOARDS = new ConcurrentHashMap<>();
     
     /**
      * Create a board based on the specified type and number of players
@@ -23,6 +28,49 @@ public class BoardFactory {
         }
     }
     
+    /**
+     * Create a board with custom home positions
+     * @param boardType "basic" or "large"
+     * @param homePositions Home position of each seat, in seat order
+     * @return The appropriate board implementation
+     */
+    public IBoard createBoard(String boardType, int[] homePositions) {
+        if ("large".equalsIgnoreCase(boardType)) {
+            return new LargeBoard(homePositions);
+        } else {
+            return new BasicBoard(homePositions);
+        }
+    }
+    
+    /**
+     * Create the board described by a game configuration, including a custom layout if it has one
+     * @param config Game configuration
+     * @return The appropriate board implementation
+     */
+    public IBoard createBoard(GameConfig config) {
+        if (config.getHomePositions() != null) {
+            return createBoard(config.getBoardSize(), config.getHomePositions());
+        }
+        return createBoard(config.getBoardSize(), config.getNumPlayers());
+    }
+    
+    /**
+     * Get the board for a configuration's layout. Boards never change after construction,
+     * so they are cached and every game with the same layout shares one.
+     * @param config Game configuration
+     * @return The shared board
+     */
+    public static IBoard sharedBoard(GameConfig config) {
+        int[] homePositions = config.getHomePositions();
+        String key = config.getBoardSize().toLowerCase() + "/" + config.getNumPlayers() +
+                     (homePositions != null ? Arrays.toString(homePositions) : "");
+        IBoard board = SHARED_BOARDS.get(key);
+        if (board == null) {
+            board = SHARED_BOARDS.computeIfAbsent(key, k -> new BoardFactory().createBoard(config));
+        }
+        return board;
+    }
+    
     /**
      * Create a board based on the specified type (default to 2 players)
      * @param boardType "basic" or "large"
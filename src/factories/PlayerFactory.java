@@ -16,7 +16,7 @@ public class PlayerFactory {
      * @return A new Player instance
      */
     public Player createPlayer(PlayerColor color, IBoard board) {
-        int homePosition = board.getHomePosition(color.getValue());
+        int homePosition = board.getHomePosition(color);
         int endPosition = board.getMainBoardSize() + board.getTailSize(); // End position is last tail position
         
         return new Player(color, homePosition, endPosition);
@@ -30,7 +30,10 @@ public class PlayerFactory {
      * @throws IllegalArgumentException if color is invalid
      */
     public Player createPlayer(String colorString, IBoard board) {
-        PlayerColor color = new PlayerColor(colorString);
+        PlayerColor color = PlayerColor.fromString(colorString);
+        if (color == null) {
+            throw new IllegalArgumentException("Invalid player color: " + colorString);
+        }
         return createPlayer(color, board);
     }
 }
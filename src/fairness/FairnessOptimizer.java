@@ -0,0 +1,267 @@
+package fairness;
+
+import board.IBoard;
+import factories.BoardFactory;
+import game.GameConfig;
+import simulation.ConfidenceInterval;
+import util.DebugLog;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Searches seat layouts and start seats for the fairest version of a game.
+ *
+ * A candidate gives every seat a home position (its tail entry is the square
+ * before it) and picks the seat that moves first. Red's home is fixed at square 1,
+ * since turning the whole board gives the same game, and the other seats sit
+ * round the board in play order, as in the standard layouts.
+ *
+ * When the state space is small every candidate is solved exactly. Otherwise the
+ * candidates are raced: each round plays a batch of games for every candidate
+ * still in the race on its {@link solver.MoveTable}, drops the candidates whose
+ * unfairness is surely worse than the best few, and doubles the batch. The
+ * finalists are then solved exactly if that is affordable. Evaluations are cached
+ * by configuration key, so repeated searches over overlapping candidates reuse them.
+ */
+public class FairnessOptimizer {
+    private final GameConfig base;
+    private final Map<String, LayoutEvaluation> cache;
+    private int top;
+    private int initialGames;
+    private int maxGames;
+    private double confidenceLevel;
+    private long exactStateLimit;
+    private long finalistStateLimit;
+    private double tolerance;
+    private long seed;
+
+    /**
+     * Constructor racing from 1000 games up to 256000 games per candidate, keeping the 10 fairest
+     * @param base Board size, players, dice and rules to balance
+     */
+    public FairnessOptimizer(GameConfig base) {
+        this.base = base;
+        this.cache = new HashMap<>();
+        this.top = 10;
+        this.initialGames = 1000;
+        this.maxGames = 256_000;
+        this.confidenceLevel = 0.95;
+        this.exactStateLimit = 100_000;
+        this.finalistStateLimit = 2_000_000;
+        this.tolerance = 1e-10;
+        this.seed = System.nanoTime();
+    }
+
+    /**
+     * Set how many of the fairest layouts are reported
+     * @param top Number of layouts
+     */
+    public void setTop(int top) {
+        if (top < 1) {
+            throw new IllegalArgumentException("Need to report at least 1 layout");
+        }
+        this.top = top;
+    }
+
+    /**
+     * Set the games played per candidate in the first racing round and the most any candidate gets
+     * @param initialGames Games in the first round
+     * @param maxGames Games per candidate at which racing stops
+     */
+    public void setGames(int initialGames, int maxGames) {
+        if (initialGames < 1 || maxGames < initialGames) {
+            throw new IllegalArgumentException("Need 1 <= initialGames <= maxGames");
+        }
+        this.initialGames = initialGames;
+        this.maxGames = maxGames;
+    }
+
+    public void setConfidenceLevel(double confidenceLevel) {
+        ConfidenceInterval.zScore(confidenceLevel);
+        this.confidenceLevel = confidenceLevel;
+    }
+
+    /**
+     * Set the state space sizes up to which candidates are solved exactly
+     * @param exactStateLimit Solve every candidate exactly up to this many (estimated) states
+     * @param finalistStateLimit Solve the finalists exactly up to this many (estimated) states
+     */
+    public void setStateLimits(long exactStateLimit, long finalistStateLimit) {
+        this.exactStateLimit = exactStateLimit;
+        this.finalistStateLimit = finalistStateLimit;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * List every candidate layout and start seat
+     * @return Candidate configurations
+     */
+    public List<GameConfig> getCandidates() {
+        IBoard board = new BoardFactory().createBoard(base.getBoardSize(), base.getNumPlayers());
+        List<GameConfig> candidates = new ArrayList<>();
+        int[] homes = new int[base.getNumPlayers()];
+        homes[0] = 1;
+        addLayouts(candidates, homes, 1, board.getMainBoardSize());
+        return candidates;
+    }
+
+    private void addLayouts(List<GameConfig> candidates, int[] homes, int seat, int mainBoardSize) {
+        if (seat == homes.length) {
+            for (int startSeat = 0; startSeat < homes.length; startSeat++) {
+                GameConfig candidate = new GameConfig(base.getBoardSize(), base.getNumPlayers(),
+                        base.getDiceType(), base.getRuleTypes());
+                candidate.setHomePositions(homes);
+                candidate.setStartSeat(startSeat);
+                candidates.add(candidate);
+            }
+            return;
+        }
+        // Leave room for the seats still to place
+        for (int home = homes[seat - 1] + 1; home <= mainBoardSize - (homes.length - 1 - seat); home++) {
+            homes[seat] = home;
+            addLayouts(candidates, homes, seat + 1, mainBoardSize);
+        }
+    }
+
+    /**
+     * Rough upper bound on the reachable states: every seat anywhere, any seat to move
+     * @return Estimated state count
+     */
+    public long estimateStates() {
+        IBoard board = new BoardFactory().createBoard(base.getBoardSize(), base.getNumPlayers());
+        long positions = board.getMainBoardSize() + board.getTailSize() + 1;
+        long states = base.getNumPlayers();
+        for (int seat = 0; seat < base.getNumPlayers(); seat++) {
+            states *= positions;
+        }
+        return states;
+    }
+
+    /**
+     * Evaluate every candidate and rank the fairest
+     * @return The fairest layouts, the standard layout for comparison, and search statistics
+     */
+    public FairnessReport optimize() {
+        long start = System.nanoTime();
+        long states = estimateStates();
+        double z = ConfidenceInterval.zScore(confidenceLevel);
+        List<LayoutEvaluation> evaluations = new ArrayList<>();
+        for (GameConfig candidate : getCandidates()) {
+            evaluations.add(cache.computeIfAbsent(candidate.getKey(), key -> new LayoutEvaluation(candidate)));
+        }
+        GameConfig standardConfig = new GameConfig(base.getBoardSize(), base.getNumPlayers(), base.getDiceType(),
+                base.getRuleTypes());
+        LayoutEvaluation standard = cache.computeIfAbsent(standardConfig.getKey(),
+                key -> new LayoutEvaluation(standardConfig));
+
+        int rounds = 0;
+        long simulatedGames = 0;
+        List<LayoutEvaluation> alive = evaluations;
+        if (states <= exactStateLimit) {
+            solveExactly(evaluations);
+            solveExactly(List.of(standard));
+        } else {
+            int batch = initialGames;
+            while (true) {
+                List<LayoutEvaluation> round = alive;
+                int games = batch;
+                long roundSeed = seed + 0x9E3779B97F4A7C15L * (rounds + 1);
+                // Each candidate plays its own seeded batch, so results do not depend on the thread count
+                IntStream.range(0, round.size()).parallel()
+                        .filter(i -> !round.get(i).isExact())
+                        .forEach(i -> round.get(i).simulate(games, roundSeed ^ round.get(i).getConfig().getKey().hashCode()));
+                simulatedGames += (long) games * round.size();
+                rounds++;
+                alive = prune(alive, z);
+                if (DebugLog.isEnabled()) {
+                    System.out.println("[DEBUG FairnessOptimizer] Round " + rounds + ": " + games +
+                                       " games each, " + alive.size() + " candidates left");
+                }
+                if (alive.size() <= top || alive.get(0).getGames() >= maxGames) {
+                    break;
+                }
+                batch = (int) Math.min(batch * 2L, maxGames - alive.get(0).getGames());
+            }
+            if (!standard.isExact() && standard.getGames() < maxGames) {
+                int games = (int) (maxGames - standard.getGames());
+                standard.simulate(games, seed);
+                simulatedGames += games;
+            }
+            alive.sort(Comparator.comparingDouble(LayoutEvaluation::getUnfairness));
+            alive = new ArrayList<>(alive.subList(0, Math.min(top, alive.size())));
+            if (states <= finalistStateLimit) {
+                solveExactly(alive);
+                solveExactly(List.of(standard));
+            }
+        }
+
+        alive.sort(Comparator.comparingDouble(LayoutEvaluation::getUnfairness));
+        List<LayoutEvaluation> fairest = new ArrayList<>(alive.subList(0, Math.min(top, alive.size())));
+        return new FairnessReport(base, fairest, standard, evaluations.size(), rounds, simulatedGames,
+                System.nanoTime() - start);
+    }
+
+    /**
+     * Keep the candidates that could still be among the fairest: those whose lower bound
+     * is below the top-th smallest upper bound
+     */
+    private List<LayoutEvaluation> prune(List<LayoutEvaluation> alive, double z) {
+        if (alive.size() <= top) {
+            return alive;
+        }
+        double[] upperBounds = new double[alive.size()];
+        for (int i = 0; i < alive.size(); i++) {
+            upperBounds[i] = alive.get(i).getUpperBound(z);
+        }
+        Arrays.sort(upperBounds);
+        double cutoff = upperBounds[top - 1];
+        List<LayoutEvaluation> kept = new ArrayList<>();
+        for (LayoutEvaluation evaluation : alive) {
+            if (evaluation.getLowerBound(z) <= cutoff) {
+                kept.add(evaluation);
+            }
+        }
+        return kept;
+    }
+
+    private void solveExactly(List<LayoutEvaluation> evaluations) {
+        for (LayoutEvaluation evaluation : evaluations) {
+            if (!evaluation.isExact()) {
+                evaluation.solveExactly(tolerance);
+            }
+        }
+    }
+
+    /**
+     * Usage: java fairness.FairnessOptimizer configKey [top] [maxGames] [seed]
+     * e.g.   java fairness.FairnessOptimizer basic/4/double/hitHome 5
+     * Only the board size, players, dice and rules of the key are used.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: FairnessOptimizer configKey [top] [maxGames] [seed]");
+            System.exit(1);
+        }
+        FairnessOptimizer optimizer = new FairnessOptimizer(GameConfig.fromKey(args[0]));
+        if (args.length > 1) {
+            optimizer.setTop(Integer.parseInt(args[1]));
+        }
+        if (args.length > 2) {
+            optimizer.setGames(Math.min(1000, Integer.parseInt(args[2])), Integer.parseInt(args[2]));
+        }
+        if (args.length > 3) {
+            optimizer.setSeed(Long.parseLong(args[3]));
+        }
+
+        DebugLog.setEnabled(false);
+        System.out.println(optimizer.optimize());
+    }
+}
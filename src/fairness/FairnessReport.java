@@ -0,0 +1,81 @@
+package fairness;
+
+import game.GameConfig;
+import java.util.List;
+
+/**
+ * Result of a {@link FairnessOptimizer} search.
+ */
+public class FairnessReport {
+    private final GameConfig base;
+    private final List<LayoutEvaluation> fairest;
+    private final LayoutEvaluation standard;
+    private final int candidates;
+    private final int rounds;
+    private final long simulatedGames;
+    private final long elapsedNanos;
+
+    FairnessReport(GameConfig base, List<LayoutEvaluation> fairest, LayoutEvaluation standard, int candidates,
+                   int rounds, long simulatedGames, long elapsedNanos) {
+        this.base = base;
+        this.fairest = fairest;
+        this.standard = standard;
+        this.candidates = candidates;
+        this.rounds = rounds;
+        this.simulatedGames = simulatedGames;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public GameConfig getBase() {
+        return base;
+    }
+
+    /**
+     * Get the fairest layouts found
+     * @return Evaluations, fairest first
+     */
+    public List<LayoutEvaluation> getFairest() {
+        return fairest;
+    }
+
+    /**
+     * Get the evaluation of the board's standard layout with Red moving first
+     * @return Evaluation
+     */
+    public LayoutEvaluation getStandard() {
+        return standard;
+    }
+
+    public int getCandidates() {
+        return candidates;
+    }
+
+    /**
+     * Get the number of racing rounds, 0 if every candidate was solved exactly
+     * @return Rounds
+     */
+    public int getRounds() {
+        return rounds;
+    }
+
+    public long getSimulatedGames() {
+        return simulatedGames;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("Standard layout: %s%n", standard));
+        builder.append(String.format("Fairest of %d candidates:%n", candidates));
+        for (int i = 0; i < fairest.size(); i++) {
+            builder.append(String.format("%3d. %s%n", i + 1, fairest.get(i)));
+        }
+        builder.append(String.format("%d racing rounds, %d games simulated in %.1f s",
+                rounds, simulatedGames, elapsedNanos / 1e9));
+        return builder.toString();
+    }
+}
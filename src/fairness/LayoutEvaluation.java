@@ -0,0 +1,180 @@
+package fairness;
+
+import game.GameConfig;
+import players.PlayerColor;
+import solver.ExactResult;
+import solver.ExactSolver;
+import solver.MoveTable;
+import undo.PackedState;
+import java.util.SplittableRandom;
+
+/**
+ * Per-seat win rates of one candidate layout, from simulation or from the exact solver.
+ *
+ * Simulated games are played straight on a {@link MoveTable}: a turn is one draw
+ * from the dice outcome table and a few array lookups, with no Game, players or
+ * observers involved. Batches add up, so a candidate that survives a racing round
+ * keeps the games it already played.
+ *
+ * Unfairness is the largest distance of any seat's win rate from 1/players.
+ */
+public class LayoutEvaluation {
+    /** Games still running after this many turns count as unresolved */
+    static final int MAX_TURNS = 10_000;
+
+    private final GameConfig config;
+    private final long[] wins;
+    private long games;
+    private long turns;
+    private double[] exactProbabilities;
+    private MoveTable moves;
+    private int[] rollTable;
+
+    /**
+     * Constructor for an evaluation with no games yet
+     * @param config Candidate configuration
+     */
+    public LayoutEvaluation(GameConfig config) {
+        this.config = config;
+        this.wins = new long[config.getNumPlayers()];
+    }
+
+    /**
+     * Play more simulated games
+     * @param count Games to play
+     * @param seed Seed of this batch
+     */
+    public void simulate(int count, long seed) {
+        if (moves == null) {
+            buildTables();
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        int totalOutcomes = rollTable.length;
+        long initialState = moves.getInitialState();
+        for (int game = 0; game < count; game++) {
+            long state = initialState;
+            for (int turn = 1; turn <= MAX_TURNS; turn++) {
+                long next = moves.apply(state, rollTable[random.nextInt(totalOutcomes)]);
+                if (next == MoveTable.WIN) {
+                    wins[PackedState.seatToMove(state)]++;
+                    turns += turn;
+                    break;
+                }
+                state = next;
+            }
+        }
+        games += count;
+    }
+
+    /**
+     * Replace the simulated win rates with the exact solution
+     * @param tolerance Solver tolerance
+     */
+    public void solveExactly(double tolerance) {
+        ExactSolver solver = new ExactSolver(config);
+        solver.setTolerance(tolerance);
+        ExactResult result = solver.solve();
+        exactProbabilities = new double[wins.length];
+        for (int seat = 0; seat < wins.length; seat++) {
+            exactProbabilities[seat] = result.getWinProbability(seat);
+        }
+        // The tables are only needed for simulation
+        moves = null;
+        rollTable = null;
+    }
+
+    private void buildTables() {
+        moves = new MoveTable(config);
+        rollTable = new int[moves.getTotalOutcomes()];
+        int next = 0;
+        for (int roll = 1; roll <= moves.getMaxRoll(); roll++) {
+            for (int i = 0; i < moves.getOutcomeCount(roll); i++) {
+                rollTable[next++] = roll;
+            }
+        }
+    }
+
+    public GameConfig getConfig() {
+        return config;
+    }
+
+    public boolean isExact() {
+        return exactProbabilities != null;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Get the estimated (or exact) probability that a seat wins
+     * @param seat Seat index
+     * @return Win probability
+     */
+    public double getWinProbability(int seat) {
+        if (exactProbabilities != null) {
+            return exactProbabilities[seat];
+        }
+        return games == 0 ? 0 : (double) wins[seat] / games;
+    }
+
+    /**
+     * Get the mean length of the simulated games that finished
+     * @return Mean turns, or 0 before any game
+     */
+    public double getMeanTurns() {
+        long finished = 0;
+        for (long seatWins : wins) {
+            finished += seatWins;
+        }
+        return finished == 0 ? 0 : (double) turns / finished;
+    }
+
+    /**
+     * Get the largest distance of a seat's win rate from a fair share
+     * @return Unfairness, 0 for a perfectly fair layout
+     */
+    public double getUnfairness() {
+        return unfairness(0);
+    }
+
+    /**
+     * Get a lower confidence bound on the unfairness
+     * @param z Normal quantile of the confidence level
+     * @return Lower bound, equal to the unfairness once solved exactly
+     */
+    public double getLowerBound(double z) {
+        return unfairness(-z);
+    }
+
+    /**
+     * Get an upper confidence bound on the unfairness
+     * @param z Normal quantile of the confidence level
+     * @return Upper bound, equal to the unfairness once solved exactly
+     */
+    public double getUpperBound(double z) {
+        return unfairness(z);
+    }
+
+    private double unfairness(double z) {
+        double fairShare = 1.0 / wins.length;
+        double result = 0;
+        for (int seat = 0; seat < wins.length; seat++) {
+            double p = getWinProbability(seat);
+            double halfWidth = isExact() || games == 0 ? 0 : z * Math.sqrt(Math.max(p * (1 - p), 1e-4) / games);
+            result = Math.max(result, Math.max(Math.abs(p - fairShare) + halfWidth, 0));
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(config.getKey()).append(':');
+        for (int seat = 0; seat < wins.length; seat++) {
+            builder.append(String.format(" %s %.4f", PlayerColor.fromOrdinal(seat).getValue(), getWinProbability(seat)));
+        }
+        builder.append(String.format(", unfairness %.4f", getUnfairness()));
+        builder.append(isExact() ? " (exact)" : String.format(" (%d games)", games));
+        return builder.toString();
+    }
+}
@@ -7,31 +7,69 @@ import factories.DiceFactory;
 import observers.GameObserver;
 import players.Player;
 import players.PlayerManager;
-import rules.BasicRule;
-import rules.ExactEndRule;
-import rules.HitHomeRule;
-import rules.RuleStrategy;
+import profiling.GameCompletedEvent;
+import profiling.HitEvent;
+import profiling.ProfilingEvents;
+import profiling.TurnEvent;
+import profiling.UndoEvent;
+import rules.RulePipeline;
+import solver.ReachabilityAnalysis;
+import solver.ReachabilityReport;
 import undo.GameHistory;
 import undo.GameStateMemento;
+import undo.PackedState;
+import undo.TurnDelta;
+import undo.UndoTree;
+import util.DebugLog;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.locks.StampedLock;
 
 /**
  * Main game class that manages the game flow.
  */
 public class Game {
+    /**
+     * How a game ended
+     */
+    public enum Outcome {
+        /** Still being played */
+        IN_PROGRESS,
+        /** A player won */
+        WON,
+        /** Stopped after the turn limit */
+        TURN_LIMIT,
+        /** Stopped after the time limit */
+        TIME_LIMIT
+    }
+    
     private IBoard board;
     private Dice dice;
     private PlayerManager playerManager;
-    private RuleStrategy rules;
+    private RulePipeline rules;
     private GameConfig config;
     private final GameHistory gameHistory;
+    private final UndoTree undoTree;
     private final List<GameObserver> observers;
     private boolean gameOver;
     private Player winner;
     private boolean lastMoveWasHit;
-    private String lastHitVictim;
+    private Player lastHitVictim;
+    private GameCompletedEvent completedEvent;
+    private ReachabilityReport reachability;
+    
+    // Watchdog for runaway games; 0 means no limit
+    private int turnLimit;
+    private long timeLimitNanos;
+    private long deadline;
+    private Outcome stopReason;
+    
+    // State published for spectator threads, guarded by snapshotLock
+    private final StampedLock snapshotLock;
+    private long publishedState;
+    private long publishedVersion;
+    private int publishedSeats;
     
     /**
      * Constructor initializing a new game
@@ -39,9 +77,11 @@ public class Game {
     public Game() {
         this.observers = new ArrayList<>();
         this.gameHistory = new GameHistory();
+        this.undoTree = new UndoTree();
         this.gameOver = false;
         this.lastMoveWasHit = false;
         this.lastHitVictim = null;
+        this.snapshotLock = new StampedLock();
     }
     
     /**
@@ -49,39 +89,79 @@ public class Game {
      * @param config Game configuration
      */
     public void startGame(GameConfig config) {
-        // Store the config
-        this.config = config;
-        
-        // Create board
-        BoardFactory boardFactory = new BoardFactory();
-        this.board = boardFactory.createBoard(config.getBoardSize(), config.getNumPlayers());
-        
         // Create dice
         DiceFactory diceFactory = new DiceFactory();
-        this.dice = diceFactory.createDice(config.getDiceType());
-        
-        // Create players
-        this.playerManager = new PlayerManager();
-        playerManager.createPlayers(config.getNumPlayers(), board);
-        
-        // Create rules (using decorator pattern)
-        this.rules = new BasicRule();
-        
-        if (config.hasRule("exactEnd")) {
-            this.rules = new ExactEndRule(rules);
+        startGame(config, diceFactory.createDice(config.getDiceType()));
+    }
+    
+    /**
+     * Start a new game with the given configuration and dice, e.g. seeded dice for simulations.
+     * The board is shared with every game of the same layout, and if the previous game used the
+     * same layout its players are reset instead of created again. The config's layout is
+     * frozen by its first game (see {@link GameConfig}), so passing the same config object
+     * again safely skips the lookups.
+     * @param config Game configuration
+     * @param dice Dice to roll each turn
+     */
+    public void startGame(GameConfig config, Dice dice) {
+        // Same config object as last game: board and rules are unchanged
+        if (config != this.config) {
+            config.freeze();
+            IBoard sharedBoard = BoardFactory.sharedBoard(config);
+            if (sharedBoard != board) {
+                // Players take their home and end positions from the board
+                if (playerManager == null) {
+                    playerManager = new PlayerManager();
+                }
+                playerManager.createPlayers(config.getNumPlayers(), sharedBoard);
+                this.board = sharedBoard;
+            }
+            this.rules = RulePipeline.forRules(config.getRuleTypes());
+            this.reachability = ReachabilityAnalysis.analyze(config);
+            if (!reachability.isWinnable()) {
+                throw new IllegalArgumentException("No player can ever win this game: " + reachability);
+            }
+            // Batch runs switch debug output off; they can read getReachability() instead
+            if (reachability.hasDeadPositions() && DebugLog.isEnabled()) {
+                System.err.println("[Game] Warning: " + reachability);
+            }
+            this.config = config;
         }
+        this.dice = dice;
+        reset();
         
-        if (config.hasRule("hitHome")) {
-            this.rules = new HitHomeRule(rules);
+        // Print configuration description (batch simulations switch this off with debug output)
+        if (DebugLog.isEnabled()) {
+            System.out.println(config.getDescription());
         }
-        
-        // Reset game state
+    }
+    
+    /**
+     * Restart the current game from the beginning with the same configuration and dice,
+     * without allocating. Observers stay registered; reseed the dice first for a
+     * reproducible game.
+     */
+    public void reset() {
+        if (config == null) {
+            throw new IllegalStateException("No game to reset; call startGame first");
+        }
+        playerManager.resetPlayers(config.getStartSeat());
         this.gameOver = false;
         this.winner = null;
+        this.lastMoveWasHit = false;
+        this.lastHitVictim = null;
+        this.stopReason = null;
+        this.deadline = timeLimitNanos > 0 ? System.nanoTime() + timeLimitNanos : 0;
         this.gameHistory.clear();
+        this.undoTree.clear();
+        publishSnapshot();
         
-        // Print configuration description
-        System.out.println(config.getDescription());
+        // Timed from here to the winning turn
+        completedEvent = null;
+        if (ProfilingEvents.isGameCompletedEnabled()) {
+            completedEvent = new GameCompletedEvent();
+            completedEvent.begin();
+        }
     }
     
     /**
@@ -92,21 +172,29 @@ public class Game {
             return;
         }
         
+        TurnEvent turnEvent = null;
+        if (ProfilingEvents.isTurnEnabled()) {
+            turnEvent = new TurnEvent();
+            turnEvent.begin();
+        }
+        
         Player currentPlayer = playerManager.getCurrentPlayer();
         
-        System.out.println("\n[DEBUG Game] === Starting turn for " + currentPlayer.getColorString() + " player ===");
-        System.out.println("[DEBUG Game] Current position: " + currentPlayer.getCurrentPosition() + 
-                         ", Home: " + currentPlayer.getHomePosition() + 
-                         ", End: " + currentPlayer.getEndPosition());
+        if (DebugLog.isEnabled()) {
+            System.out.println("\n[DEBUG Game] === Starting turn for " + currentPlayer.getColorString() + " player ===");
+            System.out.println("[DEBUG Game] Current position: " + currentPlayer.getCurrentPosition() + 
+                             ", Home: " + currentPlayer.getHomePosition() + 
+                             ", End: " + currentPlayer.getEndPosition());
+        }
 
         // Save the current state BEFORE any move is made - this is critical for undo
         gameHistory.saveState(
-            playerManager.getAllPlayers(),
+            playerManager.getPlayers(),
             playerManager.getCurrentPlayerIndex(),
             false,  // Reset hit tracking for the new state
-            null,
+            -1,
             gameOver,
-            (winner != null ? winner.getColorString() : null)
+            (winner != null ? winner.getSeat() : -1)
         );
         
         // Reset hit tracking for the new turn
@@ -116,84 +204,127 @@ public class Game {
         // Roll the dice
         dice.roll();
         int totalRoll = dice.getTotal();
-        System.out.println("[DEBUG Game] Dice roll: " + totalRoll);
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG Game] Dice roll: " + totalRoll);
+        }
         
         // Save the old position
         int oldPosition = currentPlayer.getCurrentPosition();
         
         // Calculate the new position according to the rules
-        int newPosition = rules.handleMovement(currentPlayer, totalRoll, board);
-        System.out.println("[DEBUG Game] Final calculated position after rules: " + newPosition);
+        int reachedPosition = board.calculateNewPosition(currentPlayer, totalRoll);
+        int newPosition = rules.adjustMovement(currentPlayer, totalRoll, reachedPosition, board);
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG Game] Final calculated position after rules: " + newPosition);
+        }
         
         // Move the player
         currentPlayer.move(newPosition);
+        int turnDelta = TurnDelta.of(playerManager.getCurrentPlayerIndex(), oldPosition, newPosition, totalRoll);
         
         // Notify observers about the move
-        for (GameObserver observer : observers) {
-            observer.onMove(currentPlayer, oldPosition, newPosition, totalRoll);
+        for (int i = 0; i < observers.size(); i++) {
+            observers.get(i).onMove(currentPlayer, oldPosition, newPosition, totalRoll);
         }
         
-        // Check for a hit (if we're not at the end and not in the tail)
-        if (newPosition != currentPlayer.getEndPosition() && newPosition <= board.getMainBoardSize()) {
+        // A rule moved the player back from beyond END (e.g. the exact end bounce)
+        if (reachedPosition > currentPlayer.getEndPosition() && newPosition != reachedPosition) {
+            for (int i = 0; i < observers.size(); i++) {
+                observers.get(i).onOvershoot(currentPlayer);
+            }
+        }
+        
+        // Check for a hit (if any rule handles hits and we're not at the end and not in the tail)
+        if (rules.usesHits() && newPosition != currentPlayer.getEndPosition() && newPosition <= board.getMainBoardSize()) {
             Player victim = playerManager.getPlayerAtPosition(newPosition, currentPlayer);
             if (victim != null) {
-                System.out.println("[DEBUG Game] HIT detected: " + currentPlayer.getColorString() + 
-                                 " hit " + victim.getColorString() + 
-                                 " at position " + newPosition);
+                if (DebugLog.isEnabled()) {
+                    System.out.println("[DEBUG Game] HIT detected: " + currentPlayer.getColorString() + 
+                                     " hit " + victim.getColorString() + 
+                                     " at position " + newPosition);
+                }
                 
                 // Save the victim's original position before they get sent home
                 int victimOriginalPosition = victim.getCurrentPosition();
-                System.out.println("[DEBUG Game] Saved victim original position: " + victimOriginalPosition);
+                if (DebugLog.isEnabled()) {
+                    System.out.println("[DEBUG Game] Saved victim original position: " + victimOriginalPosition);
+                }
                 
                 // Note: We don't need to save state here anymore since we saved at start of turn
                 
                 lastMoveWasHit = rules.handleHit(currentPlayer, victim, playerManager);
                 if (lastMoveWasHit) {
-                    lastHitVictim = victim.getColorString();
-                    System.out.println("[DEBUG Game] Hit occurred. Victim: " + victim.getColorString() + 
-                                     " sent to HOME at position " + victim.getHomePosition() + 
-                                     " from original position " + victimOriginalPosition);
-                    for (GameObserver observer : observers) {
+                    lastHitVictim = victim;
+                    turnDelta = TurnDelta.withHit(turnDelta, victim.getSeat(), victimOriginalPosition);
+                    if (ProfilingEvents.isHitEnabled()) {
+                        HitEvent hitEvent = new HitEvent();
+                        hitEvent.attackerSeat = currentPlayer.getSeat();
+                        hitEvent.victimSeat = victim.getSeat();
+                        hitEvent.position = newPosition;
+                        hitEvent.commit();
+                    }
+                    if (DebugLog.isEnabled()) {
+                        System.out.println("[DEBUG Game] Hit occurred. Victim: " + victim.getColorString() + 
+                                         " sent to HOME at position " + victim.getHomePosition() + 
+                                         " from original position " + victimOriginalPosition);
+                    }
+                    for (int i = 0; i < observers.size(); i++) {
                         // Pass the victim's original position to the observer
-                        observer.onHit(currentPlayer, victim, victimOriginalPosition);
+                        observers.get(i).onHit(currentPlayer, victim, victimOriginalPosition);
                     }
                 }
             }
         }
         
         // Check for a win
-        if (newPosition == currentPlayer.getEndPosition()) {
-            System.out.println("[DEBUG Game] Player reached END position exactly. Game over!");
-            gameOver = true;
-            winner = currentPlayer;
-            
-            for (GameObserver observer : observers) {
-                observer.onWin(winner, playerManager.getTotalTurns());
+        if (rules.isWin(currentPlayer, newPosition, board)) {
+            if (DebugLog.isEnabled()) {
+                if (newPosition == currentPlayer.getEndPosition()) {
+                    System.out.println("[DEBUG Game] Player reached END position exactly. Game over!");
+                } else {
+                    System.out.println("[DEBUG Game] Player passed END position. Game over!");
+                }
             }
-        } else if (newPosition > currentPlayer.getEndPosition() && 
-                   !config.hasRule("exactEnd") && 
-                   newPosition > board.getMainBoardSize()) {
-            // For Basic Rule: Also win if position is beyond END and we're in a tail
-            System.out.println("[DEBUG Game] Player passed END position with Basic Rule. Game over!");
             gameOver = true;
             winner = currentPlayer;
+            turnDelta = TurnDelta.withWin(turnDelta);
             
-            for (GameObserver observer : observers) {
-                observer.onWin(winner, playerManager.getTotalTurns());
+            for (int i = 0; i < observers.size(); i++) {
+                observers.get(i).onWin(winner, playerManager.getTotalTurns());
             }
+            commitCompletedEvent();
         } else {
-            System.out.println("[DEBUG Game] Player did not reach END position (" + 
-                             currentPlayer.getEndPosition() + "), currently at: " + newPosition);
+            if (DebugLog.isEnabled()) {
+                System.out.println("[DEBUG Game] Player did not reach END position (" + 
+                                 currentPlayer.getEndPosition() + "), currently at: " + newPosition);
+            }
         }
         
+        // Record the turn in the undo tree (reuses the node if this exact turn was played here before)
+        undoTree.addChild(turnDelta);
+        
         // Switch to the next player if game is not over
         if (!gameOver) {
-            playerManager.switchPlayer();
-            System.out.println("[DEBUG Game] Next player: " + 
-                             playerManager.getCurrentPlayer().getColorString());
+            playerManager.setCurrentPlayerIndex(
+                rules.nextPlayerIndex(currentPlayer, totalRoll, playerManager.getPlayerCount()));
+            if (DebugLog.isEnabled()) {
+                System.out.println("[DEBUG Game] Next player: " + 
+                                 playerManager.getCurrentPlayer().getColorString());
+            }
+            checkLimits();
         }
         
-        System.out.println("[DEBUG Game] === End of turn ===\n");
+        publishSnapshot();
+        if (turnEvent != null) {
+            turnEvent.seat = currentPlayer.getSeat();
+            turnEvent.roll = totalRoll;
+            turnEvent.oldPosition = oldPosition;
+            turnEvent.newPosition = newPosition;
+            turnEvent.commit();
+        }
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG Game] === End of turn ===\n");
+        }
     }
     
     /**
@@ -201,65 +332,336 @@ public class Game {
      * @return true if undo was successful
      */
     public boolean undo() {
-        System.out.println("\n[DEBUG Game] === Starting UNDO operation ===");
+        if (DebugLog.isEnabled()) {
+            System.out.println("\n[DEBUG Game] === Starting UNDO operation ===");
+        }
+        
+        UndoEvent undoEvent = null;
+        if (ProfilingEvents.isUndoEnabled()) {
+            undoEvent = new UndoEvent();
+            undoEvent.begin();
+        }
         
         GameStateMemento memento = gameHistory.undo(playerManager);
         
+        if (memento == null && undoTree.canUndo()) {
+            // No memento left (e.g. after jumping around the undo tree), fall back to the tree delta
+            return undoFromTree(undoEvent);
+        }
+        
         if (memento != null) {
-            System.out.println("[DEBUG Game] Successfully retrieved previous game state");
+            if (DebugLog.isEnabled()) {
+                System.out.println("[DEBUG Game] Successfully retrieved previous game state");
+            }
+            int undoneDelta = undoTree.getDelta(undoTree.getCursor());
+            undoTree.moveToParent();
             
             // Restore game-over state and winner from the saved state
             gameOver = memento.getGameOver();
-            String restoredWinnerColor = memento.getWinnerColor();
-            winner = null;
-            if (restoredWinnerColor != null) {
-                for (Player player : playerManager.getAllPlayers()) {
-                    if (player.getColorString().equals(restoredWinnerColor)) {
-                        winner = player;
-                        break;
-                    }
-                }
-            }
+            int restoredWinnerSeat = memento.getWinnerSeat();
+            winner = restoredWinnerSeat >= 0 ? playerManager.getPlayer(restoredWinnerSeat) : null;
             
             // Restore hit-tracking state
             lastMoveWasHit = memento.isHitOccurred();
-            lastHitVictim = memento.getHitVictimColor();
+            int restoredVictimSeat = memento.getHitVictimSeat();
+            lastHitVictim = restoredVictimSeat >= 0 ? playerManager.getPlayer(restoredVictimSeat) : null;
             
-            System.out.println("[DEBUG Game] Restored game state. Game over: " + gameOver + 
-                           ", Last move was hit: " + lastMoveWasHit + 
-                           ", Last hit victim: " + lastHitVictim);
+            if (DebugLog.isEnabled()) {
+                System.out.println("[DEBUG Game] Restored game state. Game over: " + gameOver + 
+                               ", Last move was hit: " + lastMoveWasHit + 
+                               ", Last hit victim: " + (lastHitVictim != null ? lastHitVictim.getColorString() : null));
+            }
             
             // Dump all player positions after undo
-            System.out.println("[DEBUG Game] Player positions after undo:");
-            for (Player player : playerManager.getAllPlayers()) {
-                System.out.println("[DEBUG Game]   " + player.getColorString() + 
-                                 ": position " + player.getCurrentPosition());
+            if (DebugLog.isEnabled()) {
+                System.out.println("[DEBUG Game] Player positions after undo:");
+                for (Player player : playerManager.getPlayers()) {
+                    System.out.println("[DEBUG Game]   " + player.getColorString() + 
+                                     ": position " + player.getCurrentPosition());
+                }
             }
             
             // Notify observers of undo
-            for (GameObserver observer : observers) {
-                Player currentPlayer = playerManager.getCurrentPlayer();
-                Player hitVictim = null;
-                
-                // If there was a hit, find the hit victim
-                if (lastMoveWasHit && lastHitVictim != null) {
-                    for (Player player : playerManager.getAllPlayers()) {
-                        if (player.getColorString().equals(lastHitVictim)) {
-                            hitVictim = player;
-                            break;
-                        }
-                    }
-                }
-                
-                observer.onUndo(currentPlayer, lastMoveWasHit, hitVictim);
+            Player currentPlayer = playerManager.getCurrentPlayer();
+            Player hitVictim = lastMoveWasHit ? lastHitVictim : null;
+            for (int i = 0; i < observers.size(); i++) {
+                observers.get(i).onUndo(currentPlayer, lastMoveWasHit, hitVictim);
             }
             
+            publishSnapshot();
+            if (undoEvent != null) {
+                commitUndoEvent(undoEvent, undoneDelta);
+            }
             return true;
         }
         
         return false;
     }
     
+    /**
+     * Redo the most recently undone move, following the branch that was last visited
+     * @return true if there was a move to redo
+     */
+    public boolean redo() {
+        if (!undoTree.canRedo()) {
+            if (DebugLog.isEnabled()) {
+                System.out.println("[DEBUG Game] Cannot redo - no undone moves from this state");
+            }
+            return false;
+        }
+        
+        if (DebugLog.isEnabled()) {
+            System.out.println("\n[DEBUG Game] === Starting REDO operation ===");
+        }
+        
+        // Save the state first so a normal undo can take the redo back again
+        gameHistory.saveState(
+            playerManager.getPlayers(),
+            playerManager.getCurrentPlayerIndex(),
+            false,
+            -1,
+            gameOver,
+            (winner != null ? winner.getSeat() : -1)
+        );
+        
+        int child = undoTree.getRedoTarget();
+        int turnDelta = undoTree.getDelta(child);
+        applyDelta(turnDelta);
+        undoTree.moveToChild(child);
+        publishSnapshot();
+        
+        // Redo is announced like a normal turn
+        Player mover = playerManager.getPlayer(TurnDelta.seat(turnDelta));
+        for (int i = 0; i < observers.size(); i++) {
+            GameObserver observer = observers.get(i);
+            observer.onMove(mover, TurnDelta.from(turnDelta), TurnDelta.to(turnDelta), TurnDelta.roll(turnDelta));
+            if (TurnDelta.isHit(turnDelta)) {
+                observer.onHit(mover, playerManager.getPlayer(TurnDelta.victimSeat(turnDelta)), TurnDelta.victimFrom(turnDelta));
+            }
+            if (TurnDelta.isWin(turnDelta)) {
+                observer.onWin(mover, playerManager.getTotalTurns());
+            }
+        }
+        
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG Game] Redid: " + TurnDelta.describe(turnDelta));
+        }
+        return true;
+    }
+    
+    /**
+     * Jump to any turn in the undo tree, including turns on abandoned branches.
+     * Only the deltas between the current node and the target are replayed.
+     * Observers are not notified of the individual steps.
+     * @param node Undo tree node to jump to
+     */
+    public void jumpTo(int node) {
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG Game] Jumping from undo tree node " + undoTree.getCursor() + " to node " + node);
+        }
+        
+        undoTree.jumpTo(node, new UndoTree.DeltaApplier() {
+            @Override
+            public void apply(int turnDelta) {
+                applyDelta(turnDelta);
+            }
+            
+            @Override
+            public void revert(int turnDelta) {
+                revertDelta(turnDelta);
+            }
+        });
+        
+        // The linear memento stack no longer matches this branch, undo falls back to the tree
+        gameHistory.clear();
+        lastMoveWasHit = false;
+        lastHitVictim = null;
+        publishSnapshot();
+    }
+    
+    /**
+     * Get the undo tree holding every turn played in this game, across all branches
+     * @return The undo tree
+     */
+    public UndoTree getUndoTree() {
+        return undoTree;
+    }
+    
+    private boolean undoFromTree(UndoEvent undoEvent) {
+        int turnDelta = undoTree.getDelta(undoTree.getCursor());
+        revertDelta(turnDelta);
+        undoTree.moveToParent();
+        publishSnapshot();
+        
+        lastMoveWasHit = false;
+        lastHitVictim = null;
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG Game] Undid from undo tree: " + TurnDelta.describe(turnDelta));
+        }
+        
+        Player mover = playerManager.getPlayer(TurnDelta.seat(turnDelta));
+        Player hitVictim = TurnDelta.isHit(turnDelta) ? playerManager.getPlayer(TurnDelta.victimSeat(turnDelta)) : null;
+        for (int i = 0; i < observers.size(); i++) {
+            observers.get(i).onUndo(mover, hitVictim != null, hitVictim);
+        }
+        if (undoEvent != null) {
+            commitUndoEvent(undoEvent, turnDelta);
+        }
+        return true;
+    }
+    
+    /**
+     * Put the game into a packed state (see {@link PackedState}), e.g. one taken from
+     * {@link GameSnapshot#getPackedState()} of the same configuration. Undo history is cleared
+     * and observers are not notified. Per-player move counts are rebuilt from the total turns
+     * assuming the configured start seat moved first and players took turns in seat order.
+     * @param packedState State to load
+     */
+    public void loadState(long packedState) {
+        int seats = playerManager.getPlayerCount();
+        int turns = PackedState.turns(packedState);
+        for (int seat = 0; seat < seats; seat++) {
+            Player player = playerManager.getPlayer(seat);
+            player.setPosition(PackedState.position(packedState, seat));
+            int order = (seat - config.getStartSeat() + seats) % seats;
+            player.setTotalMoves(turns / seats + (order < turns % seats ? 1 : 0));
+        }
+        playerManager.setCurrentPlayerIndex(PackedState.seatToMove(packedState));
+        gameOver = PackedState.isGameOver(packedState);
+        int winnerSeat = PackedState.winner(packedState);
+        winner = winnerSeat >= 0 ? playerManager.getPlayer(winnerSeat) : null;
+        stopReason = PackedState.isStopped(packedState) ? Outcome.values()[PackedState.stopCode(packedState)] : null;
+        lastMoveWasHit = false;
+        lastHitVictim = null;
+        gameHistory.clear();
+        undoTree.clear();
+        publishSnapshot();
+    }
+    
+    /**
+     * Get a consistent view of the game that is safe to call from any thread.
+     * Readers never take the lock, so any number of them cannot hold up the game
+     * thread: the state is read optimistically and read again if a turn was
+     * published at the same moment.
+     * @return Snapshot of the state after the last completed turn
+     */
+    public GameSnapshot getSnapshot() {
+        while (true) {
+            long stamp = snapshotLock.tryOptimisticRead();
+            long state = publishedState;
+            long version = publishedVersion;
+            int seats = publishedSeats;
+            if (snapshotLock.validate(stamp)) {
+                return new GameSnapshot(state, version, seats);
+            }
+            // The game thread holds the write lock only for three stores
+            Thread.onSpinWait();
+        }
+    }
+    
+    /**
+     * Publish the current state for {@link #getSnapshot()}. Called by the game thread
+     * once a turn, undo, redo or jump is completely applied.
+     */
+    private void publishSnapshot() {
+        int seats = playerManager.getPlayerCount();
+        long state = 0;
+        for (int seat = 0; seat < seats; seat++) {
+            state = PackedState.withPosition(state, seat, playerManager.getPlayer(seat).getCurrentPosition());
+        }
+        state = PackedState.withSeatToMove(state, playerManager.getCurrentPlayerIndex());
+        if (gameOver && winner != null) {
+            state = PackedState.withWinner(state, winner.getSeat());
+        } else if (gameOver) {
+            // The outcome's ordinal is the stop code, so loadState gets the same reason back
+            state = PackedState.withStopped(state, stopReason.ordinal());
+        }
+        state = PackedState.withTurns(state, playerManager.getTotalTurns());
+        
+        long stamp = snapshotLock.writeLock();
+        try {
+            publishedState = state;
+            publishedSeats = seats;
+            publishedVersion++;
+        } finally {
+            snapshotLock.unlockWrite(stamp);
+        }
+    }
+    
+    private void commitUndoEvent(UndoEvent undoEvent, int undoneDelta) {
+        undoEvent.seat = TurnDelta.seat(undoneDelta);
+        undoEvent.depth = undoTree.getDepth(undoTree.getCursor());
+        undoEvent.hitUndone = TurnDelta.isHit(undoneDelta);
+        undoEvent.commit();
+    }
+    
+    /**
+     * Stop a runaway game once it is over its turn budget or past its deadline.
+     * The clock is only read every 64 turns.
+     */
+    private void checkLimits() {
+        int turns = playerManager.getTotalTurns();
+        if (turnLimit > 0 && turns >= turnLimit) {
+            stop(Outcome.TURN_LIMIT);
+        } else if (deadline != 0 && (turns & 63) == 0 && System.nanoTime() - deadline > 0) {
+            stop(Outcome.TIME_LIMIT);
+        }
+    }
+    
+    private void stop(Outcome reason) {
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG Game] Game stopped without a winner after " +
+                             playerManager.getTotalTurns() + " turns: " + reason);
+        }
+        gameOver = true;
+        winner = null;
+        stopReason = reason;
+    }
+    
+    private void commitCompletedEvent() {
+        if (completedEvent == null && ProfilingEvents.isGameCompletedEnabled()) {
+            // Recording started mid-game, so the game's duration is unknown
+            completedEvent = new GameCompletedEvent();
+        }
+        if (completedEvent != null) {
+            completedEvent.config = config.getKey();
+            completedEvent.winnerSeat = winner.getSeat();
+            completedEvent.turns = playerManager.getTotalTurns();
+            completedEvent.commit();
+            completedEvent = null;
+        }
+    }
+    
+    private void applyDelta(int turnDelta) {
+        int seat = TurnDelta.seat(turnDelta);
+        Player mover = playerManager.getPlayer(seat);
+        mover.move(TurnDelta.to(turnDelta));
+        if (TurnDelta.isHit(turnDelta)) {
+            playerManager.getPlayer(TurnDelta.victimSeat(turnDelta)).resetToHome();
+        }
+        if (TurnDelta.isWin(turnDelta)) {
+            gameOver = true;
+            winner = mover;
+            playerManager.setCurrentPlayerIndex(seat);
+        } else {
+            playerManager.setCurrentPlayerIndex(
+                rules.nextPlayerIndex(mover, TurnDelta.roll(turnDelta), playerManager.getPlayerCount()));
+        }
+    }
+    
+    private void revertDelta(int turnDelta) {
+        int seat = TurnDelta.seat(turnDelta);
+        Player mover = playerManager.getPlayer(seat);
+        mover.setPosition(TurnDelta.from(turnDelta));
+        mover.setTotalMoves(mover.getTotalMoves() - 1);
+        if (TurnDelta.isHit(turnDelta)) {
+            playerManager.getPlayer(TurnDelta.victimSeat(turnDelta)).setPosition(TurnDelta.victimFrom(turnDelta));
+        }
+        gameOver = false;
+        winner = null;
+        playerManager.setCurrentPlayerIndex(seat);
+    }
+    
     /**
      * Add an observer to the game
      * @param observer Observer to add
@@ -284,6 +686,48 @@ public class Game {
         return gameOver;
     }
     
+    /**
+     * Get how the game ended
+     * @return {@link Outcome#WON} or the limit that stopped it, or {@link Outcome#IN_PROGRESS}
+     */
+    public Outcome getOutcome() {
+        if (!gameOver) {
+            return Outcome.IN_PROGRESS;
+        }
+        return winner != null ? Outcome.WON : stopReason;
+    }
+    
+    /**
+     * Stop games that run longer than a number of turns; they end with no winner
+     * @param turnLimit Most turns per game, 0 for no limit
+     */
+    public void setTurnLimit(int turnLimit) {
+        if (turnLimit < 0) {
+            throw new IllegalArgumentException("Turn limit cannot be negative");
+        }
+        this.turnLimit = turnLimit;
+    }
+    
+    /**
+     * Stop games that run longer than a wall-clock time; they end with no winner.
+     * Applies from the next start or reset.
+     * @param timeLimitMillis Most milliseconds per game, 0 for no limit
+     */
+    public void setTimeLimitMillis(long timeLimitMillis) {
+        if (timeLimitMillis < 0) {
+            throw new IllegalArgumentException("Time limit cannot be negative");
+        }
+        this.timeLimitNanos = timeLimitMillis * 1_000_000;
+    }
+    
+    /**
+     * Get the dead position analysis of the current configuration
+     * @return Reachability report
+     */
+    public ReachabilityReport getReachability() {
+        return reachability;
+    }
+    
     /**
      * Get the winner of the game
      * @return Winner or null if game is not over
@@ -292,6 +736,14 @@ public class Game {
         return winner;
     }
     
+    /**
+     * Get the configuration of the current game
+     * @return Game configuration, or null before startGame
+     */
+    public GameConfig getConfig() {
+        return config;
+    }
+    
     /**
      * Get the board
      * @return Game board
@@ -300,6 +752,14 @@ public class Game {
         return board;
     }
     
+    /**
+     * Get the rules of the current game
+     * @return Rule pipeline, or null before startGame
+     */
+    public RulePipeline getRules() {
+        return rules;
+    }
+    
     /**
      * Get the player manager
      * @return Player manager
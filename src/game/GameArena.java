@@ -0,0 +1,267 @@
+package game;
+
+import solver.MoveTable;
+import solver.ReachabilityAnalysis;
+import solver.ReachabilityReport;
+import undo.PackedState;
+
+/**
+ * Many games of one configuration in a compact form, for hosting far more live
+ * games than fit as {@link Game} objects.
+ *
+ * A game here is 16 bytes of mutable state in one shared array: its
+ * {@link PackedState} (positions, seat to move, winner and turn count) and the
+ * state of its dice. Everything that does not change during a game (board
+ * layout, rules, turn order) is the configuration's shared {@link MoveTable},
+ * so a turn is a dice roll and a few table lookups. There are no objects per
+ * game, no observers and no history; games that need undo, observers or
+ * replay use {@link Game}.
+ *
+ * The dice follow the same random stream as the {@link dices.Dice} of the
+ * configuration, so a game started with a seed plays exactly the turns of a
+ * {@link Game} whose dice have that seed. A winner is left on its END square.
+ *
+ * Not thread safe, but threads may play disjoint ranges of games.
+ */
+public class GameArena {
+    /** Mutable state per game: packed state and dice state */
+    public static final int BYTES_PER_GAME = 2 * Long.BYTES;
+
+    // java.util.Random's generator, kept in a long per game
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long SEED_MASK = (1L << 48) - 1;
+    private static final int SIDES = 6;
+
+    private final GameConfig config;
+    private final MoveTable table;
+    private final int numDice;
+    private final long initialState;
+    // Packed state of game i at 2i, its dice at 2i + 1
+    private final long[] slots;
+    private int size;
+    private int turnLimit;
+
+    /**
+     * Constructor for an empty arena
+     * @param config Game configuration
+     * @param capacity Most games the arena holds
+     * @throws IllegalArgumentException if no player can ever win the configuration
+     */
+    public GameArena(GameConfig config, int capacity) {
+        if (capacity < 0 || capacity > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("Invalid arena capacity: " + capacity);
+        }
+        this.table = MoveTable.shared(config);
+        ReachabilityReport reachability = ReachabilityAnalysis.analyze(table, config.getKey());
+        if (!reachability.isWinnable()) {
+            throw new IllegalArgumentException("No player can ever win this game: " + reachability);
+        }
+        this.config = config;
+        this.numDice = "single".equalsIgnoreCase(config.getDiceType()) ? 1 : 2;
+        this.initialState = table.getInitialState();
+        this.slots = new long[2 * capacity];
+        this.turnLimit = GamePool.DEFAULT_TURN_LIMIT;
+    }
+
+    /**
+     * Stop games that run longer than a number of turns; they end with no winner
+     * @param turnLimit Most turns per game, 0 for no limit
+     */
+    public void setTurnLimit(int turnLimit) {
+        if (turnLimit < 0) {
+            throw new IllegalArgumentException("Turn limit cannot be negative");
+        }
+        this.turnLimit = turnLimit;
+    }
+
+    /**
+     * Start a new game in the next free slot
+     * @param seed Dice seed
+     * @return Index of the game
+     * @throws IllegalStateException if the arena is full
+     */
+    public int add(long seed) {
+        if (size == capacity()) {
+            throw new IllegalStateException("Arena is full: " + size + " games");
+        }
+        restart(size, seed);
+        return size++;
+    }
+
+    /**
+     * Start a game over in its slot
+     * @param game Index of the game
+     * @param seed Dice seed
+     */
+    public void restart(int game, long seed) {
+        slots[2 * game] = initialState;
+        slots[2 * game + 1] = (seed ^ MULTIPLIER) & SEED_MASK;
+    }
+
+    /**
+     * Play one turn of a game
+     * @param game Index of the game
+     * @return false if the game was already over
+     */
+    public boolean playTurn(int game) {
+        int slot = 2 * game;
+        long state = slots[slot];
+        if (isOver(state)) {
+            return false;
+        }
+
+        // Same draws as Random.nextInt(6) for each die
+        long random = slots[slot + 1];
+        int roll = 0;
+        for (int die = 0; die < numDice; die++) {
+            int bits;
+            int face;
+            do {
+                random = (random * MULTIPLIER + ADDEND) & SEED_MASK;
+                bits = (int) (random >>> 17);
+                face = bits % SIDES;
+            } while (bits - face + (SIDES - 1) < 0);
+            roll += face + 1;
+        }
+
+        int turns = PackedState.turns(state) + 1;
+        long next = table.apply(state, roll);
+        if (next == MoveTable.WIN) {
+            int mover = PackedState.seatToMove(state);
+            next = PackedState.withWinner(PackedState.withPosition(state, mover, table.getEndPosition(mover)), mover);
+        }
+        slots[slot] = PackedState.withTurns(next, turns);
+        slots[slot + 1] = random;
+        return true;
+    }
+
+    /**
+     * Play a game until it is over
+     * @param game Index of the game
+     */
+    public void playToEnd(int game) {
+        while (playTurn(game)) {
+            // Each call plays a turn
+        }
+    }
+
+    /**
+     * Play one turn of every game that is not over, in index order
+     * @return Number of games that played a turn
+     */
+    public int playRound() {
+        int played = 0;
+        for (int game = 0; game < size; game++) {
+            if (playTurn(game)) {
+                played++;
+            }
+        }
+        return played;
+    }
+
+    /**
+     * Play every game until it is over
+     */
+    public void playAll() {
+        for (int game = 0; game < size; game++) {
+            playToEnd(game);
+        }
+    }
+
+    private boolean isOver(long state) {
+        return PackedState.isGameOver(state) || (turnLimit > 0 && PackedState.turns(state) >= turnLimit);
+    }
+
+    /**
+     * Check whether a game is over
+     * @param game Index of the game
+     * @return true if the game has a winner or reached the turn limit
+     */
+    public boolean isGameOver(int game) {
+        return isOver(slots[2 * game]);
+    }
+
+    /**
+     * Get how a game ended
+     * @param game Index of the game
+     * @return WON, TURN_LIMIT, or IN_PROGRESS while it runs
+     */
+    public Game.Outcome getOutcome(int game) {
+        long state = slots[2 * game];
+        if (PackedState.isGameOver(state)) {
+            return Game.Outcome.WON;
+        }
+        return isOver(state) ? Game.Outcome.TURN_LIMIT : Game.Outcome.IN_PROGRESS;
+    }
+
+    /**
+     * Get the winner of a game
+     * @param game Index of the game
+     * @return Winner seat, or -1 if nobody has won
+     */
+    public int getWinner(int game) {
+        return PackedState.winner(slots[2 * game]);
+    }
+
+    /**
+     * Get the number of turns a game has played
+     * @param game Index of the game
+     * @return Turn count
+     */
+    public int getTurns(int game) {
+        return PackedState.turns(slots[2 * game]);
+    }
+
+    /**
+     * Get a player's position in a game
+     * @param game Index of the game
+     * @param seat Seat index (0 = Red)
+     * @return Position
+     */
+    public int getPosition(int game, int seat) {
+        return PackedState.position(slots[2 * game], seat);
+    }
+
+    /**
+     * Get the seat whose turn it is in a game
+     * @param game Index of the game
+     * @return Seat index
+     */
+    public int getSeatToMove(int game) {
+        return PackedState.seatToMove(slots[2 * game]);
+    }
+
+    /**
+     * Get the whole state of a game
+     * @param game Index of the game
+     * @return Packed state (see {@link PackedState})
+     */
+    public long getState(int game) {
+        return slots[2 * game];
+    }
+
+    /**
+     * Get the number of games started
+     * @return Game count
+     */
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return slots.length / 2;
+    }
+
+    public GameConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Get the immutable data shared by every game of the configuration
+     * @return The configuration's move table
+     */
+    public MoveTable getMoveTable() {
+        return table;
+    }
+}
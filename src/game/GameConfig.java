@@ -1,9 +1,17 @@
 package game;
 
+import rules.RulePipeline;
 import util.ConsoleColors;
 
+import java.util.Arrays;
+
 /**
  * Configuration for a game.
+ *
+ * The first game started with a config freezes its layout (home positions and
+ * start seat): games and game pools keep the board, rules and reachability they
+ * derived from it for as long as they are given the same config object, so
+ * changing it afterwards throws. Create a new config for a different layout.
  */
 public class GameConfig {
     private final String boardSize;
@@ -11,6 +19,9 @@ public class GameConfig {
     private final String diceType;
     private final String[] ruleTypes;
     private boolean undoEnabled;
+    private int[] homePositions;
+    private int startSeat;
+    private boolean frozen;
     
     /**
      * Constructor for game configuration
@@ -23,7 +34,7 @@ public class GameConfig {
         this.boardSize = boardSize;
         this.numPlayers = numPlayers;
         this.diceType = diceType;
-        this.ruleTypes = ruleTypes;
+        this.ruleTypes = ruleTypes.clone();
         this.undoEnabled = false; // Default to false
     }
     
@@ -43,6 +54,62 @@ public class GameConfig {
         return undoEnabled;
     }
     
+    /**
+     * Use custom home positions instead of the board's standard layout.
+     * Each seat's tail entry is the square before its home.
+     * @param homePositions Home position of each seat, in seat order, or null for the standard layout
+     * @throws IllegalStateException if a game has already been started with this config
+     */
+    public void setHomePositions(int[] homePositions) {
+        checkNotFrozen();
+        if (homePositions != null && homePositions.length != numPlayers) {
+            throw new IllegalArgumentException("Need one home position per player");
+        }
+        this.homePositions = homePositions == null ? null : homePositions.clone();
+    }
+    
+    /**
+     * Get the custom home positions
+     * @return Home position of each seat, or null for the board's standard layout
+     */
+    public int[] getHomePositions() {
+        return homePositions == null ? null : homePositions.clone();
+    }
+    
+    /**
+     * Set which seat moves first
+     * @param startSeat Seat index (0 = Red, the default)
+     * @throws IllegalStateException if a game has already been started with this config
+     */
+    public void setStartSeat(int startSeat) {
+        checkNotFrozen();
+        if (startSeat < 0 || startSeat >= numPlayers) {
+            throw new IllegalArgumentException("Start seat must be between 0 and " + (numPlayers - 1));
+        }
+        this.startSeat = startSeat;
+    }
+    
+    /**
+     * Lock the layout; called when a game is started with this config
+     */
+    void freeze() {
+        frozen = true;
+    }
+    
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("Config " + getKey() + " is in use by a game; create a new config to change its layout");
+        }
+    }
+    
+    /**
+     * Get the seat that moves first
+     * @return Seat index
+     */
+    public int getStartSeat() {
+        return startSeat;
+    }
+    
     /**
      * Get the board size
      * @return "basic" or "large"
@@ -69,10 +136,10 @@ public class GameConfig {
     
     /**
      * Get the rule types
-     * @return Array of rule types
+     * @return Copy of the rule types
      */
     public String[] getRuleTypes() {
-        return ruleTypes;
+        return ruleTypes.clone();
     }
     
     /**
@@ -89,6 +156,84 @@ public class GameConfig {
         return false;
     }
     
+    /**
+     * Get a canonical key identifying this configuration, e.g. "large/4/double/exactEnd+hitHome".
+     * Two configs with the same board, players, dice and rules (in any order) share a key.
+     * A custom layout adds "@" and the home positions, a start seat other than 0 adds ">" and
+     * the seat, e.g. "basic/4/double/hitHome@1,6,10,15>2".
+     * @return Configuration key
+     */
+    public String getKey() {
+        String[] rules = Arrays.copyOf(ruleTypes, ruleTypes.length);
+        Arrays.sort(rules, String.CASE_INSENSITIVE_ORDER);
+        StringBuilder key = new StringBuilder();
+        key.append(boardSize.toLowerCase()).append('/').append(numPlayers).append('/')
+           .append(diceType.toLowerCase()).append('/')
+           .append(rules.length == 0 ? "none" : String.join("+", rules));
+        if (homePositions != null) {
+            key.append('@');
+            for (int seat = 0; seat < homePositions.length; seat++) {
+                key.append(seat == 0 ? "" : ",").append(homePositions[seat]);
+            }
+        }
+        if (startSeat != 0) {
+            key.append('>').append(startSeat);
+        }
+        return key.toString();
+    }
+    
+    /**
+     * Parse a configuration key as produced by {@link #getKey()}
+     * @param key Key such as "large/4/double/exactEnd+hitHome" or "basic/2/single/none"
+     * @return The configuration (undo disabled)
+     * @throws IllegalArgumentException if the key is malformed
+     */
+    public static GameConfig fromKey(String key) {
+        int startSeat = 0;
+        int startMark = key.indexOf('>');
+        if (startMark >= 0) {
+            startSeat = parseNumber(key.substring(startMark + 1), key);
+            key = key.substring(0, startMark);
+        }
+        String layout = null;
+        int layoutMark = key.indexOf('@');
+        if (layoutMark >= 0) {
+            layout = key.substring(layoutMark + 1);
+            key = key.substring(0, layoutMark);
+        }
+        
+        String[] parts = key.split("/");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Config key must be board/players/dice/rules: " + key);
+        }
+        int numPlayers;
+        try {
+            numPlayers = Integer.parseInt(parts[1]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid player count in config key: " + key);
+        }
+        String[] rules = "none".equalsIgnoreCase(parts[3]) ? new String[0] : parts[3].split("\\+");
+        GameConfig config = new GameConfig(parts[0], numPlayers, parts[2], rules);
+        if (layout != null) {
+            String[] homes = layout.split(",");
+            int[] homePositions = new int[homes.length];
+            for (int seat = 0; seat < homes.length; seat++) {
+                homePositions[seat] = parseNumber(homes[seat], key);
+            }
+            config.setHomePositions(homePositions);
+        }
+        config.setStartSeat(startSeat);
+        return config;
+    }
+    
+    private static int parseNumber(String text, String key) {
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number \"" + text + "\" in config key: " + key);
+        }
+    }
+    
     /**
      * Create a description of the configuration
      * @return String describing the configuration
@@ -119,17 +264,14 @@ public class GameConfig {
         
         builder.append("}\n");
         
-        if (hasRule("exactEnd")) {
-            builder.append("Player must land exactly on the END position to win\n");
-        } else {
-            builder.append("Player can land on or beyond the END position to win\n");
+        if (homePositions != null) {
+            builder.append("Home positions=").append(Arrays.toString(homePositions)).append("\n");
         }
-        
-        if (hasRule("hitHome")) {
-            builder.append("Player will be sent HOME when HIT\n");
-        } else {
-            builder.append("HITS are ignored, multiple players can occupy the same position\n");
+        if (startSeat != 0) {
+            builder.append("First to move: seat ").append(startSeat).append("\n");
         }
+        
+        builder.append(RulePipeline.forRules(ruleTypes).getDescription()).append("\n");
 
         builder.append("Dice: ");
         if ("single".equalsIgnoreCase(diceType)) {
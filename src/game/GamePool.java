@@ -0,0 +1,109 @@
+package game;
+
+import dices.Dice;
+import factories.DiceFactory;
+import observers.GameObserver;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Games kept by one batch worker, one per configuration, restarted in place.
+ *
+ * {@link #next} reseeds the configuration's dice and resets its game, so after
+ * the first game of a configuration no board, players, dice, history or observer
+ * list is created again. Configurations are looked up by identity, so pass the
+ * same {@link GameConfig} object for every game of a configuration; its first
+ * game freezes its layout, so the pooled game cannot go stale.
+ *
+ * Pooled games run under a turn budget and a wall-clock limit, so a runaway
+ * game ends with no winner (see {@link Game#getOutcome()}) instead of stalling
+ * the worker.
+ *
+ * Not thread safe: every worker thread uses its own pool.
+ */
+public class GamePool {
+    /** Default turn budget per game, far beyond any finishing game */
+    public static final int DEFAULT_TURN_LIMIT = 100_000;
+    /** Default wall-clock limit per game */
+    public static final long DEFAULT_TIME_LIMIT_MILLIS = 10_000;
+
+    private final Map<GameConfig, Slot> slots;
+    private final DiceFactory diceFactory;
+    private int turnLimit;
+    private long timeLimitMillis;
+
+    /**
+     * Constructor with the default turn and time limits
+     */
+    public GamePool() {
+        this.slots = new IdentityHashMap<>();
+        this.diceFactory = new DiceFactory();
+        this.turnLimit = DEFAULT_TURN_LIMIT;
+        this.timeLimitMillis = DEFAULT_TIME_LIMIT_MILLIS;
+    }
+
+    /**
+     * Set the limits of every pooled game
+     * @param turnLimit Most turns per game, 0 for no limit
+     * @param timeLimitMillis Most milliseconds per game, 0 for no limit
+     */
+    public void setLimits(int turnLimit, long timeLimitMillis) {
+        this.turnLimit = turnLimit;
+        this.timeLimitMillis = timeLimitMillis;
+        for (Slot slot : slots.values()) {
+            slot.game.setTurnLimit(turnLimit);
+            slot.game.setTimeLimitMillis(timeLimitMillis);
+        }
+    }
+
+    /**
+     * Get the pool's game for a configuration, at the start of a new game
+     * @param config Game configuration
+     * @param seed Dice seed of the new game
+     * @return The game, ready for its first turn
+     */
+    public Game next(GameConfig config, long seed) {
+        Slot slot = slots.get(config);
+        if (slot == null) {
+            slot = new Slot(new Game(), diceFactory.createDice(config.getDiceType(), seed));
+            slot.game.setTurnLimit(turnLimit);
+            slot.game.setTimeLimitMillis(timeLimitMillis);
+            slot.game.startGame(config, slot.dice);
+            slots.put(config, slot);
+            return slot.game;
+        }
+        slot.dice.reseed(seed);
+        slot.game.reset();
+        return slot.game;
+    }
+
+    /**
+     * Register an observer on the game of a configuration, creating the game if needed
+     * @param config Game configuration
+     * @param observer Observer kept across every game of the configuration
+     */
+    public void addObserver(GameConfig config, GameObserver observer) {
+        if (!slots.containsKey(config)) {
+            next(config, 0);
+        }
+        slots.get(config).game.addObserver(observer);
+    }
+
+    /**
+     * Get the number of games the pool holds
+     * @return One per configuration seen
+     */
+    public int size() {
+        return slots.size();
+    }
+
+    private static class Slot {
+        private final Game game;
+        private final Dice dice;
+
+        Slot(Game game, Dice dice) {
+            this.game = game;
+            this.dice = dice;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package game;
+
+import undo.PackedState;
+
+/**
+ * Immutable, consistent view of a game between two turns, for spectators.
+ * Obtained from {@link Game#getSnapshot()}; it never reflects a half-applied turn.
+ */
+public class GameSnapshot {
+    private final long state;
+    private final long version;
+    private final int seatCount;
+
+    GameSnapshot(long state, long version, int seatCount) {
+        this.state = state;
+        this.version = version;
+        this.seatCount = seatCount;
+    }
+
+    /**
+     * Get the publication counter; it increases every time the game state changes
+     * @return Version number
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public int getSeatCount() {
+        return seatCount;
+    }
+
+    public int getPosition(int seat) {
+        if (seat < 0 || seat >= seatCount) {
+            throw new IndexOutOfBoundsException("No seat " + seat + " in a " + seatCount + " player game");
+        }
+        return PackedState.position(state, seat);
+    }
+
+    public int getSeatToMove() {
+        return PackedState.seatToMove(state);
+    }
+
+    public boolean isGameOver() {
+        return PackedState.isGameOver(state);
+    }
+
+    /**
+     * Check whether the game ended without a winner, stopped by a turn or time limit
+     * @return true if the game is over and nobody won
+     */
+    public boolean isStopped() {
+        return PackedState.isStopped(state);
+    }
+
+    /**
+     * Get the winning seat
+     * @return Winner seat, or -1 if the game is not over or was stopped without a winner
+     */
+    public int getWinnerSeat() {
+        return PackedState.winner(state);
+    }
+
+    public int getTotalTurns() {
+        return PackedState.turns(state);
+    }
+
+    /**
+     * Get the raw packed state (see {@link PackedState})
+     * @return Packed state
+     */
+    public long getPackedState() {
+        return state;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("GameSnapshot{version=").append(version).append(", positions=[");
+        for (int seat = 0; seat < seatCount; seat++) {
+            if (seat > 0) {
+                builder.append(", ");
+            }
+            builder.append(getPosition(seat));
+        }
+        return builder.append("], toMove=").append(getSeatToMove())
+                      .append(", turns=").append(getTotalTurns())
+                      .append(", winner=").append(getWinnerSeat())
+                      .append(", over=").append(isGameOver()).append("}").toString();
+    }
+}
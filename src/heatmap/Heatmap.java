@@ -0,0 +1,156 @@
+package heatmap;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Counts of landings, hits and bounce-backs per (board position, seat).
+ *
+ * Positions run from 1 to main board size + tail size (END). Tail positions
+ * are per seat, so (position, seat) is one physical square on the board.
+ * Positions past END, reachable without the exact end rule, are counted on END.
+ *
+ * A heatmap is not thread safe. Parallel runs give each thread its own heatmap
+ * and {@link #merge} them at the end.
+ */
+public class Heatmap {
+
+    /**
+     * What is counted on a square
+     */
+    public enum Metric {
+        /** A player finished a move on the square */
+        LANDING,
+        /** A player was hit on the square (counted for the victim's seat) */
+        HIT,
+        /** A player bounced back from END onto the square */
+        BOUNCE
+    }
+
+    private static final int METRIC_COUNT = Metric.values().length;
+
+    private final int mainBoardSize;
+    private final int tailSize;
+    private final int numSeats;
+    private final int maxPosition;
+    private final long[] counts;
+    private long games;
+    private long turns;
+
+    /**
+     * Constructor for an empty heatmap
+     * @param mainBoardSize Positions on the main board
+     * @param tailSize Positions in each tail, including END
+     * @param numSeats Number of players
+     */
+    public Heatmap(int mainBoardSize, int tailSize, int numSeats) {
+        this.mainBoardSize = mainBoardSize;
+        this.tailSize = tailSize;
+        this.numSeats = numSeats;
+        this.maxPosition = mainBoardSize + tailSize;
+        this.counts = new long[METRIC_COUNT * numSeats * (maxPosition + 1)];
+    }
+
+    private int index(int metric, int position, int seat) {
+        return (metric * numSeats + seat) * (maxPosition + 1) + Math.min(position, maxPosition);
+    }
+
+    /**
+     * Count one event on a square
+     * @param metric What happened
+     * @param position Board position
+     * @param seat Seat of the player it happened to
+     */
+    public void increment(Metric metric, int position, int seat) {
+        counts[index(metric.ordinal(), position, seat)]++;
+    }
+
+    /**
+     * Count a finished game, won or stopped by a limit
+     * @param totalTurns Turns the game took
+     */
+    public void addGame(int totalTurns) {
+        games++;
+        turns += totalTurns;
+    }
+
+    /**
+     * Get a count
+     * @param metric What was counted
+     * @param position Board position
+     * @param seat Seat
+     * @return Number of events
+     */
+    public long get(Metric metric, int position, int seat) {
+        return counts[index(metric.ordinal(), position, seat)];
+    }
+
+    /**
+     * Get the highest count of a metric on any square
+     * @param metric What was counted
+     * @return Largest count
+     */
+    public long getMax(Metric metric) {
+        long max = 0;
+        for (int seat = 0; seat < numSeats; seat++) {
+            for (int position = 1; position <= maxPosition; position++) {
+                max = Math.max(max, get(metric, position, seat));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Add another heatmap's counts to this one
+     * @param other Heatmap of the same board and player count
+     */
+    public void merge(Heatmap other) {
+        if (other.mainBoardSize != mainBoardSize || other.tailSize != tailSize || other.numSeats != numSeats) {
+            throw new IllegalArgumentException("Cannot merge heatmaps of different boards");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        games += other.games;
+        turns += other.turns;
+    }
+
+    /**
+     * Write one row per (position, seat) as CSV:
+     * position,seat,area,landings,hits,bounces,landingsPerGame
+     * @param writer Destination
+     * @throws IOException if writing fails
+     */
+    public void writeCsv(Writer writer) throws IOException {
+        writer.write("position,seat,area,landings,hits,bounces,landingsPerGame\n");
+        for (int position = 1; position <= maxPosition; position++) {
+            String area = position > mainBoardSize ? (position == maxPosition ? "end" : "tail") : "main";
+            for (int seat = 0; seat < numSeats; seat++) {
+                long landings = get(Metric.LANDING, position, seat);
+                writer.write(position + "," + seat + "," + area + "," + landings + "," +
+                             get(Metric.HIT, position, seat) + "," + get(Metric.BOUNCE, position, seat) + "," +
+                             (games == 0 ? 0 : (double) landings / games) + "\n");
+            }
+        }
+    }
+
+    public int getMainBoardSize() {
+        return mainBoardSize;
+    }
+
+    public int getTailSize() {
+        return tailSize;
+    }
+
+    public int getNumSeats() {
+        return numSeats;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getTurns() {
+        return turns;
+    }
+}
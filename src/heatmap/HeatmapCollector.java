@@ -0,0 +1,177 @@
+package heatmap;
+
+import board.IBoard;
+import factories.BoardFactory;
+import game.Game;
+import game.GameConfig;
+import game.GamePool;
+import util.DebugLog;
+import view.HeatmapRenderer;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays many games of a configuration in parallel and collects their {@link Heatmap}.
+ *
+ * Every worker thread counts into its own heatmap through a {@link HeatmapRecorder},
+ * so the counting itself is plain array increments with no sharing between threads.
+ * The workers' heatmaps are merged once all games are played. Workers claim games
+ * in blocks, and game i is always played with dice seed (seed + i), so the result
+ * does not depend on the number of threads. Every game is counted once it is
+ * over, including games stopped by the pool's limits, so per-game averages
+ * cover all the landings recorded. If a worker fails, the others stop claiming
+ * blocks and the failure is rethrown instead of returning a partial heatmap.
+ */
+public class HeatmapCollector {
+    private int threads;
+    private int blockSize;
+    private long seed;
+
+    /**
+     * Constructor using one thread per processor, 256 game blocks and seed 1
+     */
+    public HeatmapCollector() {
+        this.threads = Runtime.getRuntime().availableProcessors();
+        this.blockSize = 256;
+        this.seed = 1;
+    }
+
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Need at least 1 thread");
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Set how many games a worker claims at a time
+     * @param blockSize Games per block
+     */
+    public void setBlockSize(int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be at least 1");
+        }
+        this.blockSize = blockSize;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Play games of one configuration and count them
+     * @param config Game configuration
+     * @param games Number of games
+     * @return Counts over all games
+     */
+    public Heatmap collect(GameConfig config, long games) {
+        IBoard board = new BoardFactory().createBoard(config);
+        AtomicLong nextBlock = new AtomicLong();
+        Heatmap[] partials = new Heatmap[threads];
+        Throwable[] failures = new Throwable[threads];
+        List<Thread> workers = new ArrayList<>();
+        for (int w = 0; w < threads; w++) {
+            Heatmap partial = new Heatmap(board.getMainBoardSize(), board.getTailSize(), config.getNumPlayers());
+            partials[w] = partial;
+            int index = w;
+            Thread worker = new Thread(() -> {
+                try {
+                    work(config, games, partial, nextBlock);
+                } catch (Throwable e) {
+                    failures[index] = e;
+                    // Past the last block, so the other workers finish their current block and stop
+                    nextBlock.set(games / blockSize + 1);
+                }
+            }, "heatmap-" + config.getKey() + "-" + w);
+            worker.start();
+            workers.add(worker);
+        }
+
+        for (int w = 0; w < threads; w++) {
+            try {
+                workers.get(w).join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while collecting " + config.getKey(), e);
+            }
+        }
+        // join() makes the workers' writes to failures and partials visible here
+        checkFailures(config, failures);
+
+        Heatmap total = new Heatmap(board.getMainBoardSize(), board.getTailSize(), config.getNumPlayers());
+        for (Heatmap partial : partials) {
+            total.merge(partial);
+        }
+        return total;
+    }
+
+    private static void checkFailures(GameConfig config, Throwable[] failures) {
+        IllegalStateException failure = null;
+        for (Throwable cause : failures) {
+            if (cause == null) {
+                continue;
+            }
+            if (failure == null) {
+                failure = new IllegalStateException("Heatmap worker failed while collecting " + config.getKey(), cause);
+            } else {
+                failure.addSuppressed(cause);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void work(GameConfig config, long games, Heatmap heatmap, AtomicLong nextBlock) {
+        GamePool pool = new GamePool();
+        pool.addObserver(config, new HeatmapRecorder(heatmap));
+        for (long first = nextBlock.getAndIncrement() * blockSize; first < games;
+             first = nextBlock.getAndIncrement() * blockSize) {
+            long last = Math.min(first + blockSize, games);
+            for (long i = first; i < last; i++) {
+                Game game = pool.next(config, seed + i);
+                while (!game.isGameOver()) {
+                    game.playTurn();
+                }
+                heatmap.addGame(game.getPlayerManager().getTotalTurns());
+            }
+        }
+    }
+
+    /**
+     * Usage: java heatmap.HeatmapCollector games landing|hit|bounce csvDirectory configKey...
+     * e.g.   java heatmap.HeatmapCollector 1000000 landing /tmp/heat large/4/double/exactEnd+hitHome
+     * Writes one CSV per configuration (key with '/' replaced by '_') and prints the heat view.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 4) {
+            System.out.println("Usage: HeatmapCollector games landing|hit|bounce csvDirectory configKey...");
+            System.exit(1);
+        }
+        long games = Long.parseLong(args[0]);
+        Heatmap.Metric metric = Heatmap.Metric.valueOf(args[1].toUpperCase());
+        Path directory = Files.createDirectories(Path.of(args[2]));
+
+        DebugLog.setEnabled(false);
+        HeatmapCollector collector = new HeatmapCollector();
+        for (int i = 3; i < args.length; i++) {
+            GameConfig config = GameConfig.fromKey(args[i]);
+            long start = System.nanoTime();
+            Heatmap heatmap = collector.collect(config, games);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+
+            Path csv = directory.resolve(config.getKey().replace('/', '_') + ".csv");
+            try (Writer writer = Files.newBufferedWriter(csv)) {
+                heatmap.writeCsv(writer);
+            }
+            IBoard board = new BoardFactory().createBoard(config);
+            System.out.println(config.getKey() + " (" + games + " games in " + millis + " ms, " + csv + ")");
+            System.out.println(new HeatmapRenderer(board, config.getNumPlayers()).render(heatmap, metric));
+        }
+    }
+}
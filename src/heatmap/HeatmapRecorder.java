@@ -0,0 +1,55 @@
+package heatmap;
+
+import observers.GameObserver;
+import players.Player;
+
+/**
+ * Observer that counts a game's landings, hits and bounce-backs into a {@link Heatmap}.
+ *
+ * The recorder can stay attached while the game is restarted, so one recorder
+ * collects any number of games. Undone moves are not taken back out.
+ *
+ * A game stopped by a turn or time limit ends without any observer call, so the
+ * recorder does not count games; whoever plays them calls {@link Heatmap#addGame}
+ * once each game is over, won or not.
+ */
+public class HeatmapRecorder implements GameObserver {
+    private final Heatmap heatmap;
+
+    /**
+     * Constructor for a recorder
+     * @param heatmap Heatmap to count into
+     */
+    public HeatmapRecorder(Heatmap heatmap) {
+        this.heatmap = heatmap;
+    }
+
+    @Override
+    public void onMove(Player player, int oldPosition, int newPosition, int diceRoll) {
+        heatmap.increment(Heatmap.Metric.LANDING, newPosition, player.getSeat());
+    }
+
+    @Override
+    public void onHit(Player attacker, Player victim, int victimOriginalPosition) {
+        heatmap.increment(Heatmap.Metric.HIT, victimOriginalPosition, victim.getSeat());
+    }
+
+    @Override
+    public void onOvershoot(Player player) {
+        // Called after the move, so the player already stands where they bounced to
+        heatmap.increment(Heatmap.Metric.BOUNCE, player.getCurrentPosition(), player.getSeat());
+    }
+
+    @Override
+    public void onWin(Player winner, int totalTurns) {
+        // Counted by the caller with every other finished game
+    }
+
+    @Override
+    public void onUndo(Player player, boolean hitOccurred, Player hitVictim) {
+    }
+
+    public Heatmap getHeatmap() {
+        return heatmap;
+    }
+}
@@ -3,6 +3,7 @@ package observers;
 import board.IBoard;
 import players.Player;
 import util.ConsoleColors;
+import util.DebugLog;
 
 /**
  * Observer that prints game events to the console.
@@ -34,11 +35,13 @@ public class ConsoleObserver implements GameObserver {
         String victimColor = victim.getColorString();
         int hitPosition = attacker.getCurrentPosition();
         
-        System.out.println("[DEBUG Observer] HIT event: " + attacker.getColorString() + 
-                          " hit " + victimColor + 
-                          " at position " + hitPosition);
-        System.out.println("[DEBUG Observer] Victim original position: " + victimOriginalPosition + 
-                          " (now at " + victim.getCurrentPosition() + ")");
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG Observer] HIT event: " + attacker.getColorString() + 
+                              " hit " + victimColor + 
+                              " at position " + hitPosition);
+            System.out.println("[DEBUG Observer] Victim original position: " + victimOriginalPosition + 
+                              " (now at " + victim.getCurrentPosition() + ")");
+        }
         
         System.out.println(ConsoleColors.colorize(victimColor + " Position " + hitPosition + " \u001B[1mHIT!\u001B[0m", victimColor));
         System.out.println(ConsoleColors.colorize(victimColor + " moves from Position " + 
@@ -0,0 +1,361 @@
+package observers;
+
+import game.Game;
+import game.GameConfig;
+import players.Player;
+import players.PlayerColor;
+import players.PlayerManager;
+import undo.PackedState;
+import undo.TurnDelta;
+import java.io.PrintStream;
+
+/**
+ * Observer that keeps the last events of a game in a fixed ring buffer, for post-mortem dumps.
+ *
+ * Every event is stored as one int (a {@link TurnDelta} plus the event kind) and
+ * one long (the {@link PackedState} right after the event), written into arrays
+ * allocated up front, so the recorder can stay attached to every game. Nothing
+ * is printed until {@link #dump} is called, {@link #playToEnd} sees a turn throw,
+ * or an invariant check fails:
+ *   - every player still in the game stands between 1 and their END
+ *   - with hitHome, no two players share a main board square other than a
+ *     home (a player hit on their own home stays there, and a hit sends only
+ *     one of the players on a square home, so players can pile up on a home)
+ *   - an undo restores exactly the positions the undone turn started from
+ *     (the wrong undo after a hit described in the README broke this one)
+ * Only a landing can break the first two, so each turn checks just the player
+ * who moved last, on the state the turn starts from (the hit of a turn is
+ * reported after its move). A win and an undo check every seat. A failed check
+ * dumps the recording once per game and is counted; the game goes on.
+ *
+ * The recorder can stay attached while a pooled game is restarted.
+ */
+public class FlightRecorder implements GameObserver {
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private static final int KIND_MOVE = 0;
+    private static final int KIND_HIT = 1;
+    private static final int KIND_BOUNCE = 2;
+    private static final int KIND_WIN = 3;
+    private static final int KIND_UNDO = 4;
+    private static final String[] KIND_NAMES = {"move", "hit", "bounce", "win", "undo"};
+    private static final int KIND_SHIFT = 28;
+    private static final int DELTA_MASK = (1 << KIND_SHIFT) - 1;
+    private static final int NO_SEAT = -1;
+
+    private final Game game;
+    private final int capacity;
+    private final int mask;
+    private final int[] deltas;
+    private final long[] states;
+    /** State each turn started from, by turn number modulo capacity (the turn is kept in the state) */
+    private final long[] turnStarts;
+    private final PrintStream out;
+    private long events;
+
+    // Per configuration, refreshed when the game is started with another one
+    private GameConfig checkedConfig;
+    private PlayerManager playerManager;
+    private Player[] players;
+    private boolean hitHome;
+    private int mainBoardSize;
+    /** Bit per square that is some seat's home */
+    private long homeSquares;
+    private int violations;
+    private boolean dumpedThisGame;
+    /** Seat that moved last, the only one whose landing can have broken an invariant since */
+    private int lastMover = NO_SEAT;
+
+    /**
+     * Constructor keeping the last {@link #DEFAULT_CAPACITY} events and dumping to System.err
+     * @param game The game being recorded
+     */
+    public FlightRecorder(Game game) {
+        this(game, DEFAULT_CAPACITY, System.err);
+    }
+
+    /**
+     * Constructor for a recorder
+     * @param game The game being recorded
+     * @param capacity Number of events kept, rounded up to a power of two
+     * @param out Where automatic dumps are printed
+     */
+    public FlightRecorder(Game game, int capacity, PrintStream out) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30");
+        }
+        this.game = game;
+        this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.deltas = new int[this.capacity];
+        this.states = new long[this.capacity];
+        this.turnStarts = new long[this.capacity];
+        this.out = out;
+    }
+
+    @Override
+    public void onMove(Player player, int oldPosition, int newPosition, int diceRoll) {
+        long state = currentState();
+        int turn = PackedState.turns(state);
+        if (turn <= 1) {
+            dumpedThisGame = false;
+            lastMover = NO_SEAT;
+        }
+        long start = PackedState.withTurns(PackedState.withPosition(state, player.getSeat(), oldPosition), turn - 1);
+        turnStarts[turn & mask] = start;
+        record(KIND_MOVE, TurnDelta.of(player.getSeat(), oldPosition, newPosition, diceRoll), state);
+        if (lastMover != NO_SEAT && !checkSeat(start, lastMover)) {
+            violation(start, "at the start of turn " + turn);
+        }
+        lastMover = player.getSeat();
+    }
+
+    @Override
+    public void onHit(Player attacker, Player victim, int victimOriginalPosition) {
+        long state = currentState();
+        // A redo has already sent the victim home when the move is reported
+        int slot = PackedState.turns(state) & mask;
+        turnStarts[slot] = PackedState.withPosition(turnStarts[slot], victim.getSeat(), victimOriginalPosition);
+        int delta = TurnDelta.withHit(TurnDelta.of(attacker.getSeat(), 0, attacker.getCurrentPosition(), 0),
+                victim.getSeat(), victimOriginalPosition);
+        record(KIND_HIT, delta, state);
+    }
+
+    @Override
+    public void onOvershoot(Player player) {
+        record(KIND_BOUNCE, TurnDelta.of(player.getSeat(), 0, player.getCurrentPosition(), 0), currentState());
+    }
+
+    @Override
+    public void onWin(Player winner, int totalTurns) {
+        long state = currentState();
+        record(KIND_WIN, TurnDelta.withWin(TurnDelta.of(winner.getSeat(), 0, winner.getCurrentPosition(), 0)), state);
+        String problem = checkSharing(state);
+        if (problem != null) {
+            violation(problem + " after the winning turn " + totalTurns);
+        }
+    }
+
+    @Override
+    public void onUndo(Player player, boolean hitOccurred, Player hitVictim) {
+        long state = currentState();
+        int delta = TurnDelta.of(player.getSeat(), 0, player.getCurrentPosition(), 0);
+        if (hitOccurred && hitVictim != null) {
+            delta = TurnDelta.withHit(delta, hitVictim.getSeat(), 0);
+        }
+        record(KIND_UNDO, delta, state);
+
+        int turn = PackedState.turns(state);
+        long expected = turnStarts[(turn + 1) & mask];
+        if (PackedState.turns(expected) == turn && !samePositions(expected, state)) {
+            violation("undo of turn " + (turn + 1) + " restored " + describePositions(state)
+                    + " instead of " + describePositions(expected));
+        }
+        if (checkPositions(state) != null) {
+            violation(state, "after undoing turn " + (turn + 1));
+        }
+        lastMover = NO_SEAT;
+    }
+
+    /**
+     * Play the rest of the game, dumping the recording if a turn throws
+     * @throws RuntimeException whatever the failing turn threw, after the dump
+     */
+    public void playToEnd() {
+        while (!game.isGameOver()) {
+            try {
+                game.playTurn();
+            } catch (RuntimeException e) {
+                out.println("[FlightRecorder] Turn failed: " + e);
+                dump(out);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Print the recorded events, oldest first
+     * @param target Stream to print to
+     */
+    public void dump(PrintStream target) {
+        long kept = Math.min(events, capacity);
+        GameConfig config = game.getConfig();
+        target.println("[FlightRecorder] Last " + kept + " of " + events + " events"
+                + (config != null ? " (" + config.getKey() + ")" : "") + ":");
+        for (long i = events - kept; i < events; i++) {
+            int slot = (int) i & mask;
+            target.println("  " + describe(deltas[slot], states[slot]));
+        }
+    }
+
+    /**
+     * Get the number of failed invariant checks so far
+     * @return Number of violations
+     */
+    public int getViolations() {
+        return violations;
+    }
+
+    /**
+     * Get the number of events recorded so far (including those no longer kept)
+     * @return Number of events
+     */
+    public long getEventCount() {
+        return events;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private void record(int kind, int delta, long state) {
+        int slot = (int) events & mask;
+        deltas[slot] = delta | (kind << KIND_SHIFT);
+        states[slot] = state;
+        events++;
+    }
+
+    private long currentState() {
+        if (game.getConfig() != checkedConfig || game.getPlayerManager() != playerManager) {
+            cacheConfig();
+        }
+        long state = 0;
+        int turns = 0;
+        for (int seat = 0; seat < players.length; seat++) {
+            state = PackedState.withPosition(state, seat, players[seat].getCurrentPosition());
+            turns += players[seat].getTotalMoves();
+        }
+        state = PackedState.withSeatToMove(state, playerManager.getCurrentPlayerIndex());
+        return PackedState.withTurns(state, turns);
+    }
+
+    /**
+     * Check one seat's position against the board and, with hitHome, against the other seats
+     * @return true if the seat's position is fine
+     */
+    private boolean checkSeat(long state, int seat) {
+        int position = PackedState.position(state, seat);
+        int endPosition = players[seat].getEndPosition();
+        if (position < 1 || position > endPosition) {
+            return false;
+        }
+        if (!hitHome || position > mainBoardSize || position == endPosition || (homeSquares & (1L << position)) != 0) {
+            return true;
+        }
+        for (int other = 0; other < players.length; other++) {
+            if (other != seat && PackedState.position(state, other) == position) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check positions against the board and, with hitHome, against each other
+     * @return What is wrong, or null
+     */
+    private String checkPositions(long state) {
+        for (int seat = 0; seat < players.length; seat++) {
+            Player player = players[seat];
+            int position = PackedState.position(state, seat);
+            if (position < 1 || position > player.getEndPosition()) {
+                return player.getColorString() + " is off the board at " + position;
+            }
+        }
+        return checkSharing(state);
+    }
+
+    /**
+     * With hitHome, check that no two players share a main board square (a winner may be past END)
+     * @return What is wrong, or null
+     */
+    private String checkSharing(long state) {
+        if (!hitHome) {
+            return null;
+        }
+        for (int seat = 0; seat < players.length; seat++) {
+            int position = PackedState.position(state, seat);
+            if (position > mainBoardSize || (homeSquares & (1L << position)) != 0
+                    || position == players[seat].getEndPosition()) {
+                continue;
+            }
+            for (int other = seat + 1; other < players.length; other++) {
+                if (PackedState.position(state, other) == position) {
+                    return players[seat].getColorString() + " and " + players[other].getColorString()
+                            + " share square " + position;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void cacheConfig() {
+        checkedConfig = game.getConfig();
+        playerManager = game.getPlayerManager();
+        players = playerManager.getPlayers().toArray(new Player[0]);
+        hitHome = checkedConfig.hasRule("hitHome");
+        mainBoardSize = game.getBoard().getMainBoardSize();
+        homeSquares = 0;
+        for (Player player : players) {
+            homeSquares |= 1L << player.getHomePosition();
+        }
+    }
+
+    private void violation(long state, String when) {
+        String problem = checkPositions(state);
+        violation((problem != null ? problem : checkSharing(state)) + " " + when);
+    }
+
+    private void violation(String message) {
+        violations++;
+        if (!dumpedThisGame) {
+            dumpedThisGame = true;
+            out.println("[FlightRecorder] Invariant violated: " + message);
+            dump(out);
+        }
+    }
+
+    private boolean samePositions(long a, long b) {
+        for (int seat = 0; seat < players.length; seat++) {
+            if (PackedState.position(a, seat) != PackedState.position(b, seat)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String describe(int word, long state) {
+        int kind = word >>> KIND_SHIFT;
+        int delta = word & DELTA_MASK;
+        String seat = PlayerColor.fromOrdinal(TurnDelta.seat(delta)).getValue();
+        String event;
+        switch (kind) {
+            case KIND_MOVE:
+                event = String.format("%-6s roll %2d  %2d -> %2d", seat, TurnDelta.roll(delta),
+                        TurnDelta.from(delta), TurnDelta.to(delta));
+                break;
+            case KIND_HIT:
+                event = String.format("%-6s hit %s, sent back from %d", seat,
+                        PlayerColor.fromOrdinal(TurnDelta.victimSeat(delta)).getValue(), TurnDelta.victimFrom(delta));
+                break;
+            case KIND_UNDO:
+                event = String.format("%-6s to move again%s", seat, TurnDelta.isHit(delta)
+                        ? ", restored hit on " + PlayerColor.fromOrdinal(TurnDelta.victimSeat(delta)).getValue() : "");
+                break;
+            default:
+                event = String.format("%-6s on %d", seat, TurnDelta.to(delta));
+                break;
+        }
+        return String.format("turn %5d  %-6s %-36s | %s", PackedState.turns(state), KIND_NAMES[kind], event,
+                describePositions(state));
+    }
+
+    private String describePositions(long state) {
+        StringBuilder builder = new StringBuilder();
+        for (int seat = 0; seat < players.length; seat++) {
+            builder.append(seat == 0 ? "" : " ").append(PlayerColor.fromOrdinal(seat).getValue())
+                   .append('=').append(PackedState.position(state, seat));
+        }
+        return builder.toString();
+    }
+}
@@ -1,6 +1,7 @@
 package players;
 
 import util.ConsoleColors;
+import util.DebugLog;
 
 /**
  * Represents a player in the game.
@@ -34,6 +35,15 @@ public class Player {
         return color;
     }
     
+    /**
+     * Get the player's seat, the ordinal of their color. Seats are also the turn order
+     * and the index into per-player arrays.
+     * @return Seat index
+     */
+    public int getSeat() {
+        return color.ordinal();
+    }
+    
     /**
      * Get the player's color string value
      * @return Player's color string
@@ -95,7 +105,9 @@ public class Player {
      * @param newPosition The new position
      */
     public void move(int newPosition) {
-        System.out.println("[DEBUG Player] " + color.getValue() + " moving from position " + currentPosition + " to " + newPosition);
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG Player] " + color.getValue() + " moving from position " + currentPosition + " to " + newPosition);
+        }
         this.currentPosition = newPosition;
         this.totalMoves++;
     }
@@ -105,7 +117,9 @@ public class Player {
      * @param position The position to set
      */
     public void setPosition(int position) {
-        System.out.println("[DEBUG Player] " + color.getValue() + " position directly set from " + currentPosition + " to " + position + " (undo operation)");
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG Player] " + color.getValue() + " position directly set from " + currentPosition + " to " + position + " (undo operation)");
+        }
         this.currentPosition = position;
     }
     
@@ -113,7 +127,9 @@ public class Player {
      * Reset the player to their home position
      */
     public void resetToHome() {
-        System.out.println("[DEBUG Player] " + color.getValue() + " reset from position " + currentPosition + " to HOME at position " + homePosition);
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG Player] " + color.getValue() + " reset from position " + currentPosition + " to HOME at position " + homePosition);
+        }
         this.currentPosition = homePosition;
     }
     
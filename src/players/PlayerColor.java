@@ -1,34 +1,40 @@
 package players;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
 /**
  * Value object representing a player's color.
+ *
+ * There is exactly one instance per color, so colors can be compared with ==.
+ * Each color has a dense ordinal (Red 0, Blue 1, Green 2, Yellow 3) that is also
+ * the player's seat, and is used to index per-player arrays.
  */
 public class PlayerColor {
-    // Define valid colors first before using them
-    private static final List<String> VALID_COLORS = 
-        Arrays.asList("Red", "Blue", "Green", "Yellow");
+    /** Number of player colors */
+    public static final int COUNT = 4;
+    
+    // Standard color constants, in ordinal order
+    public static final PlayerColor RED = new PlayerColor("Red", 0);
+    public static final PlayerColor BLUE = new PlayerColor("Blue", 1);
+    public static final PlayerColor GREEN = new PlayerColor("Green", 2);
+    public static final PlayerColor YELLOW = new PlayerColor("Yellow", 3);
     
-    // Standard color constants - defined after VALID_COLORS
-    public static final PlayerColor RED = new PlayerColor("Red");
-    public static final PlayerColor BLUE = new PlayerColor("Blue");
-    public static final PlayerColor GREEN = new PlayerColor("Green");
-    public static final PlayerColor YELLOW = new PlayerColor("Yellow");
+    private static final PlayerColor[] VALUES = { RED, BLUE, GREEN, YELLOW };
+    private static final List<String> VALID_COLORS = 
+        Collections.unmodifiableList(Arrays.asList("Red", "Blue", "Green", "Yellow"));
     
     private final String value;
+    private final int ordinal;
     
     /**
-     * Constructor for a PlayerColor
+     * Constructor for a PlayerColor, only used for the constants above
      * @param value The color string value
-     * @throws IllegalArgumentException if color is invalid
+     * @param ordinal Dense index of the color
      */
-    public PlayerColor(String value) {
-        if (!isValidColor(value)) {
-            throw new IllegalArgumentException("Invalid player color: " + value);
-        }
+    private PlayerColor(String value, int ordinal) {
         this.value = value;
+        this.ordinal = ordinal;
     }
     
     /**
@@ -49,17 +55,28 @@ public class PlayerColor {
     }
     
     /**
-     * Create a PlayerColor from a string if valid
+     * Get the canonical PlayerColor for a string if valid
      * @param color Color string
      * @return PlayerColor object or null if invalid
      */
     public static PlayerColor fromString(String color) {
-        if (isValidColor(color)) {
-            return new PlayerColor(color);
+        for (PlayerColor playerColor : VALUES) {
+            if (playerColor.value.equals(color)) {
+                return playerColor;
+            }
         }
         return null;
     }
     
+    /**
+     * Get the color with a given ordinal
+     * @param ordinal Color ordinal (0 to COUNT - 1)
+     * @return The canonical PlayerColor
+     */
+    public static PlayerColor fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+    
     /**
      * Get the string value of this color
      * @return Color string value
@@ -68,21 +85,16 @@ public class PlayerColor {
         return value; 
     }
     
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        PlayerColor that = (PlayerColor) o;
-        return Objects.equals(value, that.value);
-    }
-    
-    @Override
-    public int hashCode() {
-        return Objects.hash(value);
+    /**
+     * Get the dense index of this color, usable as an array index
+     * @return Color ordinal
+     */
+    public int ordinal() {
+        return ordinal;
     }
     
     @Override
     public String toString() {
         return value;
     }
-} 
\ No newline at end of file
+} 
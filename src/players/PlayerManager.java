@@ -2,7 +2,9 @@ package players;
 
 import board.IBoard;
 import factories.PlayerFactory;
+import util.DebugLog;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -10,6 +12,7 @@ import java.util.List;
  */
 public class PlayerManager {
     private final List<Player> players;
+    private final List<Player> playersView;
     private int currentPlayerIndex;
     
     /**
@@ -17,6 +20,7 @@ public class PlayerManager {
      */
     public PlayerManager() {
         this.players = new ArrayList<>();
+        this.playersView = Collections.unmodifiableList(players);
         this.currentPlayerIndex = 0;
     }
     
@@ -45,6 +49,20 @@ public class PlayerManager {
         currentPlayerIndex = 0;
     }
     
+    /**
+     * Put every player back at home with no moves, keeping the same player objects
+     * @param startIndex Index of the player who moves first
+     */
+    public void resetPlayers(int startIndex) {
+        for (int i = 0; i < players.size(); i++) {
+            Player player = players.get(i);
+            player.resetToHome();
+            player.setTotalMoves(0);
+        }
+        currentPlayerIndex = 0;
+        setCurrentPlayerIndex(startIndex);
+    }
+    
     /**
      * Get the current player whose turn it is
      * @return The current player
@@ -86,6 +104,41 @@ public class PlayerManager {
         return new ArrayList<>(players);
     }
     
+    /**
+     * Get a read-only view of all players, in seat order, without copying
+     * @return Unmodifiable list of players
+     */
+    public List<Player> getPlayers() {
+        return playersView;
+    }
+    
+    /**
+     * Get the player sitting at a seat index
+     * @param index Seat index (turn order)
+     * @return The player at that seat
+     */
+    public Player getPlayer(int index) {
+        return players.get(index);
+    }
+
+    /**
+     * Get the seat index of a player
+     * @param player The player to look up
+     * @return Seat index, or -1 if the player is not in this game
+     */
+    public int indexOf(Player player) {
+        int seat = player.getSeat();
+        return seat < players.size() && players.get(seat) == player ? seat : -1;
+    }
+
+    /**
+     * Get the number of players in the game
+     * @return Number of players
+     */
+    public int getPlayerCount() {
+        return players.size();
+    }
+
     /**
      * Check if a player exists at a specific position
      * @param position Position to check
@@ -93,21 +146,30 @@ public class PlayerManager {
      * @return The player at that position, or null if none
      */
     public Player getPlayerAtPosition(int position, Player excludePlayer) {
-        System.out.println("[DEBUG PlayerManager] Checking for players at position " + position + 
-                          " (excluding " + excludePlayer.getColorString() + ")");
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG PlayerManager] Checking for players at position " + position + 
+                              " (excluding " + excludePlayer.getColorString() + ")");
+        }
         
-        for (Player player : players) {
-            System.out.println("[DEBUG PlayerManager]   Checking " + player.getColorString() + 
-                             " at position " + player.getCurrentPosition());
+        for (int i = 0; i < players.size(); i++) {
+            Player player = players.get(i);
+            if (DebugLog.isEnabled()) {
+                System.out.println("[DEBUG PlayerManager]   Checking " + player.getColorString() + 
+                                 " at position " + player.getCurrentPosition());
+            }
             
             if (player != excludePlayer && player.getCurrentPosition() == position) {
-                System.out.println("[DEBUG PlayerManager]   Found " + player.getColorString() + 
-                                 " at position " + position);
+                if (DebugLog.isEnabled()) {
+                    System.out.println("[DEBUG PlayerManager]   Found " + player.getColorString() + 
+                                     " at position " + position);
+                }
                 return player;
             }
         }
         
-        System.out.println("[DEBUG PlayerManager]   No player found at position " + position);
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG PlayerManager]   No player found at position " + position);
+        }
         return null;
     }
     
@@ -117,8 +179,8 @@ public class PlayerManager {
      */
     public int getTotalTurns() {
         int total = 0;
-        for (Player player : players) {
-            total += player.getTotalMoves();
+        for (int i = 0; i < players.size(); i++) {
+            total += players.get(i).getTotalMoves();
         }
         return total;
     }
@@ -0,0 +1,29 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for a roll that went past END under the exact end rule and bounced back.
+ */
+@Name("simplefrustration.Bounce")
+@Label("Exact End Bounce")
+@Category({"Simple Frustration", "Game"})
+@Description("A roll overshot END and bounced back")
+@Enabled(false)
+@StackTrace(false)
+public class BounceEvent extends jdk.jfr.Event {
+    @Label("Seat")
+    public int seat;
+
+    @Label("Overshoot")
+    @Description("Squares past END")
+    public int overshoot;
+
+    @Label("Bounce Position")
+    public int bouncePosition;
+}
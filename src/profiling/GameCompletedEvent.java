@@ -0,0 +1,28 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for a finished game; its duration runs from startGame to the winning turn.
+ */
+@Name("simplefrustration.GameCompleted")
+@Label("Game Completed")
+@Category({"Simple Frustration", "Game"})
+@Description("A game was won")
+@Enabled(false)
+@StackTrace(false)
+public class GameCompletedEvent extends jdk.jfr.Event {
+    @Label("Config")
+    public String config;
+
+    @Label("Winner Seat")
+    public int winnerSeat;
+
+    @Label("Turns")
+    public int turns;
+}
@@ -0,0 +1,29 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for a player landing on another and sending them home.
+ */
+@Name("simplefrustration.Hit")
+@Label("Hit")
+@Category({"Simple Frustration", "Game"})
+@Description("A player was hit and sent home")
+@Enabled(false)
+@StackTrace(false)
+public class HitEvent extends jdk.jfr.Event {
+    @Label("Attacker Seat")
+    public int attackerSeat;
+
+    @Label("Victim Seat")
+    public int victimSeat;
+
+    @Label("Position")
+    @Description("Square where the hit happened")
+    public int position;
+}
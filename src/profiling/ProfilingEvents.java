@@ -0,0 +1,42 @@
+package profiling;
+
+import jdk.jfr.EventType;
+
+/**
+ * Cheap checks for whether the game's JFR events are being recorded.
+ *
+ * All events are disabled by default. Enable them in a recording with e.g.
+ * {@code -XX:StartFlightRecording:settings=profile,simplefrustration.Turn#enabled=true}
+ * or a .jfc file. While an event type is disabled the game neither creates
+ * nor fills its events, so the turn loop stays allocation-free.
+ */
+public final class ProfilingEvents {
+    private static final EventType TURN = EventType.getEventType(TurnEvent.class);
+    private static final EventType HIT = EventType.getEventType(HitEvent.class);
+    private static final EventType BOUNCE = EventType.getEventType(BounceEvent.class);
+    private static final EventType UNDO = EventType.getEventType(UndoEvent.class);
+    private static final EventType GAME_COMPLETED = EventType.getEventType(GameCompletedEvent.class);
+
+    private ProfilingEvents() {
+    }
+
+    public static boolean isTurnEnabled() {
+        return TURN.isEnabled();
+    }
+
+    public static boolean isHitEnabled() {
+        return HIT.isEnabled();
+    }
+
+    public static boolean isBounceEnabled() {
+        return BOUNCE.isEnabled();
+    }
+
+    public static boolean isUndoEnabled() {
+        return UNDO.isEnabled();
+    }
+
+    public static boolean isGameCompletedEnabled() {
+        return GAME_COMPLETED.isEnabled();
+    }
+}
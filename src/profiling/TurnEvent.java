@@ -0,0 +1,31 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event covering one call to {@link game.Game#playTurn()}; its duration is the turn's duration.
+ */
+@Name("simplefrustration.Turn")
+@Label("Turn")
+@Category({"Simple Frustration", "Game"})
+@Description("One turn played by a seat")
+@Enabled(false)
+@StackTrace(false)
+public class TurnEvent extends jdk.jfr.Event {
+    @Label("Seat")
+    public int seat;
+
+    @Label("Roll")
+    public int roll;
+
+    @Label("Old Position")
+    public int oldPosition;
+
+    @Label("New Position")
+    public int newPosition;
+}
@@ -0,0 +1,30 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for an undo; its duration is the time taken to restore the state.
+ */
+@Name("simplefrustration.Undo")
+@Label("Undo")
+@Category({"Simple Frustration", "Game"})
+@Description("A turn was undone")
+@Enabled(false)
+@StackTrace(false)
+public class UndoEvent extends jdk.jfr.Event {
+    @Label("Seat")
+    @Description("Seat whose turn was undone")
+    public int seat;
+
+    @Label("Depth Restored")
+    @Description("Undo tree depth (turns from the start) after the undo")
+    public int depth;
+
+    @Label("Hit Undone")
+    public boolean hitUndone;
+}
@@ -0,0 +1,251 @@
+package replay;
+
+import game.Game;
+import observers.GameObserver;
+import players.Player;
+import players.PlayerManager;
+import rules.RulePipeline;
+import undo.PackedState;
+import undo.TurnDelta;
+
+import java.util.Arrays;
+
+/**
+ * Records a game as packed keyframes plus per-turn deltas so any turn can be
+ * shown without replaying the game from the start.
+ *
+ * A full {@link PackedState} keyframe is kept every K turns and a
+ * {@link TurnDelta} for every turn, so the state at turn N is one keyframe
+ * lookup plus at most K-1 delta applications. Deltas are reversible, so a
+ * {@link Cursor} can step backwards as cheaply as forwards. The seat chosen by
+ * the game's turn order is recorded next to each delta, so replays agree with
+ * any TURN_ORDER rule plugin.
+ *
+ * Attach it with {@link Game#addObserver(GameObserver)} right after
+ * {@link Game#startGame}. Undos truncate the timeline; {@link Game#jumpTo(int)}
+ * is not observed, so start a new timeline after jumping around the undo tree.
+ */
+public class GameTimeline implements GameObserver {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final PlayerManager playerManager;
+    private final RulePipeline rules;
+    private final int keyframeInterval;
+    private final int[] homePositions;
+    private int[] deltas;
+    private byte[] nextSeats;
+    private long[] keyframes;
+    private int size;
+    private long liveState;
+
+    /**
+     * Constructor recording from the current state of a game
+     * @param game The game to record, normally just started
+     * @param keyframeInterval Number of turns between keyframes (K)
+     */
+    public GameTimeline(Game game, int keyframeInterval) {
+        if (keyframeInterval < 1) {
+            throw new IllegalArgumentException("Keyframe interval must be at least 1");
+        }
+        this.playerManager = game.getPlayerManager();
+        this.rules = game.getRules();
+        this.keyframeInterval = keyframeInterval;
+
+        int numPlayers = playerManager.getPlayerCount();
+        this.homePositions = new int[numPlayers];
+        int[] positions = new int[numPlayers];
+        for (int seat = 0; seat < numPlayers; seat++) {
+            Player player = playerManager.getPlayer(seat);
+            homePositions[seat] = player.getHomePosition();
+            positions[seat] = player.getCurrentPosition();
+        }
+
+        this.deltas = new int[INITIAL_CAPACITY];
+        this.nextSeats = new byte[INITIAL_CAPACITY];
+        this.keyframes = new long[INITIAL_CAPACITY / keyframeInterval + 1];
+        this.liveState = PackedState.of(positions, playerManager.getCurrentPlayerIndex());
+        this.keyframes[0] = liveState;
+        this.size = 0;
+    }
+
+    @Override
+    public void onMove(Player player, int oldPosition, int newPosition, int diceRoll) {
+        if (size == deltas.length) {
+            deltas = Arrays.copyOf(deltas, size * 2);
+            nextSeats = Arrays.copyOf(nextSeats, size * 2);
+        }
+        int delta = TurnDelta.of(playerManager.indexOf(player), oldPosition, newPosition, diceRoll);
+        nextSeats[size] = (byte) rules.nextPlayerIndex(player, diceRoll, homePositions.length);
+        deltas[size++] = delta;
+        liveState = PackedState.apply(liveState, delta, homePositions, nextSeats[size - 1]);
+        storeKeyframeIfDue();
+    }
+
+    @Override
+    public void onHit(Player attacker, Player victim, int victimOriginalPosition) {
+        int victimSeat = playerManager.indexOf(victim);
+        deltas[size - 1] = TurnDelta.withHit(deltas[size - 1], victimSeat, victimOriginalPosition);
+        liveState = PackedState.withPosition(liveState, victimSeat, homePositions[victimSeat]);
+        storeKeyframeIfDue();
+    }
+
+    @Override
+    public void onOvershoot(Player player) {
+        // Bounces are already part of the move's final position
+    }
+
+    @Override
+    public void onWin(Player winner, int totalTurns) {
+        // Re-apply the last turn with the win flag so the keyframe records the winner
+        liveState = PackedState.revert(liveState, deltas[size - 1]);
+        deltas[size - 1] = TurnDelta.withWin(deltas[size - 1]);
+        liveState = PackedState.apply(liveState, deltas[size - 1], homePositions, nextSeats[size - 1]);
+        storeKeyframeIfDue();
+    }
+
+    @Override
+    public void onUndo(Player player, boolean hitOccurred, Player hitVictim) {
+        if (size == 0) {
+            return;
+        }
+        liveState = PackedState.revert(liveState, deltas[--size]);
+    }
+
+    /**
+     * Get the number of turns recorded
+     * @return Turn count
+     */
+    public int size() {
+        return size;
+    }
+
+    public int getKeyframeInterval() {
+        return keyframeInterval;
+    }
+
+    /**
+     * Get the packed delta of a recorded turn
+     * @param turn Turn index, 0 is the first turn played
+     * @return Packed turn delta
+     */
+    public int getDelta(int turn) {
+        checkTurn(turn, size - 1);
+        return deltas[turn];
+    }
+
+    /**
+     * Get the state after a number of turns
+     * @param turn Number of turns played, 0 is the starting position
+     * @return Packed state (see {@link PackedState})
+     */
+    public long stateAt(int turn) {
+        checkTurn(turn, size);
+        if (turn == size) {
+            return liveState;
+        }
+        int keyframe = turn / keyframeInterval;
+        long state = keyframes[keyframe];
+        for (int t = keyframe * keyframeInterval; t < turn; t++) {
+            state = PackedState.apply(state, deltas[t], homePositions, nextSeats[t]);
+        }
+        return state;
+    }
+
+    /**
+     * Create a cursor for stepping through the recording
+     * @param turn Turn to start at
+     * @return Cursor positioned at that turn
+     */
+    public Cursor cursor(int turn) {
+        Cursor cursor = new Cursor();
+        cursor.seek(turn);
+        return cursor;
+    }
+
+    /**
+     * Hit and win events amend the turn that was just moved, so they rewrite the keyframe too
+     */
+    private void storeKeyframeIfDue() {
+        if (size % keyframeInterval != 0) {
+            return;
+        }
+        int keyframe = size / keyframeInterval;
+        if (keyframe == keyframes.length) {
+            keyframes = Arrays.copyOf(keyframes, keyframe * 2);
+        }
+        keyframes[keyframe] = liveState;
+    }
+
+    private void checkTurn(int turn, int max) {
+        if (turn < 0 || turn > max) {
+            throw new IndexOutOfBoundsException("Turn " + turn + " outside recorded range 0.." + max);
+        }
+    }
+
+    /**
+     * Moves forwards and backwards through a recording one turn at a time.
+     * Each step is a single delta application.
+     */
+    public class Cursor {
+        private int turn;
+        private long state;
+
+        private Cursor() {
+        }
+
+        /**
+         * Jump to any turn (one keyframe restore plus at most K-1 deltas)
+         * @param turn Number of turns played
+         */
+        public void seek(int turn) {
+            this.state = stateAt(turn);
+            this.turn = turn;
+        }
+
+        public boolean hasNext() {
+            return turn < size;
+        }
+
+        public boolean hasPrevious() {
+            return turn > 0;
+        }
+
+        /**
+         * Step forwards over the next recorded turn
+         * @return The delta that was applied
+         */
+        public int next() {
+            checkTurn(turn, size - 1);
+            int delta = deltas[turn];
+            state = PackedState.apply(state, delta, homePositions, nextSeats[turn++]);
+            return delta;
+        }
+
+        /**
+         * Step backwards over the previous recorded turn
+         * @return The delta that was reverted
+         */
+        public int previous() {
+            checkTurn(turn - 1, size - 1);
+            int delta = deltas[--turn];
+            state = PackedState.revert(state, delta);
+            return delta;
+        }
+
+        public int getTurn() {
+            return turn;
+        }
+
+        /**
+         * Get the packed state at the cursor
+         * @return Packed state (see {@link PackedState})
+         */
+        public long getState() {
+            return state;
+        }
+
+        public int getPosition(int seat) {
+            return PackedState.position(state, seat);
+        }
+    }
+}
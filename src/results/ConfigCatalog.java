@@ -0,0 +1,58 @@
+package results;
+
+import game.GameConfig;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns small dense ids to game configurations so results can store them in one column.
+ */
+public class ConfigCatalog {
+    private final Map<String, Integer> idsByKey;
+    private final List<String> keysById;
+
+    public ConfigCatalog() {
+        this.idsByKey = new HashMap<>();
+        this.keysById = new ArrayList<>();
+    }
+
+    /**
+     * Get the id of a configuration, registering it if it is new
+     * @param config Game configuration
+     * @return Config id
+     */
+    public synchronized int idOf(GameConfig config) {
+        return idOf(config.getKey());
+    }
+
+    /**
+     * Get the id of a configuration key, registering it if it is new
+     * @param key Configuration key (see {@link GameConfig#getKey()})
+     * @return Config id
+     */
+    public synchronized int idOf(String key) {
+        Integer id = idsByKey.get(key);
+        if (id == null) {
+            id = keysById.size();
+            idsByKey.put(key, id);
+            keysById.add(key);
+        }
+        return id;
+    }
+
+    /**
+     * Get the key of a registered config id
+     * @param id Config id
+     * @return Configuration key
+     */
+    public synchronized String keyOf(int id) {
+        return keysById.get(id);
+    }
+
+    public synchronized int size() {
+        return keysById.size();
+    }
+}
@@ -0,0 +1,66 @@
+package results;
+
+import game.Game;
+import observers.GameObserver;
+import players.Player;
+
+/**
+ * Observer that counts hits and undos during a game so its outcome can be archived
+ * in a {@link ResultStore}.
+ */
+public class GameResultRecorder implements GameObserver {
+    private int hits;
+    private int undos;
+
+    @Override
+    public void onMove(Player player, int oldPosition, int newPosition, int diceRoll) {
+    }
+
+    @Override
+    public void onHit(Player attacker, Player victim, int victimOriginalPosition) {
+        hits++;
+    }
+
+    @Override
+    public void onOvershoot(Player player) {
+    }
+
+    @Override
+    public void onWin(Player winner, int totalTurns) {
+    }
+
+    @Override
+    public void onUndo(Player player, boolean hitOccurred, Player hitVictim) {
+        undos++;
+    }
+
+    /**
+     * Append the outcome of a finished game to a store
+     * @param store Result store
+     * @param configId Id of the game's configuration
+     * @param seed Dice seed used for the game
+     * @param game The finished game
+     * @return Row number of the stored result
+     */
+    public int recordTo(ResultStore store, int configId, long seed, Game game) {
+        Player winner = game.getWinner();
+        int winnerSeat = winner != null ? game.getPlayerManager().indexOf(winner) : ResultStore.NO_WINNER;
+        return store.append(configId, winnerSeat, game.getPlayerManager().getTotalTurns(), hits, undos, seed);
+    }
+
+    /**
+     * Reset the counters to record another game
+     */
+    public void reset() {
+        hits = 0;
+        undos = 0;
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public int getUndos() {
+        return undos;
+    }
+}
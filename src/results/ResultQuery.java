@@ -0,0 +1,255 @@
+package results;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Predicate query over a {@link ResultStore}, e.g.
+ * {@code store.query().config(id).winner(3).range(Column.TURNS, 0, 29).count()}.
+ *
+ * All predicates are ANDed. Blocks are evaluated in parallel: equality
+ * predicates are bitmap intersections, and range predicates only read the
+ * column values of blocks whose zone map straddles the range.
+ */
+public class ResultQuery {
+    private final ResultStore store;
+    private int[] configIds;
+    private boolean filterWinner;
+    private int winnerSeat;
+    private final List<ResultStore.Column> rangeColumns;
+    private final List<int[]> rangeBounds;
+    private boolean empty;
+
+    ResultQuery(ResultStore store) {
+        this.store = store;
+        this.rangeColumns = new ArrayList<>();
+        this.rangeBounds = new ArrayList<>();
+    }
+
+    /**
+     * Only games played with one of these configurations
+     * @param ids Config ids
+     * @return This query
+     */
+    public ResultQuery config(int... ids) {
+        this.configIds = ids.clone();
+        return this;
+    }
+
+    /**
+     * Only games won by a seat
+     * @param seat Winner seat, or {@link ResultStore#NO_WINNER}
+     * @return This query
+     */
+    public ResultQuery winner(int seat) {
+        this.filterWinner = true;
+        this.winnerSeat = seat;
+        return this;
+    }
+
+    /**
+     * Only games where a numeric column is within a range
+     * @param column Column to filter
+     * @param min Lowest accepted value (inclusive)
+     * @param max Highest accepted value (inclusive); below min, nothing matches
+     * @return This query
+     */
+    public ResultQuery range(ResultStore.Column column, int min, int max) {
+        if (min > max) {
+            empty = true;
+        }
+        rangeColumns.add(column);
+        rangeBounds.add(new int[]{ min, max });
+        return this;
+    }
+
+    /**
+     * Only games where a numeric column is greater than a value
+     * @param column Column to filter
+     * @param value Exclusive lower bound
+     * @return This query
+     */
+    public ResultQuery greaterThan(ResultStore.Column column, int value) {
+        // value + 1 would wrap round to Integer.MIN_VALUE
+        if (value == Integer.MAX_VALUE) {
+            empty = true;
+            return this;
+        }
+        return range(column, value + 1, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Only games where a numeric column is less than a value
+     * @param column Column to filter
+     * @param value Exclusive upper bound
+     * @return This query
+     */
+    public ResultQuery lessThan(ResultStore.Column column, int value) {
+        // value - 1 would wrap round to Integer.MAX_VALUE
+        if (value == Integer.MIN_VALUE) {
+            empty = true;
+            return this;
+        }
+        return range(column, Integer.MIN_VALUE, value - 1);
+    }
+
+    /**
+     * Count the matching games
+     * @return Number of matches
+     */
+    public long count() {
+        return IntStream.range(0, store.blockCount()).parallel()
+                .mapToLong(block -> {
+                    long[] words = evaluate(block);
+                    long count = 0;
+                    if (words != null) {
+                        for (long word : words) {
+                            count += Long.bitCount(word);
+                        }
+                    }
+                    return count;
+                })
+                .sum();
+    }
+
+    /**
+     * Visit the row number of every match, in ascending order
+     * @param action Called with each matching row
+     */
+    public void forEachRow(IntConsumer action) {
+        long[][] blocks = new long[store.blockCount()][];
+        IntStream.range(0, blocks.length).parallel().forEach(block -> blocks[block] = evaluate(block));
+        for (int block = 0; block < blocks.length; block++) {
+            long[] words = blocks[block];
+            if (words == null) {
+                continue;
+            }
+            int base = block * ResultStore.BLOCK_SIZE;
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    action.accept(base + w * 64 + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the row numbers of all matches
+     * @return Matching rows in ascending order
+     */
+    public int[] rows() {
+        IntStream.Builder builder = IntStream.builder();
+        forEachRow(builder::add);
+        return builder.build().toArray();
+    }
+
+    /**
+     * Evaluate all predicates on one block
+     * @return Bitmap of matching rows, or null if none match
+     */
+    private long[] evaluate(int block) {
+        if (empty) {
+            return null;
+        }
+        // Zone maps first: they can rule out the block without touching any bitmap
+        boolean[] needsScan = new boolean[rangeColumns.size()];
+        for (int i = 0; i < rangeColumns.size(); i++) {
+            int[] bounds = rangeBounds.get(i);
+            int min = store.zoneMin(rangeColumns.get(i), block);
+            int max = store.zoneMax(rangeColumns.get(i), block);
+            if (max < bounds[0] || min > bounds[1]) {
+                return null;
+            }
+            needsScan[i] = min < bounds[0] || max > bounds[1];
+        }
+
+        long[] words = initialWords(block);
+        if (words == null) {
+            return null;
+        }
+        if (configIds != null && !andConfig(block, words)) {
+            return null;
+        }
+        if (filterWinner && !and(words, store.winnerBitmap(winnerSeat, block))) {
+            return null;
+        }
+
+        for (int i = 0; i < rangeColumns.size(); i++) {
+            if (needsScan[i] && !scanRange(block, words, rangeColumns.get(i), rangeBounds.get(i))) {
+                return null;
+            }
+        }
+        return words;
+    }
+
+    private long[] initialWords(int block) {
+        long[] words = new long[ResultStore.WORDS_PER_BLOCK];
+        int rowsInBlock = Math.min(ResultStore.BLOCK_SIZE, store.size() - block * ResultStore.BLOCK_SIZE);
+        int fullWords = rowsInBlock / 64;
+        for (int w = 0; w < fullWords; w++) {
+            words[w] = -1L;
+        }
+        if (rowsInBlock % 64 != 0) {
+            words[fullWords] = (1L << rowsInBlock) - 1;
+        }
+        return rowsInBlock > 0 ? words : null;
+    }
+
+    private boolean andConfig(int block, long[] words) {
+        long[] union = null;
+        for (int id : configIds) {
+            long[] bitmap = store.configBitmap(id, block);
+            if (bitmap == null) {
+                continue;
+            }
+            if (union == null) {
+                union = bitmap.clone();
+            } else {
+                for (int w = 0; w < union.length; w++) {
+                    union[w] |= bitmap[w];
+                }
+            }
+        }
+        return and(words, union);
+    }
+
+    private static boolean and(long[] words, long[] bitmap) {
+        if (bitmap == null) {
+            return false;
+        }
+        long any = 0;
+        for (int w = 0; w < words.length; w++) {
+            words[w] &= bitmap[w];
+            any |= words[w];
+        }
+        return any != 0;
+    }
+
+    private boolean scanRange(int block, long[] words, ResultStore.Column column, int[] bounds) {
+        int[] values = store.block(column, block);
+        int min = bounds[0];
+        int max = bounds[1];
+        long any = 0;
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            if (word == 0) {
+                continue;
+            }
+            long kept = 0;
+            int base = w * 64;
+            for (int bit = 0; bit < 64; bit++) {
+                int value = values[base + bit];
+                if (value >= min && value <= max) {
+                    kept |= 1L << bit;
+                }
+            }
+            words[w] = word & kept;
+            any |= words[w];
+        }
+        return any != 0;
+    }
+}
@@ -0,0 +1,212 @@
+package results;
+
+import java.util.Arrays;
+
+/**
+ * Column store for archived game outcomes.
+ *
+ * Each column is kept in blocks of {@link #BLOCK_SIZE} rows of primitives.
+ * Low-cardinality columns (config id, winner seat) also get one bitmap per
+ * value, and numeric columns (turns, hits, undos) get a zone map: the min and
+ * max of every block. Bitmaps are split per block too, and a block with no
+ * matching rows has no bitmap at all. Queries ({@link ResultQuery}) combine
+ * bitmaps a word at a time and use the zone maps to skip blocks or accept them
+ * without looking at the rows.
+ *
+ * Appends are single-writer; run queries once loading is finished.
+ */
+public class ResultStore {
+    /** Rows per block, a multiple of 64 so blocks line up with bitmap words */
+    public static final int BLOCK_SIZE = 1 << 16;
+    static final int WORDS_PER_BLOCK = BLOCK_SIZE / 64;
+
+    /** Winner value stored for games that ended without a winner (stopped by a turn or time limit) */
+    public static final int NO_WINNER = -1;
+    private static final int MAX_SEATS = 4;
+
+    /**
+     * Numeric columns that can be filtered by range
+     */
+    public enum Column {
+        TURNS,
+        HITS,
+        UNDOS
+    }
+
+    private short[][] configIds;
+    private byte[][] winners;
+    private int[][][] numeric;
+    private long[][] seeds;
+    private int[][] zoneMin;
+    private int[][] zoneMax;
+    private long[][][] configBitmaps;
+    private final long[][][] winnerBitmaps;
+    private int rows;
+
+    public ResultStore() {
+        int blocks = 16;
+        int columns = Column.values().length;
+        this.configIds = new short[blocks][];
+        this.winners = new byte[blocks][];
+        this.numeric = new int[columns][blocks][];
+        this.seeds = new long[blocks][];
+        this.zoneMin = new int[columns][blocks];
+        this.zoneMax = new int[columns][blocks];
+        this.configBitmaps = new long[0][][];
+        this.winnerBitmaps = new long[MAX_SEATS + 1][blocks][];
+        this.rows = 0;
+    }
+
+    /**
+     * Add one game outcome
+     * @param configId Config id (see {@link ConfigCatalog})
+     * @param winnerSeat Winning seat, or {@link #NO_WINNER}
+     * @param turns Total turns played
+     * @param hits Number of hits
+     * @param undos Number of undos
+     * @param seed Dice seed of the game
+     * @return Row number of the new result
+     */
+    public int append(int configId, int winnerSeat, int turns, int hits, int undos, long seed) {
+        if (configId < 0 || configId > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Config id out of range: " + configId);
+        }
+        if (winnerSeat < NO_WINNER || winnerSeat >= MAX_SEATS) {
+            throw new IllegalArgumentException("Winner seat out of range: " + winnerSeat);
+        }
+        int row = rows;
+        int block = row / BLOCK_SIZE;
+        int offset = row % BLOCK_SIZE;
+        if (offset == 0) {
+            allocateBlock(block);
+        }
+
+        configIds[block][offset] = (short) configId;
+        winners[block][offset] = (byte) winnerSeat;
+        seeds[block][offset] = seed;
+        setNumeric(Column.TURNS, block, offset, turns);
+        setNumeric(Column.HITS, block, offset, hits);
+        setNumeric(Column.UNDOS, block, offset, undos);
+
+        if (configId >= configBitmaps.length) {
+            int oldLength = configBitmaps.length;
+            configBitmaps = Arrays.copyOf(configBitmaps, configId + 1);
+            for (int id = oldLength; id <= configId; id++) {
+                configBitmaps[id] = new long[configIds.length][];
+            }
+        }
+        setBit(configBitmaps[configId], block, offset);
+        setBit(winnerBitmaps[winnerSeat + 1], block, offset);
+
+        rows++;
+        return row;
+    }
+
+    public int size() {
+        return rows;
+    }
+
+    public int getConfigId(int row) {
+        return configIds[row / BLOCK_SIZE][row % BLOCK_SIZE];
+    }
+
+    public int getWinner(int row) {
+        return winners[row / BLOCK_SIZE][row % BLOCK_SIZE];
+    }
+
+    public int get(Column column, int row) {
+        return numeric[column.ordinal()][row / BLOCK_SIZE][row % BLOCK_SIZE];
+    }
+
+    public long getSeed(int row) {
+        return seeds[row / BLOCK_SIZE][row % BLOCK_SIZE];
+    }
+
+    /**
+     * Start a query over this store
+     * @return Query builder
+     */
+    public ResultQuery query() {
+        return new ResultQuery(this);
+    }
+
+    int blockCount() {
+        return (rows + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    }
+
+    int[] block(Column column, int block) {
+        return numeric[column.ordinal()][block];
+    }
+
+    int zoneMin(Column column, int block) {
+        return zoneMin[column.ordinal()][block];
+    }
+
+    int zoneMax(Column column, int block) {
+        return zoneMax[column.ordinal()][block];
+    }
+
+    /**
+     * Get one block of the bitmap of rows with a config id
+     * @return Bitmap words of the block, or null if no row in the block matches
+     */
+    long[] configBitmap(int configId, int block) {
+        return configId >= 0 && configId < configBitmaps.length ? configBitmaps[configId][block] : null;
+    }
+
+    /**
+     * Get one block of the bitmap of rows won by a seat ({@link #NO_WINNER} for unfinished games)
+     * @return Bitmap words of the block, or null if no row in the block matches
+     */
+    long[] winnerBitmap(int winnerSeat, int block) {
+        return winnerSeat >= NO_WINNER && winnerSeat < MAX_SEATS ? winnerBitmaps[winnerSeat + 1][block] : null;
+    }
+
+    private void setNumeric(Column column, int block, int offset, int value) {
+        int c = column.ordinal();
+        numeric[c][block][offset] = value;
+        if (offset == 0) {
+            zoneMin[c][block] = value;
+            zoneMax[c][block] = value;
+        } else {
+            zoneMin[c][block] = Math.min(zoneMin[c][block], value);
+            zoneMax[c][block] = Math.max(zoneMax[c][block], value);
+        }
+    }
+
+    private void allocateBlock(int block) {
+        if (block == configIds.length) {
+            int capacity = block * 2;
+            configIds = Arrays.copyOf(configIds, capacity);
+            winners = Arrays.copyOf(winners, capacity);
+            seeds = Arrays.copyOf(seeds, capacity);
+            for (int c = 0; c < numeric.length; c++) {
+                numeric[c] = Arrays.copyOf(numeric[c], capacity);
+                zoneMin[c] = Arrays.copyOf(zoneMin[c], capacity);
+                zoneMax[c] = Arrays.copyOf(zoneMax[c], capacity);
+            }
+            for (int id = 0; id < configBitmaps.length; id++) {
+                configBitmaps[id] = Arrays.copyOf(configBitmaps[id], capacity);
+            }
+            for (int w = 0; w < winnerBitmaps.length; w++) {
+                winnerBitmaps[w] = Arrays.copyOf(winnerBitmaps[w], capacity);
+            }
+        }
+        configIds[block] = new short[BLOCK_SIZE];
+        winners[block] = new byte[BLOCK_SIZE];
+        seeds[block] = new long[BLOCK_SIZE];
+        for (int c = 0; c < numeric.length; c++) {
+            numeric[c][block] = new int[BLOCK_SIZE];
+        }
+    }
+
+    /**
+     * Bitmaps are split per block and a block's words are only allocated once a row in it matches
+     */
+    private static void setBit(long[][] bitmap, int block, int offset) {
+        if (bitmap[block] == null) {
+            bitmap[block] = new long[WORDS_PER_BLOCK];
+        }
+        bitmap[block][offset >>> 6] |= 1L << offset;
+    }
+}
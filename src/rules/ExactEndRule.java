@@ -2,61 +2,89 @@ package rules;
 
 import board.IBoard;
 import players.Player;
-import players.PlayerManager;
+import profiling.BounceEvent;
+import profiling.ProfilingEvents;
+import util.DebugLog;
+
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Implementation of exact end rule (must land exactly on END to win).
  */
-public class ExactEndRule implements RuleStrategy {
-    private final RuleStrategy baseRule;
+public class ExactEndRule implements RulePlugin {
+    private static final Set<Hook> HOOKS = EnumSet.of(Hook.MOVEMENT, Hook.WIN_CHECK);
     
-    /**
-     * Constructor that takes a base rule to decorate
-     * @param baseRule The base rule to extend
-     */
-    public ExactEndRule(RuleStrategy baseRule) {
-        this.baseRule = baseRule;
+    @Override
+    public String getName() {
+        return "exactEnd";
     }
     
     @Override
-    public int handleMovement(Player player, int diceRoll, IBoard board) {
-        System.out.println("[DEBUG ExactEndRule] Handling movement for " + player.getColor() + 
-                         " from position " + player.getCurrentPosition() + 
-                         " with dice roll " + diceRoll);
-        
-        int newPosition = baseRule.handleMovement(player, diceRoll, board);
+    public Set<Hook> getHooks() {
+        return HOOKS;
+    }
+    
+    @Override
+    public int handleMovement(Player player, int diceRoll, int newPosition, IBoard board) {
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG ExactEndRule] Handling movement for " + player.getColor() + 
+                             " from position " + player.getCurrentPosition() + 
+                             " with dice roll " + diceRoll);
+        }
         
-        System.out.println("[DEBUG ExactEndRule] Base rule calculated new position: " + newPosition + 
-                         " (Player end position is " + player.getEndPosition() + ")");
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG ExactEndRule] Base rule calculated new position: " + newPosition + 
+                             " (Player end position is " + player.getEndPosition() + ")");
+        }
         
         // If the new position is past the END position, bounce back
         if (newPosition == player.getEndPosition()) {
-            System.out.println("[DEBUG ExactEndRule] Exact landing on END position. Return: " + newPosition);
+            if (DebugLog.isEnabled()) {
+                System.out.println("[DEBUG ExactEndRule] Exact landing on END position. Return: " + newPosition);
+            }
             return newPosition; // Exact landing on END
         } else if (newPosition > player.getEndPosition()) {
             // Calculate bounce back distance
             int overshoot = newPosition - player.getEndPosition();
             int bouncePosition = player.getEndPosition() - overshoot;
-            
-            System.out.println("[DEBUG ExactEndRule] Overshoot detected. Overshoot distance: " + overshoot);
-            System.out.println("[DEBUG ExactEndRule] Bouncing back to position: " + bouncePosition);
+            int mainBoardSize = board.getMainBoardSize();
+            if (bouncePosition <= mainBoardSize) {
+                // Bounced out of the tail: keep walking back from this player's tail entry
+                int stepsBeforeTailEntry = mainBoardSize - bouncePosition;
+                int tailEntryPos = board.getTailEntryPosition(player.getColor());
+                bouncePosition = (tailEntryPos - stepsBeforeTailEntry - 1 + mainBoardSize) % mainBoardSize + 1;
+            }
+
+            if (DebugLog.isEnabled()) {
+                System.out.println("[DEBUG ExactEndRule] Overshoot detected. Overshoot distance: " + overshoot);
+                System.out.println("[DEBUG ExactEndRule] Bouncing back to position: " + bouncePosition);
+            }
+            if (ProfilingEvents.isBounceEnabled()) {
+                BounceEvent bounceEvent = new BounceEvent();
+                bounceEvent.seat = player.getSeat();
+                bounceEvent.overshoot = overshoot;
+                bounceEvent.bouncePosition = bouncePosition;
+                bounceEvent.commit();
+            }
             
             return bouncePosition;
         }
         
-        System.out.println("[DEBUG ExactEndRule] No overshoot or exact landing. Return: " + newPosition);
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG ExactEndRule] No overshoot or exact landing. Return: " + newPosition);
+        }
         return newPosition;
     }
     
     @Override
-    public boolean handleHit(Player attacker, Player victim, PlayerManager playerManager) {
-        // Delegate to base rule
-        return baseRule.handleHit(attacker, victim, playerManager);
+    public boolean isWin(Player player, int position, IBoard board) {
+        // Movement never leaves the player past END, so only an exact landing wins
+        return position == player.getEndPosition();
     }
     
     @Override
     public String getDescription() {
-        return "Player must land exactly on the END position to win\n" + 
-               baseRule.getDescription().split("\n")[1]; // Keep the hit rule description
+        return "Player must land exactly on the END position to win";
     }
 }
@@ -1,40 +1,43 @@
 package rules;
 
-import board.IBoard;
 import players.Player;
 import players.PlayerManager;
+import util.DebugLog;
+
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Implementation of hit home rule (sends hit players back to home).
  */
-public class HitHomeRule implements RuleStrategy {
-    private final RuleStrategy baseRule;
+public class HitHomeRule implements RulePlugin {
+    private static final Set<Hook> HOOKS = EnumSet.of(Hook.HIT);
     
-    /**
-     * Constructor that takes a base rule to decorate
-     * @param baseRule The base rule to extend
-     */
-    public HitHomeRule(RuleStrategy baseRule) {
-        this.baseRule = baseRule;
+    @Override
+    public String getName() {
+        return "hitHome";
     }
     
     @Override
-    public int handleMovement(Player player, int diceRoll, IBoard board) {
-        // Delegate to base rule for movement
-        return baseRule.handleMovement(player, diceRoll, board);
+    public Set<Hook> getHooks() {
+        return HOOKS;
     }
     
     @Override
     public boolean handleHit(Player attacker, Player victim, PlayerManager playerManager) {
         // Hit rule: send the victim back to home
-        System.out.println("[DEBUG HitHomeRule] Processing hit. Attacker: " + attacker.getColor() + 
-                         " at position " + attacker.getCurrentPosition() + 
-                         ", Victim: " + victim.getColor() + 
-                         " at position " + victim.getCurrentPosition());
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG HitHomeRule] Processing hit. Attacker: " + attacker.getColor() + 
+                             " at position " + attacker.getCurrentPosition() + 
+                             ", Victim: " + victim.getColor() + 
+                             " at position " + victim.getCurrentPosition());
+        }
         
-        System.out.println("[DEBUG HitHomeRule] Sending " + victim.getColor() + 
-                         " from position " + victim.getCurrentPosition() + 
-                         " to HOME at position " + victim.getHomePosition());
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG HitHomeRule] Sending " + victim.getColor() + 
+                             " from position " + victim.getCurrentPosition() + 
+                             " to HOME at position " + victim.getHomePosition());
+        }
         
         victim.resetToHome();
         return true;
@@ -42,7 +45,6 @@ public class HitHomeRule implements RuleStrategy {
     
     @Override
     public String getDescription() {
-        return baseRule.getDescription().split("\n")[0] + "\n" + 
-               "Player will be sent HOME when HIT";
+        return "Player will be sent HOME when HIT";
     }
 }
@@ -0,0 +1,194 @@
+package rules;
+
+import board.IBoard;
+import players.Player;
+import players.PlayerManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The rules of one game, built from the configured {@link RulePlugin}s.
+ *
+ * The pipeline is put together once per rule combination: each hook keeps only
+ * the plugins that declared it, and hooks nobody declared fall back to the basic
+ * rules without calling any plugin. {@link #usesHits()} lets the game skip the
+ * search for a player to hit when no plugin handles hits.
+ *
+ * With no plugins this is the basic game: a player can land on or beyond the
+ * END position to win, and hits are ignored.
+ */
+public final class RulePipeline implements RuleStrategy {
+    private static final Map<String, RulePlugin> PLUGINS = loadPlugins();
+    private static final Map<String, RulePipeline> PIPELINES = new ConcurrentHashMap<>();
+
+    private static final String BASIC_WIN_DESCRIPTION = "Player can land on or beyond the END position to win";
+    private static final String BASIC_HIT_DESCRIPTION = "HITS are ignored, multiple players can occupy the same position";
+
+    private final RulePlugin[] plugins;
+    private final RulePlugin[] movementHooks;
+    private final RulePlugin[] hitHooks;
+    private final RulePlugin winCheck;
+    private final RulePlugin turnOrder;
+
+    private RulePipeline(RulePlugin[] plugins) {
+        List<RulePlugin> movement = new ArrayList<>();
+        List<RulePlugin> hit = new ArrayList<>();
+        RulePlugin win = null;
+        RulePlugin order = null;
+        for (RulePlugin plugin : plugins) {
+            if (plugin.getHooks().contains(RulePlugin.Hook.MOVEMENT)) {
+                movement.add(plugin);
+            }
+            if (plugin.getHooks().contains(RulePlugin.Hook.HIT)) {
+                hit.add(plugin);
+            }
+            if (plugin.getHooks().contains(RulePlugin.Hook.WIN_CHECK)) {
+                win = plugin;
+            }
+            if (plugin.getHooks().contains(RulePlugin.Hook.TURN_ORDER)) {
+                order = plugin;
+            }
+        }
+        this.plugins = plugins;
+        this.movementHooks = movement.toArray(new RulePlugin[0]);
+        this.hitHooks = hit.toArray(new RulePlugin[0]);
+        this.winCheck = win;
+        this.turnOrder = order;
+    }
+
+    /**
+     * Get the pipeline for a list of rule names. Pipelines are cached, so games
+     * with the same rules share one.
+     * @param ruleTypes Rule names, e.g. {"exactEnd", "hitHome"}; empty for the basic rules
+     * @return The pipeline
+     * @throws IllegalArgumentException if no plugin has one of the names
+     */
+    public static RulePipeline forRules(String[] ruleTypes) {
+        String key = String.join("+", ruleTypes).toLowerCase();
+        RulePipeline pipeline = PIPELINES.get(key);
+        if (pipeline == null) {
+            RulePlugin[] selected = new RulePlugin[ruleTypes.length];
+            for (int i = 0; i < ruleTypes.length; i++) {
+                selected[i] = PLUGINS.get(ruleTypes[i].toLowerCase());
+                if (selected[i] == null) {
+                    throw new IllegalArgumentException("Unknown rule: " + ruleTypes[i] + " (available: " + PLUGINS.keySet() + ")");
+                }
+            }
+            pipeline = PIPELINES.computeIfAbsent(key, k -> new RulePipeline(selected));
+        }
+        return pipeline;
+    }
+
+    private static Map<String, RulePlugin> loadPlugins() {
+        Map<String, RulePlugin> plugins = new HashMap<>();
+        for (RulePlugin plugin : ServiceLoader.load(RulePlugin.class, RulePipeline.class.getClassLoader())) {
+            plugins.put(plugin.getName().toLowerCase(), plugin);
+        }
+        // Built-in rules also work when the service file is not on the class path
+        plugins.putIfAbsent("exactend", new ExactEndRule());
+        plugins.putIfAbsent("hithome", new HitHomeRule());
+        return plugins;
+    }
+
+    @Override
+    public int handleMovement(Player player, int diceRoll, IBoard board) {
+        return adjustMovement(player, diceRoll, board.calculateNewPosition(player, diceRoll), board);
+    }
+
+    /**
+     * Apply the movement plugins to the position reached by the basic movement
+     * @param player The player moving
+     * @param diceRoll The dice roll value
+     * @param position Position reached by {@link IBoard#calculateNewPosition}
+     * @param board The game board
+     * @return The new position after applying rules
+     */
+    public int adjustMovement(Player player, int diceRoll, int position, IBoard board) {
+        for (RulePlugin plugin : movementHooks) {
+            position = plugin.handleMovement(player, diceRoll, position, board);
+        }
+        return position;
+    }
+
+    /**
+     * Check whether any plugin handles hits
+     * @return true if landing on another player can have an effect
+     */
+    public boolean usesHits() {
+        return hitHooks.length > 0;
+    }
+
+    @Override
+    public boolean handleHit(Player attacker, Player victim, PlayerManager playerManager) {
+        for (RulePlugin plugin : hitHooks) {
+            if (plugin.handleHit(attacker, victim, playerManager)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether a move wins the game
+     * @param player The player who moved
+     * @param position The player's new position
+     * @param board The game board
+     * @return true if the player has won
+     */
+    public boolean isWin(Player player, int position, IBoard board) {
+        if (winCheck != null) {
+            return winCheck.isWin(player, position, board);
+        }
+        // Basic rule: exactly on END, or past it once in the tail
+        return position == player.getEndPosition() ||
+               (position > player.getEndPosition() && position > board.getMainBoardSize());
+    }
+
+    /**
+     * Get the seat of the player who moves after a turn that did not win
+     * @param mover The player who just moved
+     * @param diceRoll The dice roll of the turn
+     * @param playerCount Number of players
+     * @return Seat of the next player
+     */
+    public int nextPlayerIndex(Player mover, int diceRoll, int playerCount) {
+        if (turnOrder != null) {
+            return turnOrder.nextPlayerIndex(mover, diceRoll, playerCount);
+        }
+        return (mover.getSeat() + 1) % playerCount;
+    }
+
+    /**
+     * Check whether a plugin changes the turn order
+     * @return true if players do not simply take turns in seat order
+     */
+    public boolean hasTurnOrder() {
+        return turnOrder != null;
+    }
+
+    @Override
+    public String getDescription() {
+        // Win rule first, then hit rules, then anything else
+        StringBuilder builder = new StringBuilder();
+        builder.append(winCheck != null ? winCheck.getDescription() : BASIC_WIN_DESCRIPTION);
+        if (hitHooks.length == 0) {
+            builder.append("\n").append(BASIC_HIT_DESCRIPTION);
+        }
+        for (RulePlugin plugin : hitHooks) {
+            if (plugin != winCheck) {
+                builder.append("\n").append(plugin.getDescription());
+            }
+        }
+        for (RulePlugin plugin : plugins) {
+            if (plugin != winCheck && !plugin.getHooks().contains(RulePlugin.Hook.HIT)) {
+                builder.append("\n").append(plugin.getDescription());
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,102 @@
+package rules;
+
+import board.IBoard;
+import players.Player;
+import players.PlayerManager;
+
+import java.util.Set;
+
+/**
+ * Service provider interface for rule variations.
+ *
+ * Plugins are discovered with {@link java.util.ServiceLoader}: list the
+ * implementation class in META-INF/services/rules.RulePlugin on the class path
+ * and the rule can be used by name in a {@link game.GameConfig}.
+ *
+ * A plugin declares the hooks it implements in {@link #getHooks()}. Only those
+ * hooks are called, the others keep the basic behaviour. Plugins are shared by
+ * every game that uses them, so they must not keep per-game state.
+ */
+public interface RulePlugin {
+
+    /**
+     * Points in a turn where a plugin can change the rules
+     */
+    enum Hook {
+        /** Adjust the position reached by a roll */
+        MOVEMENT,
+        /** Decide what happens when a player lands on another player */
+        HIT,
+        /** Decide whether a move wins the game */
+        WIN_CHECK,
+        /** Decide who moves next */
+        TURN_ORDER
+    }
+
+    /**
+     * Get the rule name used in game configurations
+     * @return Rule name, e.g. "exactEnd"
+     */
+    String getName();
+
+    /**
+     * Get the hooks this plugin implements
+     * @return Implemented hooks
+     */
+    Set<Hook> getHooks();
+
+    /**
+     * MOVEMENT hook: adjust the position a roll takes a player to.
+     * Movement plugins are applied in the order the rules are configured.
+     * @param player The player moving
+     * @param diceRoll The dice roll value
+     * @param position Position after the basic movement and earlier plugins
+     * @param board The game board
+     * @return The new position
+     */
+    default int handleMovement(Player player, int diceRoll, int position, IBoard board) {
+        return position;
+    }
+
+    /**
+     * HIT hook: handle a player landing on another player.
+     * Hit plugins are asked in configuration order until one reports a hit.
+     * @param attacker The player who landed
+     * @param victim The player landed on
+     * @param playerManager The player manager
+     * @return true if a hit occurred
+     */
+    default boolean handleHit(Player attacker, Player victim, PlayerManager playerManager) {
+        return false;
+    }
+
+    /**
+     * WIN_CHECK hook: decide whether a move wins. The last configured win check is used.
+     * @param player The player who moved
+     * @param position The player's new position
+     * @param board The game board
+     * @return true if the player has won
+     */
+    default boolean isWin(Player player, int position, IBoard board) {
+        return position == player.getEndPosition();
+    }
+
+    /**
+     * TURN_ORDER hook: choose who moves after a turn that did not win.
+     * The last configured turn order is used. The answer must depend only on the
+     * arguments, because redo and undo tree jumps replay it from recorded turns.
+     * @param mover The player who just moved
+     * @param diceRoll The dice roll of the turn
+     * @param playerCount Number of players
+     * @return Seat of the next player
+     */
+    default int nextPlayerIndex(Player mover, int diceRoll, int playerCount) {
+        return (mover.getSeat() + 1) % playerCount;
+    }
+
+    /**
+     * Get a description of the rule
+     * @return Description of the rule
+     */
+    String getDescription();
+}
@@ -0,0 +1,159 @@
+package service;
+
+import game.GameConfig;
+import simulation.PrecisionTarget;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Client of a {@link SimulationServer}.
+ *
+ * {@link #simulate} sends one request and hands every progress line to a
+ * listener until the result line arrives. The main method sends the same
+ * request from several clients at once and checks that they all got the same
+ * answer, then asks again to show it coming from the cache.
+ */
+public class SimulationClient {
+    private final HttpClient http;
+    private final URI server;
+
+    /**
+     * Constructor for a client
+     * @param server Base address of the server, e.g. "http://localhost:8090"
+     */
+    public SimulationClient(String server) {
+        this.http = HttpClient.newHttpClient();
+        this.server = URI.create(server.endsWith("/") ? server : server + "/");
+    }
+
+    /**
+     * Run a simulation on the server
+     * @param request Request to send
+     * @param onProgress Called with each progress line, in order
+     * @return The final JSON line, a "result" or an "error"
+     * @throws IOException if the server cannot be reached or closes the stream early
+     */
+    public String simulate(SimulationRequest request, Consumer<String> onProgress) throws IOException {
+        HttpRequest httpRequest = HttpRequest.newBuilder(server.resolve("simulate?" + request.toQuery())).build();
+        HttpResponse<Stream<String>> response = send(httpRequest);
+        try (Stream<String> lines = response.body()) {
+            Iterator<String> it = lines.iterator();
+            while (it.hasNext()) {
+                String line = it.next();
+                if (line.startsWith("{\"event\":\"progress\"")) {
+                    onProgress.accept(line);
+                } else {
+                    return line;
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        throw new IOException("Stream ended before the result of " + request);
+    }
+
+    /**
+     * Get the server's counters
+     * @return JSON object of counters
+     * @throws IOException if the server cannot be reached
+     */
+    public String stats() throws IOException {
+        HttpResponse<Stream<String>> response = send(HttpRequest.newBuilder(server.resolve("stats")).build());
+        try (Stream<String> lines = response.body()) {
+            return lines.findFirst().orElse("");
+        }
+    }
+
+    private HttpResponse<Stream<String>> send(HttpRequest request) throws IOException {
+        try {
+            return http.send(request, HttpResponse.BodyHandlers.ofLines());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        }
+    }
+
+    // The part of a result that only depends on the request
+    private static String answer(String result) {
+        int from = result.indexOf("\"config\"");
+        int to = result.indexOf(",\"elapsedMillis\"");
+        return from < 0 || to < 0 ? result : result.substring(from, to);
+    }
+
+    /**
+     * Usage: java service.SimulationClient url clients configKey games [seed [turns|win:SEAT halfWidth [confidence]]]
+     * e.g.   java service.SimulationClient http://localhost:8090 8 large/4/double/exactEnd+hitHome 200000 1 win:0 0.002
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.out.println("Usage: SimulationClient url clients configKey games "
+                    + "[seed [turns|win:SEAT halfWidth [confidence]]]");
+            System.exit(1);
+        }
+        SimulationClient client = new SimulationClient(args[0]);
+        int clients = Integer.parseInt(args[1]);
+        GameConfig config = GameConfig.fromKey(args[2]);
+        long games = Long.parseLong(args[3]);
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : SimulationRequest.DEFAULT_SEED;
+        PrecisionTarget target = null;
+        if (args.length > 6) {
+            double halfWidth = Double.parseDouble(args[6]);
+            double confidence = args.length > 7 ? Double.parseDouble(args[7]) : SimulationRequest.DEFAULT_CONFIDENCE;
+            target = args[5].startsWith("win:")
+                    ? PrecisionTarget.winRate(Integer.parseInt(args[5].substring(4)), halfWidth, confidence)
+                    : PrecisionTarget.meanTurns(halfWidth, confidence);
+        }
+        SimulationRequest request = new SimulationRequest(config, games, seed, target);
+
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<String>> results = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            boolean first = c == 0;
+            results.add(pool.submit(() -> client.simulate(request, line -> {
+                if (first) {
+                    System.out.println(line);
+                }
+            })));
+        }
+        String expected = null;
+        boolean consistent = true;
+        for (Future<String> result : results) {
+            String line;
+            try {
+                line = result.get();
+            } catch (ExecutionException e) {
+                System.out.println("Client failed: " + e.getCause());
+                consistent = false;
+                continue;
+            }
+            System.out.println(line);
+            expected = expected == null ? answer(line) : expected;
+            consistent &= answer(line).equals(expected);
+        }
+        pool.shutdown();
+        System.out.printf("%d clients answered in %.3f s, %s%n", clients, (System.nanoTime() - start) / 1e9,
+                consistent ? "all with the same result" : "RESULTS DIFFER");
+
+        long again = System.nanoTime();
+        String repeat = client.simulate(request, line -> { });
+        System.out.printf("Repeat answered in %.3f ms: %s%n", (System.nanoTime() - again) / 1e6, repeat);
+        System.out.println("Server stats: " + client.stats());
+        if (!consistent || !answer(repeat).equals(expected)) {
+            System.exit(2);
+        }
+    }
+}
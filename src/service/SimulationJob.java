@@ -0,0 +1,285 @@
+package service;
+
+import game.Game;
+import game.GameConfig;
+import game.GamePool;
+import players.Player;
+import simulation.ConfidenceInterval;
+import simulation.PrecisionTarget;
+import simulation.RunningStats;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * One simulation run of the {@link SimulationServer}, shared by every request with
+ * the same job key.
+ *
+ * The games are cut into chunks that run on the server's simulation threads. A job
+ * keeps at most a few chunks queued at a time, so jobs submitted later still get
+ * their turn on the threads instead of waiting behind a long one. Game i of the
+ * request always uses seed + i, and finished chunks are merged strictly in chunk
+ * order; the precision target is checked after each merge. The answer therefore
+ * depends only on the request, not on thread timing, which is what makes sharing
+ * and caching it correct. Chunks beyond the one that met the target stop early
+ * and are dropped.
+ *
+ * Readers wait on the job with {@link #awaitCompletion} and read {@link #getProgress}.
+ */
+class SimulationJob {
+    /** Games per chunk */
+    static final int CHUNK_SIZE = 1024;
+    /** Finished games needed before the target is checked, so an early variance cannot stop the run */
+    static final long MIN_GAMES_FOR_TARGET = 1000;
+
+    private final long id;
+    private final SimulationRequest request;
+    private final GameConfig config;
+    private final Executor executor;
+    private final Supplier<GamePool> pools;
+    private final int maxQueuedChunks;
+    private final Consumer<SimulationJob> onDone;
+    private final long numChunks;
+    private final long start;
+
+    // Guarded by this
+    private final Map<Long, Chunk> finished;
+    private long nextChunk;
+    private long nextMerge;
+    private int queued;
+    private long games;
+    private long stoppedGames;
+    private final long[] wins;
+    private final RunningStats turns;
+    private final RunningStats measured;
+    private SimulationResult progress;
+    private String error;
+    private int readers;
+
+    private volatile boolean done;
+
+    /**
+     * Constructor for a job; call {@link #start} to run it
+     * @param id Job number, for logs
+     * @param request Request describing the games
+     * @param config The request's configuration, the same object for every job of the configuration
+     * @param executor Simulation threads
+     * @param pools Game pool of the calling simulation thread
+     * @param maxQueuedChunks Most chunks of this job queued or running at a time
+     * @param onDone Called once when the job completes or fails
+     */
+    SimulationJob(long id, SimulationRequest request, GameConfig config, Executor executor,
+                  Supplier<GamePool> pools, int maxQueuedChunks, Consumer<SimulationJob> onDone) {
+        this.id = id;
+        this.request = request;
+        this.config = config;
+        this.executor = executor;
+        this.pools = pools;
+        this.maxQueuedChunks = maxQueuedChunks;
+        this.onDone = onDone;
+        this.numChunks = (request.getGames() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.start = System.nanoTime();
+        this.finished = new HashMap<>();
+        this.wins = new long[config.getNumPlayers()];
+        this.turns = new RunningStats();
+        this.measured = new RunningStats();
+        this.progress = snapshot(false, false);
+    }
+
+    /**
+     * Queue the first chunks
+     */
+    void start() {
+        boolean failed;
+        synchronized (this) {
+            failed = !submitChunks();
+        }
+        if (failed) {
+            onDone.accept(this);
+        }
+    }
+
+    // Returns false if the job failed because the executor refused a chunk
+    private boolean submitChunks() {
+        while (!done && queued < maxQueuedChunks && nextChunk < numChunks) {
+            long chunk = nextChunk++;
+            queued++;
+            try {
+                executor.execute(() -> runChunk(chunk));
+            } catch (RejectedExecutionException e) {
+                queued--;
+                return !fail("Server is shutting down");
+            }
+        }
+        return true;
+    }
+
+    private void runChunk(long chunkIndex) {
+        Chunk chunk = new Chunk(wins.length);
+        try {
+            GamePool pool = pools.get();
+            PrecisionTarget target = request.getTarget();
+            long first = chunkIndex * CHUNK_SIZE;
+            long last = Math.min(first + CHUNK_SIZE, request.getGames());
+            for (long i = first; i < last && !done; i++) {
+                Game game = pool.next(config, request.getSeed() + i);
+                while (!game.isGameOver()) {
+                    game.playTurn();
+                }
+                chunk.games++;
+                Player winner = game.getWinner();
+                if (winner == null) {
+                    chunk.stoppedGames++;
+                    continue;
+                }
+                chunk.wins[winner.getSeat()]++;
+                chunk.turns.add(game.getPlayerManager().getTotalTurns());
+                if (target != null) {
+                    chunk.measured.add(target.measure(game));
+                }
+            }
+        } catch (RuntimeException e) {
+            boolean failed;
+            synchronized (this) {
+                queued--;
+                failed = fail(e.toString());
+            }
+            if (failed) {
+                onDone.accept(this);
+            }
+            return;
+        }
+        // The completion callback runs without holding the job, so it may take the server's locks
+        if (chunkDone(chunkIndex, chunk)) {
+            onDone.accept(this);
+        }
+    }
+
+    // Returns true if this chunk ended the job
+    private synchronized boolean chunkDone(long chunkIndex, Chunk chunk) {
+        queued--;
+        if (done) {
+            return false;
+        }
+        finished.put(chunkIndex, chunk);
+        boolean targetMet = false;
+        Chunk next;
+        while ((next = finished.remove(nextMerge)) != null) {
+            nextMerge++;
+            games += next.games;
+            stoppedGames += next.stoppedGames;
+            for (int seat = 0; seat < wins.length; seat++) {
+                wins[seat] += next.wins[seat];
+            }
+            turns.merge(next.turns);
+            measured.merge(next.measured);
+            targetMet = isTargetMet();
+            if (targetMet) {
+                break;
+            }
+        }
+
+        if (targetMet || nextMerge == numChunks) {
+            done = true;
+            finished.clear();
+            progress = snapshot(true, targetMet);
+            notifyAll();
+            return true;
+        }
+        progress = snapshot(false, false);
+        return !submitChunks();
+    }
+
+    private boolean isTargetMet() {
+        PrecisionTarget target = request.getTarget();
+        return target != null && measured.getCount() >= MIN_GAMES_FOR_TARGET
+                && target.isMet(measured.confidenceInterval(target.getConfidenceLevel()));
+    }
+
+    // Returns true if this call ended the job
+    private boolean fail(String message) {
+        if (done) {
+            return false;
+        }
+        done = true;
+        error = message;
+        finished.clear();
+        notifyAll();
+        return true;
+    }
+
+    private SimulationResult snapshot(boolean complete, boolean targetMet) {
+        PrecisionTarget target = request.getTarget();
+        double level = target != null ? target.getConfidenceLevel() : SimulationRequest.DEFAULT_CONFIDENCE;
+        ConfidenceInterval estimate = target != null ? measured.confidenceInterval(level) : null;
+        return new SimulationResult(request, games, stoppedGames, wins.clone(), turns.confidenceInterval(level),
+                estimate, complete, targetMet, System.nanoTime() - start);
+    }
+
+    /**
+     * Register a reader of this job
+     * @return Number of readers so far, including this one
+     */
+    synchronized int addReader() {
+        return ++readers;
+    }
+
+    /**
+     * Wait until the job is done or a timeout passes
+     * @param timeoutMillis Longest wait
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    synchronized void awaitCompletion(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        long left = timeoutMillis;
+        while (!done && left > 0) {
+            wait(left);
+            left = deadline - System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Get the latest merged state
+     * @return Progress while running, the answer once complete
+     */
+    synchronized SimulationResult getProgress() {
+        return progress;
+    }
+
+    /**
+     * Get the failure of the job
+     * @return Error message, or null if the job did not fail
+     */
+    synchronized String getError() {
+        return error;
+    }
+
+    boolean isDone() {
+        return done;
+    }
+
+    long getId() {
+        return id;
+    }
+
+    SimulationRequest getRequest() {
+        return request;
+    }
+
+    private static class Chunk {
+        private long games;
+        private long stoppedGames;
+        private final long[] wins;
+        private final RunningStats turns;
+        private final RunningStats measured;
+
+        Chunk(int seats) {
+            this.wins = new long[seats];
+            this.turns = new RunningStats();
+            this.measured = new RunningStats();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package service;
+
+import game.GameConfig;
+import simulation.PrecisionTarget;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One "simulate config X for N games" job as sent to the {@link SimulationServer}.
+ *
+ * A request is a configuration, a game budget, a seed and an optional precision
+ * target; with a target the run stops as soon as the estimate is precise enough.
+ * Runs are reproducible, so two requests with the same {@link #getJobKey() job key}
+ * have the same answer and can share a run or a cached result. Requests without
+ * a seed use {@link #DEFAULT_SEED}, so that they coalesce too.
+ *
+ * On the wire a request is a URL query, e.g.
+ * {@code config=large/4/double/exactEnd%2BhitHome&games=100000&target=win:0&halfWidth=0.005}
+ */
+public class SimulationRequest {
+    /** Seed of requests that do not choose one */
+    public static final long DEFAULT_SEED = 1;
+    /** Confidence level of targets that do not give one */
+    public static final double DEFAULT_CONFIDENCE = 0.95;
+    /** Largest game budget of a single request */
+    public static final long MAX_GAMES = 1_000_000_000L;
+
+    private final GameConfig config;
+    private final long games;
+    private final long seed;
+    private final PrecisionTarget target;
+
+    /**
+     * Constructor for a request
+     * @param config Game configuration
+     * @param games Number of games, or the budget when there is a target
+     * @param seed Seed of the first game; game i uses seed + i
+     * @param target Precision target to stop at, or null to play every game
+     */
+    public SimulationRequest(GameConfig config, long games, long seed, PrecisionTarget target) {
+        if (games < 1 || games > MAX_GAMES) {
+            throw new IllegalArgumentException("Games must be between 1 and " + MAX_GAMES + ": " + games);
+        }
+        this.config = config;
+        this.games = games;
+        this.seed = seed;
+        this.target = target;
+    }
+
+    /**
+     * Parse a request from a URL query
+     * @param query Query string without the "?", e.g. "config=basic/2/single/none&games=1000"
+     * @return The request
+     * @throws IllegalArgumentException if a parameter is missing or malformed
+     */
+    public static SimulationRequest fromQuery(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                if (pair.isEmpty()) {
+                    continue;
+                }
+                int eq = pair.indexOf('=');
+                String name = eq < 0 ? pair : pair.substring(0, eq);
+                String value = eq < 0 ? "" : pair.substring(eq + 1);
+                params.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                        URLDecoder.decode(value, StandardCharsets.UTF_8));
+            }
+        }
+        String key = params.get("config");
+        if (key == null || key.isEmpty()) {
+            throw new IllegalArgumentException("Missing parameter: config");
+        }
+        GameConfig config = GameConfig.fromKey(key);
+        long games = parseLong(params, "games", -1);
+        if (games < 0) {
+            throw new IllegalArgumentException("Missing parameter: games");
+        }
+        long seed = parseLong(params, "seed", DEFAULT_SEED);
+
+        PrecisionTarget target = null;
+        String metric = params.get("target");
+        if (metric != null) {
+            String halfWidth = params.get("halfWidth");
+            if (halfWidth == null) {
+                throw new IllegalArgumentException("A target needs a halfWidth");
+            }
+            double width = parseDouble("halfWidth", halfWidth);
+            double confidence = params.containsKey("confidence")
+                    ? parseDouble("confidence", params.get("confidence")) : DEFAULT_CONFIDENCE;
+            if (metric.startsWith("win:")) {
+                int seat;
+                try {
+                    seat = Integer.parseInt(metric.substring(4));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid target seat: " + metric);
+                }
+                if (seat < 0 || seat >= config.getNumPlayers()) {
+                    throw new IllegalArgumentException("No seat " + seat + " in " + config.getKey());
+                }
+                target = PrecisionTarget.winRate(seat, width, confidence);
+            } else if (metric.equals("turns")) {
+                target = PrecisionTarget.meanTurns(width, confidence);
+            } else {
+                throw new IllegalArgumentException("Target must be turns or win:SEAT: " + metric);
+            }
+        }
+        return new SimulationRequest(config, games, seed, target);
+    }
+
+    private static long parseLong(Map<String, String> params, String name, long absent) {
+        String value = params.get(name);
+        if (value == null) {
+            return absent;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    private static double parseDouble(String name, String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+
+    /**
+     * Write the request as a URL query, the inverse of {@link #fromQuery}
+     * @return Query string without the "?"
+     */
+    public String toQuery() {
+        StringBuilder query = new StringBuilder();
+        query.append("config=").append(URLEncoder.encode(config.getKey(), StandardCharsets.UTF_8))
+             .append("&games=").append(games)
+             .append("&seed=").append(seed);
+        if (target != null) {
+            query.append("&target=").append(target.getMetric() == PrecisionTarget.Metric.WIN_RATE
+                            ? "win:" + target.getSeat() : "turns")
+                 .append("&halfWidth=").append(target.getHalfWidth())
+                 .append("&confidence=").append(target.getConfidenceLevel());
+        }
+        return query.toString();
+    }
+
+    /**
+     * Get the key under which runs are shared and results cached. Requests with
+     * equal keys always produce the same result.
+     * @return Canonical description of the job
+     */
+    public String getJobKey() {
+        return toQuery();
+    }
+
+    public GameConfig getConfig() {
+        return config;
+    }
+
+    public long getGames() {
+        return games;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Get the precision target
+     * @return Target to stop at, or null if every game is played
+     */
+    public PrecisionTarget getTarget() {
+        return target;
+    }
+
+    @Override
+    public String toString() {
+        return config.getKey() + " x" + games + " seed " + seed + (target != null ? " until " + target : "");
+    }
+}
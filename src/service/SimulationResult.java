@@ -0,0 +1,141 @@
+package service;
+
+import simulation.ConfidenceInterval;
+
+/**
+ * State of a {@link SimulationJob}: a progress report while it runs and its answer
+ * once it is complete.
+ *
+ * Every counted game either has a winner or was stopped by the turn limit. Stopped
+ * games count toward the budget and never as a win, but they are left out of the
+ * turn statistics and the target estimate, which only measure finished games.
+ */
+public class SimulationResult {
+    private final SimulationRequest request;
+    private final long games;
+    private final long stoppedGames;
+    private final long[] wins;
+    private final ConfidenceInterval turns;
+    private final ConfidenceInterval estimate;
+    private final boolean complete;
+    private final boolean targetMet;
+    private final long elapsedNanos;
+
+    SimulationResult(SimulationRequest request, long games, long stoppedGames, long[] wins,
+                     ConfidenceInterval turns, ConfidenceInterval estimate,
+                     boolean complete, boolean targetMet, long elapsedNanos) {
+        this.request = request;
+        this.games = games;
+        this.stoppedGames = stoppedGames;
+        this.wins = wins;
+        this.turns = turns;
+        this.estimate = estimate;
+        this.complete = complete;
+        this.targetMet = targetMet;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public SimulationRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * Get the number of games played so far
+     * @return Game count, including stopped games
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Get the number of games stopped by the turn limit
+     * @return Stopped game count
+     */
+    public long getStoppedGames() {
+        return stoppedGames;
+    }
+
+    /**
+     * Get the wins of a seat
+     * @param seat Seat index (0 = Red)
+     * @return Games won by the seat
+     */
+    public long getWins(int seat) {
+        return wins[seat];
+    }
+
+    /**
+     * Get the mean number of turns of the finished games
+     * @return Mean turns with a confidence interval at the target's level, or 95%
+     */
+    public ConfidenceInterval getTurns() {
+        return turns;
+    }
+
+    /**
+     * Get the estimate of the request's precision target
+     * @return Estimate with its confidence interval, or null if the request has no target
+     */
+    public ConfidenceInterval getEstimate() {
+        return estimate;
+    }
+
+    /**
+     * Check whether this is the final answer of the job
+     * @return true once the job is done
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Check whether the run stopped early because the precision target was reached
+     * @return true if the target was met
+     */
+    public boolean isTargetMet() {
+        return targetMet;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Write the result as one JSON object
+     * @param event Value of the "event" field, e.g. "progress" or "result"
+     * @param source Value of the "source" field, or null to leave it out
+     * @return JSON text without a line break
+     */
+    public String toJson(String event, String source) {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"event\":\"").append(event).append('"');
+        if (source != null) {
+            json.append(",\"source\":\"").append(source).append('"');
+        }
+        json.append(",\"config\":").append(SimulationServer.jsonString(request.getConfig().getKey()))
+            .append(",\"seed\":").append(request.getSeed())
+            .append(",\"games\":").append(games)
+            .append(",\"budget\":").append(request.getGames())
+            .append(",\"stopped\":").append(stoppedGames)
+            .append(",\"wins\":[");
+        for (int seat = 0; seat < wins.length; seat++) {
+            json.append(seat == 0 ? "" : ",").append(wins[seat]);
+        }
+        json.append("],\"meanTurns\":").append(turns.getEstimate())
+            .append(",\"turnsHalfWidth\":").append(turns.getHalfWidth());
+        if (estimate != null) {
+            json.append(",\"target\":").append(SimulationServer.jsonString(request.getTarget().toString()))
+                .append(",\"estimate\":").append(estimate.getEstimate())
+                .append(",\"halfWidth\":").append(estimate.getHalfWidth())
+                .append(",\"targetMet\":").append(targetMet);
+        }
+        json.append(",\"elapsedMillis\":").append(elapsedNanos / 1_000_000).append('}');
+        return json.toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d games (%d stopped), %.2f turns%s in %.3f s", request, games, stoppedGames,
+                turns.getEstimate(), estimate != null ? ", estimate " + estimate : "", elapsedNanos / 1e9);
+    }
+}
@@ -0,0 +1,312 @@
+package service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import factories.DiceFactory;
+import game.Game;
+import game.GameConfig;
+import game.GamePool;
+import util.DebugLog;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local HTTP service that runs simulations for other programs.
+ *
+ * {@code GET /simulate?<request>} takes a {@link SimulationRequest} query and
+ * answers with newline-delimited JSON: a "progress" line every so often while
+ * the games run and a final "result" (or "error") line. {@code GET /stats}
+ * reports the server's counters.
+ *
+ * Requests with the same job key are answered from one run: a request that
+ * arrives while an equal job runs joins it and streams its progress, and a
+ * request for a job that already finished is answered from an LRU cache of
+ * results. The "source" field of the result says which of "run", "shared" or
+ * "cache" answered it.
+ *
+ * Games only run on a fixed pool of simulation threads, each with its own
+ * {@link GamePool}. Request threads parse, look up a job and then sleep until
+ * the next progress line, so the server's throughput is that of the simulation
+ * threads no matter how many clients are connected.
+ *
+ * Usage: java service.SimulationServer [port] [threads] [cacheSize]
+ */
+public class SimulationServer {
+    /** Default port */
+    public static final int DEFAULT_PORT = 8090;
+    /** Default number of cached results */
+    public static final int DEFAULT_CACHE_SIZE = 256;
+    /** Default time between progress lines */
+    public static final long DEFAULT_PROGRESS_MILLIS = 250;
+
+    private final HttpServer http;
+    private final ExecutorService simulationThreads;
+    private final ExecutorService requestThreads;
+    private final int threads;
+    private final long progressMillis;
+    private final ThreadLocal<GamePool> pools;
+
+    // Configurations by key, so that every job of a configuration hits the same pooled games
+    private final Map<String, GameConfig> configs;
+
+    // Running jobs and the result cache, guarded by jobsLock
+    private final Object jobsLock;
+    private final Map<String, SimulationJob> running;
+    private final LinkedHashMap<String, SimulationResult> cache;
+
+    private final AtomicLong requests;
+    private final AtomicLong cacheHits;
+    private final AtomicLong sharedRuns;
+    private final AtomicLong jobs;
+    private final AtomicLong failedJobs;
+    private final AtomicLong gamesPlayed;
+
+    /**
+     * Constructor for a server on the loopback interface; call {@link #start} to serve
+     * @param port Port to listen on, 0 for any free port
+     * @param threads Simulation threads
+     * @param cacheSize Most results kept
+     * @param progressMillis Time between progress lines of a streamed job
+     * @throws IOException if the port cannot be bound
+     */
+    public SimulationServer(int port, int threads, int cacheSize, long progressMillis) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Need at least 1 thread");
+        }
+        this.http = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.threads = threads;
+        this.progressMillis = progressMillis;
+        this.simulationThreads = Executors.newFixedThreadPool(threads, daemonThreads("simulation"));
+        this.requestThreads = Executors.newCachedThreadPool(daemonThreads("request"));
+        this.pools = ThreadLocal.withInitial(() -> {
+            GamePool pool = new GamePool();
+            // No wall-clock limit: a result must not depend on how busy the server was
+            pool.setLimits(GamePool.DEFAULT_TURN_LIMIT, 0);
+            return pool;
+        });
+        this.configs = new ConcurrentHashMap<>();
+        this.jobsLock = new Object();
+        this.running = new HashMap<>();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SimulationResult> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        this.requests = new AtomicLong();
+        this.cacheHits = new AtomicLong();
+        this.sharedRuns = new AtomicLong();
+        this.jobs = new AtomicLong();
+        this.failedJobs = new AtomicLong();
+        this.gamesPlayed = new AtomicLong();
+
+        http.setExecutor(requestThreads);
+        http.createContext("/simulate", this::handleSimulate);
+        http.createContext("/stats", this::handleStats);
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public void start() {
+        http.start();
+    }
+
+    /**
+     * Stop serving; running jobs fail and their clients get an error line
+     */
+    public void stop() {
+        http.stop(0);
+        simulationThreads.shutdownNow();
+        requestThreads.shutdownNow();
+        try {
+            simulationThreads.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Get the port the server listens on
+     * @return Bound port
+     */
+    public int getPort() {
+        return http.getAddress().getPort();
+    }
+
+    private void handleSimulate(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        SimulationRequest request;
+        GameConfig config;
+        try {
+            request = SimulationRequest.fromQuery(exchange.getRequestURI().getRawQuery());
+            config = configs.computeIfAbsent(request.getConfig().getKey(), SimulationServer::checkedConfig);
+        } catch (IllegalArgumentException e) {
+            respond(exchange, 400, "{\"event\":\"error\",\"message\":" + jsonString(e.getMessage()) + "}\n");
+            return;
+        }
+
+        String key = request.getJobKey();
+        SimulationResult cached;
+        SimulationJob job = null;
+        boolean created = false;
+        synchronized (jobsLock) {
+            cached = cache.get(key);
+            if (cached == null) {
+                job = running.get(key);
+                if (job == null) {
+                    job = new SimulationJob(jobs.incrementAndGet(), request, config, simulationThreads,
+                            pools::get, threads, this::jobDone);
+                    running.put(key, job);
+                    created = true;
+                }
+            }
+        }
+        if (cached != null) {
+            cacheHits.incrementAndGet();
+            respond(exchange, 200, cached.toJson("result", "cache") + "\n");
+            return;
+        }
+        boolean shared = job.addReader() > 1;
+        if (shared) {
+            sharedRuns.incrementAndGet();
+        }
+        if (created) {
+            if (DebugLog.isEnabled()) {
+                System.out.println("[DEBUG SimulationServer] Job " + job.getId() + ": " + request);
+            }
+            job.start();
+        }
+        stream(exchange, job, shared ? "shared" : "run");
+    }
+
+    // Streams the job's progress until it is done; a client that hangs up only stops its own stream
+    private void stream(HttpExchange exchange, SimulationJob job, String source) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            long reportedGames = -1;
+            while (!job.isDone()) {
+                SimulationResult progress = job.getProgress();
+                if (progress.getGames() != reportedGames) {
+                    reportedGames = progress.getGames();
+                    writeLine(out, progress.toJson("progress", null));
+                }
+                try {
+                    job.awaitCompletion(progressMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            String error = job.getError();
+            writeLine(out, error != null
+                    ? "{\"event\":\"error\",\"message\":" + jsonString(error) + "}"
+                    : job.getProgress().toJson("result", source));
+        }
+    }
+
+    private static void writeLine(OutputStream out, String line) throws IOException {
+        out.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private void jobDone(SimulationJob job) {
+        SimulationResult result = job.getProgress();
+        String error = job.getError();
+        synchronized (jobsLock) {
+            // Cache before leaving the running map, so an equal request always finds one of them
+            if (error == null) {
+                cache.put(job.getRequest().getJobKey(), result);
+            }
+            running.remove(job.getRequest().getJobKey());
+        }
+        gamesPlayed.addAndGet(result.getGames());
+        if (error != null) {
+            failedJobs.incrementAndGet();
+            System.err.println("[SimulationServer] Job " + job.getId() + " failed: " + error);
+        } else if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG SimulationServer] Job " + job.getId() + " done: " + result);
+        }
+    }
+
+    // Plays nothing, but fails fast on configurations a game would reject
+    private static GameConfig checkedConfig(String key) {
+        GameConfig config = GameConfig.fromKey(key);
+        new Game().startGame(config, new DiceFactory().createDice(config.getDiceType(), 0));
+        return config;
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        int runningJobs;
+        int cachedResults;
+        synchronized (jobsLock) {
+            runningJobs = running.size();
+            cachedResults = cache.size();
+        }
+        respond(exchange, 200, "{\"requests\":" + requests.get() + ",\"jobs\":" + jobs.get()
+                + ",\"running\":" + runningJobs + ",\"failed\":" + failedJobs.get()
+                + ",\"shared\":" + sharedRuns.get() + ",\"cacheHits\":" + cacheHits.get()
+                + ",\"cached\":" + cachedResults + ",\"games\":" + gamesPlayed.get()
+                + ",\"threads\":" + threads + "}\n");
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/x-ndjson");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Quote a string for JSON
+     * @param value Text
+     * @return The text in double quotes, with quotes, backslashes and control characters escaped
+     */
+    static String jsonString(String value) {
+        StringBuilder json = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int cacheSize = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_CACHE_SIZE;
+
+        DebugLog.setEnabled(false);
+        SimulationServer server = new SimulationServer(port, threads, cacheSize, DEFAULT_PROGRESS_MILLIS);
+        server.start();
+        System.out.println("Simulation server on http://localhost:" + server.getPort()
+                + "/simulate with " + threads + " simulation threads");
+    }
+}
@@ -0,0 +1,47 @@
+package sharding;
+
+/**
+ * One unit of a sharded simulation job: a run of games of one configuration
+ * with consecutive dice seeds.
+ */
+public class Shard {
+    private final int index;
+    private final String configKey;
+    private final long firstSeed;
+    private final int games;
+
+    /**
+     * Constructor for a shard
+     * @param index Position in the job's shard table
+     * @param configKey Configuration key (see {@link game.GameConfig#getKey()})
+     * @param firstSeed Dice seed of the first game; game i uses firstSeed + i
+     * @param games Number of games
+     */
+    public Shard(int index, String configKey, long firstSeed, int games) {
+        this.index = index;
+        this.configKey = configKey;
+        this.firstSeed = firstSeed;
+        this.games = games;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getConfigKey() {
+        return configKey;
+    }
+
+    public long getFirstSeed() {
+        return firstSeed;
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    @Override
+    public String toString() {
+        return "Shard{" + index + ", " + configKey + ", seeds " + firstSeed + ".." + (firstSeed + games - 1) + "}";
+    }
+}
@@ -0,0 +1,252 @@
+package sharding;
+
+import game.GameConfig;
+import results.ConfigCatalog;
+import results.ResultStore;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a simulation job across several worker JVMs.
+ *
+ * The job is cut into shards of (config, seed range). The coordinator lays out a
+ * {@link ShardResultsFile}, launches up to {@code processes} {@link ShardWorker}
+ * child processes at a time, and merges every shard's rows into a
+ * {@link ResultStore} once all shards are done. A shard whose worker exits with
+ * an error, dies, or runs past the timeout is run again by a new worker, up to
+ * {@code maxAttempts} times. Because games are seeded from the shard's seed range,
+ * a re-run produces the same results the dead worker would have.
+ *
+ * Workers only need the results file path and a shard index, so shards can also
+ * be handed to workers started by hand on other hosts that share the file system.
+ */
+public class ShardCoordinator {
+    private final Path resultsFile;
+    private final List<Shard> shards;
+    private int gamesPerShard;
+    private int processes;
+    private int maxAttempts;
+    private long shardTimeoutMillis;
+    private int crashShard;
+    private int reruns;
+
+    /**
+     * Constructor with 10000 games per shard, one process per processor and 3 attempts per shard
+     * @param resultsFile File to hold the results
+     */
+    public ShardCoordinator(Path resultsFile) {
+        this.resultsFile = resultsFile;
+        this.shards = new ArrayList<>();
+        this.gamesPerShard = 10_000;
+        this.processes = Runtime.getRuntime().availableProcessors();
+        this.maxAttempts = 3;
+        this.shardTimeoutMillis = 0;
+        this.crashShard = -1;
+    }
+
+    /**
+     * Set the shard size used by later {@link #addJob} calls
+     * @param gamesPerShard Games per shard
+     */
+    public void setGamesPerShard(int gamesPerShard) {
+        if (gamesPerShard < 1) {
+            throw new IllegalArgumentException("A shard needs at least 1 game");
+        }
+        this.gamesPerShard = gamesPerShard;
+    }
+
+    /**
+     * Set how many worker processes run at the same time
+     * @param processes Concurrent workers
+     */
+    public void setProcesses(int processes) {
+        if (processes < 1) {
+            throw new IllegalArgumentException("Need at least 1 worker process");
+        }
+        this.processes = processes;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Kill workers that run longer than this and re-run their shard
+     * @param shardTimeoutMillis Timeout per shard attempt, 0 for none
+     */
+    public void setShardTimeoutMillis(long shardTimeoutMillis) {
+        this.shardTimeoutMillis = shardTimeoutMillis;
+    }
+
+    /**
+     * Make the first worker of one shard crash halfway through, to exercise recovery
+     * @param shardIndex Shard whose first attempt crashes, or -1
+     */
+    public void setCrashShard(int shardIndex) {
+        this.crashShard = shardIndex;
+    }
+
+    /**
+     * Add games of one configuration to the job, split into shards
+     * @param config Game configuration
+     * @param firstSeed Dice seed of the first game; game i uses firstSeed + i
+     * @param games Number of games
+     */
+    public void addJob(GameConfig config, long firstSeed, long games) {
+        for (long done = 0; done < games; done += gamesPerShard) {
+            int size = (int) Math.min(gamesPerShard, games - done);
+            shards.add(new Shard(shards.size(), config.getKey(), firstSeed + done, size));
+        }
+    }
+
+    public List<Shard> getShards() {
+        return new ArrayList<>(shards);
+    }
+
+    /**
+     * Run every shard in child processes and merge the results
+     * @return The merged results
+     * @throws IllegalStateException if a shard fails on every attempt
+     * @throws InterruptedException if interrupted while waiting for workers
+     */
+    public ShardJobResult run() throws InterruptedException {
+        long start = System.nanoTime();
+        reruns = 0;
+        try (ShardResultsFile file = ShardResultsFile.create(resultsFile, shards)) {
+            runWorkers(file);
+            return merge(file, System.nanoTime() - start);
+        }
+    }
+
+    private void runWorkers(ShardResultsFile file) throws InterruptedException {
+        ArrayDeque<Integer> pending = new ArrayDeque<>();
+        for (Shard shard : shards) {
+            pending.add(shard.getIndex());
+        }
+        int[] attempts = new int[shards.size()];
+        Map<Process, Integer> running = new HashMap<>();
+        Map<Process, Long> deadlines = new HashMap<>();
+        LinkedBlockingQueue<Process> exited = new LinkedBlockingQueue<>();
+
+        while (!pending.isEmpty() || !running.isEmpty()) {
+            while (!pending.isEmpty() && running.size() < processes) {
+                int index = pending.poll();
+                attempts[index]++;
+                Process process = launch(index, attempts[index]);
+                running.put(process, index);
+                if (shardTimeoutMillis > 0) {
+                    deadlines.put(process, System.currentTimeMillis() + shardTimeoutMillis);
+                }
+                process.onExit().thenAccept(exited::add);
+            }
+
+            Process process = exited.poll(100, TimeUnit.MILLISECONDS);
+            if (process == null) {
+                killOverdue(deadlines);
+                continue;
+            }
+            int index = running.remove(process);
+            deadlines.remove(process);
+            if (isDone(file, index, process.exitValue())) {
+                continue;
+            }
+            if (attempts[index] >= maxAttempts) {
+                for (Process other : running.keySet()) {
+                    other.destroyForcibly();
+                }
+                throw new IllegalStateException(shards.get(index) + " failed after " + attempts[index] + " attempts");
+            }
+            System.err.println("[ShardCoordinator] " + shards.get(index) + " attempt " + attempts[index] +
+                               " failed (exit " + process.exitValue() + "), running it again");
+            reruns++;
+            pending.add(index);
+        }
+    }
+
+    private Process launch(int index, int attempt) {
+        String java = ProcessHandle.current().info().command()
+                .orElse(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        List<String> command = new ArrayList<>(List.of(java, "-cp", System.getProperty("java.class.path"),
+                ShardWorker.class.getName(), resultsFile.toString(), String.valueOf(index), String.valueOf(attempt)));
+        if (index == crashShard && attempt == 1) {
+            command.add(String.valueOf(shards.get(index).getGames() / 2));
+        }
+        try {
+            return new ProcessBuilder(command)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot start worker for " + shards.get(index), e);
+        }
+    }
+
+    private void killOverdue(Map<Process, Long> deadlines) {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Process, Long> entry : deadlines.entrySet()) {
+            if (now > entry.getValue()) {
+                entry.getKey().destroyForcibly();
+            }
+        }
+    }
+
+    private boolean isDone(ShardResultsFile file, int index, int exitValue) {
+        if (exitValue != 0) {
+            return false;
+        }
+        MappedByteBuffer region = file.mapRegion(index);
+        return region.getInt(ShardResultsFile.REGION_STATUS) == ShardResultsFile.STATUS_DONE &&
+               region.getInt(ShardResultsFile.REGION_COMPLETED) == shards.get(index).getGames();
+    }
+
+    private ShardJobResult merge(ShardResultsFile file, long elapsedNanos) {
+        ConfigCatalog catalog = new ConfigCatalog();
+        ResultStore store = new ResultStore();
+        for (Shard shard : shards) {
+            int configId = catalog.idOf(shard.getConfigKey());
+            MappedByteBuffer region = file.mapRegion(shard.getIndex());
+            for (int i = 0; i < shard.getGames(); i++) {
+                int row = ShardResultsFile.rowOffset(i);
+                store.append(configId, region.get(row + 6), region.getInt(row), region.getShort(row + 4), 0,
+                        shard.getFirstSeed() + i);
+            }
+        }
+        return new ShardJobResult(store, catalog, shards.size(), reruns, elapsedNanos);
+    }
+
+    /**
+     * Usage: java sharding.ShardCoordinator resultsFile processes gamesPerShard gamesPerConfig
+     *        [--crash-shard N] configKey...
+     * e.g.   java sharding.ShardCoordinator /tmp/results.bin 4 5000 100000 basic/2/single/none large/4/double/exactEnd+hitHome
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 5) {
+            System.out.println("Usage: ShardCoordinator resultsFile processes gamesPerShard gamesPerConfig " +
+                               "[--crash-shard N] configKey...");
+            System.exit(1);
+        }
+        ShardCoordinator coordinator = new ShardCoordinator(Path.of(args[0]));
+        coordinator.setProcesses(Integer.parseInt(args[1]));
+        coordinator.setGamesPerShard(Integer.parseInt(args[2]));
+        long gamesPerConfig = Long.parseLong(args[3]);
+        int next = 4;
+        if ("--crash-shard".equals(args[next])) {
+            coordinator.setCrashShard(Integer.parseInt(args[next + 1]));
+            next += 2;
+        }
+        for (int i = next; i < args.length; i++) {
+            coordinator.addJob(GameConfig.fromKey(args[i]), 1, gamesPerConfig);
+        }
+        System.out.println(coordinator.run());
+    }
+}
@@ -0,0 +1,76 @@
+package sharding;
+
+import results.ConfigCatalog;
+import results.ResultStore;
+import simulation.RunningStats;
+
+/**
+ * Merged outcome of a {@link ShardCoordinator} job: every game of every shard,
+ * loaded into a {@link ResultStore} for querying.
+ */
+public class ShardJobResult {
+    private final ResultStore store;
+    private final ConfigCatalog catalog;
+    private final int shards;
+    private final int reruns;
+    private final long elapsedNanos;
+
+    ShardJobResult(ResultStore store, ConfigCatalog catalog, int shards, int reruns, long elapsedNanos) {
+        this.store = store;
+        this.catalog = catalog;
+        this.shards = shards;
+        this.reruns = reruns;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Get the store holding one row per game, seeds included
+     * @return Result store
+     */
+    public ResultStore getStore() {
+        return store;
+    }
+
+    /**
+     * Get the catalog mapping the store's config ids to config keys
+     * @return Config catalog
+     */
+    public ConfigCatalog getCatalog() {
+        return catalog;
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    /**
+     * Get the number of shard attempts that failed and were run again
+     * @return Re-run count
+     */
+    public int getReruns() {
+        return reruns;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("%d games in %d shards (%d re-run) in %.2f s%n",
+                store.size(), shards, reruns, elapsedNanos / 1e9));
+        for (int id = 0; id < catalog.size(); id++) {
+            RunningStats turns = new RunningStats();
+            store.query().config(id).forEachRow(row -> turns.add(store.get(ResultStore.Column.TURNS, row)));
+            builder.append(String.format("%-32s games=%d meanTurns=%.3f wins=[",
+                    catalog.keyOf(id), turns.getCount(), turns.getMean()));
+            for (int seat = 0; seat < 4; seat++) {
+                builder.append(seat > 0 ? ", " : "").append(store.query().config(id).winner(seat).count());
+            }
+            builder.append("] stopped=").append(store.query().config(id).winner(ResultStore.NO_WINNER).count())
+                   .append('\n');
+        }
+        return builder.toString().trim();
+    }
+}
@@ -0,0 +1,179 @@
+package sharding;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Memory-mapped file shared by the coordinator and the worker processes of a sharded job.
+ *
+ * The coordinator creates the file with a shard table and one region per shard.
+ * Each worker maps only its own shard's region and writes one row per game, so
+ * workers never coordinate with each other and can run in separate JVMs or on
+ * separate hosts sharing the file system. The coordinator reads the regions
+ * after the workers have exited.
+ *
+ * Layout (little endian):
+ *   header, 16 bytes:        magic, version, shard count, (unused)
+ *   shard table, 64 bytes each:
+ *     0  region offset (long)   8  first seed (long)
+ *     16 games (int)            20 config key length (int)
+ *     24 config key, ASCII, up to {@link #MAX_KEY_LENGTH} bytes
+ *   shard regions, each a 32 byte region header followed by one row per game:
+ *     0  status (int)           4  attempt (int)
+ *     8  worker pid (long)      16 completed games (int)
+ *   row, 8 bytes: turns (int), hits (short), winner seat (byte, -1 for none),
+ *     outcome (byte, {@link game.Game.Outcome} ordinal; games without a winner were stopped by a limit)
+ * Game i of a shard was played with dice seed (first seed + i).
+ */
+public class ShardResultsFile implements AutoCloseable {
+    public static final int STATUS_PENDING = 0;
+    public static final int STATUS_RUNNING = 1;
+    public static final int STATUS_DONE = 2;
+
+    /** Longest config key that fits in the shard table */
+    public static final int MAX_KEY_LENGTH = 40;
+
+    static final int MAGIC = 0x53465348; // "SFSH"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int TABLE_ENTRY_SIZE = 64;
+    static final int REGION_HEADER_SIZE = 32;
+    static final int ROW_SIZE = 8;
+
+    static final int REGION_STATUS = 0;
+    static final int REGION_ATTEMPT = 4;
+    static final int REGION_PID = 8;
+    static final int REGION_COMPLETED = 16;
+
+    private final FileChannel channel;
+    private final int shardCount;
+
+    private ShardResultsFile(FileChannel channel, int shardCount) {
+        this.channel = channel;
+        this.shardCount = shardCount;
+    }
+
+    /**
+     * Create (or overwrite) a results file laid out for a list of shards
+     * @param path File to create
+     * @param shards Shards, in index order
+     * @return The open file
+     */
+    public static ShardResultsFile create(Path path, List<Shard> shards) {
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            long tableEnd = HEADER_SIZE + (long) TABLE_ENTRY_SIZE * shards.size();
+            ByteBuffer table = ByteBuffer.allocate((int) tableEnd).order(ByteOrder.LITTLE_ENDIAN);
+            table.putInt(MAGIC).putInt(VERSION).putInt(shards.size()).putInt(0);
+
+            long offset = tableEnd;
+            for (Shard shard : shards) {
+                byte[] key = shard.getConfigKey().getBytes(StandardCharsets.US_ASCII);
+                if (key.length > MAX_KEY_LENGTH) {
+                    throw new IllegalArgumentException("Config key too long for a results file: " + shard.getConfigKey());
+                }
+                int entry = HEADER_SIZE + shard.getIndex() * TABLE_ENTRY_SIZE;
+                table.putLong(entry, offset);
+                table.putLong(entry + 8, shard.getFirstSeed());
+                table.putInt(entry + 16, shard.getGames());
+                table.putInt(entry + 20, key.length);
+                table.put(entry + 24, key);
+                offset += regionSize(shard.getGames());
+            }
+            channel.write(table.rewind(), 0);
+            // Size the file so every region can be mapped; regions start out zeroed (pending)
+            channel.write(ByteBuffer.allocate(1), offset - 1);
+            return new ShardResultsFile(channel, shards.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create results file " + path, e);
+        }
+    }
+
+    /**
+     * Open an existing results file
+     * @param path File to open
+     * @return The open file
+     */
+    public static ShardResultsFile open(Path path) {
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                channel.close();
+                throw new IllegalArgumentException("Not a shard results file: " + path);
+            }
+            return new ShardResultsFile(channel, header.getInt(8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open results file " + path, e);
+        }
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    /**
+     * Read a shard's entry from the shard table
+     * @param index Shard index
+     * @return The shard
+     */
+    public Shard getShard(int index) {
+        if (index < 0 || index >= shardCount) {
+            throw new IndexOutOfBoundsException("No shard " + index + " in a file of " + shardCount);
+        }
+        try {
+            ByteBuffer entry = ByteBuffer.allocate(TABLE_ENTRY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(entry, HEADER_SIZE + (long) index * TABLE_ENTRY_SIZE);
+            byte[] key = new byte[entry.getInt(20)];
+            entry.get(24, key);
+            return new Shard(index, new String(key, StandardCharsets.US_ASCII), entry.getLong(8), entry.getInt(16));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Map a shard's region (header and rows)
+     * @param index Shard index
+     * @return Little endian buffer over the region, positioned at 0
+     */
+    public MappedByteBuffer mapRegion(int index) {
+        try {
+            ByteBuffer entry = ByteBuffer.allocate(TABLE_ENTRY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(entry, HEADER_SIZE + (long) index * TABLE_ENTRY_SIZE);
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_WRITE, entry.getLong(0),
+                    regionSize(entry.getInt(16)));
+            region.order(ByteOrder.LITTLE_ENDIAN);
+            return region;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static long regionSize(int games) {
+        return REGION_HEADER_SIZE + (long) ROW_SIZE * games;
+    }
+
+    static int rowOffset(int game) {
+        return REGION_HEADER_SIZE + ROW_SIZE * game;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package sharding;
+
+import game.Game;
+import game.GameConfig;
+import game.GamePool;
+import players.Player;
+import results.GameResultRecorder;
+import util.DebugLog;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * Worker process of a sharded job: plays every game of one shard and writes the
+ * results into that shard's region of the {@link ShardResultsFile}.
+ *
+ * Games are seeded from the shard's seed range, so a re-run after a crash
+ * writes exactly the same rows. The region is marked done only after all rows
+ * are flushed, which is how the coordinator tells a finished shard from a dead one.
+ *
+ * Usage: java sharding.ShardWorker resultsFile shardIndex attempt [crashAfterGames]
+ * crashAfterGames makes the process halt abruptly after that many games, to test recovery.
+ */
+public class ShardWorker {
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.err.println("Usage: ShardWorker resultsFile shardIndex attempt [crashAfterGames]");
+            System.exit(1);
+        }
+        int crashAfter = args.length > 3 ? Integer.parseInt(args[3]) : -1;
+        try (ShardResultsFile file = ShardResultsFile.open(Path.of(args[0]))) {
+            run(file, Integer.parseInt(args[1]), Integer.parseInt(args[2]), crashAfter);
+        }
+    }
+
+    /**
+     * Play one shard into its region
+     * @param file Open results file
+     * @param shardIndex Shard to play
+     * @param attempt Attempt number, recorded in the region
+     * @param crashAfter Halt the JVM after this many games, or -1
+     */
+    static void run(ShardResultsFile file, int shardIndex, int attempt, int crashAfter) {
+        Shard shard = file.getShard(shardIndex);
+        GameConfig config = GameConfig.fromKey(shard.getConfigKey());
+        MappedByteBuffer region = file.mapRegion(shardIndex);
+        region.putInt(ShardResultsFile.REGION_COMPLETED, 0);
+        region.putInt(ShardResultsFile.REGION_ATTEMPT, attempt);
+        region.putLong(ShardResultsFile.REGION_PID, ProcessHandle.current().pid());
+        region.putInt(ShardResultsFile.REGION_STATUS, ShardResultsFile.STATUS_RUNNING);
+
+        DebugLog.setEnabled(false);
+        GamePool pool = new GamePool();
+        GameResultRecorder recorder = new GameResultRecorder();
+        pool.addObserver(config, recorder);
+        for (int i = 0; i < shard.getGames(); i++) {
+            if (i == crashAfter) {
+                Runtime.getRuntime().halt(3);
+            }
+            recorder.reset();
+            Game game = pool.next(config, shard.getFirstSeed() + i);
+            while (!game.isGameOver()) {
+                game.playTurn();
+            }
+
+            Player winner = game.getWinner();
+            int row = ShardResultsFile.rowOffset(i);
+            region.putInt(row, game.getPlayerManager().getTotalTurns());
+            region.putShort(row + 4, (short) Math.min(recorder.getHits(), Short.MAX_VALUE));
+            region.put(row + 6, (byte) (winner != null ? winner.getSeat() : -1));
+            region.put(row + 7, (byte) game.getOutcome().ordinal());
+            region.putInt(ShardResultsFile.REGION_COMPLETED, i + 1);
+        }
+
+        // Rows must be on disk before the shard is reported done
+        region.force();
+        region.putInt(ShardResultsFile.REGION_STATUS, ShardResultsFile.STATUS_DONE);
+        region.force();
+    }
+}
@@ -0,0 +1,67 @@
+package simulation;
+
+import game.GameConfig;
+
+/**
+ * Result of an {@link AdaptiveSimulator} run for one configuration.
+ */
+public class AdaptiveResult {
+    private final GameConfig config;
+    private final PrecisionTarget target;
+    private final ConfidenceInterval interval;
+    private final long games;
+    private final boolean targetMet;
+    private final long elapsedNanos;
+
+    AdaptiveResult(GameConfig config, PrecisionTarget target, ConfidenceInterval interval,
+                   long games, boolean targetMet, long elapsedNanos) {
+        this.config = config;
+        this.target = target;
+        this.interval = interval;
+        this.games = games;
+        this.targetMet = targetMet;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public GameConfig getConfig() {
+        return config;
+    }
+
+    public PrecisionTarget getTarget() {
+        return target;
+    }
+
+    /**
+     * Get the final estimate
+     * @return Estimate with its confidence interval
+     */
+    public ConfidenceInterval getInterval() {
+        return interval;
+    }
+
+    /**
+     * Get the number of completed games the estimate is based on
+     * @return Game count
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * Check whether the run stopped because the target was reached rather than the game budget
+     * @return true if the target precision was reached
+     */
+    public boolean isTargetMet() {
+        return targetMet;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-32s %s after %d games in %.3f s%s", config.getKey(), interval, games,
+                elapsedNanos / 1e9, targetMet ? "" : " (budget exhausted, target not met)");
+    }
+}
@@ -0,0 +1,191 @@
+package simulation;
+
+import dices.Dice;
+import factories.DiceFactory;
+import game.Game;
+import game.GameConfig;
+import util.DebugLog;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Plays games until an estimate reaches a {@link PrecisionTarget}, instead of a
+ * game count fixed up front.
+ *
+ * Worker threads play games in chunks into their own {@link RunningStats} and
+ * merge each chunk into the shared total. Whoever merges a chunk that brings the
+ * confidence interval within the target raises the stop flag; the other workers
+ * check it before every game, so they stop within one game. Configurations with
+ * little variance stop after the minimum number of games.
+ */
+public class AdaptiveSimulator {
+    private int threads;
+    private int chunkSize;
+    private long minGames;
+    private long maxGames;
+    private long seed;
+
+    /**
+     * Constructor using one thread per processor, 64 game chunks, at least 1000 and at most
+     * 100 million games
+     */
+    public AdaptiveSimulator() {
+        this.threads = Runtime.getRuntime().availableProcessors();
+        this.chunkSize = 64;
+        this.minGames = 1000;
+        this.maxGames = 100_000_000L;
+        this.seed = System.nanoTime();
+    }
+
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Need at least 1 thread");
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Set how many games a worker plays between merges into the shared estimate
+     * @param chunkSize Games per chunk
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Set the number of games played before the target is checked, so that a
+     * variance estimated from a handful of games cannot stop the run
+     * @param minGames Minimum games
+     */
+    public void setMinGames(long minGames) {
+        this.minGames = minGames;
+    }
+
+    /**
+     * Set a budget after which the run stops even if the target is not met
+     * @param maxGames Maximum games
+     */
+    public void setMaxGames(long maxGames) {
+        this.maxGames = maxGames;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Simulate one configuration until the target is met or the game budget is spent
+     * @param config Game configuration
+     * @param target Precision target
+     * @return Final estimate
+     */
+    public AdaptiveResult run(GameConfig config, PrecisionTarget target) {
+        long start = System.nanoTime();
+        RunningStats total = new RunningStats();
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicLong started = new AtomicLong();
+
+        List<Thread> workers = new ArrayList<>();
+        for (int w = 0; w < threads; w++) {
+            long workerSeed = seed + 0x9E3779B97F4A7C15L * (w + 1);
+            Thread worker = new Thread(() -> work(config, target, workerSeed, total, stop, started),
+                    "adaptive-" + config.getKey() + "-" + w);
+            worker.start();
+            workers.add(worker);
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                stop.set(true);
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        synchronized (total) {
+            ConfidenceInterval interval = total.confidenceInterval(target.getConfidenceLevel());
+            boolean met = total.getCount() >= minGames && target.isMet(interval);
+            return new AdaptiveResult(config, target, interval, total.getCount(), met, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Simulate several configurations one after the other, each until its own target is met
+     * @param configs Configurations
+     * @param target Precision target applied to each
+     * @return One result per configuration, in order
+     */
+    public List<AdaptiveResult> runAll(List<GameConfig> configs, PrecisionTarget target) {
+        List<AdaptiveResult> results = new ArrayList<>();
+        for (GameConfig config : configs) {
+            results.add(run(config, target));
+        }
+        return results;
+    }
+
+    private void work(GameConfig config, PrecisionTarget target, long workerSeed,
+                      RunningStats total, AtomicBoolean stop, AtomicLong started) {
+        Game game = new Game();
+        Dice dice = new DiceFactory().createDice(config.getDiceType(), workerSeed);
+        RunningStats chunk = new RunningStats();
+        while (!stop.get() && started.getAndIncrement() < maxGames) {
+            game.startGame(config, dice);
+            while (!game.isGameOver() && !stop.get()) {
+                game.playTurn();
+            }
+            if (!game.isGameOver()) {
+                // Stopped mid-game; a partial game is not an observation
+                break;
+            }
+            chunk.add(target.measure(game));
+            if (chunk.getCount() == chunkSize) {
+                mergeAndCheck(chunk, total, target, stop);
+                chunk = new RunningStats();
+            }
+        }
+        if (chunk.getCount() > 0) {
+            mergeAndCheck(chunk, total, target, stop);
+        }
+    }
+
+    private void mergeAndCheck(RunningStats chunk, RunningStats total, PrecisionTarget target, AtomicBoolean stop) {
+        synchronized (total) {
+            total.merge(chunk);
+            if (total.getCount() >= minGames && target.isMet(total.confidenceInterval(target.getConfidenceLevel()))) {
+                stop.set(true);
+            }
+        }
+    }
+
+    /**
+     * Usage: java simulation.AdaptiveSimulator target halfWidth confidence configKey...
+     *   target is "turns" or "win:SEAT" (0 = Red)
+     * e.g.   java simulation.AdaptiveSimulator win:0 0.001 0.99 basic/2/single/none large/4/double/exactEnd+hitHome
+     */
+    public static void main(String[] args) {
+        if (args.length < 4) {
+            System.out.println("Usage: AdaptiveSimulator turns|win:SEAT halfWidth confidence configKey...");
+            System.exit(1);
+        }
+        double halfWidth = Double.parseDouble(args[1]);
+        double confidence = Double.parseDouble(args[2]);
+        PrecisionTarget target = args[0].startsWith("win:")
+                ? PrecisionTarget.winRate(Integer.parseInt(args[0].substring(4)), halfWidth, confidence)
+                : PrecisionTarget.meanTurns(halfWidth, confidence);
+        List<GameConfig> configs = new ArrayList<>();
+        for (int i = 3; i < args.length; i++) {
+            configs.add(GameConfig.fromKey(args[i]));
+        }
+
+        DebugLog.setEnabled(false);
+        System.out.println("Target: " + target);
+        for (AdaptiveResult result : new AdaptiveSimulator().runAll(configs, target)) {
+            System.out.println(result);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package simulation;
+
+import game.GameConfig;
+import players.PlayerColor;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a {@link PairedComparison} run. Variant 0 is the baseline; differences
+ * are variant minus baseline.
+ */
+public class ComparisonResult {
+    private final List<GameConfig> variants;
+    private final long games;
+    private final boolean antithetic;
+    private final ConfidenceInterval[][] winRates;
+    private final ConfidenceInterval[] meanTurns;
+    private final ConfidenceInterval[][] winDifferences;
+    private final ConfidenceInterval[] turnDifferences;
+    private final double[][] winGains;
+    private final double[] turnGains;
+    private final long elapsedNanos;
+
+    ComparisonResult(List<GameConfig> variants, long games, boolean antithetic, ConfidenceInterval[][] winRates,
+                     ConfidenceInterval[] meanTurns, ConfidenceInterval[][] winDifferences,
+                     ConfidenceInterval[] turnDifferences, double[][] winGains, double[] turnGains,
+                     long elapsedNanos) {
+        this.variants = new ArrayList<>(variants);
+        this.games = games;
+        this.antithetic = antithetic;
+        this.winRates = winRates;
+        this.meanTurns = meanTurns;
+        this.winDifferences = winDifferences;
+        this.turnDifferences = turnDifferences;
+        this.winGains = winGains;
+        this.turnGains = turnGains;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public List<GameConfig> getVariants() {
+        return new ArrayList<>(variants);
+    }
+
+    /**
+     * Get the number of game indices played per variant
+     * @return Game indices (each one two games if antithetic)
+     */
+    public long getGames() {
+        return games;
+    }
+
+    public boolean isAntithetic() {
+        return antithetic;
+    }
+
+    /**
+     * Get a variant's win rate for a seat
+     * @param variant Variant index, 0 for the baseline
+     * @param seat Seat index
+     * @return Estimate and confidence interval
+     */
+    public ConfidenceInterval getWinRate(int variant, int seat) {
+        return winRates[variant][seat];
+    }
+
+    /**
+     * Get a variant's mean game length
+     * @param variant Variant index, 0 for the baseline
+     * @return Estimate and confidence interval, in turns
+     */
+    public ConfidenceInterval getMeanTurns(int variant) {
+        return meanTurns[variant];
+    }
+
+    /**
+     * Get the difference of a seat's win rate from the baseline
+     * @param variant Variant index, at least 1
+     * @param seat Seat index, present in both configurations
+     * @return Estimate and paired confidence interval
+     */
+    public ConfidenceInterval getWinDifference(int variant, int seat) {
+        return winDifferences[variant][seat];
+    }
+
+    /**
+     * Get the difference of the mean game length from the baseline
+     * @param variant Variant index, at least 1
+     * @return Estimate and paired confidence interval, in turns
+     */
+    public ConfidenceInterval getTurnDifference(int variant) {
+        return turnDifferences[variant];
+    }
+
+    /**
+     * Get how many times as many games two independent runs would need for the same
+     * win rate difference interval
+     * @param variant Variant index, at least 1
+     * @param seat Seat index
+     * @return Games saved factor
+     */
+    public double getWinGain(int variant, int seat) {
+        return winGains[variant][seat];
+    }
+
+    /**
+     * Get how many times as many games two independent runs would need for the same
+     * game length difference interval
+     * @param variant Variant index, at least 1
+     * @return Games saved factor
+     */
+    public double getTurnGain(int variant) {
+        return turnGains[variant];
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("%d game indices per variant, %s streams, %.1f s%n", games,
+                antithetic ? "common antithetic" : "common", elapsedNanos / 1e9));
+        builder.append(String.format("Baseline %s: turns %s", variants.get(0).getKey(), meanTurns[0]));
+        for (int seat = 0; seat < winRates[0].length; seat++) {
+            builder.append(String.format(", %s %.4f", PlayerColor.fromOrdinal(seat).getValue(),
+                    winRates[0][seat].getEstimate()));
+        }
+        for (int v = 1; v < variants.size(); v++) {
+            builder.append(String.format("%n%s:%n", variants.get(v).getKey()));
+            builder.append(String.format("  turns %s, difference %s (%.1fx fewer games)%n",
+                    meanTurns[v], turnDifferences[v], turnGains[v]));
+            for (int seat = 0; seat < winDifferences[v].length; seat++) {
+                builder.append(String.format("  P(%s wins) %.4f, difference %s (%.1fx fewer games)",
+                        PlayerColor.fromOrdinal(seat).getValue(), winRates[v][seat].getEstimate(),
+                        winDifferences[v][seat], winGains[v][seat]));
+                if (seat < winDifferences[v].length - 1) {
+                    builder.append(String.format("%n"));
+                }
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,115 @@
+package simulation;
+
+/**
+ * Two-sided confidence interval around an estimate.
+ */
+public class ConfidenceInterval {
+    private final double estimate;
+    private final double lower;
+    private final double upper;
+    private final double level;
+
+    /**
+     * Constructor for an interval
+     * @param estimate Point estimate
+     * @param lower Lower bound
+     * @param upper Upper bound
+     * @param level Confidence level, e.g. 0.95
+     */
+    public ConfidenceInterval(double estimate, double lower, double upper, double level) {
+        this.estimate = estimate;
+        this.lower = lower;
+        this.upper = upper;
+        this.level = level;
+    }
+
+    /**
+     * Build a normal-approximation interval, estimate +- z * standard error
+     * @param estimate Point estimate
+     * @param standardError Standard error of the estimate
+     * @param level Confidence level, e.g. 0.95
+     * @return Confidence interval
+     */
+    public static ConfidenceInterval normal(double estimate, double standardError, double level) {
+        double halfWidth = zScore(level) * standardError;
+        return new ConfidenceInterval(estimate, estimate - halfWidth, estimate + halfWidth, level);
+    }
+
+    /**
+     * Get the two-sided standard normal critical value for a confidence level
+     * @param level Confidence level, between 0 and 1 exclusive
+     * @return z such that P(-z < Z < z) = level
+     */
+    public static double zScore(double level) {
+        if (!(level > 0 && level < 1)) {
+            throw new IllegalArgumentException("Confidence level must be between 0 and 1: " + level);
+        }
+        return normalQuantile(0.5 + level / 2);
+    }
+
+    /**
+     * Inverse of the standard normal CDF (Acklam's rational approximation, relative error below 1.2e-9)
+     * @param p Probability, between 0 and 1 exclusive
+     * @return Quantile
+     */
+    public static double normalQuantile(double p) {
+        final double[] a = { -3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+                             1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00 };
+        final double[] b = { -5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+                             6.680131188771972e+01, -1.328068155288572e+01 };
+        final double[] c = { -7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+                             -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00 };
+        final double[] d = { 7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+                             3.754408661907416e+00 };
+        final double low = 0.02425;
+        if (p < low) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5]) /
+                   ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        if (p > 1 - low) {
+            return -normalQuantile(1 - p);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q /
+               (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+
+    public double getEstimate() {
+        return estimate;
+    }
+
+    public double getLower() {
+        return lower;
+    }
+
+    public double getUpper() {
+        return upper;
+    }
+
+    public double getLevel() {
+        return level;
+    }
+
+    /**
+     * Get half the interval width
+     * @return Half width
+     */
+    public double getHalfWidth() {
+        return (upper - lower) / 2;
+    }
+
+    /**
+     * Get the half width relative to the estimate
+     * @return Relative half width, or infinity for a zero estimate
+     */
+    public double getRelativeHalfWidth() {
+        return estimate == 0 ? Double.POSITIVE_INFINITY : getHalfWidth() / Math.abs(estimate);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%.4g [%.4g, %.4g] (%.0f%%)", estimate, lower, upper, level * 100);
+    }
+}
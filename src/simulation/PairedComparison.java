@@ -0,0 +1,306 @@
+package simulation;
+
+import dices.AntitheticDice;
+import dices.Dice;
+import dices.SeatStreamDice;
+import factories.DiceFactory;
+import game.Game;
+import game.GameConfig;
+import game.GamePool;
+import players.Player;
+import players.PlayerManager;
+import util.DebugLog;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Compares configuration variants (e.g. with and without exactEnd) using common
+ * random numbers.
+ *
+ * Game i of every variant is played from the same dice: each seat gets its own
+ * stream (see {@link SeatStreamDice}) seeded from the base seed, i and the seat.
+ * The outcome of game i in a variant is then strongly correlated with game i of
+ * the baseline, and the confidence interval of the difference uses the variance
+ * of the per-game differences instead of the sum of two independent variances.
+ *
+ * With antithetic streams each game index is also played with every face f
+ * replaced by 7 - f (see {@link AntitheticDice}), and the observation is the
+ * average of the two games. The result reports, for each difference, how many
+ * times as many independent games would be needed for the same interval.
+ *
+ * Variants should use the same dice type, otherwise their streams are not coupled.
+ */
+public class PairedComparison {
+    private static final int GAMES_PER_BLOCK = 256;
+
+    private final List<GameConfig> variants;
+    private boolean antithetic;
+    private long seed;
+    private double confidenceLevel;
+
+    /**
+     * Constructor comparing every variant against the first
+     * @param variants Baseline followed by the variants to compare with it
+     */
+    public PairedComparison(List<GameConfig> variants) {
+        if (variants.size() < 2) {
+            throw new IllegalArgumentException("Need a baseline and at least one variant");
+        }
+        this.variants = new ArrayList<>(variants);
+        this.seed = System.nanoTime();
+        this.confidenceLevel = 0.95;
+    }
+
+    /**
+     * Also play every game index with mirrored dice
+     * @param antithetic true for antithetic pairs
+     */
+    public void setAntithetic(boolean antithetic) {
+        this.antithetic = antithetic;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public void setConfidenceLevel(double confidenceLevel) {
+        ConfidenceInterval.zScore(confidenceLevel);
+        this.confidenceLevel = confidenceLevel;
+    }
+
+    /**
+     * Play the games of every variant, in parallel blocks
+     * @param games Number of game indices (each played once per variant, twice if antithetic)
+     * @return Differences from the baseline with paired confidence intervals
+     */
+    public ComparisonResult run(long games) {
+        long start = System.nanoTime();
+        int blocks = (int) ((games + GAMES_PER_BLOCK - 1) / GAMES_PER_BLOCK);
+        Tally[] results = IntStream.range(0, blocks).parallel()
+                .mapToObj(block -> runBlock(block * (long) GAMES_PER_BLOCK,
+                        Math.min(games, (block + 1) * (long) GAMES_PER_BLOCK)))
+                .toArray(Tally[]::new);
+        // Merge in block order so the result does not depend on the thread count
+        Tally total = new Tally(variants);
+        for (Tally result : results) {
+            total.merge(result);
+        }
+
+        int count = variants.size();
+        ConfidenceInterval[][] winRates = new ConfidenceInterval[count][];
+        ConfidenceInterval[] meanTurns = new ConfidenceInterval[count];
+        ConfidenceInterval[][] winDifferences = new ConfidenceInterval[count][];
+        ConfidenceInterval[] turnDifferences = new ConfidenceInterval[count];
+        double[][] winGains = new double[count][];
+        double[] turnGains = new double[count];
+        int gamesPerObservation = antithetic ? 2 : 1;
+        for (int v = 0; v < count; v++) {
+            winRates[v] = new ConfidenceInterval[total.wins[v].length];
+            for (int seat = 0; seat < winRates[v].length; seat++) {
+                winRates[v][seat] = total.wins[v][seat].confidenceInterval(confidenceLevel);
+            }
+            meanTurns[v] = total.turns[v].confidenceInterval(confidenceLevel);
+            if (v == 0) {
+                continue;
+            }
+            winDifferences[v] = new ConfidenceInterval[total.winDifferences[v].length];
+            winGains[v] = new double[winDifferences[v].length];
+            for (int seat = 0; seat < winDifferences[v].length; seat++) {
+                winDifferences[v][seat] = total.winDifferences[v][seat].confidenceInterval(confidenceLevel);
+                winGains[v][seat] = gain(total.singleWins[v][seat], total.singleWins[0][seat],
+                        total.winDifferences[v][seat], gamesPerObservation);
+            }
+            turnDifferences[v] = total.turnDifferences[v].confidenceInterval(confidenceLevel);
+            turnGains[v] = gain(total.singleTurns[v], total.singleTurns[0], total.turnDifferences[v],
+                    gamesPerObservation);
+        }
+        return new ComparisonResult(variants, games, antithetic, winRates, meanTurns, winDifferences,
+                turnDifferences, winGains, turnGains, System.nanoTime() - start);
+    }
+
+    /**
+     * Games needed by two independent runs for the variance of one paired difference
+     */
+    private static double gain(RunningStats variant, RunningStats baseline, RunningStats difference,
+                               int gamesPerObservation) {
+        double pairedVariance = difference.getVariance() * gamesPerObservation;
+        double independentVariance = variant.getVariance() + baseline.getVariance();
+        return pairedVariance > 0 ? independentVariance / pairedVariance : Double.POSITIVE_INFINITY;
+    }
+
+    private Tally runBlock(long firstGame, long endGame) {
+        Tally tally = new Tally(variants);
+        int count = variants.size();
+        Game[] games = new Game[count];
+        for (int v = 0; v < count; v++) {
+            games[v] = new Game();
+            games[v].setTurnLimit(GamePool.DEFAULT_TURN_LIMIT);
+            games[v].setTimeLimitMillis(GamePool.DEFAULT_TIME_LIMIT_MILLIS);
+        }
+        double[][] wins = new double[count][];
+        double[] turns = new double[count];
+        // Dice of every variant, plain and mirrored, reseeded for each game index
+        SeatStreamDice[][] dice = new SeatStreamDice[count][2];
+        DiceFactory diceFactory = new DiceFactory();
+        for (int v = 0; v < count; v++) {
+            GameConfig config = variants.get(v);
+            wins[v] = new double[config.getNumPlayers()];
+            Dice[] plain = new Dice[config.getNumPlayers()];
+            Dice[] mirrored = new Dice[config.getNumPlayers()];
+            for (int seat = 0; seat < plain.length; seat++) {
+                plain[seat] = diceFactory.createDice(config.getDiceType(), 0);
+                mirrored[seat] = new AntitheticDice(diceFactory.createDice(config.getDiceType(), 0));
+            }
+            dice[v][0] = new SeatStreamDice(plain);
+            dice[v][1] = new SeatStreamDice(mirrored);
+        }
+
+        for (long index = firstGame; index < endGame; index++) {
+            for (int v = 0; v < count; v++) {
+                GameConfig config = variants.get(v);
+                Arrays.fill(wins[v], 0);
+                turns[v] = 0;
+                for (int mirror = 0; mirror < (antithetic ? 2 : 1); mirror++) {
+                    // Seat k of game i rolls from the same stream in every variant
+                    dice[v][mirror].reseed(seed + 0x9E3779B97F4A7C15L * (index + 1));
+                    Player winner = play(games[v], config, dice[v][mirror]);
+                    int gameTurns = games[v].getPlayerManager().getTotalTurns();
+                    tally.addSingle(v, winner, gameTurns);
+                    if (winner != null) {
+                        wins[v][winner.getSeat()]++;
+                    }
+                    turns[v] += gameTurns;
+                }
+                if (antithetic) {
+                    for (int seat = 0; seat < wins[v].length; seat++) {
+                        wins[v][seat] /= 2;
+                    }
+                    turns[v] /= 2;
+                }
+            }
+            tally.addObservation(wins, turns);
+        }
+        return tally;
+    }
+
+    private static Player play(Game game, GameConfig config, SeatStreamDice dice) {
+        game.startGame(config, dice);
+        PlayerManager playerManager = game.getPlayerManager();
+        while (!game.isGameOver()) {
+            dice.setSeat(playerManager.getCurrentPlayerIndex());
+            game.playTurn();
+        }
+        return game.getWinner();
+    }
+
+    /**
+     * Running statistics of one block, or of all blocks once merged
+     */
+    private static class Tally {
+        private final RunningStats[][] wins;
+        private final RunningStats[] turns;
+        private final RunningStats[][] singleWins;
+        private final RunningStats[] singleTurns;
+        private final RunningStats[][] winDifferences;
+        private final RunningStats[] turnDifferences;
+
+        Tally(List<GameConfig> variants) {
+            int count = variants.size();
+            wins = new RunningStats[count][];
+            turns = new RunningStats[count];
+            singleWins = new RunningStats[count][];
+            singleTurns = new RunningStats[count];
+            winDifferences = new RunningStats[count][];
+            turnDifferences = new RunningStats[count];
+            int baselineSeats = variants.get(0).getNumPlayers();
+            for (int v = 0; v < count; v++) {
+                int seats = variants.get(v).getNumPlayers();
+                wins[v] = newStats(seats);
+                singleWins[v] = newStats(seats);
+                winDifferences[v] = newStats(Math.min(seats, baselineSeats));
+                turns[v] = new RunningStats();
+                singleTurns[v] = new RunningStats();
+                turnDifferences[v] = new RunningStats();
+            }
+        }
+
+        private static RunningStats[] newStats(int size) {
+            RunningStats[] stats = new RunningStats[size];
+            for (int i = 0; i < size; i++) {
+                stats[i] = new RunningStats();
+            }
+            return stats;
+        }
+
+        void addSingle(int variant, Player winner, int gameTurns) {
+            for (int seat = 0; seat < singleWins[variant].length; seat++) {
+                singleWins[variant][seat].add(winner != null && winner.getSeat() == seat ? 1 : 0);
+            }
+            singleTurns[variant].add(gameTurns);
+        }
+
+        void addObservation(double[][] observedWins, double[] observedTurns) {
+            for (int v = 0; v < wins.length; v++) {
+                for (int seat = 0; seat < wins[v].length; seat++) {
+                    wins[v][seat].add(observedWins[v][seat]);
+                }
+                turns[v].add(observedTurns[v]);
+                for (int seat = 0; seat < winDifferences[v].length; seat++) {
+                    winDifferences[v][seat].add(observedWins[v][seat] - observedWins[0][seat]);
+                }
+                turnDifferences[v].add(observedTurns[v] - observedTurns[0]);
+            }
+        }
+
+        void merge(Tally other) {
+            for (int v = 0; v < wins.length; v++) {
+                mergeAll(wins[v], other.wins[v]);
+                mergeAll(singleWins[v], other.singleWins[v]);
+                mergeAll(winDifferences[v], other.winDifferences[v]);
+                turns[v].merge(other.turns[v]);
+                singleTurns[v].merge(other.singleTurns[v]);
+                turnDifferences[v].merge(other.turnDifferences[v]);
+            }
+        }
+
+        private static void mergeAll(RunningStats[] into, RunningStats[] from) {
+            for (int i = 0; i < into.length; i++) {
+                into[i].merge(from[i]);
+            }
+        }
+    }
+
+    /**
+     * Usage: java simulation.PairedComparison games [--antithetic] [--seed S] baselineKey variantKey...
+     * e.g.   java simulation.PairedComparison 20000 --antithetic basic/4/double/none basic/4/double/exactEnd
+     */
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.println("Usage: PairedComparison games [--antithetic] [--seed S] baselineKey variantKey...");
+            System.exit(1);
+        }
+        long games = Long.parseLong(args[0]);
+        boolean antithetic = false;
+        Long seed = null;
+        List<GameConfig> variants = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            if ("--antithetic".equals(args[i])) {
+                antithetic = true;
+            } else if ("--seed".equals(args[i])) {
+                seed = Long.parseLong(args[++i]);
+            } else {
+                variants.add(GameConfig.fromKey(args[i]));
+            }
+        }
+
+        PairedComparison comparison = new PairedComparison(variants);
+        comparison.setAntithetic(antithetic);
+        if (seed != null) {
+            comparison.setSeed(seed);
+        }
+        DebugLog.setEnabled(false);
+        System.out.println(comparison.run(games));
+    }
+}
@@ -0,0 +1,101 @@
+package simulation;
+
+import game.Game;
+import players.Player;
+
+/**
+ * What an adaptive run estimates and how precisely, e.g. "Red win rate +-0.1% at 99%
+ * confidence" or "mean turns +-0.05 at 95% confidence".
+ */
+public class PrecisionTarget {
+    /**
+     * Quantity measured from each finished game
+     */
+    public enum Metric {
+        /** 1 if the given seat won, otherwise 0 */
+        WIN_RATE,
+        /** Total turns played */
+        MEAN_TURNS
+    }
+
+    private final Metric metric;
+    private final int seat;
+    private final double halfWidth;
+    private final double confidenceLevel;
+
+    private PrecisionTarget(Metric metric, int seat, double halfWidth, double confidenceLevel) {
+        if (!(halfWidth > 0)) {
+            throw new IllegalArgumentException("Half width must be positive: " + halfWidth);
+        }
+        ConfidenceInterval.zScore(confidenceLevel);
+        this.metric = metric;
+        this.seat = seat;
+        this.halfWidth = halfWidth;
+        this.confidenceLevel = confidenceLevel;
+    }
+
+    /**
+     * Target the win rate of one seat
+     * @param seat Seat index (0 = Red)
+     * @param halfWidth Wanted half width as a fraction, e.g. 0.001 for +-0.1%
+     * @param confidenceLevel Confidence level, e.g. 0.99
+     * @return The target
+     */
+    public static PrecisionTarget winRate(int seat, double halfWidth, double confidenceLevel) {
+        return new PrecisionTarget(Metric.WIN_RATE, seat, halfWidth, confidenceLevel);
+    }
+
+    /**
+     * Target the mean number of turns per game
+     * @param halfWidth Wanted half width in turns
+     * @param confidenceLevel Confidence level, e.g. 0.95
+     * @return The target
+     */
+    public static PrecisionTarget meanTurns(double halfWidth, double confidenceLevel) {
+        return new PrecisionTarget(Metric.MEAN_TURNS, -1, halfWidth, confidenceLevel);
+    }
+
+    /**
+     * Measure a finished game
+     * @param game Game that is over
+     * @return Observation for this target's metric
+     */
+    public double measure(Game game) {
+        if (metric == Metric.WIN_RATE) {
+            Player winner = game.getWinner();
+            return winner != null && winner.getSeat() == seat ? 1 : 0;
+        }
+        return game.getPlayerManager().getTotalTurns();
+    }
+
+    /**
+     * Check whether an interval is narrow enough
+     * @param interval Current confidence interval
+     * @return true if the target precision is reached
+     */
+    public boolean isMet(ConfidenceInterval interval) {
+        return interval.getHalfWidth() <= halfWidth;
+    }
+
+    public Metric getMetric() {
+        return metric;
+    }
+
+    public int getSeat() {
+        return seat;
+    }
+
+    public double getHalfWidth() {
+        return halfWidth;
+    }
+
+    public double getConfidenceLevel() {
+        return confidenceLevel;
+    }
+
+    @Override
+    public String toString() {
+        String name = metric == Metric.WIN_RATE ? "win rate of seat " + seat : "mean turns";
+        return String.format("%s +-%s at %.4g%% confidence", name, halfWidth, confidenceLevel * 100);
+    }
+}
@@ -0,0 +1,70 @@
+package simulation;
+
+/**
+ * Streaming mean and variance of a series of observations (Welford's algorithm).
+ * Not thread safe; use one per thread and {@link #merge} them.
+ */
+public class RunningStats {
+    private long count;
+    private double mean;
+    private double sumSquaredDeviations;
+
+    /**
+     * Add one observation
+     * @param value Observed value
+     */
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        sumSquaredDeviations += delta * (value - mean);
+    }
+
+    /**
+     * Add all observations of another accumulator
+     * @param other Accumulator to merge in (unchanged)
+     */
+    public void merge(RunningStats other) {
+        if (other.count == 0) {
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        sumSquaredDeviations += other.sumSquaredDeviations + delta * delta * ((double) count * other.count / total);
+        count = total;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Get the sample variance
+     * @return Unbiased variance, or 0 with fewer than two observations
+     */
+    public double getVariance() {
+        return count > 1 ? sumSquaredDeviations / (count - 1) : 0;
+    }
+
+    /**
+     * Get the standard error of the mean
+     * @return Standard error, or 0 with fewer than two observations
+     */
+    public double getStandardError() {
+        return count > 1 ? Math.sqrt(getVariance() / count) : 0;
+    }
+
+    /**
+     * Get a normal-approximation confidence interval for the mean
+     * @param level Confidence level, e.g. 0.95
+     * @return Confidence interval
+     */
+    public ConfidenceInterval confidenceInterval(double level) {
+        return ConfidenceInterval.normal(mean, getStandardError(), level);
+    }
+}
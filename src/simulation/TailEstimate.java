@@ -0,0 +1,73 @@
+package simulation;
+
+/**
+ * Result of a {@link TailProbabilityEstimator} run.
+ */
+public class TailEstimate {
+    private final int thresholdTurns;
+    private final ConfidenceInterval probability;
+    private final double[] stageFractions;
+    private final int replications;
+    private final long simulatedTurns;
+    private final long elapsedNanos;
+
+    TailEstimate(int thresholdTurns, ConfidenceInterval probability, double[] stageFractions,
+                 int replications, long simulatedTurns, long elapsedNanos) {
+        this.thresholdTurns = thresholdTurns;
+        this.probability = probability;
+        this.stageFractions = stageFractions;
+        this.replications = replications;
+        this.simulatedTurns = simulatedTurns;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getThresholdTurns() {
+        return thresholdTurns;
+    }
+
+    /**
+     * Get the estimated probability that a game lasts more than the threshold
+     * @return Estimate and confidence interval
+     */
+    public ConfidenceInterval getProbability() {
+        return probability;
+    }
+
+    /**
+     * Get the mean fraction of trajectories surviving each stage
+     * @return Survival fraction per stage
+     */
+    public double[] getStageFractions() {
+        return stageFractions.clone();
+    }
+
+    public int getReplications() {
+        return replications;
+    }
+
+    /**
+     * Get the number of turns simulated across all replications
+     * @return Simulated turns
+     */
+    public long getSimulatedTurns() {
+        return simulatedTurns;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("P(turns > ").append(thresholdTurns).append(") = ").append(probability)
+               .append(String.format(", relative half width %.1f%%%n", probability.getRelativeHalfWidth() * 100));
+        builder.append("Stage survival:");
+        for (double fraction : stageFractions) {
+            builder.append(String.format(" %.3f", fraction));
+        }
+        builder.append(String.format("%n%d replications, %d turns simulated in %.1f s",
+                replications, simulatedTurns, elapsedNanos / 1e9));
+        return builder.toString();
+    }
+}
@@ -0,0 +1,216 @@
+package simulation;
+
+import factories.DiceFactory;
+import game.Game;
+import game.GameConfig;
+import players.PlayerManager;
+import util.DebugLog;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Estimates tiny probabilities that a game lasts more than a number of turns,
+ * e.g. P(turns > 500) for a 4 player large board exactEnd+hitHome game.
+ *
+ * Uses fixed-effort multilevel splitting on the turn count. The turn axis is cut
+ * into stages (every {@code stageTurns} turns up to the threshold). Each stage
+ * runs a fixed number of trajectories, each started from a game state drawn at
+ * random from the games that survived the previous stage, and measures the
+ * fraction that is still running at the end of the stage. The product of those
+ * fractions is an unbiased estimate of the tail probability: a survivor of k
+ * stages implicitly carries the weight 1/(fraction_1 * ... * fraction_k).
+ *
+ * Independent replications of the whole procedure give the confidence interval.
+ * Each replication is seeded from the base seed and its index, so results do
+ * not depend on the number of threads.
+ */
+public class TailProbabilityEstimator {
+    private final GameConfig config;
+    private final int thresholdTurns;
+    private int stageTurns;
+    private int trajectoriesPerStage;
+    private int replications;
+    private long seed;
+    private double confidenceLevel;
+
+    /**
+     * Constructor with 50 turn stages, 10000 trajectories per stage and 20 replications
+     * @param config Game configuration
+     * @param thresholdTurns Estimate P(game lasts more than this many turns)
+     */
+    public TailProbabilityEstimator(GameConfig config, int thresholdTurns) {
+        if (thresholdTurns < 1) {
+            throw new IllegalArgumentException("Threshold must be at least 1 turn");
+        }
+        this.config = config;
+        this.thresholdTurns = thresholdTurns;
+        this.stageTurns = 50;
+        this.trajectoriesPerStage = 10_000;
+        this.replications = 20;
+        this.seed = System.nanoTime();
+        this.confidenceLevel = 0.95;
+    }
+
+    /**
+     * Set the stage length. Aim for a survival fraction of roughly 0.1 to 0.5 per stage.
+     * @param stageTurns Turns per stage
+     */
+    public void setStageTurns(int stageTurns) {
+        if (stageTurns < 1) {
+            throw new IllegalArgumentException("Stage length must be at least 1 turn");
+        }
+        this.stageTurns = stageTurns;
+    }
+
+    /**
+     * Set the number of trajectories simulated in each stage
+     * @param trajectoriesPerStage Trajectories per stage
+     */
+    public void setTrajectoriesPerStage(int trajectoriesPerStage) {
+        if (trajectoriesPerStage < 1) {
+            throw new IllegalArgumentException("Need at least 1 trajectory per stage");
+        }
+        this.trajectoriesPerStage = trajectoriesPerStage;
+    }
+
+    /**
+     * Set the number of independent replications (at least 2 for a confidence interval)
+     * @param replications Number of replications
+     */
+    public void setReplications(int replications) {
+        if (replications < 2) {
+            throw new IllegalArgumentException("Need at least 2 replications for a confidence interval");
+        }
+        this.replications = replications;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public void setConfidenceLevel(double confidenceLevel) {
+        ConfidenceInterval.zScore(confidenceLevel);
+        this.confidenceLevel = confidenceLevel;
+    }
+
+    /**
+     * Run all replications, in parallel
+     * @return The estimate with its confidence interval
+     */
+    public TailEstimate estimate() {
+        long start = System.nanoTime();
+        int stages = (thresholdTurns + stageTurns - 1) / stageTurns;
+        Replication[] results = IntStream.range(0, replications).parallel()
+                .mapToObj(index -> runReplication(stages, seed + 0x9E3779B97F4A7C15L * (index + 1)))
+                .toArray(Replication[]::new);
+
+        RunningStats probability = new RunningStats();
+        RunningStats[] stageFractions = new RunningStats[stages];
+        for (int stage = 0; stage < stages; stage++) {
+            stageFractions[stage] = new RunningStats();
+        }
+        long turns = 0;
+        for (Replication result : results) {
+            probability.add(result.probability);
+            for (int stage = 0; stage < stages; stage++) {
+                stageFractions[stage].add(result.stageFractions[stage]);
+            }
+            turns += result.turns;
+        }
+        double[] meanFractions = new double[stages];
+        for (int stage = 0; stage < stages; stage++) {
+            meanFractions[stage] = stageFractions[stage].getMean();
+        }
+        return new TailEstimate(thresholdTurns, probability.confidenceInterval(confidenceLevel),
+                meanFractions, replications, turns, System.nanoTime() - start);
+    }
+
+    private Replication runReplication(int stages, long replicationSeed) {
+        SplittableRandom random = new SplittableRandom(replicationSeed);
+        Game game = new Game();
+        game.startGame(config, new DiceFactory().createDice(config.getDiceType(), random.nextLong()));
+        PlayerManager playerManager = game.getPlayerManager();
+
+        Replication result = new Replication(stages);
+        long[] starts = { game.getSnapshot().getPackedState() };
+        int startCount = 1;
+        long[] survivors = new long[trajectoriesPerStage];
+        result.probability = 1;
+        for (int stage = 0; stage < stages; stage++) {
+            int stageEnd = Math.min((stage + 1) * stageTurns, thresholdTurns);
+            int survived = 0;
+            for (int i = 0; i < trajectoriesPerStage; i++) {
+                game.loadState(starts[random.nextInt(startCount)]);
+                int turns = playerManager.getTotalTurns();
+                while (!game.isGameOver() && turns < stageEnd) {
+                    game.playTurn();
+                    turns++;
+                }
+                result.turns += turns - stage * stageTurns;
+                if (!game.isGameOver()) {
+                    survivors[survived++] = game.getSnapshot().getPackedState();
+                }
+            }
+
+            double fraction = (double) survived / trajectoriesPerStage;
+            result.stageFractions[stage] = fraction;
+            result.probability *= fraction;
+            if (survived == 0) {
+                break;
+            }
+            // Survivors of this stage are the starting points of the next one
+            long[] swap = starts;
+            starts = survivors;
+            startCount = survived;
+            survivors = swap.length >= trajectoriesPerStage ? swap : new long[trajectoriesPerStage];
+        }
+        return result;
+    }
+
+    /**
+     * Outcome of one splitting run
+     */
+    private static class Replication {
+        private final double[] stageFractions;
+        private double probability;
+        private long turns;
+
+        Replication(int stages) {
+            this.stageFractions = new double[stages];
+        }
+    }
+
+    /**
+     * Usage: java simulation.TailProbabilityEstimator board players dice rules threshold
+     *        [stageTurns] [trajectoriesPerStage] [replications] [seed]
+     * e.g.   java simulation.TailProbabilityEstimator large 4 double exactEnd,hitHome 500
+     * Use "none" for no rules.
+     */
+    public static void main(String[] args) {
+        if (args.length < 5) {
+            System.out.println("Usage: TailProbabilityEstimator board players dice rules threshold " +
+                               "[stageTurns] [trajectoriesPerStage] [replications] [seed]");
+            System.exit(1);
+        }
+        String[] rules = "none".equals(args[3]) ? new String[0] : args[3].split(",");
+        GameConfig config = new GameConfig(args[0], Integer.parseInt(args[1]), args[2], rules);
+        TailProbabilityEstimator estimator = new TailProbabilityEstimator(config, Integer.parseInt(args[4]));
+        if (args.length > 5) {
+            estimator.setStageTurns(Integer.parseInt(args[5]));
+        }
+        if (args.length > 6) {
+            estimator.setTrajectoriesPerStage(Integer.parseInt(args[6]));
+        }
+        if (args.length > 7) {
+            estimator.setReplications(Integer.parseInt(args[7]));
+        }
+        if (args.length > 8) {
+            estimator.setSeed(Long.parseLong(args[8]));
+        }
+
+        DebugLog.setEnabled(false);
+        TailEstimate estimate = estimator.estimate();
+        System.out.println(config.getDescription());
+        System.out.println(estimate);
+    }
+}
@@ -0,0 +1,109 @@
+package solver;
+
+import game.GameConfig;
+import players.PlayerColor;
+
+/**
+ * Result of an {@link ExactSolver} run, seen from the start of the game.
+ */
+public class ExactResult {
+    private final GameConfig config;
+    private final int states;
+    private final int transitions;
+    private final long memoryBytes;
+    private final double[] winProbabilities;
+    private final double expectedTurns;
+    private final int iterations;
+    private final double lastChange;
+    private final long buildNanos;
+    private final long solveNanos;
+
+    ExactResult(GameConfig config, int states, int transitions, long memoryBytes, double[] winProbabilities,
+                double expectedTurns, int iterations, double lastChange, long buildNanos, long solveNanos) {
+        this.config = config;
+        this.states = states;
+        this.transitions = transitions;
+        this.memoryBytes = memoryBytes;
+        this.winProbabilities = winProbabilities;
+        this.expectedTurns = expectedTurns;
+        this.iterations = iterations;
+        this.lastChange = lastChange;
+        this.buildNanos = buildNanos;
+        this.solveNanos = solveNanos;
+    }
+
+    public GameConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Get the probability that a seat wins
+     * @param seat Seat index
+     * @return Win probability
+     */
+    public double getWinProbability(int seat) {
+        return winProbabilities[seat];
+    }
+
+    /**
+     * Get the expected number of turns in a game
+     * @return Expected turns
+     */
+    public double getExpectedTurns() {
+        return expectedTurns;
+    }
+
+    /**
+     * Get the probability mass not yet assigned to any winner. Every win
+     * probability is at most this much below its exact value.
+     * @return 1 minus the sum of the win probabilities
+     */
+    public double getUnresolvedProbability() {
+        double sum = 0;
+        for (double probability : winProbabilities) {
+            sum += probability;
+        }
+        return Math.max(0, 1 - sum);
+    }
+
+    public int getStates() {
+        return states;
+    }
+
+    public int getTransitions() {
+        return transitions;
+    }
+
+    public long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public double getLastChange() {
+        return lastChange;
+    }
+
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+
+    public long getSolveNanos() {
+        return solveNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(config.getKey()).append(':');
+        for (int seat = 0; seat < winProbabilities.length; seat++) {
+            builder.append(String.format(" P(%s wins)=%.10f", PlayerColor.fromOrdinal(seat).getValue(), winProbabilities[seat]));
+        }
+        builder.append(String.format(", E[turns]=%.8f%n", expectedTurns));
+        builder.append(String.format("  %d states, %d transitions (%.1f MB), %d sweeps, unresolved %.1e, " +
+                "built in %.1f s, solved in %.1f s", states, transitions, memoryBytes / 1e6, iterations,
+                getUnresolvedProbability(), buildNanos / 1e9, solveNanos / 1e9));
+        return builder.toString();
+    }
+}
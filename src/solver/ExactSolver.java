@@ -0,0 +1,149 @@
+package solver;
+
+import game.GameConfig;
+import undo.PackedState;
+import util.DebugLog;
+import java.util.stream.IntStream;
+
+/**
+ * Computes the exact win probability of every seat and the expected game length
+ * of a configuration, with no simulation noise.
+ *
+ * The game is a Markov chain over joint positions and seat to move. The solver
+ * enumerates the reachable states into a {@link StateSpace} and then runs value
+ * iteration: each sweep computes, for every state at once,
+ *   win(s, seat) = P(mover wins now) [seat is mover] + sum over t of P(s, t) win(t, seat)
+ *   turns(s)     = 1 + sum over t of P(s, t) turns(t)
+ * from the previous sweep's values (a sparse matrix-vector product). Sweeps are
+ * split into row blocks that run in parallel. Starting from zero the values only
+ * grow towards the answer, so after n sweeps win(initial, seat) is the exact
+ * probability that the seat wins within n turns, and 1 minus their sum bounds the
+ * remaining error.
+ */
+public class ExactSolver {
+    private static final int ROWS_PER_BLOCK = 4096;
+
+    private final GameConfig config;
+    private double tolerance;
+    private int maxIterations;
+
+    /**
+     * Constructor stopping when no value changes by more than 1e-12, after at most 100000 sweeps
+     * @param config Game configuration
+     */
+    public ExactSolver(GameConfig config) {
+        this.config = config;
+        this.tolerance = 1e-12;
+        this.maxIterations = 100_000;
+    }
+
+    /**
+     * Set the convergence threshold: iteration stops when no win probability changes
+     * by more than this, and no expected length by more than this relative amount
+     * @param tolerance Largest change of the last sweep
+     */
+    public void setTolerance(double tolerance) {
+        if (tolerance <= 0) {
+            throw new IllegalArgumentException("Tolerance must be positive");
+        }
+        this.tolerance = tolerance;
+    }
+
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Enumerate the states and iterate until convergence
+     * @return Win probabilities and expected length from the start of the game
+     */
+    public ExactResult solve() {
+        long start = System.nanoTime();
+        StateSpace space = StateSpace.enumerate(new MoveTable(config));
+        long built = System.nanoTime();
+
+        int seats = space.getMoves().getNumSeats();
+        int width = seats + 1;
+        double[] current = new double[space.getStateCount() * width];
+        double[] next = new double[current.length];
+        double scale = 1.0 / space.getMoves().getTotalOutcomes();
+        int blocks = (space.getStateCount() + ROWS_PER_BLOCK - 1) / ROWS_PER_BLOCK;
+
+        int iterations = 0;
+        double change = Double.POSITIVE_INFINITY;
+        while (change > tolerance && iterations < maxIterations) {
+            double[] from = current;
+            double[] to = next;
+            change = IntStream.range(0, blocks).parallel()
+                    .mapToDouble(block -> sweep(space, block, seats, scale, from, to))
+                    .max().orElse(0);
+            current = to;
+            next = from;
+            iterations++;
+        }
+
+        double[] winProbabilities = new double[seats];
+        System.arraycopy(current, 0, winProbabilities, 0, seats);
+        return new ExactResult(config, space.getStateCount(), space.getTransitionCount(), space.getMemoryBytes(),
+                winProbabilities, current[seats], iterations, change, built - start, System.nanoTime() - built);
+    }
+
+    /**
+     * One sweep over a block of rows
+     * @return Largest change in the block
+     */
+    private static double sweep(StateSpace space, int block, int seats, double scale, double[] from, double[] to) {
+        int width = seats + 1;
+        int first = block * ROWS_PER_BLOCK;
+        int last = Math.min(first + ROWS_PER_BLOCK, space.getStateCount());
+        double[] values = new double[width];
+        double change = 0;
+        for (int state = first; state < last; state++) {
+            for (int k = 0; k < width; k++) {
+                values[k] = 0;
+            }
+            for (int entry = space.getRowStart(state); entry < space.getRowStart(state + 1); entry++) {
+                double probability = space.getWeight(entry) * scale;
+                int column = space.getColumn(entry) * width;
+                for (int k = 0; k < width; k++) {
+                    values[k] += probability * from[column + k];
+                }
+            }
+            values[PackedState.seatToMove(space.getState(state))] += space.getWinWeight(state) * scale;
+            values[seats] += 1;
+
+            int row = state * width;
+            for (int k = 0; k < seats; k++) {
+                change = Math.max(change, Math.abs(values[k] - from[row + k]));
+                to[row + k] = values[k];
+            }
+            change = Math.max(change, Math.abs(values[seats] - from[row + seats]) / values[seats]);
+            to[row + seats] = values[seats];
+        }
+        return change;
+    }
+
+    /**
+     * Usage: java solver.ExactSolver configKey... [--tolerance T]
+     * e.g.   java solver.ExactSolver basic/4/double/hitHome large/2/single/exactEnd
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.out.println("Usage: ExactSolver configKey... [--tolerance T]");
+            System.exit(1);
+        }
+        double tolerance = 1e-12;
+        int keys = args.length;
+        if (args.length > 2 && "--tolerance".equals(args[args.length - 2])) {
+            tolerance = Double.parseDouble(args[args.length - 1]);
+            keys -= 2;
+        }
+
+        DebugLog.setEnabled(false);
+        for (int i = 0; i < keys; i++) {
+            ExactSolver solver = new ExactSolver(GameConfig.fromKey(args[i]));
+            solver.setTolerance(tolerance);
+            System.out.println(solver.solve());
+        }
+    }
+}
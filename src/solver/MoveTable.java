@@ -0,0 +1,243 @@
+package solver;
+
+import board.IBoard;
+import dices.Dice;
+import factories.BoardFactory;
+import factories.DiceFactory;
+import game.GameConfig;
+import players.Player;
+import players.PlayerManager;
+import rules.RulePipeline;
+import undo.PackedState;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Every turn of a configuration, worked out once with the real board and rules.
+ *
+ * For each (seat, position, roll) the table holds where the rules send the mover,
+ * or {@link #WIN}. For each (attacker, victim, position) it holds where a hit
+ * sends the victim. With these a turn is a few array lookups on a packed state
+ * (see {@link PackedState}, with the turn count left at 0).
+ *
+ * This assumes the rules depend only on the positions involved and the roll,
+ * which holds for the built-in rules and for any {@link rules.RulePlugin} that
+ * keeps no state of its own.
+ */
+public class MoveTable {
+    /** Result of {@link #apply} when the mover wins */
+    public static final long WIN = -1;
+
+    /** Result of {@link #getHitTarget} when the hit leaves the victim where it is */
+    public static final int NO_HIT = -1;
+
+    private static final Map<String, MoveTable> SHARED_TABLES = new ConcurrentHashMap<>();
+
+    private final int numSeats;
+    private final int mainBoardSize;
+    private final int maxRoll;
+    private final int[] outcomeCounts;
+    private final int totalOutcomes;
+    private final int[] endPositions;
+    private final long initialState;
+    private final boolean usesHits;
+    private final int[][][] targets;
+    private final int[][][] hitTargets;
+    private final int[][] nextSeats;
+
+    /**
+     * Constructor building the table for a configuration
+     * @param config Game configuration
+     */
+    public MoveTable(GameConfig config) {
+        IBoard board = new BoardFactory().createBoard(config);
+        Dice dice = new DiceFactory().createDice(config.getDiceType());
+        RulePipeline rules = RulePipeline.forRules(config.getRuleTypes());
+        PlayerManager playerManager = new PlayerManager();
+        playerManager.createPlayers(config.getNumPlayers(), board);
+
+        this.numSeats = playerManager.getPlayerCount();
+        if (numSeats > PackedState.MAX_SEATS) {
+            throw new IllegalArgumentException("Cannot solve games of more than " + PackedState.MAX_SEATS + " players");
+        }
+        this.mainBoardSize = board.getMainBoardSize();
+        this.outcomeCounts = dice.getOutcomeCounts();
+        this.maxRoll = outcomeCounts.length - 1;
+        int total = 0;
+        for (int count : outcomeCounts) {
+            total += count;
+        }
+        this.totalOutcomes = total;
+        this.usesHits = rules.usesHits();
+
+        int[] homePositions = new int[numSeats];
+        this.endPositions = new int[numSeats];
+        int maxPosition = 0;
+        for (int seat = 0; seat < numSeats; seat++) {
+            Player player = playerManager.getPlayer(seat);
+            homePositions[seat] = player.getHomePosition();
+            endPositions[seat] = player.getEndPosition();
+            maxPosition = Math.max(maxPosition, player.getEndPosition());
+        }
+        this.initialState = PackedState.of(homePositions, config.getStartSeat());
+
+        this.targets = new int[numSeats][maxPosition + 1][maxRoll + 1];
+        this.hitTargets = new int[numSeats][numSeats][maxPosition + 1];
+        this.nextSeats = new int[numSeats][maxRoll + 1];
+        for (int seat = 0; seat < numSeats; seat++) {
+            Player mover = playerManager.getPlayer(seat);
+            for (int roll = 1; roll <= maxRoll; roll++) {
+                if (outcomeCounts[roll] > 0) {
+                    nextSeats[seat][roll] = rules.nextPlayerIndex(mover, roll, numSeats);
+                }
+            }
+            // Positions from END on are finished games and never move
+            for (int position = 1; position < mover.getEndPosition(); position++) {
+                for (int roll = 1; roll <= maxRoll; roll++) {
+                    if (outcomeCounts[roll] > 0) {
+                        mover.setPosition(position);
+                        int reached = board.calculateNewPosition(mover, roll);
+                        int target = rules.adjustMovement(mover, roll, reached, board);
+                        mover.setPosition(target);
+                        targets[seat][position][roll] = rules.isWin(mover, target, board) ? (int) WIN : target;
+                    }
+                }
+            }
+            mover.resetToHome();
+        }
+        for (int attacker = 0; attacker < numSeats; attacker++) {
+            for (int victim = 0; victim < numSeats; victim++) {
+                Player victimPlayer = playerManager.getPlayer(victim);
+                for (int position = 1; position <= maxPosition; position++) {
+                    int hitTarget = NO_HIT;
+                    if (usesHits && attacker != victim) {
+                        victimPlayer.setPosition(position);
+                        if (rules.handleHit(playerManager.getPlayer(attacker), victimPlayer, playerManager)) {
+                            hitTarget = victimPlayer.getCurrentPosition();
+                        }
+                    }
+                    hitTargets[attacker][victim][position] = hitTarget;
+                }
+                victimPlayer.resetToHome();
+            }
+        }
+    }
+
+    /**
+     * Get the table of a configuration. Tables never change after construction,
+     * so they are cached and every user of the same configuration shares one.
+     * @param config Game configuration
+     * @return The shared table
+     */
+    public static MoveTable shared(GameConfig config) {
+        String key = config.getKey();
+        MoveTable table = SHARED_TABLES.get(key);
+        if (table == null) {
+            table = SHARED_TABLES.computeIfAbsent(key, k -> new MoveTable(config));
+        }
+        return table;
+    }
+
+    /**
+     * Play one turn on a packed state
+     * @param state State before the turn
+     * @param roll Dice total
+     * @return State after the turn, or {@link #WIN} if the mover wins
+     */
+    public long apply(long state, int roll) {
+        int mover = PackedState.seatToMove(state);
+        int target = targets[mover][PackedState.position(state, mover)][roll];
+        if (target == WIN) {
+            return WIN;
+        }
+        long next = PackedState.withPosition(state, mover, target);
+        // Same hit check as Game.playTurn: the first other seat on the square is the victim
+        if (usesHits && target != endPositions[mover] && target <= mainBoardSize) {
+            for (int victim = 0; victim < numSeats; victim++) {
+                if (victim != mover && PackedState.position(state, victim) == target) {
+                    int hitTarget = hitTargets[mover][victim][target];
+                    if (hitTarget != NO_HIT) {
+                        next = PackedState.withPosition(next, victim, hitTarget);
+                    }
+                    break;
+                }
+            }
+        }
+        return PackedState.withSeatToMove(next, nextSeats[mover][roll]);
+    }
+
+    /**
+     * Get the state at the start of a game: everyone at home, the start seat to move
+     * @return Packed state
+     */
+    public long getInitialState() {
+        return initialState;
+    }
+
+    /**
+     * Get where one move takes a seat
+     * @param seat Mover's seat
+     * @param position Position before the move, before the seat's END
+     * @param roll Dice total with a nonzero outcome count
+     * @return Position after the move, or {@link #WIN}
+     */
+    public int getTarget(int seat, int position, int roll) {
+        return targets[seat][position][roll];
+    }
+
+    /**
+     * Get where a hit sends the victim
+     * @param attacker Attacker's seat
+     * @param victim Victim's seat
+     * @param position Square of the hit
+     * @return Victim's new position, or {@link #NO_HIT}
+     */
+    public int getHitTarget(int attacker, int victim, int position) {
+        return hitTargets[attacker][victim][position];
+    }
+
+    public int getHomePosition(int seat) {
+        return PackedState.position(initialState, seat);
+    }
+
+    public int getEndPosition(int seat) {
+        return endPositions[seat];
+    }
+
+    public int getMainBoardSize() {
+        return mainBoardSize;
+    }
+
+    /**
+     * Check whether a landing can hit another player
+     * @return true if some rule handles hits
+     */
+    public boolean usesHits() {
+        return usesHits;
+    }
+
+    public int getNumSeats() {
+        return numSeats;
+    }
+
+    public int getMaxRoll() {
+        return maxRoll;
+    }
+
+    /**
+     * Get how many equally likely dice outcomes give a total
+     * @param roll Dice total
+     * @return Outcome count
+     */
+    public int getOutcomeCount(int roll) {
+        return outcomeCounts[roll];
+    }
+
+    /**
+     * Get the number of equally likely dice outcomes of one roll
+     * @return 6 for one die, 36 for two
+     */
+    public int getTotalOutcomes() {
+        return totalOutcomes;
+    }
+}
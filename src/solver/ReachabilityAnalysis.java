@@ -0,0 +1,146 @@
+package solver;
+
+import game.GameConfig;
+import util.DebugLog;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds positions from which a seat can never win, before any game is played.
+ *
+ * For each seat the analysis builds a graph over the seat's positions from the
+ * {@link MoveTable}: one edge per roll the dice can produce, plus, when rules
+ * handle hits, an edge from every main board square to where a hit would send
+ * the seat. A position is live if some path of edges ends in a win. Positions
+ * that can be reached from home but are not live are dead: a player who lands
+ * on one never finishes. With exactEnd and two dice, for instance, a square
+ * from which every roll overshoots back onto itself or another dead square
+ * would be dead.
+ *
+ * Hits make the answer an approximation: a hit edge counts as possible as soon
+ * as any other seat could land on the square. Reports are cached per
+ * configuration key.
+ */
+public class ReachabilityAnalysis {
+    private static final Map<String, ReachabilityReport> REPORTS = new ConcurrentHashMap<>();
+
+    private ReachabilityAnalysis() {
+    }
+
+    /**
+     * Analyze a configuration (cached)
+     * @param config Game configuration
+     * @return Dead positions and winnability of every seat
+     */
+    public static ReachabilityReport analyze(GameConfig config) {
+        String key = config.getKey();
+        ReachabilityReport report = REPORTS.get(key);
+        if (report == null) {
+            report = REPORTS.computeIfAbsent(key, k -> analyze(new MoveTable(config), k));
+        }
+        return report;
+    }
+
+    /**
+     * Analyze a move table
+     * @param moves Move table of the configuration
+     * @param key Configuration key, for the report
+     * @return Dead positions and winnability of every seat
+     */
+    public static ReachabilityReport analyze(MoveTable moves, String key) {
+        int seats = moves.getNumSeats();
+        boolean[][] live = new boolean[seats][];
+        boolean[][] reachable = new boolean[seats][];
+        int[] homePositions = new int[seats];
+        for (int seat = 0; seat < seats; seat++) {
+            live[seat] = findLive(moves, seat);
+            reachable[seat] = findReachable(moves, seat);
+            homePositions[seat] = moves.getHomePosition(seat);
+        }
+        ReachabilityReport report = new ReachabilityReport(key, live, reachable, homePositions);
+        if (DebugLog.isEnabled() && report.hasDeadPositions()) {
+            System.out.println("[DEBUG ReachabilityAnalysis] " + report);
+        }
+        return report;
+    }
+
+    /**
+     * Backward fixpoint: a position is live if one of its moves wins or leads to a live position
+     */
+    private static boolean[] findLive(MoveTable moves, int seat) {
+        int end = moves.getEndPosition(seat);
+        boolean[] live = new boolean[end + 1];
+        live[end] = true;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int position = 1; position < end; position++) {
+                if (live[position]) {
+                    continue;
+                }
+                boolean isLive = false;
+                for (int roll = 1; roll <= moves.getMaxRoll() && !isLive; roll++) {
+                    if (moves.getOutcomeCount(roll) > 0) {
+                        int target = moves.getTarget(seat, position, roll);
+                        isLive = target == MoveTable.WIN || live[target];
+                    }
+                }
+                for (int attacker = 0; attacker < moves.getNumSeats() && !isLive; attacker++) {
+                    int hitTarget = hitTarget(moves, attacker, seat, position);
+                    isLive = hitTarget != MoveTable.NO_HIT && live[hitTarget];
+                }
+                if (isLive) {
+                    live[position] = true;
+                    changed = true;
+                }
+            }
+        }
+        return live;
+    }
+
+    /**
+     * Forward search from home over the same edges
+     */
+    private static boolean[] findReachable(MoveTable moves, int seat) {
+        int end = moves.getEndPosition(seat);
+        boolean[] reachable = new boolean[end + 1];
+        int[] queue = new int[end + 1];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = moves.getHomePosition(seat);
+        reachable[moves.getHomePosition(seat)] = true;
+        while (head < tail) {
+            int position = queue[head++];
+            if (position == end) {
+                continue;
+            }
+            for (int roll = 1; roll <= moves.getMaxRoll(); roll++) {
+                if (moves.getOutcomeCount(roll) > 0) {
+                    int target = moves.getTarget(seat, position, roll);
+                    if (target != MoveTable.WIN && !reachable[target]) {
+                        reachable[target] = true;
+                        queue[tail++] = target;
+                    }
+                }
+            }
+            for (int attacker = 0; attacker < moves.getNumSeats(); attacker++) {
+                int target = hitTarget(moves, attacker, seat, position);
+                if (target != MoveTable.NO_HIT && !reachable[target]) {
+                    reachable[target] = true;
+                    queue[tail++] = target;
+                }
+            }
+        }
+        return reachable;
+    }
+
+    /**
+     * Where a hit by an attacker on this square would send the seat, if hits happen there
+     */
+    private static int hitTarget(MoveTable moves, int attacker, int victim, int position) {
+        if (!moves.usesHits() || attacker == victim || position > moves.getMainBoardSize()) {
+            return MoveTable.NO_HIT;
+        }
+        return moves.getHitTarget(attacker, victim, position);
+    }
+}
@@ -0,0 +1,108 @@
+package solver;
+
+import players.PlayerColor;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a {@link ReachabilityAnalysis}: which positions of each seat are dead.
+ */
+public class ReachabilityReport {
+    private final String configKey;
+    private final boolean[][] live;
+    private final boolean[][] reachable;
+    private final int[] homePositions;
+
+    ReachabilityReport(String configKey, boolean[][] live, boolean[][] reachable, int[] homePositions) {
+        this.configKey = configKey;
+        this.live = live;
+        this.reachable = reachable;
+        this.homePositions = homePositions;
+    }
+
+    public String getConfigKey() {
+        return configKey;
+    }
+
+    /**
+     * Get the positions a seat can reach from home but never win from
+     * @param seat Seat index
+     * @return Dead positions, in increasing order
+     */
+    public List<Integer> getDeadPositions(int seat) {
+        List<Integer> dead = new ArrayList<>();
+        for (int position = 1; position < live[seat].length; position++) {
+            if (reachable[seat][position] && !live[seat][position]) {
+                dead.add(position);
+            }
+        }
+        return dead;
+    }
+
+    /**
+     * Check whether a seat can still win from a position
+     * @param seat Seat index
+     * @param position Position of the seat
+     * @return false if the position is dead
+     */
+    public boolean isLive(int seat, int position) {
+        return live[seat][position];
+    }
+
+    /**
+     * Check whether any seat can reach a dead position
+     * @return true if some player can get stuck for good
+     */
+    public boolean hasDeadPositions() {
+        for (int seat = 0; seat < live.length; seat++) {
+            if (!getDeadPositions(seat).isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether some seat can win from its home position
+     * @return false if no game of this configuration can ever end
+     */
+    public boolean isWinnable() {
+        for (int seat = 0; seat < live.length; seat++) {
+            if (live[seat][homePositions[seat]]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether every seat can get stuck, so that a game may never end
+     * @return true if every seat has a reachable dead position
+     */
+    public boolean canStall() {
+        for (int seat = 0; seat < live.length; seat++) {
+            if (getDeadPositions(seat).isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(configKey).append(':');
+        if (!hasDeadPositions()) {
+            return builder.append(" no dead positions").toString();
+        }
+        for (int seat = 0; seat < live.length; seat++) {
+            builder.append(' ').append(PlayerColor.fromOrdinal(seat).getValue())
+                   .append(" dead at ").append(getDeadPositions(seat)).append(';');
+        }
+        if (!isWinnable()) {
+            builder.append(" no seat can win");
+        } else if (canStall()) {
+            builder.append(" games may never end");
+        }
+        return builder.toString();
+    }
+}
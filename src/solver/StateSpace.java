@@ -0,0 +1,180 @@
+package solver;
+
+import java.util.Arrays;
+
+/**
+ * The reachable states of a configuration and the turn transitions between them,
+ * as a sparse matrix in compressed sparse row (CSR) form.
+ *
+ * States are numbered in the order a breadth-first search from the start of the
+ * game reaches them, so state 0 is the initial state. Row i lists the states one
+ * turn can lead to, each with the number of dice outcomes that lead there
+ * (outcomes reaching the same state are merged). Outcomes on which the mover
+ * wins are counted separately, since finished games are not states.
+ *
+ * Storage is primitive arrays only: about 5 bytes per transition plus 20 bytes
+ * per state.
+ */
+public class StateSpace {
+    private final MoveTable moves;
+    private long[] states;
+    private int[] rowStart;
+    private int[] columns;
+    private byte[] weights;
+    private int[] winWeights;
+    private int stateCount;
+    private int transitionCount;
+
+    private StateSpace(MoveTable moves) {
+        this.moves = moves;
+        this.states = new long[1024];
+        this.rowStart = new int[1025];
+        this.winWeights = new int[1024];
+        this.columns = new int[8192];
+        this.weights = new byte[8192];
+    }
+
+    /**
+     * Enumerate every state reachable from the start of the game
+     * @param moves Move table of the configuration
+     * @return The state space
+     */
+    public static StateSpace enumerate(MoveTable moves) {
+        StateSpace space = new StateSpace(moves);
+        space.build();
+        return space;
+    }
+
+    private void build() {
+        LongIntHashMap index = new LongIntHashMap(1 << 16);
+        int maxRoll = moves.getMaxRoll();
+        int[] rowTargets = new int[maxRoll + 1];
+        int[] rowWeights = new int[maxRoll + 1];
+
+        addState(moves.getInitialState(), index);
+        // The state list doubles as the breadth-first queue
+        for (int state = 0; state < stateCount; state++) {
+            int rowLength = 0;
+            int wins = 0;
+            for (int roll = 1; roll <= maxRoll; roll++) {
+                int outcomes = moves.getOutcomeCount(roll);
+                if (outcomes == 0) {
+                    continue;
+                }
+                long next = moves.apply(states[state], roll);
+                if (next == MoveTable.WIN) {
+                    wins += outcomes;
+                    continue;
+                }
+                int target = index.get(next);
+                if (target < 0) {
+                    target = addState(next, index);
+                }
+                int entry = 0;
+                while (entry < rowLength && rowTargets[entry] != target) {
+                    entry++;
+                }
+                if (entry == rowLength) {
+                    rowTargets[rowLength] = target;
+                    rowWeights[rowLength++] = 0;
+                }
+                rowWeights[entry] += outcomes;
+            }
+
+            if (transitionCount + rowLength > columns.length) {
+                int capacity = Math.max(transitionCount + rowLength, columns.length + (columns.length >> 1));
+                columns = Arrays.copyOf(columns, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            for (int entry = 0; entry < rowLength; entry++) {
+                columns[transitionCount] = rowTargets[entry];
+                weights[transitionCount++] = (byte) rowWeights[entry];
+            }
+            winWeights[state] = wins;
+            rowStart[state + 1] = transitionCount;
+        }
+
+        states = Arrays.copyOf(states, stateCount);
+        rowStart = Arrays.copyOf(rowStart, stateCount + 1);
+        winWeights = Arrays.copyOf(winWeights, stateCount);
+        columns = Arrays.copyOf(columns, transitionCount);
+        weights = Arrays.copyOf(weights, transitionCount);
+    }
+
+    private int addState(long state, LongIntHashMap index) {
+        if (stateCount == states.length) {
+            int capacity = states.length + (states.length >> 1);
+            states = Arrays.copyOf(states, capacity);
+            rowStart = Arrays.copyOf(rowStart, capacity + 1);
+            winWeights = Arrays.copyOf(winWeights, capacity);
+        }
+        states[stateCount] = state;
+        index.put(state, stateCount);
+        return stateCount++;
+    }
+
+    public MoveTable getMoves() {
+        return moves;
+    }
+
+    public int getStateCount() {
+        return stateCount;
+    }
+
+    public int getTransitionCount() {
+        return transitionCount;
+    }
+
+    /**
+     * Get a state
+     * @param index State number
+     * @return Packed state
+     */
+    public long getState(int index) {
+        return states[index];
+    }
+
+    /**
+     * Get the first entry of a row; the row ends where the next one starts
+     * @param index State number
+     * @return Index into the transition arrays
+     */
+    public int getRowStart(int index) {
+        return rowStart[index];
+    }
+
+    /**
+     * Get the target state of a transition
+     * @param entry Transition index
+     * @return State number
+     */
+    public int getColumn(int entry) {
+        return columns[entry];
+    }
+
+    /**
+     * Get how many dice outcomes take a transition
+     * @param entry Transition index
+     * @return Outcome count (out of {@link MoveTable#getTotalOutcomes()})
+     */
+    public int getWeight(int entry) {
+        return weights[entry];
+    }
+
+    /**
+     * Get how many dice outcomes win the game for the mover
+     * @param index State number
+     * @return Outcome count
+     */
+    public int getWinWeight(int index) {
+        return winWeights[index];
+    }
+
+    /**
+     * Estimate the memory held by the arrays
+     * @return Bytes
+     */
+    public long getMemoryBytes() {
+        return 8L * stateCount + 4L * (stateCount + 1) + 4L * stateCount + 5L * transitionCount;
+    }
+}
@@ -0,0 +1,83 @@
+package streaming;
+
+/**
+ * Immutable game event delivered to reactive subscribers.
+ * One instance is shared by every subscriber that receives it.
+ */
+public class GameEvent {
+    /**
+     * Kinds of game events, matching the {@link observers.GameObserver} callbacks
+     */
+    public enum Type {
+        MOVE,
+        HIT,
+        OVERSHOOT,
+        WIN,
+        UNDO
+    }
+
+    /** Seat value used when an event has no second player */
+    public static final int NO_SEAT = -1;
+
+    private final Type type;
+    private final int seat;
+    private final int otherSeat;
+    private final int from;
+    private final int to;
+    private final int roll;
+    private final int turn;
+
+    /**
+     * Constructor for an event
+     * @param type Kind of event
+     * @param seat Seat the event is about (mover, attacker, winner or undone player)
+     * @param otherSeat Hit victim, or {@link #NO_SEAT}
+     * @param from Position before the event
+     * @param to Position after the event
+     * @param roll Dice roll (0 when not applicable)
+     * @param turn Total turns played when the event happened
+     */
+    public GameEvent(Type type, int seat, int otherSeat, int from, int to, int roll, int turn) {
+        this.type = type;
+        this.seat = seat;
+        this.otherSeat = otherSeat;
+        this.from = from;
+        this.to = to;
+        this.roll = roll;
+        this.turn = turn;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getSeat() {
+        return seat;
+    }
+
+    public int getOtherSeat() {
+        return otherSeat;
+    }
+
+    public int getFrom() {
+        return from;
+    }
+
+    public int getTo() {
+        return to;
+    }
+
+    public int getRoll() {
+        return roll;
+    }
+
+    public int getTurn() {
+        return turn;
+    }
+
+    @Override
+    public String toString() {
+        return "GameEvent{" + type + ", seat=" + seat + ", other=" + otherSeat +
+               ", from=" + from + ", to=" + to + ", roll=" + roll + ", turn=" + turn + "}";
+    }
+}
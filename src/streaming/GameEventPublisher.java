@@ -0,0 +1,359 @@
+package streaming;
+
+import game.Game;
+import observers.GameObserver;
+import players.Player;
+import players.PlayerColor;
+import players.PlayerManager;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Reactive Streams view of a game's events for large numbers of spectators.
+ *
+ * Attach it to a game as an observer. The game thread writes each event once
+ * into a shared ring buffer, numbered by sequence, and at most schedules one
+ * dispatch task; its cost per event does not depend on the number of
+ * subscribers, and it never waits for one. The dispatch task wakes the
+ * subscribers that have demand or are falling behind. Each subscriber keeps its
+ * own cursor into the ring and, on its own delivery thread of the executor,
+ * copies events into its bounded buffer as it delivers them.
+ *
+ * A subscriber may fall up to half the ring (at least 4096 events) behind the
+ * game without losing anything. Beyond that it copies the whole backlog into its
+ * buffer, and once the buffer is full MOVE events are conflated to the latest
+ * pending move of each seat: a move is only dropped once a later move of the
+ * same seat is buffered. Positions stay correct because every move carries its
+ * destination and a seat's latest move is never dropped. So a full buffer may
+ * also hold one move per seat beyond its size. HIT, OVERSHOOT, WIN and UNDO
+ * events are never conflated; a subscriber whose buffer those alone overflow is
+ * failed with an error and removed, as is one whose delivery thread has not run
+ * for so long that the ring has overwritten events it has not read yet.
+ *
+ * Events must be published by one thread at a time, the game thread.
+ */
+public class GameEventPublisher implements GameObserver, Flow.Publisher<GameEvent> {
+    private static final int DEFAULT_BUFFER_SIZE = 64;
+    private static final int MIN_RING_SIZE = 8192;
+
+    private final PlayerManager playerManager;
+    private final Executor executor;
+    private final int bufferSize;
+    private final AtomicReferenceArray<GameEvent> ring;
+    private final int ringMask;
+    // Sequence number of the next event; events below it are in the ring
+    private final AtomicLong published;
+    private final AtomicBoolean dispatchPending;
+    private final Runnable dispatcher;
+    private final Set<EventSubscription> subscriptions;
+    private final AtomicLong conflatedEvents;
+    private volatile boolean closed;
+
+    /**
+     * Constructor delivering on the common pool with a 64 event buffer per subscriber
+     * @param game The game to publish
+     */
+    public GameEventPublisher(Game game) {
+        this(game, ForkJoinPool.commonPool(), DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructor for a publisher
+     * @param game The game to publish
+     * @param executor Executor running the dispatch task and subscriber callbacks
+     * @param bufferSize Maximum number of events a subscriber keeps once it falls behind, beyond one move per seat
+     */
+    public GameEventPublisher(Game game, Executor executor, int bufferSize) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be at least 1");
+        }
+        if (bufferSize > 1 << 28) {
+            throw new IllegalArgumentException("Buffer size must be at most " + (1 << 28));
+        }
+        this.playerManager = game.getPlayerManager();
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        // Room for a few buffers' worth of backlog per subscriber, and a power of two for masking
+        int ringSize = Math.max(MIN_RING_SIZE, Integer.highestOneBit(bufferSize - 1) << 2);
+        this.ring = new AtomicReferenceArray<>(ringSize);
+        this.ringMask = ringSize - 1;
+        this.published = new AtomicLong();
+        this.dispatchPending = new AtomicBoolean();
+        this.dispatcher = this::dispatch;
+        this.subscriptions = ConcurrentHashMap.newKeySet();
+        this.conflatedEvents = new AtomicLong();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super GameEvent> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber must not be null");
+        }
+        EventSubscription subscription = new EventSubscription(subscriber, published.get());
+        subscriber.onSubscribe(subscription);
+        subscriptions.add(subscription);
+        if (subscription.cancelled) {
+            // Cancelled from onSubscribe, before it was added
+            subscriptions.remove(subscription);
+        } else if (closed) {
+            subscription.scheduleDrain();
+        }
+    }
+
+    @Override
+    public void onMove(Player player, int oldPosition, int newPosition, int diceRoll) {
+        publish(new GameEvent(GameEvent.Type.MOVE, playerManager.indexOf(player), GameEvent.NO_SEAT,
+                oldPosition, newPosition, diceRoll, playerManager.getTotalTurns()));
+    }
+
+    @Override
+    public void onHit(Player attacker, Player victim, int victimOriginalPosition) {
+        publish(new GameEvent(GameEvent.Type.HIT, playerManager.indexOf(attacker), playerManager.indexOf(victim),
+                victimOriginalPosition, victim.getCurrentPosition(), 0, playerManager.getTotalTurns()));
+    }
+
+    @Override
+    public void onOvershoot(Player player) {
+        publish(new GameEvent(GameEvent.Type.OVERSHOOT, playerManager.indexOf(player), GameEvent.NO_SEAT,
+                player.getCurrentPosition(), player.getCurrentPosition(), 0, playerManager.getTotalTurns()));
+    }
+
+    @Override
+    public void onWin(Player winner, int totalTurns) {
+        publish(new GameEvent(GameEvent.Type.WIN, playerManager.indexOf(winner), GameEvent.NO_SEAT,
+                winner.getCurrentPosition(), winner.getCurrentPosition(), 0, totalTurns));
+    }
+
+    @Override
+    public void onUndo(Player player, boolean hitOccurred, Player hitVictim) {
+        int victimSeat = hitOccurred && hitVictim != null ? playerManager.indexOf(hitVictim) : GameEvent.NO_SEAT;
+        publish(new GameEvent(GameEvent.Type.UNDO, playerManager.indexOf(player), victimSeat,
+                player.getCurrentPosition(), player.getCurrentPosition(), 0, playerManager.getTotalTurns()));
+    }
+
+    /**
+     * Complete every subscription once their buffered events are delivered
+     */
+    public void close() {
+        closed = true;
+        scheduleDispatch();
+    }
+
+    /**
+     * Get the number of active subscribers
+     * @return Subscriber count
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Get the number of MOVE events dropped for slow subscribers, across all subscribers
+     * @return Conflated event count
+     */
+    public long getConflatedCount() {
+        return conflatedEvents.get();
+    }
+    
+    private void publish(GameEvent event) {
+        long sequence = published.get();
+        ring.set((int) sequence & ringMask, event);
+        published.set(sequence + 1);
+        scheduleDispatch();
+    }
+
+    private void scheduleDispatch() {
+        if (!dispatchPending.get() && dispatchPending.compareAndSet(false, true)) {
+            executor.execute(dispatcher);
+        }
+    }
+
+    /**
+     * Wake the subscribers with something to do. Runs on the executor, once for any
+     * number of events published while it was pending.
+     */
+    private void dispatch() {
+        // Cleared first, so events published from here on schedule another dispatch
+        dispatchPending.set(false);
+        boolean closing = closed;
+        long head = published.get();
+        for (EventSubscription subscription : subscriptions) {
+            // Subscribers without demand only need to copy out before the ring wraps
+            if (closing || subscription.demand.get() > 0 || head - subscription.cursor > ringMask / 2) {
+                subscription.scheduleDrain();
+            }
+        }
+    }
+
+    /**
+     * Cursor, buffer, demand and delivery loop of one subscriber. The buffer and
+     * cursor are only written by the delivery loop.
+     */
+    private final class EventSubscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super GameEvent> subscriber;
+        private final ArrayDeque<GameEvent> buffer;
+        private final boolean[] seatsWithLaterMove;
+        private final AtomicLong demand;
+        private final AtomicInteger pendingDrains;
+        // Sequence number of the next event to copy from the ring; read by the dispatch task
+        private volatile long cursor;
+        private volatile boolean cancelled;
+        private volatile Throwable error;
+
+        EventSubscription(Flow.Subscriber<? super GameEvent> subscriber, long cursor) {
+            this.subscriber = subscriber;
+            this.buffer = new ArrayDeque<>(bufferSize);
+            this.seatsWithLaterMove = new boolean[PlayerColor.COUNT];
+            this.demand = new AtomicLong();
+            this.pendingDrains = new AtomicInteger();
+            this.cursor = cursor;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Requested " + n + " events, must be positive (rule 3.9)");
+            } else {
+                // Saturating add: Long.MAX_VALUE means unbounded demand
+                demand.getAndAccumulate(n, (current, add) -> current + add < 0 ? Long.MAX_VALUE : current + add);
+            }
+            scheduleDrain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            subscriptions.remove(this);
+            // The delivery loop drops the buffer
+            scheduleDrain();
+        }
+
+        /**
+         * Copy events from the ring into the buffer while it has room. A subscriber more
+         * than half a ring behind takes everything, conflating moves, before the ring wraps.
+         * @return false if the subscriber has lost events and must be failed
+         */
+        private boolean copyFromRing() {
+            long next = cursor;
+            long head = published.get();
+            boolean catchUp = head - next > ringMask / 2;
+            while (next < head && (catchUp || buffer.size() < bufferSize)) {
+                GameEvent event = ring.get((int) next & ringMask);
+                // The slot is reused once the game is a whole ring ahead; the event read may be a newer one
+                if (published.get() - next > ringMask) {
+                    error = new IllegalStateException("Subscriber fell more than " + (ringMask + 1)
+                            + " events behind the game");
+                    return false;
+                }
+                if (buffer.size() >= bufferSize && !makeRoom(event)) {
+                    error = new IllegalStateException("Subscriber fell more than " + bufferSize + " events behind");
+                    return false;
+                }
+                buffer.addLast(event);
+                next++;
+            }
+            cursor = next;
+            return true;
+        }
+
+        /**
+         * Conflate pending moves so the new event fits: drop the oldest move that a
+         * later move of its seat supersedes
+         * @return false if the events other than moves alone would overflow the buffer
+         */
+        private boolean makeRoom(GameEvent incoming) {
+            Arrays.fill(seatsWithLaterMove, false);
+            int kept = 0;
+            if (incoming.getType() == GameEvent.Type.MOVE) {
+                seatsWithLaterMove[incoming.getSeat()] = true;
+            } else {
+                kept++;
+            }
+            // Newest first, so a move is superseded once a later move of its seat has been seen
+            GameEvent superseded = null;
+            for (Iterator<GameEvent> it = buffer.descendingIterator(); it.hasNext(); ) {
+                GameEvent pending = it.next();
+                if (pending.getType() != GameEvent.Type.MOVE) {
+                    kept++;
+                } else if (seatsWithLaterMove[pending.getSeat()]) {
+                    superseded = pending;
+                } else {
+                    seatsWithLaterMove[pending.getSeat()] = true;
+                }
+            }
+            if (superseded != null) {
+                buffer.removeFirstOccurrence(superseded);
+                conflatedEvents.incrementAndGet();
+                return true;
+            }
+            // Every pending move is its seat's latest: keep them all, even past the buffer size
+            return kept <= bufferSize;
+        }
+
+        private void scheduleDrain() {
+            if (pendingDrains.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        /**
+         * Delivery loop; only one instance runs at a time per subscriber
+         */
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                if (!drain()) {
+                    return;
+                }
+                missed = pendingDrains.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * @return false once the subscription has terminated
+         */
+        private boolean drain() {
+            while (true) {
+                if (cancelled) {
+                    buffer.clear();
+                    return false;
+                }
+                // Read before copying: once the publisher is closed, every event is in the ring
+                boolean complete = closed;
+                if (error != null || !copyFromRing()) {
+                    cancel();
+                    buffer.clear();
+                    subscriber.onError(error);
+                    return false;
+                }
+                if (buffer.isEmpty()) {
+                    if (complete) {
+                        cancel();
+                        subscriber.onComplete();
+                        return false;
+                    }
+                    return true;
+                }
+                if (demand.get() == 0) {
+                    return true;
+                }
+                if (demand.get() != Long.MAX_VALUE) {
+                    demand.decrementAndGet();
+                }
+                subscriber.onNext(buffer.pollFirst());
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package trace;
+
+import observers.GameObserver;
+import players.Player;
+
+/**
+ * Observer that appends every turn of a game to a {@link TraceStore}.
+ *
+ * The recorder can stay attached while a pooled game is restarted: call
+ * {@link #beginGame} before each game. A hit, a bounce or a win is added to the
+ * flags of the turn's record. An undone turn is removed again, so the store
+ * holds the line of play the game finally took.
+ */
+public class TraceRecorder implements GameObserver {
+    private final TraceStore store;
+    private long gameId;
+    /** Records of the current game still in the store */
+    private long gameTurns;
+
+    /**
+     * Constructor for a recorder
+     * @param store Store owned by the thread playing the game
+     */
+    public TraceRecorder(TraceStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Start recording a new game
+     * @param gameId Identifier of the game in the store
+     */
+    public void beginGame(long gameId) {
+        this.gameId = gameId;
+        this.gameTurns = 0;
+    }
+
+    @Override
+    public void onMove(Player player, int oldPosition, int newPosition, int diceRoll) {
+        store.append(gameId, player.getSeat(), diceRoll, oldPosition, newPosition, 0);
+        gameTurns++;
+    }
+
+    @Override
+    public void onHit(Player attacker, Player victim, int victimOriginalPosition) {
+        store.addFlags(TraceStore.FLAG_HIT | victim.getSeat() << TraceStore.VICTIM_SHIFT);
+    }
+
+    @Override
+    public void onOvershoot(Player player) {
+        store.addFlags(TraceStore.FLAG_BOUNCE);
+    }
+
+    @Override
+    public void onWin(Player winner, int totalTurns) {
+        store.addFlags(TraceStore.FLAG_WIN);
+    }
+
+    @Override
+    public void onUndo(Player player, boolean hitOccurred, Player hitVictim) {
+        if (gameTurns > 0) {
+            store.removeLast();
+            gameTurns--;
+        }
+    }
+
+    public long getGameId() {
+        return gameId;
+    }
+}
@@ -0,0 +1,452 @@
+package trace;
+
+import game.Game;
+import game.GameConfig;
+import game.GamePool;
+import util.DebugLog;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Column store of per-turn records kept in memory-mapped files, off the Java heap.
+ *
+ * Every column is a series of segment files of {@code recordsPerSegment}
+ * records each, mapped as they fill up, so a store can grow to hundreds of GB
+ * without the heap or the garbage collector ever seeing the records; the
+ * operating system pages them in and out. A turn takes 12 bytes:
+ *   game   long   game id
+ *   seat   byte   seat that moved
+ *   roll   byte   dice total
+ *   from   byte   position before the move
+ *   to     byte   position after the move (after any bounce)
+ *   flags  byte   {@link #FLAG_HIT}, {@link #FLAG_WIN}, {@link #FLAG_BOUNCE},
+ *                 and the victim's seat above {@link #VICTIM_SHIFT}
+ *
+ * Scans read a column a block at a time with bulk copies, which keeps them
+ * close to memory (or page cache) bandwidth, and touch only the columns they
+ * need. Records are appended by one writer thread; readers on other threads
+ * see every record up to {@link #size()}. The record count is saved in a small
+ * meta file by {@link #flush()} and {@link #close()}, so a store can be reopened
+ * for analysis.
+ */
+public class TraceStore implements AutoCloseable {
+    /** A column of the store */
+    public enum Column {
+        GAME(8), SEAT(1), ROLL(1), FROM(1), TO(1), FLAGS(1);
+
+        private final int width;
+
+        Column(int width) {
+            this.width = width;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        String fileName(int segment) {
+            return String.format("%s-%06d.col", name().toLowerCase(), segment);
+        }
+    }
+
+    /** Receives a column a block at a time during {@link #scan} */
+    public interface BlockVisitor {
+        /**
+         * Called for each block of a byte column, in record order
+         * @param values Column values (only the first length are valid)
+         * @param length Number of values in this block
+         * @param firstRecord Index of the record of values[0]
+         */
+        void visit(byte[] values, int length, long firstRecord);
+    }
+
+    public static final int FLAG_HIT = 1;
+    public static final int FLAG_WIN = 2;
+    public static final int FLAG_BOUNCE = 4;
+    public static final int VICTIM_SHIFT = 4;
+
+    /** 2^27 records per segment: 1 GB files for the game column, 128 MB for the others */
+    public static final int DEFAULT_RECORDS_PER_SEGMENT = 1 << 27;
+
+    private static final String META_FILE = "trace.meta";
+    private static final int SCAN_BLOCK = 1 << 16;
+    private static final Column[] COLUMNS = Column.values();
+    private static final VarHandle LONG_VIEW = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long BYTE_LOW_BITS = 0x0101010101010101L;
+    private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final int segmentShift;
+    private final int segmentMask;
+    /** Mapped segments per column, indexed by column ordinal then segment */
+    private final List<List<MappedByteBuffer>> segments;
+    private final MappedByteBuffer meta;
+    private final AtomicLong size;
+
+    // Writer side: the segment the next record goes into
+    private int writeSegment = -1;
+    private MappedByteBuffer gameColumn;
+    private MappedByteBuffer seatColumn;
+    private MappedByteBuffer rollColumn;
+    private MappedByteBuffer fromColumn;
+    private MappedByteBuffer toColumn;
+    private MappedByteBuffer flagsColumn;
+
+    /**
+     * Open (or create) a store with the default segment size
+     * @param directory Directory holding the column files
+     */
+    public TraceStore(Path directory) {
+        this(directory, DEFAULT_RECORDS_PER_SEGMENT);
+    }
+
+    /**
+     * Open (or create) a store. Appends continue after the last flushed record.
+     * @param directory Directory holding the column files
+     * @param recordsPerSegment Records per segment file, a power of two of at most 2^27;
+     *                          must be the same every time the store is opened
+     */
+    public TraceStore(Path directory, int recordsPerSegment) {
+        if (recordsPerSegment < 1 || recordsPerSegment > DEFAULT_RECORDS_PER_SEGMENT
+                || Integer.bitCount(recordsPerSegment) != 1) {
+            throw new IllegalArgumentException("Records per segment must be a power of two up to 2^27");
+        }
+        this.directory = directory;
+        this.recordsPerSegment = recordsPerSegment;
+        this.segmentShift = Integer.numberOfTrailingZeros(recordsPerSegment);
+        this.segmentMask = recordsPerSegment - 1;
+        this.segments = new ArrayList<>();
+        for (int i = 0; i < COLUMNS.length; i++) {
+            segments.add(new CopyOnWriteArrayList<>());
+        }
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.meta = map(directory.resolve(META_FILE), Long.BYTES);
+        this.size = new AtomicLong(meta.getLong(0));
+    }
+
+    /**
+     * Append the record of one turn. Only one thread may append.
+     * @param gameId Game the turn belongs to
+     * @param seat Seat that moved
+     * @param roll Dice total
+     * @param from Position before the move
+     * @param to Position after the move
+     * @param flags FLAG_ bits and the victim seat
+     */
+    public void append(long gameId, int seat, int roll, int from, int to, int flags) {
+        long index = size.get();
+        int segment = (int) (index >>> segmentShift);
+        if (segment != writeSegment) {
+            startSegment(segment);
+        }
+        int row = (int) index & segmentMask;
+        gameColumn.putLong(row << 3, gameId);
+        seatColumn.put(row, (byte) seat);
+        rollColumn.put(row, (byte) roll);
+        fromColumn.put(row, (byte) from);
+        toColumn.put(row, (byte) to);
+        flagsColumn.put(row, (byte) flags);
+        // Publish: readers see the record once they see the new size
+        size.lazySet(index + 1);
+    }
+
+    /**
+     * Add flags to the last record, e.g. a hit reported after its move
+     * @param flags Bits to set
+     */
+    public void addFlags(int flags) {
+        long index = size.get() - 1;
+        if (index < 0) {
+            throw new IllegalStateException("No record to flag");
+        }
+        int row = (int) index & segmentMask;
+        MappedByteBuffer column = segment(Column.FLAGS, (int) (index >>> segmentShift));
+        column.put(row, (byte) (column.get(row) | flags));
+    }
+
+    /**
+     * Drop the last record (an undone turn). Only the appending thread may call this.
+     */
+    public void removeLast() {
+        long index = size.get();
+        if (index == 0) {
+            throw new IllegalStateException("No record to remove");
+        }
+        size.set(index - 1);
+    }
+
+    /**
+     * Get the number of records
+     * @return Records appended so far
+     */
+    public long size() {
+        return size.get();
+    }
+
+    public long getGame(long record) {
+        checkRecord(record);
+        return segment(Column.GAME, (int) (record >>> segmentShift)).getLong(((int) record & segmentMask) << 3);
+    }
+
+    /**
+     * Read one byte column value of a record
+     * @param column Any column except GAME
+     * @param record Record index
+     * @return Value, 0-255
+     */
+    public int get(Column column, long record) {
+        checkRecord(record);
+        checkByteColumn(column);
+        return segment(column, (int) (record >>> segmentShift)).get((int) record & segmentMask) & 0xFF;
+    }
+
+    /**
+     * Visit a byte column over a range of records, a block at a time
+     * @param column Any column except GAME
+     * @param start First record
+     * @param end One past the last record (at most {@link #size()})
+     * @param visitor Receives the blocks; the array is reused between calls
+     */
+    public void scan(Column column, long start, long end, BlockVisitor visitor) {
+        checkByteColumn(column);
+        if (start < 0 || end > size() || start > end) {
+            throw new IndexOutOfBoundsException("Records " + start + ".." + end + " of " + size());
+        }
+        byte[] block = new byte[SCAN_BLOCK];
+        long record = start;
+        while (record < end) {
+            int segment = (int) (record >>> segmentShift);
+            int row = (int) record & segmentMask;
+            int length = (int) Math.min(Math.min(SCAN_BLOCK, recordsPerSegment - row), end - record);
+            segment(column, segment).get(row, block, 0, length);
+            visitor.visit(block, length, record);
+            record += length;
+        }
+    }
+
+    /**
+     * Count the values of a byte column over all records
+     * @param column Any column except GAME
+     * @return Count per value, indexed 0-255
+     */
+    public long[] histogram(Column column) {
+        long[] counts = new long[256];
+        scan(column, 0, size(), (values, length, first) -> {
+            for (int i = 0; i < length; i++) {
+                counts[values[i] & 0xFF]++;
+            }
+        });
+        return counts;
+    }
+
+    /**
+     * Count the records that have all the given flags
+     * @param mask FLAG_ bits
+     * @return Number of records
+     */
+    public long countFlags(int mask) {
+        if (mask == 0 || (mask & ~0xFF) != 0) {
+            throw new IllegalArgumentException("Flag mask must be 1-255: " + mask);
+        }
+        long[] total = new long[1];
+        long masks = (mask & 0xFFL) * BYTE_LOW_BITS;
+        scan(Column.FLAGS, 0, size(), (values, length, first) -> {
+            // Eight records per step: a byte of "missing" is zero when that record has every flag
+            long count = 0;
+            int i = 0;
+            for (; i + 7 < length; i += 8) {
+                long missing = ((long) LONG_VIEW.get(values, i) & masks) ^ masks;
+                long zeroBytes = ~(((missing & LOW_SEVEN_BITS) + LOW_SEVEN_BITS) | missing | LOW_SEVEN_BITS);
+                count += Long.bitCount(zeroBytes);
+            }
+            for (; i < length; i++) {
+                if ((values[i] & mask) == mask) {
+                    count++;
+                }
+            }
+            total[0] += count;
+        });
+        return total[0];
+    }
+
+    /**
+     * Count the games in the store (records of a game are contiguous)
+     * @return Number of distinct consecutive game ids
+     */
+    public long countGames() {
+        long games = 0;
+        long previous = 0;
+        long end = size();
+        for (long base = 0; base < end; base += recordsPerSegment) {
+            MappedByteBuffer column = segment(Column.GAME, (int) (base >>> segmentShift));
+            int rows = (int) Math.min(recordsPerSegment, end - base);
+            for (int row = 0; row < rows; row++) {
+                long game = column.getLong(row << 3);
+                if (games == 0 || game != previous) {
+                    games++;
+                    previous = game;
+                }
+            }
+        }
+        return games;
+    }
+
+    /**
+     * Save the record count, so a reopened store sees every record appended so far
+     */
+    public void flush() {
+        for (List<MappedByteBuffer> column : segments) {
+            for (MappedByteBuffer buffer : column) {
+                buffer.force();
+            }
+        }
+        meta.putLong(0, size());
+        meta.force();
+    }
+
+    @Override
+    public void close() {
+        flush();
+        segments.clear();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public int getRecordsPerSegment() {
+        return recordsPerSegment;
+    }
+
+    /**
+     * Bytes of column data per record
+     * @return Sum of the column widths
+     */
+    public static int recordBytes() {
+        int bytes = 0;
+        for (Column column : COLUMNS) {
+            bytes += column.getWidth();
+        }
+        return bytes;
+    }
+
+    private void startSegment(int segment) {
+        gameColumn = segment(Column.GAME, segment);
+        seatColumn = segment(Column.SEAT, segment);
+        rollColumn = segment(Column.ROLL, segment);
+        fromColumn = segment(Column.FROM, segment);
+        toColumn = segment(Column.TO, segment);
+        flagsColumn = segment(Column.FLAGS, segment);
+        writeSegment = segment;
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG TraceStore] Writing segment " + segment + " in " + directory);
+        }
+    }
+
+    private MappedByteBuffer segment(Column column, int segment) {
+        List<MappedByteBuffer> mapped = segments.get(column.ordinal());
+        if (segment < mapped.size()) {
+            return mapped.get(segment);
+        }
+        synchronized (mapped) {
+            // Only the first access to a new segment takes the lock
+            while (mapped.size() <= segment) {
+                Path path = directory.resolve(column.fileName(mapped.size()));
+                mapped.add(map(path, (long) recordsPerSegment * column.getWidth()));
+            }
+            return mapped.get(segment);
+        }
+    }
+
+    private static MappedByteBuffer map(Path path, long bytes) {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void checkRecord(long record) {
+        if (record < 0 || record >= size()) {
+            throw new IndexOutOfBoundsException("Record " + record + " of " + size());
+        }
+    }
+
+    private static void checkByteColumn(Column column) {
+        if (column.getWidth() != 1) {
+            throw new IllegalArgumentException("Not a byte column: " + column);
+        }
+    }
+
+    /**
+     * Usage: java trace.TraceStore games directory configKey
+     * e.g.   java trace.TraceStore 10000000 /tmp/trace large/4/double/exactEnd+hitHome
+     * Appends the turns of the games (dice seeds continue after the games already
+     * in the store), then scans the columns and prints roll and flag statistics.
+     */
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.println("Usage: TraceStore games directory configKey");
+            System.exit(1);
+        }
+        long games = Long.parseLong(args[0]);
+        GameConfig config = GameConfig.fromKey(args[2]);
+        DebugLog.setEnabled(false);
+
+        try (TraceStore store = new TraceStore(Path.of(args[1]))) {
+            long firstGame = store.size() == 0 ? 1 : store.getGame(store.size() - 1) + 1;
+            GamePool pool = new GamePool();
+            TraceRecorder recorder = new TraceRecorder(store);
+            pool.addObserver(config, recorder);
+            long start = System.nanoTime();
+            for (long gameId = firstGame; gameId < firstGame + games; gameId++) {
+                Game game = pool.next(config, gameId);
+                recorder.beginGame(gameId);
+                while (!game.isGameOver()) {
+                    game.playTurn();
+                }
+            }
+            store.flush();
+            double appendSeconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Appended %d games in %.2f s, store holds %d turns (%d MB)%n",
+                    games, appendSeconds, store.size(), store.size() * recordBytes() >> 20);
+
+            start = System.nanoTime();
+            long[] rolls = store.histogram(Column.ROLL);
+            long hits = store.countFlags(FLAG_HIT);
+            long bounces = store.countFlags(FLAG_BOUNCE);
+            double scanSeconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Scanned roll and flag columns (%d MB) in %.3f s%n",
+                    2 * store.size() >> 20, scanSeconds);
+            StringBuilder histogram = new StringBuilder("Rolls:");
+            for (int roll = 1; roll < rolls.length; roll++) {
+                if (rolls[roll] > 0) {
+                    histogram.append(' ').append(roll).append('=').append(rolls[roll]);
+                }
+            }
+            System.out.println(histogram);
+            System.out.printf("Hits: %d (%.2f%% of turns), bounces: %d, games: %d%n",
+                    hits, 100.0 * hits / Math.max(store.size(), 1), bounces, store.countGames());
+        }
+    }
+}
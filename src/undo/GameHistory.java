@@ -2,22 +2,29 @@ package undo;
 
 import players.Player;
 import players.PlayerManager;
+import util.DebugLog;
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Manages saved game states for undo operations.
+ *
+ * Mementos are recycled: the one returned by {@link #undo} stays valid until the
+ * next call to {@link #saveState}, {@link #undo} or {@link #clear}, after which it
+ * is reused, so a steady save/undo cycle does not allocate.
  */
 public class GameHistory {
     private final Deque<GameStateMemento> history;
+    private final Deque<GameStateMemento> spare;
+    private GameStateMemento lastRestored;
     
     /**
      * Constructor initializing an empty history
      */
     public GameHistory() {
         this.history = new ArrayDeque<>();
+        this.spare = new ArrayDeque<>();
     }
     
     /**
@@ -30,22 +37,43 @@ public class GameHistory {
      * @param winnerColor Color of the winning player 
      */
     public void saveState(List<Player> players, int currentPlayerIndex, boolean hitOccurred, String hitVictimColor, boolean gameOver, String winnerColor) {
-        System.out.println("[DEBUG History] Saving game state. Current player index: " + currentPlayerIndex + 
-                          ", Hit occurred: " + hitOccurred + 
-                          ", Hit victim: " + hitVictimColor);
+        saveState(players, currentPlayerIndex, hitOccurred, GameStateMemento.seatOf(hitVictimColor), gameOver, GameStateMemento.seatOf(winnerColor));
+    }
+    
+    /**
+     * Save the current game state
+     * @param players List of all players, in seat order
+     * @param currentPlayerIndex Index of the current player
+     * @param hitOccurred Whether a hit occurred in the last move
+     * @param hitVictimSeat Seat of the player who was hit, or -1
+     * @param gameOver Whether the game was over
+     * @param winnerSeat Seat of the winning player, or -1
+     */
+    public void saveState(List<Player> players, int currentPlayerIndex, boolean hitOccurred, int hitVictimSeat, boolean gameOver, int winnerSeat) {
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG History] Saving game state. Current player index: " + currentPlayerIndex + 
+                              ", Hit occurred: " + hitOccurred + 
+                              ", Hit victim seat: " + hitVictimSeat);
+        }
         
         // Log player positions being saved
-        System.out.println("[DEBUG History] Saving player positions:");
-        for (Player player : players) {
-            System.out.println("[DEBUG History]   " + player.getColorString() + 
-                               ": position " + player.getCurrentPosition() + 
-                               ", moves " + player.getTotalMoves());
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG History] Saving player positions:");
+            for (Player player : players) {
+                System.out.println("[DEBUG History]   " + player.getColorString() + 
+                                   ": position " + player.getCurrentPosition() + 
+                                   ", moves " + player.getTotalMoves());
+            }
         }
         
-        GameStateMemento memento = new GameStateMemento(players, currentPlayerIndex, hitOccurred, hitVictimColor, gameOver, winnerColor);
+        recycleLastRestored();
+        GameStateMemento memento = spare.isEmpty() ? new GameStateMemento(players.size()) : spare.pop();
+        memento.capture(players, currentPlayerIndex, hitOccurred, hitVictimSeat, gameOver, winnerSeat);
         history.push(memento);
         
-        System.out.println("[DEBUG History] State saved. History size: " + history.size());
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG History] State saved. History size: " + history.size());
+        }
     }
     
     /**
@@ -63,52 +91,59 @@ public class GameHistory {
      */
     public GameStateMemento undo(PlayerManager playerManager) {
         if (history.isEmpty()) {
-            System.out.println("[DEBUG History] Cannot undo - history is empty");
+            if (DebugLog.isEnabled()) {
+                System.out.println("[DEBUG History] Cannot undo - history is empty");
+            }
             return null;
         }
         
-        System.out.println("[DEBUG History] Undoing to previous state. History size before: " + history.size());
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG History] Undoing to previous state. History size before: " + history.size());
+        }
         
+        recycleLastRestored();
         GameStateMemento memento = history.pop();
-        List<Player> players = playerManager.getAllPlayers();
-        
-        // Restore player positions
-        Map<String, Integer> positions = memento.getPlayerPositions();
-        Map<String, Integer> moveCounts = memento.getPlayerMoveCounts();
+        List<Player> players = playerManager.getPlayers();
         
-        System.out.println("[DEBUG History] Restoring player positions from memento:");
-        for (String color : positions.keySet()) {
-            System.out.println("[DEBUG History]   " + color + 
-                              ": position " + positions.get(color) + 
-                              ", moves " + (moveCounts.containsKey(color) ? moveCounts.get(color) : "N/A"));
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG History] Restoring player positions from memento:");
+            for (int seat = 0; seat < memento.getPlayerCount(); seat++) {
+                System.out.println("[DEBUG History]   " + players.get(seat).getColorString() + 
+                                  ": position " + memento.getSeatPosition(seat) + 
+                                  ", moves " + memento.getSeatMoveCount(seat));
+            }
         }
         
-        for (Player player : players) {
+        // Mementos are captured in seat order, so seat i is players.get(i)
+        for (int seat = 0; seat < players.size(); seat++) {
+            Player player = players.get(seat);
             int oldPosition = player.getCurrentPosition();
-            int position = positions.get(player.getColorString());
+            int position = memento.getSeatPosition(seat);
             
             // Set position without incrementing move counter
             player.setPosition(position);
+            player.setTotalMoves(memento.getSeatMoveCount(seat));
             
-            // Restore move count if available
-            Integer moveCount = moveCounts.get(player.getColorString());
-            if (moveCount != null) {
-                player.setTotalMoves(moveCount);
+            if (DebugLog.isEnabled()) {
+                System.out.println("[DEBUG History] Restored " + player.getColorString() + 
+                                  " from position " + oldPosition + 
+                                  " to position " + position);
             }
-            
-            System.out.println("[DEBUG History] Restored " + player.getColorString() + 
-                              " from position " + oldPosition + 
-                              " to position " + position);
         }
         
         // Restore current player index
         int oldIndex = playerManager.getCurrentPlayerIndex();
         playerManager.setCurrentPlayerIndex(memento.getCurrentPlayerIndex());
-        System.out.println("[DEBUG History] Restored current player index from " + 
-                          oldIndex + " to " + memento.getCurrentPlayerIndex());
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG History] Restored current player index from " + 
+                              oldIndex + " to " + memento.getCurrentPlayerIndex());
+        }
         
-        System.out.println("[DEBUG History] Undo complete. History size after: " + history.size());
+        if (DebugLog.isEnabled()) {
+            System.out.println("[DEBUG History] Undo complete. History size after: " + history.size());
+        }
         
+        lastRestored = memento;
         return memento;
     }
     
@@ -124,6 +159,16 @@ public class GameHistory {
      * Clear all history
      */
     public void clear() {
-        history.clear();
+        recycleLastRestored();
+        while (!history.isEmpty()) {
+            spare.push(history.pop());
+        }
+    }
+
+    private void recycleLastRestored() {
+        if (lastRestored != null) {
+            spare.push(lastRestored);
+            lastRestored = null;
+        }
     }
 }
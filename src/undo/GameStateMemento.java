@@ -1,23 +1,31 @@
 package undo;
 
 import players.Player;
+import players.PlayerColor;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Represents a saved game state for undo operations.
+ *
+ * Positions and move counts are kept in arrays indexed by seat, so a memento can
+ * be captured again and reused by {@link GameHistory} without allocating.
  */
 public class GameStateMemento {
-    private final Map<String, Integer> playerPositions;
-    private final Map<String, Integer> playerMoveCounts;
-    private final int currentPlayerIndex;
-    private final int turnCount;
-    private final boolean hitOccurred;
-    private final String hitVictimColor;
-    private final boolean gameOver;        
-    private final String winnerColor;
-    private final Map<String, Integer> previousPositions; 
+    private static final int NO_POSITION = -1;
+    
+    private int[] playerPositions;
+    private int[] playerMoveCounts;
+    private int playerCount;
+    private int currentPlayerIndex;
+    private int turnCount;
+    private boolean hitOccurred;
+    private int hitVictimSeat;
+    private boolean gameOver;        
+    private int winnerSeat;
+    private int[] previousPositions; // by seat, NO_POSITION when unset; allocated on first use
     
     /**
      * Constructor for a game state memento
@@ -29,32 +37,89 @@ public class GameStateMemento {
      * @param winnerColor Color of the winning player (if any)
      */
     public GameStateMemento(List<Player> players, int currentPlayerIndex, boolean hitOccurred, String hitVictimColor, boolean gameOver, String winnerColor) {
-        this.playerPositions = new HashMap<>();
-        this.playerMoveCounts = new HashMap<>();
-        this.previousPositions = new HashMap<>(); // Initialize previous positions map
+        this(players.size());
+        capture(players, currentPlayerIndex, hitOccurred, seatOf(hitVictimColor), gameOver, seatOf(winnerColor));
+    }
+
+    /**
+     * Constructor for an empty memento, filled later by {@link #capture}
+     * @param capacity Number of seats to size the arrays for
+     */
+    GameStateMemento(int capacity) {
+        this.playerPositions = new int[capacity];
+        this.playerMoveCounts = new int[capacity];
+    }
+
+    /**
+     * Overwrite this memento with the current game state
+     * @param players List of players, in seat order
+     * @param currentPlayerIndex Index of the current player
+     * @param hitOccurred Whether a hit occurred in the last move
+     * @param hitVictimSeat Seat of the player who was hit, or -1
+     * @param gameOver Whether the game was over
+     * @param winnerSeat Seat of the winning player, or -1
+     */
+    void capture(List<Player> players, int currentPlayerIndex, boolean hitOccurred, int hitVictimSeat, boolean gameOver, int winnerSeat) {
+        int count = players.size();
+        if (playerPositions.length < count) {
+            playerPositions = new int[count];
+            playerMoveCounts = new int[count];
+        }
+        this.playerCount = count;
         this.currentPlayerIndex = currentPlayerIndex;
         this.hitOccurred = hitOccurred;
-        this.hitVictimColor = hitVictimColor;
+        this.hitVictimSeat = hitVictimSeat;
         this.gameOver = gameOver;
-        this.winnerColor = winnerColor;
+        this.winnerSeat = winnerSeat;
+        if (previousPositions != null) {
+            Arrays.fill(previousPositions, NO_POSITION);
+        }
         
-        // Calculate turn count and save player positions and move counts
+        // Calculate turn count and save player positions and move counts (list index is the seat)
         int turnCount = 0;
-        for (Player player : players) {
-            this.playerPositions.put(player.getColorString(), player.getCurrentPosition());
-            this.playerMoveCounts.put(player.getColorString(), player.getTotalMoves());
-            turnCount += player.getTotalMoves();
+        for (int seat = 0; seat < count; seat++) {
+            Player player = players.get(seat);
+            playerPositions[seat] = player.getCurrentPosition();
+            playerMoveCounts[seat] = player.getTotalMoves();
+            turnCount += playerMoveCounts[seat];
         }
         this.turnCount = turnCount;
     }
-    
+
+    /**
+     * Get the number of seats saved in this memento
+     * @return Player count
+     */
+    public int getPlayerCount() {
+        return playerCount;
+    }
+
+    /**
+     * Get the saved position of a seat
+     * @param seat Seat index
+     * @return Saved position
+     */
+    public int getSeatPosition(int seat) {
+        return playerPositions[seat];
+    }
+
+    /**
+     * Get the saved move count of a seat
+     * @param seat Seat index
+     * @return Saved move count
+     */
+    public int getSeatMoveCount(int seat) {
+        return playerMoveCounts[seat];
+    }
+
     /**
      * Get the saved position of a player
      * @param color Player color
      * @return Saved position
      */
     public int getPlayerPosition(String color) {
-        return playerPositions.getOrDefault(color, -1);
+        int seat = seatOf(color);
+        return seat < 0 || seat >= playerCount ? -1 : playerPositions[seat];
     }
 
     /**
@@ -62,7 +127,7 @@ public class GameStateMemento {
      * @return Map of player colors to move counts
      */
     public Map<String, Integer> getPlayerMoveCounts() {
-        return new HashMap<>(playerMoveCounts);
+        return toMap(playerMoveCounts);
     }
     
     /**
@@ -94,7 +159,15 @@ public class GameStateMemento {
      * @return Player color or null if no hit
      */
     public String getHitVictimColor() {
-        return hitVictimColor;
+        return hitVictimSeat < 0 ? null : PlayerColor.fromOrdinal(hitVictimSeat).getValue();
+    }
+    
+    /**
+     * Get the seat of the player who was hit
+     * @return Seat index or -1 if no hit
+     */
+    public int getHitVictimSeat() {
+        return hitVictimSeat;
     }
     
     /**
@@ -102,7 +175,7 @@ public class GameStateMemento {
      * @return Map of player colors to positions
      */
     public Map<String, Integer> getPlayerPositions() {
-        return new HashMap<>(playerPositions);
+        return toMap(playerPositions);
     }
     
     /**
@@ -118,7 +191,15 @@ public class GameStateMemento {
      * @return Winner's color or null if none
      */
     public String getWinnerColor() {
-        return winnerColor;
+        return winnerSeat < 0 ? null : PlayerColor.fromOrdinal(winnerSeat).getValue();
+    }
+    
+    /**
+     * Get the winner's seat from the saved state
+     * @return Seat index or -1 if none
+     */
+    public int getWinnerSeat() {
+        return winnerSeat;
     }
     
     /**
@@ -127,7 +208,15 @@ public class GameStateMemento {
      * @param position Previous position
      */
     public void setPreviousPosition(String color, int position) {
-        this.previousPositions.put(color, position);
+        int seat = seatOf(color);
+        if (seat < 0) {
+            return;
+        }
+        if (previousPositions == null) {
+            previousPositions = new int[PlayerColor.COUNT];
+            Arrays.fill(previousPositions, NO_POSITION);
+        }
+        previousPositions[seat] = position;
     }
     
     /**
@@ -136,7 +225,11 @@ public class GameStateMemento {
      * @return Previous position or current position if not set
      */
     public int getPreviousPosition(String color) {
-        return previousPositions.getOrDefault(color, getPlayerPosition(color));
+        int seat = seatOf(color);
+        if (previousPositions == null || seat < 0 || previousPositions[seat] == NO_POSITION) {
+            return getPlayerPosition(color);
+        }
+        return previousPositions[seat];
     }
     
     /**
@@ -144,6 +237,32 @@ public class GameStateMemento {
      * @return Map of player colors to previous positions
      */
     public Map<String, Integer> getPreviousPositions() {
-        return new HashMap<>(previousPositions);
+        Map<String, Integer> map = new HashMap<>();
+        if (previousPositions != null) {
+            for (int seat = 0; seat < previousPositions.length; seat++) {
+                if (previousPositions[seat] != NO_POSITION) {
+                    map.put(PlayerColor.fromOrdinal(seat).getValue(), previousPositions[seat]);
+                }
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Get the seat of a color string
+     * @param color Color string, may be null
+     * @return Seat index, or -1 for null or an unknown color
+     */
+    static int seatOf(String color) {
+        PlayerColor playerColor = color == null ? null : PlayerColor.fromString(color);
+        return playerColor == null ? -1 : playerColor.ordinal();
+    }
+
+    private Map<String, Integer> toMap(int[] values) {
+        Map<String, Integer> map = new HashMap<>();
+        for (int seat = 0; seat < playerCount; seat++) {
+            map.put(PlayerColor.fromOrdinal(seat).getValue(), values[seat]);
+        }
+        return map;
     }
 }
@@ -0,0 +1,177 @@
+package undo;
+
+/**
+ * Packs a complete game state into one long so it can be stored as a keyframe.
+ *
+ * Layout (low bit first):
+ *   bits  0-23 positions, 6 bits per seat (up to 4 seats)
+ *   bits 24-25 seat to move next
+ *   bit   26   game over
+ *   bits 27-28 winner seat (only meaningful when game over and not stopped)
+ *   bits 29-30 stop code, non-zero if the game was stopped without a winner
+ *   bits 32-63 total turns played
+ *
+ * Turns are applied with {@link TurnDelta}s, which carry enough information to
+ * go both forwards and backwards.
+ */
+public final class PackedState {
+    /** Largest number of seats a packed state can hold */
+    public static final int MAX_SEATS = 4;
+
+    private static final int POSITION_BITS = 6;
+    private static final long POSITION_MASK = 0x3F;
+    private static final int TO_MOVE_SHIFT = 24;
+    private static final long GAME_OVER_BIT = 1L << 26;
+    private static final int WINNER_SHIFT = 27;
+    private static final int STOP_SHIFT = 29;
+    private static final long STOP_MASK = 0x3L << STOP_SHIFT;
+    private static final int TURNS_SHIFT = 32;
+    private static final long LOW_MASK = 0xFFFFFFFFL;
+
+    private PackedState() {
+    }
+
+    /**
+     * Pack a state at the start of a game (nobody has moved yet)
+     * @param positions Position of each seat
+     * @param seatToMove Seat whose turn it is
+     * @return Packed state
+     */
+    public static long of(int[] positions, int seatToMove) {
+        if (positions.length > MAX_SEATS) {
+            throw new IllegalArgumentException("A packed state holds at most " + MAX_SEATS + " seats");
+        }
+        long state = 0;
+        for (int seat = 0; seat < positions.length; seat++) {
+            state = withPosition(state, seat, positions[seat]);
+        }
+        return state | ((long) seatToMove << TO_MOVE_SHIFT);
+    }
+
+    public static int position(long state, int seat) {
+        return (int) ((state >>> (seat * POSITION_BITS)) & POSITION_MASK);
+    }
+
+    public static long withPosition(long state, int seat, int position) {
+        if (position < 0 || position > POSITION_MASK) {
+            throw new IllegalArgumentException("Position out of range for a packed state: " + position);
+        }
+        int shift = seat * POSITION_BITS;
+        return (state & ~(POSITION_MASK << shift)) | ((long) position << shift);
+    }
+
+    public static int seatToMove(long state) {
+        return (int) ((state >>> TO_MOVE_SHIFT) & 0x3);
+    }
+
+    public static boolean isGameOver(long state) {
+        return (state & GAME_OVER_BIT) != 0;
+    }
+
+    /**
+     * Get the winner of a finished game
+     * @param state Packed state
+     * @return Winner seat, or -1 if the game is not over or was stopped without a winner
+     */
+    public static int winner(long state) {
+        return isGameOver(state) && !isStopped(state) ? (int) ((state >>> WINNER_SHIFT) & 0x3) : -1;
+    }
+
+    public static boolean isStopped(long state) {
+        return (state & STOP_MASK) != 0;
+    }
+
+    /**
+     * Get why a game was stopped without a winner
+     * @param state Packed state
+     * @return Stop code given to {@link #withStopped}, or 0 if the game was not stopped
+     */
+    public static int stopCode(long state) {
+        return (int) ((state & STOP_MASK) >>> STOP_SHIFT);
+    }
+
+    public static int turns(long state) {
+        return (int) (state >>> TURNS_SHIFT);
+    }
+
+    /**
+     * Copy the positions out of a packed state
+     * @param state Packed state
+     * @param positions Array to fill, one entry per seat
+     */
+    public static void positions(long state, int[] positions) {
+        for (int seat = 0; seat < positions.length; seat++) {
+            positions[seat] = position(state, seat);
+        }
+    }
+
+    /**
+     * Play a turn forwards
+     * @param state Packed state before the turn
+     * @param delta Packed turn delta
+     * @param homePositions Home position of each seat (where hit victims go)
+     * @param nextSeat Seat to move next if the turn did not win (from the game's turn order)
+     * @return Packed state after the turn
+     */
+    public static long apply(long state, int delta, int[] homePositions, int nextSeat) {
+        int seat = TurnDelta.seat(delta);
+        state = withPosition(state, seat, TurnDelta.to(delta));
+        if (TurnDelta.isHit(delta)) {
+            int victim = TurnDelta.victimSeat(delta);
+            state = withPosition(state, victim, homePositions[victim]);
+        }
+        state = withSeatToMove(state, TurnDelta.isWin(delta) ? seat : nextSeat);
+        if (TurnDelta.isWin(delta)) {
+            state = withWinner(state, seat);
+        }
+        return withTurns(state, turns(state) + 1);
+    }
+
+    /**
+     * Take a turn back
+     * @param state Packed state after the turn
+     * @param delta Packed turn delta
+     * @return Packed state before the turn
+     */
+    public static long revert(long state, int delta) {
+        int seat = TurnDelta.seat(delta);
+        state = withPosition(state, seat, TurnDelta.from(delta));
+        if (TurnDelta.isHit(delta)) {
+            state = withPosition(state, TurnDelta.victimSeat(delta), TurnDelta.victimFrom(delta));
+        }
+        state &= ~(GAME_OVER_BIT | (0x3L << WINNER_SHIFT) | STOP_MASK | (0x3L << TO_MOVE_SHIFT));
+        state |= (long) seat << TO_MOVE_SHIFT;
+        return withTurns(state, turns(state) - 1);
+    }
+
+    public static long withTurns(long state, int turns) {
+        return (state & LOW_MASK) | ((long) turns << TURNS_SHIFT);
+    }
+
+    public static long withSeatToMove(long state, int seat) {
+        return (state & ~(0x3L << TO_MOVE_SHIFT)) | ((long) seat << TO_MOVE_SHIFT);
+    }
+
+    /**
+     * Mark the game as won
+     * @param state Packed state
+     * @param seat Winning seat
+     * @return Packed state with game over and winner set
+     */
+    public static long withWinner(long state, int seat) {
+        return (state & ~((0x3L << WINNER_SHIFT) | STOP_MASK)) | GAME_OVER_BIT | ((long) seat << WINNER_SHIFT);
+    }
+
+    /**
+     * Mark the game as stopped without a winner, e.g. by a turn or time limit
+     * @param state Packed state
+     * @param code Why the game was stopped, 1 to 3
+     * @return Packed state with game over, no winner and the stop code set
+     */
+    public static long withStopped(long state, int code) {
+        if (code < 1 || code > 3) {
+            throw new IllegalArgumentException("Stop code out of range for a packed state: " + code);
+        }
+        return (state & ~((0x3L << WINNER_SHIFT) | STOP_MASK)) | GAME_OVER_BIT | ((long) code << STOP_SHIFT);
+    }
+}
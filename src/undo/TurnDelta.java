@@ -0,0 +1,131 @@
+package undo;
+
+/**
+ * Packs everything that changes in a single turn into one int.
+ * A delta can be applied forwards (replay/redo) or reverted (undo) because it
+ * stores both the old and new positions of every player it touches.
+ *
+ * Layout (low bit first):
+ *   bits  0-1  mover seat
+ *   bits  2-7  mover old position
+ *   bits  8-13 mover new position
+ *   bit   14   hit occurred
+ *   bits 15-16 victim seat
+ *   bits 17-22 victim old position (before being sent home)
+ *   bit   23   mover won the game
+ *   bits 24-27 dice roll
+ */
+public final class TurnDelta {
+    private static final int SEAT_MASK = 0x3;
+    private static final int POSITION_MASK = 0x3F;
+    private static final int ROLL_MASK = 0xF;
+
+    private static final int FROM_SHIFT = 2;
+    private static final int TO_SHIFT = 8;
+    private static final int HIT_BIT = 1 << 14;
+    private static final int VICTIM_SHIFT = 15;
+    private static final int VICTIM_FROM_SHIFT = 17;
+    private static final int WIN_BIT = 1 << 23;
+    private static final int ROLL_SHIFT = 24;
+
+    private TurnDelta() {
+    }
+
+    /**
+     * Pack a plain move (no hit, no win)
+     * @param seat Seat index of the moving player
+     * @param from Position before the move
+     * @param to Position after the move
+     * @param roll Dice total used for the move
+     * @return Packed delta
+     */
+    public static int of(int seat, int from, int to, int roll) {
+        checkPosition(from);
+        checkPosition(to);
+        return (seat & SEAT_MASK)
+                | (from << FROM_SHIFT)
+                | (to << TO_SHIFT)
+                | ((roll & ROLL_MASK) << ROLL_SHIFT);
+    }
+
+    /**
+     * Add a hit to a packed delta
+     * @param delta Packed delta
+     * @param victimSeat Seat index of the player that was sent home
+     * @param victimFrom Position of the victim before the hit
+     * @return Packed delta including the hit
+     */
+    public static int withHit(int delta, int victimSeat, int victimFrom) {
+        checkPosition(victimFrom);
+        return delta | HIT_BIT
+                | ((victimSeat & SEAT_MASK) << VICTIM_SHIFT)
+                | (victimFrom << VICTIM_FROM_SHIFT);
+    }
+
+    /**
+     * Mark a packed delta as the winning move
+     * @param delta Packed delta
+     * @return Packed delta with the win flag set
+     */
+    public static int withWin(int delta) {
+        return delta | WIN_BIT;
+    }
+
+    public static int seat(int delta) {
+        return delta & SEAT_MASK;
+    }
+
+    public static int from(int delta) {
+        return (delta >>> FROM_SHIFT) & POSITION_MASK;
+    }
+
+    public static int to(int delta) {
+        return (delta >>> TO_SHIFT) & POSITION_MASK;
+    }
+
+    public static boolean isHit(int delta) {
+        return (delta & HIT_BIT) != 0;
+    }
+
+    public static int victimSeat(int delta) {
+        return (delta >>> VICTIM_SHIFT) & SEAT_MASK;
+    }
+
+    public static int victimFrom(int delta) {
+        return (delta >>> VICTIM_FROM_SHIFT) & POSITION_MASK;
+    }
+
+    public static boolean isWin(int delta) {
+        return (delta & WIN_BIT) != 0;
+    }
+
+    public static int roll(int delta) {
+        return (delta >>> ROLL_SHIFT) & ROLL_MASK;
+    }
+
+    /**
+     * Human readable form of a delta, used for debugging
+     * @param delta Packed delta
+     * @return Description of the delta
+     */
+    public static String describe(int delta) {
+        StringBuilder builder = new StringBuilder();
+        builder.append("seat ").append(seat(delta))
+               .append(" rolls ").append(roll(delta))
+               .append(" moves ").append(from(delta)).append("->").append(to(delta));
+        if (isHit(delta)) {
+            builder.append(" hits seat ").append(victimSeat(delta))
+                   .append(" at ").append(victimFrom(delta));
+        }
+        if (isWin(delta)) {
+            builder.append(" WINS");
+        }
+        return builder.toString();
+    }
+
+    private static void checkPosition(int position) {
+        if (position < 0 || position > POSITION_MASK) {
+            throw new IllegalArgumentException("Position out of range for a turn delta: " + position);
+        }
+    }
+}
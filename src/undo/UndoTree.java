@@ -0,0 +1,273 @@
+package undo;
+
+import java.util.Arrays;
+
+/**
+ * Branching undo/redo history.
+ *
+ * Every turn is a node whose only payload is the packed {@link TurnDelta} that
+ * leads to it from its parent, so branches share their common prefix and a node
+ * costs six ints (24 bytes). Nodes live in parallel primitive arrays rather than
+ * as objects, which keeps a tree of a million turns in roughly 24 MB.
+ *
+ * Jumping between two nodes walks up from the current node to the lowest common
+ * ancestor (reverting deltas) and back down to the target (applying deltas), so
+ * it costs O(path length) and never replays from the start of the game.
+ */
+public class UndoTree {
+    /** Index of the root node, which represents the start of the game */
+    public static final int ROOT = 0;
+    private static final int NONE = -1;
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * Callback used to move the live game state along a path in the tree
+     */
+    public interface DeltaApplier {
+        /**
+         * Apply a delta (moving from a parent node to its child)
+         * @param delta Packed turn delta
+         */
+        void apply(int delta);
+
+        /**
+         * Revert a delta (moving from a child node back to its parent)
+         * @param delta Packed turn delta
+         */
+        void revert(int delta);
+    }
+
+    private int[] parent;
+    private int[] delta;
+    private int[] depth;
+    private int[] firstChild;
+    private int[] nextSibling;
+    private int[] redoChild;
+    private int size;
+    private int cursor;
+    private int[] pathScratch;
+
+    /**
+     * Constructor creating a tree that only contains the root
+     */
+    public UndoTree() {
+        this.parent = new int[INITIAL_CAPACITY];
+        this.delta = new int[INITIAL_CAPACITY];
+        this.depth = new int[INITIAL_CAPACITY];
+        this.firstChild = new int[INITIAL_CAPACITY];
+        this.nextSibling = new int[INITIAL_CAPACITY];
+        this.redoChild = new int[INITIAL_CAPACITY];
+        this.pathScratch = new int[64];
+        clear();
+    }
+
+    /**
+     * Record a turn played from the current node and move onto it.
+     * If the same turn was already played from here the existing node is reused.
+     * @param turnDelta Packed delta of the turn
+     * @return Index of the node now current
+     */
+    public int addChild(int turnDelta) {
+        int child = findChild(cursor, turnDelta);
+        if (child == NONE) {
+            child = newNode(cursor, turnDelta);
+        }
+        moveToChild(child);
+        return child;
+    }
+
+    /**
+     * Move the cursor to the parent node without touching game state
+     * (the caller has already restored the state)
+     * @return true if the cursor moved
+     */
+    public boolean moveToParent() {
+        if (cursor == ROOT) {
+            return false;
+        }
+        cursor = parent[cursor];
+        return true;
+    }
+
+    /**
+     * Move the cursor to a direct child without touching game state
+     * @param child Index of a child of the current node
+     */
+    public void moveToChild(int child) {
+        if (parent[child] != cursor) {
+            throw new IllegalArgumentException("Node " + child + " is not a child of " + cursor);
+        }
+        redoChild[cursor] = child;
+        cursor = child;
+    }
+
+    /**
+     * Move the cursor to any node, reverting and applying deltas along the path
+     * @param target Index of the node to jump to
+     * @param applier Callback that changes the live game state
+     */
+    public void jumpTo(int target, DeltaApplier applier) {
+        checkNode(target);
+
+        // Walk both ends up to the same depth, reverting on the way up from the cursor
+        int up = cursor;
+        int down = target;
+        int pathLength = 0;
+        while (depth[up] > depth[down]) {
+            applier.revert(delta[up]);
+            up = parent[up];
+        }
+        while (depth[down] > depth[up]) {
+            pathLength = pushPath(pathLength, down);
+            down = parent[down];
+        }
+        // Then climb together until the common ancestor is reached
+        while (up != down) {
+            applier.revert(delta[up]);
+            up = parent[up];
+            pathLength = pushPath(pathLength, down);
+            down = parent[down];
+        }
+
+        cursor = up;
+        for (int i = pathLength - 1; i >= 0; i--) {
+            int node = pathScratch[i];
+            applier.apply(delta[node]);
+            redoChild[cursor] = node;
+            cursor = node;
+        }
+    }
+
+    /**
+     * Check if the cursor can move back
+     * @return true if the current node is not the root
+     */
+    public boolean canUndo() {
+        return cursor != ROOT;
+    }
+
+    /**
+     * Check if there is a future to redo from the current node
+     * @return true if the current node has a child
+     */
+    public boolean canRedo() {
+        return firstChild[cursor] != NONE;
+    }
+
+    /**
+     * Get the child that redo would move to: the most recently visited one
+     * @return Node index, or -1 if there is nothing to redo
+     */
+    public int getRedoTarget() {
+        int child = redoChild[cursor];
+        return child != NONE ? child : firstChild[cursor];
+    }
+
+    public int getCursor() {
+        return cursor;
+    }
+
+    public int getParent(int node) {
+        checkNode(node);
+        return parent[node];
+    }
+
+    public int getDelta(int node) {
+        checkNode(node);
+        return delta[node];
+    }
+
+    public int getDepth(int node) {
+        checkNode(node);
+        return depth[node];
+    }
+
+    /**
+     * Get the first child of a node, use {@link #getNextSibling(int)} to iterate the rest
+     * @param node Node index
+     * @return First child or -1 if the node is a leaf
+     */
+    public int getFirstChild(int node) {
+        checkNode(node);
+        return firstChild[node];
+    }
+
+    /**
+     * Get the next sibling of a node
+     * @param node Node index
+     * @return Next sibling or -1 if this is the last child
+     */
+    public int getNextSibling(int node) {
+        checkNode(node);
+        return nextSibling[node];
+    }
+
+    /**
+     * Get the number of nodes in the tree, including the root
+     * @return Node count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Reset the tree to just the root. Capacity is kept for the next game.
+     */
+    public void clear() {
+        size = 0;
+        cursor = newNode(NONE, 0);
+    }
+
+    private int findChild(int node, int turnDelta) {
+        for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+            if (delta[child] == turnDelta) {
+                return child;
+            }
+        }
+        return NONE;
+    }
+
+    private int newNode(int parentNode, int turnDelta) {
+        if (size == parent.length) {
+            grow();
+        }
+        int node = size++;
+        parent[node] = parentNode;
+        delta[node] = turnDelta;
+        firstChild[node] = NONE;
+        redoChild[node] = NONE;
+        if (parentNode == NONE) {
+            depth[node] = 0;
+            nextSibling[node] = NONE;
+        } else {
+            depth[node] = depth[parentNode] + 1;
+            nextSibling[node] = firstChild[parentNode];
+            firstChild[parentNode] = node;
+        }
+        return node;
+    }
+
+    private int pushPath(int pathLength, int node) {
+        if (pathLength == pathScratch.length) {
+            pathScratch = Arrays.copyOf(pathScratch, pathLength * 2);
+        }
+        pathScratch[pathLength] = node;
+        return pathLength + 1;
+    }
+
+    private void grow() {
+        int capacity = parent.length * 2;
+        parent = Arrays.copyOf(parent, capacity);
+        delta = Arrays.copyOf(delta, capacity);
+        depth = Arrays.copyOf(depth, capacity);
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        nextSibling = Arrays.copyOf(nextSibling, capacity);
+        redoChild = Arrays.copyOf(redoChild, capacity);
+    }
+
+    private void checkNode(int node) {
+        if (node < 0 || node >= size) {
+            throw new IndexOutOfBoundsException("No undo tree node " + node);
+        }
+    }
+}
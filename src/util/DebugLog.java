@@ -0,0 +1,29 @@
+package util;
+
+/**
+ * Switch for the [DEBUG] console output.
+ * 
+ * Debug lines are on by default so the simulation in Main stays easy to follow.
+ * Batch runs turn them off: every debug statement is wrapped in
+ * {@code if (DebugLog.isEnabled())}, so with the switch off no strings are built
+ * and a turn does not allocate anything for logging.
+ */
+public class DebugLog {
+    private static volatile boolean enabled = true;
+    
+    /**
+     * Check if debug output is enabled
+     * @return true if debug lines should be printed
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Turn debug output on or off for the whole application
+     * @param enabled true to print debug lines
+     */
+    public static void setEnabled(boolean enabled) {
+        DebugLog.enabled = enabled;
+    }
+}
@@ -0,0 +1,156 @@
+package view;
+
+import board.IBoard;
+import observers.GameObserver;
+import players.Player;
+import players.PlayerManager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Observer that draws the board in the terminal and redraws it after every event.
+ *
+ * Each board cell has one character slot per seat, showing the seat's letter
+ * when that player stands there. Empty home cells show the owner's letter in
+ * lower case. Only the cells that changed since the previous frame are sent
+ * (see {@link ScreenBuffer}), so a turn usually costs a few dozen bytes.
+ */
+public class AnsiBoardRenderer implements GameObserver {
+    private final PlayerManager playerManager;
+    private final BoardLayout layout;
+    private final ScreenBuffer screen;
+    private final OutputStream stream;
+    private final char[] seatLetters;
+    private final byte[] seatColors;
+    private String status;
+
+    /**
+     * Constructor for a renderer
+     * @param board The game board
+     * @param playerManager The game's players
+     * @param stream Terminal output (normally System.out)
+     */
+    public AnsiBoardRenderer(IBoard board, PlayerManager playerManager, OutputStream stream) {
+        this.playerManager = playerManager;
+        this.stream = stream;
+
+        int numSeats = playerManager.getPlayerCount();
+        this.layout = new BoardLayout(board, numSeats);
+        this.screen = new ScreenBuffer(layout.getRows(), layout.getColumns());
+        this.seatLetters = new char[numSeats];
+        this.seatColors = new byte[numSeats];
+        for (int seat = 0; seat < numSeats; seat++) {
+            String color = playerManager.getPlayer(seat).getColorString();
+            seatLetters[seat] = color.charAt(0);
+            seatColors[seat] = ansiColor(color);
+        }
+        this.status = "";
+    }
+
+    @Override
+    public void onMove(Player player, int oldPosition, int newPosition, int diceRoll) {
+        status = player.getColorString() + " rolls " + diceRoll;
+        render();
+    }
+
+    @Override
+    public void onHit(Player attacker, Player victim, int victimOriginalPosition) {
+        status = attacker.getColorString() + " hits " + victim.getColorString();
+        render();
+    }
+
+    @Override
+    public void onOvershoot(Player player) {
+        status = player.getColorString() + " overshoots";
+        render();
+    }
+
+    @Override
+    public void onWin(Player winner, int totalTurns) {
+        status = winner.getColorString() + " wins after " + totalTurns + " plays";
+        render();
+    }
+
+    @Override
+    public void onUndo(Player player, boolean hitOccurred, Player hitVictim) {
+        status = "Undo";
+        render();
+    }
+
+    /**
+     * Draw the current state and send the changed cells to the terminal
+     * @return Number of bytes written for this frame
+     */
+    public int render() {
+        screen.clear();
+        drawRing();
+        drawTails();
+        screen.putString(layout.getStatusRow(), 0, "Turn " + playerManager.getTotalTurns() + "  " + status, ScreenBuffer.DEFAULT_COLOR);
+        try {
+            return screen.flush(stream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Get the total number of bytes sent to the terminal so far
+     * @return Byte count
+     */
+    public long getBytesWritten() {
+        return screen.getBytesWritten();
+    }
+
+    private void drawRing() {
+        for (int position = 1; position <= layout.getMainBoardSize(); position++) {
+            int row = layout.getRingRow(position);
+            int column = layout.getRingColumn(position);
+            screen.put(row, column, '.', ScreenBuffer.DEFAULT_COLOR);
+            for (int seat = 0; seat < seatLetters.length; seat++) {
+                Player player = playerManager.getPlayer(seat);
+                if (player.getCurrentPosition() == position) {
+                    screen.put(row, column + seat, seatLetters[seat], seatColors[seat]);
+                } else if (player.getHomePosition() == position) {
+                    screen.put(row, column + seat, Character.toLowerCase(seatLetters[seat]), seatColors[seat]);
+                }
+            }
+        }
+    }
+
+    private void drawTails() {
+        int mainBoardSize = layout.getMainBoardSize();
+        int tailSize = layout.getTailSize();
+        for (int seat = 0; seat < seatLetters.length; seat++) {
+            int row = layout.getTailRow(seat);
+            screen.put(row, 0, seatLetters[seat], seatColors[seat]);
+            for (int tailIndex = 0; tailIndex < tailSize; tailIndex++) {
+                char empty = tailIndex == tailSize - 1 ? 'E' : '.';
+                screen.put(row, layout.getTailColumn(tailIndex), empty, ScreenBuffer.DEFAULT_COLOR);
+            }
+
+            int position = playerManager.getPlayer(seat).getCurrentPosition();
+            if (position > mainBoardSize) {
+                // Positions past END (allowed without the exact end rule) are drawn on END
+                int tailIndex = Math.min(position - mainBoardSize, tailSize) - 1;
+                screen.put(row, layout.getTailColumn(tailIndex), seatLetters[seat], seatColors[seat]);
+            }
+        }
+    }
+
+    private static byte ansiColor(String color) {
+        switch (color.toLowerCase()) {
+            case "red":
+                return 31;
+            case "green":
+                return 32;
+            case "yellow":
+                return 33;
+            case "blue":
+                return 34;
+            default:
+                return ScreenBuffer.DEFAULT_COLOR;
+        }
+    }
+}
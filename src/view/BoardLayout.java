@@ -0,0 +1,143 @@
+package view;
+
+import board.IBoard;
+
+/**
+ * Maps board positions to screen cells.
+ *
+ * The main board is drawn clockwise as the outline of a rectangle starting at
+ * the top left corner, so position 1 is the top left cell. Each seat gets its
+ * own row below the ring for its tail, ending in the END cell.
+ */
+public class BoardLayout {
+    /** Screen columns used by one board cell (one character slot per seat) */
+    public static final int CELL_WIDTH = 5;
+
+    private final int mainBoardSize;
+    private final int tailSize;
+    private final int numSeats;
+    private final int ringWidth;
+    private final int ringHeight;
+    private final int[] cellRow;
+    private final int[] cellColumn;
+
+    /**
+     * Constructor computing the layout for a board
+     * @param board The board to lay out
+     * @param numSeats Number of players
+     */
+    public BoardLayout(IBoard board, int numSeats) {
+        this.mainBoardSize = board.getMainBoardSize();
+        this.tailSize = board.getTailSize();
+        this.numSeats = numSeats;
+
+        // Pick the most square rectangle whose outline has exactly mainBoardSize cells
+        int halfPerimeter = (mainBoardSize + 4) / 2;
+        this.ringHeight = Math.max(2, halfPerimeter / 2);
+        this.ringWidth = halfPerimeter - ringHeight;
+        if (2 * (ringWidth + ringHeight) - 4 != mainBoardSize) {
+            throw new IllegalArgumentException("Cannot lay out a ring of " + mainBoardSize + " positions");
+        }
+
+        this.cellRow = new int[mainBoardSize + 1];
+        this.cellColumn = new int[mainBoardSize + 1];
+        for (int position = 1; position <= mainBoardSize; position++) {
+            placeRingCell(position);
+        }
+    }
+
+    private void placeRingCell(int position) {
+        int i = position - 1;
+        int w = ringWidth;
+        int h = ringHeight;
+        if (i < w) {
+            // Top row, left to right
+            cellRow[position] = 0;
+            cellColumn[position] = i;
+        } else if (i < w + h - 1) {
+            // Right column, top to bottom
+            cellRow[position] = i - w + 1;
+            cellColumn[position] = w - 1;
+        } else if (i < 2 * w + h - 2) {
+            // Bottom row, right to left
+            cellRow[position] = h - 1;
+            cellColumn[position] = w - 1 - (i - (w + h - 2));
+        } else {
+            // Left column, bottom to top
+            cellRow[position] = h - 1 - (i - (2 * w + h - 3));
+            cellColumn[position] = 0;
+        }
+    }
+
+    /**
+     * Get the screen row of a main board position
+     * @param position Main board position (1 to main board size)
+     * @return Screen row (0 based)
+     */
+    public int getRingRow(int position) {
+        return cellRow[position];
+    }
+
+    /**
+     * Get the screen column of a main board position
+     * @param position Main board position (1 to main board size)
+     * @return Screen column (0 based)
+     */
+    public int getRingColumn(int position) {
+        return cellColumn[position] * CELL_WIDTH;
+    }
+
+    /**
+     * Get the screen row of a seat's tail
+     * @param seat Seat index
+     * @return Screen row (0 based)
+     */
+    public int getTailRow(int seat) {
+        return ringHeight + 1 + seat;
+    }
+
+    /**
+     * Get the screen column of a tail cell
+     * @param tailIndex Index in the tail, 0 is the first tail position, tail size - 1 is END
+     * @return Screen column (0 based)
+     */
+    public int getTailColumn(int tailIndex) {
+        return (tailIndex + 1) * CELL_WIDTH;
+    }
+
+    /**
+     * Get the row used for the status line under the board
+     * @return Screen row (0 based)
+     */
+    public int getStatusRow() {
+        return getTailRow(numSeats) + 1;
+    }
+
+    /**
+     * Get the number of screen rows needed
+     * @return Row count
+     */
+    public int getRows() {
+        return getStatusRow() + 1;
+    }
+
+    /**
+     * Get the number of screen columns needed
+     * @return Column count
+     */
+    public int getColumns() {
+        return Math.max(ringWidth, tailSize + 1) * CELL_WIDTH + 40;
+    }
+
+    public int getMainBoardSize() {
+        return mainBoardSize;
+    }
+
+    public int getTailSize() {
+        return tailSize;
+    }
+
+    public int getNumSeats() {
+        return numSeats;
+    }
+}
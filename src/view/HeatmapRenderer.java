@@ -0,0 +1,102 @@
+package view;
+
+import board.IBoard;
+import heatmap.Heatmap;
+import players.PlayerColor;
+
+import java.util.Arrays;
+
+/**
+ * Draws a {@link Heatmap} over the board, using the same layout as {@link AnsiBoardRenderer}.
+ *
+ * Every board cell has one character slot per seat. A slot shows how often the
+ * metric happened to that seat on that square, from ':' (rare, blue) to '@'
+ * (the busiest square, red); '.' means never. Each seat's tail is drawn on its
+ * own row. Unlike the live renderer this draws a whole picture as text, so it
+ * can be printed between other output or written to a file.
+ */
+public class HeatmapRenderer {
+    private static final char[] SHADES = { ':', '-', '=', '+', '*', '#', '%', '@' };
+    private static final int[] SHADE_COLORS = { 34, 34, 36, 36, 32, 33, 31, 91 };
+
+    private final BoardLayout layout;
+
+    /**
+     * Constructor for a renderer
+     * @param board A board of the heatmap's configuration
+     * @param numSeats Number of players
+     */
+    public HeatmapRenderer(IBoard board, int numSeats) {
+        this.layout = new BoardLayout(board, numSeats);
+    }
+
+    /**
+     * Draw one metric of a heatmap
+     * @param heatmap The counts
+     * @param metric Metric to draw
+     * @return The picture, with ANSI colour codes
+     */
+    public String render(Heatmap heatmap, Heatmap.Metric metric) {
+        int rows = layout.getStatusRow() + 1;
+        int columns = layout.getColumns();
+        char[][] chars = new char[rows][columns];
+        int[][] colors = new int[rows][columns];
+        for (char[] row : chars) {
+            Arrays.fill(row, ' ');
+        }
+
+        long max = heatmap.getMax(metric);
+        int numSeats = layout.getNumSeats();
+        for (int position = 1; position <= layout.getMainBoardSize(); position++) {
+            int row = layout.getRingRow(position);
+            int column = layout.getRingColumn(position);
+            for (int seat = 0; seat < numSeats; seat++) {
+                shade(chars, colors, row, column + seat, heatmap.get(metric, position, seat), max);
+            }
+        }
+        for (int seat = 0; seat < numSeats; seat++) {
+            int row = layout.getTailRow(seat);
+            chars[row][0] = PlayerColor.fromOrdinal(seat).getValue().charAt(0);
+            for (int tailIndex = 0; tailIndex < layout.getTailSize(); tailIndex++) {
+                long count = heatmap.get(metric, layout.getMainBoardSize() + 1 + tailIndex, seat);
+                shade(chars, colors, row, layout.getTailColumn(tailIndex), count, max);
+            }
+        }
+
+        StringBuilder builder = new StringBuilder();
+        for (int row = 0; row < rows - 1; row++) {
+            int end = columns;
+            while (end > 0 && chars[row][end - 1] == ' ') {
+                end--;
+            }
+            int color = 0;
+            for (int column = 0; column < end; column++) {
+                if (colors[row][column] != color) {
+                    color = colors[row][column];
+                    builder.append("\033[").append(color).append('m');
+                }
+                builder.append(chars[row][column]);
+            }
+            if (color != 0) {
+                builder.append("\033[0m");
+            }
+            builder.append('\n');
+        }
+        builder.append(metric).append(": busiest square ").append(max).append(" over ")
+               .append(heatmap.getGames()).append(" games, scale . ");
+        for (int level = 0; level < SHADES.length; level++) {
+            builder.append("\033[").append(SHADE_COLORS[level]).append('m').append(SHADES[level]);
+        }
+        return builder.append("\033[0m\n").toString();
+    }
+
+    private static void shade(char[][] chars, int[][] colors, int row, int column, long count, long max) {
+        if (count == 0) {
+            chars[row][column] = '.';
+            return;
+        }
+        int level = (int) Math.min(SHADES.length - 1, (count * SHADES.length - 1) / max);
+        chars[row][column] = SHADES[level];
+        colors[row][column] = SHADE_COLORS[level];
+    }
+}
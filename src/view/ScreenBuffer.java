@@ -0,0 +1,197 @@
+package view;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Double-buffered model of a terminal screen.
+ *
+ * Frames are drawn into the back buffer; {@link #flush(OutputStream)} compares it
+ * with what is already on the terminal and only sends cursor moves, colour
+ * changes and characters for the cells that differ. A frame where nothing
+ * moved costs a handful of bytes instead of a full redraw.
+ */
+public class ScreenBuffer {
+    /** Colour code meaning "terminal default" */
+    public static final byte DEFAULT_COLOR = 0;
+
+    private static final byte ESC = 0x1B;
+
+    private final int rows;
+    private final int columns;
+    private final byte[] frontChars;
+    private final byte[] frontColors;
+    private final byte[] backChars;
+    private final byte[] backColors;
+    private byte[] out;
+    private int outLength;
+    private boolean firstFrame;
+    private long bytesWritten;
+
+    /**
+     * Constructor for a screen of a fixed size
+     * @param rows Number of rows
+     * @param columns Number of columns
+     */
+    public ScreenBuffer(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.frontChars = new byte[rows * columns];
+        this.frontColors = new byte[rows * columns];
+        this.backChars = new byte[rows * columns];
+        this.backColors = new byte[rows * columns];
+        this.out = new byte[4096];
+        this.firstFrame = true;
+        clear();
+    }
+
+    /**
+     * Blank the back buffer before drawing a new frame
+     */
+    public void clear() {
+        Arrays.fill(backChars, (byte) ' ');
+        Arrays.fill(backColors, DEFAULT_COLOR);
+    }
+
+    /**
+     * Draw one character into the back buffer (ignored if off screen)
+     * @param row Row (0 based)
+     * @param column Column (0 based)
+     * @param c ASCII character
+     * @param color ANSI foreground colour code (e.g. 31 for red) or {@link #DEFAULT_COLOR}
+     */
+    public void put(int row, int column, char c, byte color) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            return;
+        }
+        int cell = row * columns + column;
+        backChars[cell] = (byte) c;
+        backColors[cell] = color;
+    }
+
+    /**
+     * Draw text into the back buffer, clipped at the right edge
+     * @param row Row (0 based)
+     * @param column Column of the first character
+     * @param text ASCII text
+     * @param color ANSI foreground colour code
+     */
+    public void putString(int row, int column, String text, byte color) {
+        for (int i = 0; i < text.length(); i++) {
+            put(row, column + i, text.charAt(i), color);
+        }
+    }
+
+    /**
+     * Send the difference between the back buffer and the terminal
+     * @param stream Terminal output
+     * @return Number of bytes sent
+     * @throws IOException if writing fails
+     */
+    public int flush(OutputStream stream) throws IOException {
+        outLength = 0;
+        if (firstFrame) {
+            // Clear the terminal once, then every cell is compared against blanks
+            appendEscape('2', 'J');
+            Arrays.fill(frontChars, (byte) ' ');
+            Arrays.fill(frontColors, DEFAULT_COLOR);
+            firstFrame = false;
+        }
+
+        int cursorCell = -1;
+        byte currentColor = -1;
+        for (int cell = 0; cell < backChars.length; cell++) {
+            if (backChars[cell] == frontChars[cell] && backColors[cell] == frontColors[cell]) {
+                continue;
+            }
+            if (cell != cursorCell) {
+                appendCursorMove(cell / columns, cell % columns);
+            }
+            if (backColors[cell] != currentColor) {
+                appendColor(backColors[cell]);
+                currentColor = backColors[cell];
+            }
+            append(backChars[cell]);
+            frontChars[cell] = backChars[cell];
+            frontColors[cell] = backColors[cell];
+            // The terminal advances the cursor by itself, unless we hit the end of the row
+            cursorCell = (cell + 1) % columns == 0 ? -1 : cell + 1;
+        }
+
+        if (outLength > 0) {
+            if (currentColor != DEFAULT_COLOR) {
+                appendColor(DEFAULT_COLOR);
+            }
+            // Park the cursor under the board so other output does not overwrite it
+            appendCursorMove(rows, 0);
+            stream.write(out, 0, outLength);
+            stream.flush();
+        }
+        bytesWritten += outLength;
+        return outLength;
+    }
+
+    /**
+     * Forget what is on the terminal so the next flush redraws everything
+     */
+    public void invalidate() {
+        firstFrame = true;
+    }
+
+    /**
+     * Get the total number of bytes sent to the terminal
+     * @return Byte count
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    private void appendCursorMove(int row, int column) {
+        append(ESC);
+        append((byte) '[');
+        appendNumber(row + 1);
+        append((byte) ';');
+        appendNumber(column + 1);
+        append((byte) 'H');
+    }
+
+    private void appendColor(byte color) {
+        append(ESC);
+        append((byte) '[');
+        appendNumber(color);
+        append((byte) 'm');
+    }
+
+    private void appendEscape(char argument, char command) {
+        append(ESC);
+        append((byte) '[');
+        append((byte) argument);
+        append((byte) command);
+    }
+
+    private void appendNumber(int value) {
+        if (value >= 100) {
+            append((byte) ('0' + value / 100));
+        }
+        if (value >= 10) {
+            append((byte) ('0' + (value / 10) % 10));
+        }
+        append((byte) ('0' + value % 10));
+    }
+
+    private void append(byte b) {
+        if (outLength == out.length) {
+            out = Arrays.copyOf(out, out.length * 2);
+        }
+        out[outLength++] = b;
+    }
+}